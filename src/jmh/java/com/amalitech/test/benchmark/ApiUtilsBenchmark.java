@@ -0,0 +1,80 @@
+package com.amalitech.test.benchmark;
+
+import com.amalitech.test.model.Cart;
+import com.amalitech.test.model.Order;
+import com.amalitech.test.utils.ApiUtils;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Round trips through {@link ApiUtils} against an in-process mock.
+ * <p>
+ * {@code *SuiteSpec} benchmarks use the spec the tests get, logging filters included;
+ * {@code *BareSpec} ones drop the filters, and {@code postRestAssured} skips {@code ApiUtils}
+ * as well. {@code *DirectCall} ones use the bare spec against an in-process server without a
+ * socket. Run with {@code -Pjmh.profilers=gc} to see bytes allocated per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ApiUtilsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Specs {
+        RequestSpecification suite;
+        RequestSpecification bare;
+        RequestSpecification direct;
+
+        @Setup
+        public void setUp(ClientState client) {
+            suite = client.json(client.suiteSpec);
+            bare = client.json(client.bareSpec);
+            direct = client.json(client.directSpec);
+        }
+    }
+
+    @Benchmark
+    public Response postSuiteSpec(ClientState client, Specs specs) {
+        return ApiUtils.performPostRequest(specs.suite, "/api/auth/login", client.loginBody);
+    }
+
+    @Benchmark
+    public Response postBareSpec(ClientState client, Specs specs) {
+        return ApiUtils.performPostRequest(specs.bare, "/api/auth/login", client.loginBody);
+    }
+
+    @Benchmark
+    public Response postDirectCall(ClientState client, Specs specs) {
+        return ApiUtils.performPostRequest(specs.direct, "/api/auth/login", client.loginBody);
+    }
+
+    @Benchmark
+    public Response postRestAssured(ClientState client, Specs specs) {
+        return given().spec(specs.bare).body(client.loginBody).post("/api/auth/login");
+    }
+
+    @Benchmark
+    public Cart getCartAndBind(Specs specs) {
+        return ApiUtils.performGetRequest(specs.bare, "/api/cart").as(Cart.class);
+    }
+
+    @Benchmark
+    public Order getOrderAndBind(Specs specs) {
+        return ApiUtils.performGetRequest(specs.bare, "/api/orders/order-123").as(Order.class);
+    }
+
+    @Benchmark
+    public Cart getCartDirectCall(Specs specs) {
+        return ApiUtils.performGetRequest(specs.direct, "/api/cart").as(Cart.class);
+    }
+}
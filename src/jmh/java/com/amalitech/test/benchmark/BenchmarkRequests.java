@@ -0,0 +1,47 @@
+package com.amalitech.test.benchmark;
+
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+
+/**
+ * Prebuilt requests against the file-based mappings in {@code src/test/resources/mappings}.
+ * <p>
+ * Requests are immutable, so one instance can be served any number of times from any thread
+ * without allocating on the benchmark side.
+ */
+public final class BenchmarkRequests {
+    private static final String BASE_URL = "http://localhost:8080";
+    private static final String TOKEN = "Bearer eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.benchmark";
+
+    /** Matched by a {@code urlPattern} stub */
+    public static final Request PRODUCT_BY_ID = request(RequestMethod.GET, "/api/products/1", null,
+            new HttpHeader("Accept", "application/json"));
+
+    /** Matched by a stub with two {@code matchesJsonPath} body patterns */
+    public static final Request LOGIN = request(RequestMethod.POST, "/api/auth/login",
+            "{\"email\":\"user@example.com\",\"password\":\"password123\"}",
+            new HttpHeader("Content-Type", "application/json"));
+
+    /** Matched by a stub with header and absent query parameter patterns */
+    public static final Request ORDERS = request(RequestMethod.GET, "/api/orders", null,
+            new HttpHeader("Authorization", TOKEN));
+
+    /** Matches no stub, so every stub is evaluated and a near miss report is rendered */
+    public static final Request MISS = request(RequestMethod.GET, "/api/unknown/resource", null);
+
+    private BenchmarkRequests() {
+    }
+
+    public static Request request(RequestMethod method, String url, String body, HttpHeader... headers) {
+        return new LoggedRequest(url, BASE_URL + url, method, "127.0.0.1", new HttpHeaders(headers),
+                Collections.emptyMap(), false, new Date(),
+                body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8), null, "HTTP/1.1");
+    }
+}
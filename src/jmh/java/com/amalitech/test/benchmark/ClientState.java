@@ -0,0 +1,101 @@
+package com.amalitech.test.benchmark;
+
+import com.amalitech.test.config.TestConfig;
+import com.amalitech.test.data.ModelJsonWriter;
+import com.amalitech.test.data.TestDataGenerator;
+import com.amalitech.test.model.Cart;
+import com.amalitech.test.server.DirectCallFilter;
+import com.amalitech.test.server.DirectCallServerFactory;
+import com.amalitech.test.server.WireMockServerFactory;
+import com.amalitech.test.utils.JsonUtils;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static io.restassured.RestAssured.given;
+
+/**
+ * An in-process WireMock server with the real mappings and the request specs the tests use.
+ * <p>
+ * {@link #suiteSpec} is exactly what {@code BaseTest} hands to tests, including the request and
+ * response logging filters; {@link #bareSpec} only sets the base URI. Comparing the two shows
+ * how much of a call the harness itself costs. {@link #directSpec} is the bare spec of a
+ * {@link DirectCallServerFactory}, which skips the network altogether.
+ */
+@State(Scope.Benchmark)
+public class ClientState {
+    public static final String TOKEN = "Bearer eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.benchmark";
+
+    public WireMockServerFactory serverFactory;
+    public DirectCallServerFactory directFactory;
+    public RequestSpecification suiteSpec;
+    public RequestSpecification bareSpec;
+    public RequestSpecification directSpec;
+    public String loginBody;
+    public String cartJson;
+    public String orderJson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        serverFactory = new WireMockServerFactory(0);
+        serverFactory.initialize();
+        TestConfig.setBaseUrl(serverFactory.baseUrl());
+        directFactory = new DirectCallServerFactory();
+        directFactory.initialize();
+        Cart cart = new TestDataGenerator(42).cart(0, 5);
+        String cartBody = ModelJsonWriter.writeCart(cart, new StringBuilder()).toString();
+        serverFactory.getWireMockServer().stubFor(get(urlPathEqualTo("/api/cart")).willReturn(okJson(cartBody)));
+        directFactory.getWireMockServer().stubFor(get(urlPathEqualTo("/api/cart")).willReturn(okJson(cartBody)));
+
+        // The logging filters capture System.out when built; point it at a sink so the
+        // formatting cost is measured without flooding the benchmark output
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            suiteSpec = serverFactory.createRequestSpec();
+        } finally {
+            System.setOut(out);
+        }
+        bareSpec = new RequestSpecBuilder()
+                .setBaseUri(serverFactory.baseUrl())
+                .setUrlEncodingEnabled(false)
+                .build();
+        directSpec = new RequestSpecBuilder()
+                .setBaseUri(directFactory.baseUrl())
+                .setUrlEncodingEnabled(false)
+                .addFilter(new DirectCallFilter(directFactory.getHttpServer()))
+                .build();
+
+        loginBody = JsonUtils.loadJsonFromResources("json/auth/login-request.json");
+        cartJson = given().spec(bareSpec).header("Authorization", TOKEN).get("/api/cart").asString();
+        orderJson = given().spec(bareSpec).header("Authorization", TOKEN).get("/api/orders/order-123").asString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        serverFactory.shutdown();
+        directFactory.shutdown();
+    }
+
+    /**
+     * Request spec for JSON calls, as the tests build it per method
+     */
+    public RequestSpecification json(RequestSpecification spec) {
+        return new RequestSpecBuilder()
+                .addRequestSpecification(spec)
+                .setContentType(ContentType.JSON)
+                .addHeader("Authorization", TOKEN)
+                .build();
+    }
+}
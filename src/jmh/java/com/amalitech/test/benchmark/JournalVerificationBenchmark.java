@@ -0,0 +1,77 @@
+package com.amalitech.test.benchmark;
+
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.verification.FindRequestsResult;
+import com.github.tomakehurst.wiremock.verification.VerificationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.matching;
+import static com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+
+/**
+ * Cost of {@code verify(...)}-style journal queries over a full request journal.
+ * <p>
+ * The journal is filled to {@code journalSize} with a mix of the benchmark requests before
+ * measuring; it is capped at that size, so the queries scan a constant number of entries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JournalVerificationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Journal {
+        final RequestPattern loginByUrl = postRequestedFor(urlEqualTo("/api/auth/login")).build();
+        final RequestPattern loginByBody = postRequestedFor(urlEqualTo("/api/auth/login"))
+                .withRequestBody(matchingJsonPath("$.email", matching(".*@example\\.com")))
+                .build();
+        final RequestPattern ordersWithToken = getRequestedFor(urlPathEqualTo("/api/orders"))
+                .withHeader("Authorization", matching("Bearer .*"))
+                .build();
+
+        @Setup(Level.Trial)
+        public void fill(MockServerState state) {
+            state.server.resetRequests();
+            for (int i = 0; i < state.journalSize; i++) {
+                switch (i % 3) {
+                    case 0:
+                        state.directServer.stubRequest(BenchmarkRequests.PRODUCT_BY_ID);
+                        break;
+                    case 1:
+                        state.directServer.stubRequest(BenchmarkRequests.LOGIN);
+                        break;
+                    default:
+                        state.directServer.stubRequest(BenchmarkRequests.ORDERS);
+                        break;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public VerificationResult countByUrl(MockServerState state, Journal journal) {
+        return state.server.countRequestsMatching(journal.loginByUrl);
+    }
+
+    @Benchmark
+    public VerificationResult countByJsonBody(MockServerState state, Journal journal) {
+        return state.server.countRequestsMatching(journal.loginByBody);
+    }
+
+    @Benchmark
+    public FindRequestsResult findByHeader(MockServerState state, Journal journal) {
+        return state.server.findRequestsMatching(journal.ordersWithToken);
+    }
+}
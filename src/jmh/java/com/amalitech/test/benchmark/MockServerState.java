@@ -0,0 +1,89 @@
+package com.amalitech.test.benchmark;
+
+import com.amalitech.test.server.WireMockServerFactory;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.direct.DirectCallHttpServer;
+import com.github.tomakehurst.wiremock.direct.DirectCallHttpServerFactory;
+import com.github.tomakehurst.wiremock.stubbing.InMemoryStubMappings;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.matching;
+import static com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+
+/**
+ * A WireMock server loaded with the real mapping files plus {@code stubCount} generated stubs.
+ * <p>
+ * The server uses WireMock's direct-call transport, so benchmarks exercise matching, rendering
+ * and journaling without socket noise. Generated stubs are newer than the file stubs and never
+ * match the benchmark requests, so every hit evaluates all of them first, as it would in a suite
+ * that registers many per-test stubs on top of the shared mappings.
+ */
+@State(Scope.Benchmark)
+public class MockServerState {
+
+    @Param({"0", "100", "1000"})
+    public int stubCount;
+
+    @Param({"1000"})
+    public int journalSize;
+
+    public WireMockServer server;
+    public DirectCallHttpServer directServer;
+    public InMemoryStubMappings stubMappings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DirectCallHttpServerFactory serverFactory = new DirectCallHttpServerFactory();
+        server = new WireMockServer(WireMockServerFactory.configure(WireMockConfiguration.options()
+                        .maxRequestJournalEntries(journalSize))
+                .httpServerFactory(serverFactory));
+        server.start();
+        directServer = serverFactory.getHttpServer();
+
+        for (int i = 0; i < stubCount; i++) {
+            server.stubFor(generatedStub(i));
+        }
+
+        // A bare stub store holding the same mappings isolates matching from serving
+        stubMappings = new InMemoryStubMappings();
+        for (StubMapping mapping : server.getStubMappings()) {
+            stubMappings.addMapping(mapping);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    private static MappingBuilder generatedStub(int i) {
+        switch (i % 3) {
+            case 0:
+                return get(urlEqualTo("/api/generated/" + i))
+                        .willReturn(okJson("{\"id\":" + i + "}"));
+            case 1:
+                return get(urlPathMatching("/api/generated/" + i + "/items/\\d+"))
+                        .withHeader("Authorization", matching("Bearer .*"))
+                        .willReturn(okJson("{\"id\":" + i + ",\"items\":[]}"));
+            default:
+                return post(urlEqualTo("/api/generated/" + i))
+                        .withRequestBody(matchingJsonPath("$.email", equalTo("user" + i + "@example.com")))
+                        .willReturn(aResponse().withStatus(201));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.amalitech.test.benchmark;
+
+import com.amalitech.test.data.ModelJsonWriter;
+import com.amalitech.test.model.Cart;
+import com.amalitech.test.model.Order;
+import com.amalitech.test.utils.JsonUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.path.json.JsonPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side JSON work without any HTTP: resource loading, binding and writing.
+ * <p>
+ * RestAssured builds a fresh, module-scanning {@link ObjectMapper} for every {@code as(...)}
+ * call; the {@code *FreshMapper} benchmarks reproduce that, the {@code *SharedMapper} ones show
+ * what binding costs with a reused mapper.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ModelBindingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Bodies {
+        final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+        String cartJson;
+        String orderJson;
+        Cart cart;
+
+        @Setup
+        public void setUp(ClientState client) throws JsonProcessingException {
+            cartJson = client.cartJson;
+            orderJson = client.orderJson;
+            cart = mapper.readValue(cartJson, Cart.class);
+        }
+    }
+
+    @Benchmark
+    public String loadJsonFromResources() {
+        return JsonUtils.loadJsonFromResources("json/auth/login-request.json");
+    }
+
+    @Benchmark
+    public Cart bindCartFreshMapper(Bodies bodies) throws JsonProcessingException {
+        return new ObjectMapper().findAndRegisterModules().readValue(bodies.cartJson, Cart.class);
+    }
+
+    @Benchmark
+    public Cart bindCartSharedMapper(Bodies bodies) throws JsonProcessingException {
+        return bodies.mapper.readValue(bodies.cartJson, Cart.class);
+    }
+
+    @Benchmark
+    public Order bindOrderSharedMapper(Bodies bodies) throws JsonProcessingException {
+        return bodies.mapper.readValue(bodies.orderJson, Order.class);
+    }
+
+    @Benchmark
+    public String readOrderJsonPath(Bodies bodies) {
+        return JsonPath.from(bodies.orderJson).getString("items[0].productName");
+    }
+
+    @Benchmark
+    public String writeCartJackson(Bodies bodies) throws JsonProcessingException {
+        return bodies.mapper.writeValueAsString(bodies.cart);
+    }
+
+    @Benchmark
+    public StringBuilder writeCartModelWriter(Bodies bodies) {
+        return ModelJsonWriter.writeCart(bodies.cart, new StringBuilder(256));
+    }
+}
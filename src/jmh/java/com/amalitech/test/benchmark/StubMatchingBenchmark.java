@@ -0,0 +1,62 @@
+package com.amalitech.test.benchmark;
+
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request matching and serving against the real mappings.
+ * <p>
+ * {@code match*} benchmarks only select the stub; {@code serve*} benchmarks run the full server
+ * pipeline (matching, transformers, rendering and journaling). The difference between the two is
+ * the cost of producing the response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StubMatchingBenchmark {
+
+    @Benchmark
+    public ServeEvent matchUrlPattern(MockServerState state) {
+        return state.stubMappings.serveFor(BenchmarkRequests.PRODUCT_BY_ID);
+    }
+
+    @Benchmark
+    public ServeEvent matchJsonBody(MockServerState state) {
+        return state.stubMappings.serveFor(BenchmarkRequests.LOGIN);
+    }
+
+    @Benchmark
+    public ServeEvent matchHeaderAndQuery(MockServerState state) {
+        return state.stubMappings.serveFor(BenchmarkRequests.ORDERS);
+    }
+
+    @Benchmark
+    public ServeEvent matchMiss(MockServerState state) {
+        return state.stubMappings.serveFor(BenchmarkRequests.MISS);
+    }
+
+    @Benchmark
+    public byte[] serveUrlPattern(MockServerState state) {
+        return body(state.directServer.stubRequest(BenchmarkRequests.PRODUCT_BY_ID));
+    }
+
+    @Benchmark
+    public byte[] serveJsonBody(MockServerState state) {
+        return body(state.directServer.stubRequest(BenchmarkRequests.LOGIN));
+    }
+
+    @Benchmark
+    public byte[] serveMiss(MockServerState state) {
+        return body(state.directServer.stubRequest(BenchmarkRequests.MISS));
+    }
+
+    private static byte[] body(Response response) {
+        // Bodies are rendered lazily, so read them to include rendering in the measurement
+        return response.getBody();
+    }
+}
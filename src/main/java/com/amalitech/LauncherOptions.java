@@ -0,0 +1,258 @@
+package com.amalitech;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
+import com.github.tomakehurst.wiremock.http.DelayDistribution;
+import com.github.tomakehurst.wiremock.http.FixedDelayDistribution;
+import com.github.tomakehurst.wiremock.http.LogNormal;
+import com.github.tomakehurst.wiremock.http.UniformDistribution;
+import com.github.tomakehurst.wiremock.jetty9.QueuedThreadPoolFactory;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Command line options of the standalone mock server, each given as {@code --name=value}; a
+ * later option overrides an earlier one.
+ */
+final class LauncherOptions {
+    static final String USAGE = String.join(System.lineSeparator(),
+            "Options:",
+            "  --port=8080                 Port to listen on, 0 for any free port",
+            "  --root=src/test/resources   Directory holding the mappings and __files directories",
+            "  --workers=platform          Request threads: platform or virtual",
+            "  --threads=N                 Maximum request threads (default 200, or 10000 for virtual)",
+            "  --acceptors=N               Jetty acceptor threads (default chosen by Jetty)",
+            "  --async-threads=N           Threads completing delayed responses (default one per core)",
+            "  --journal=unlimited         Request journal: unlimited, off, or the number of entries kept",
+            "  --latency=none              Delay added to every response: none, fixed:MS, uniform:LOW-HIGH,",
+            "                              or lognormal:MEDIAN[,SIGMA]",
+            "  --extensions=a.B,c.D        Extension classes to load, which need a no-argument constructor",
+            "  --watch=off                 Apply mapping file changes while running: on or off",
+            "  --help                      Print this help");
+
+    enum Workers {
+        PLATFORM, VIRTUAL
+    }
+
+    private int port = 8080;
+    private String root = "src/test/resources";
+    private Workers workers = Workers.PLATFORM;
+    private Integer threads;
+    private Integer acceptors;
+    private int asyncThreads = Runtime.getRuntime().availableProcessors();
+    private String journal = "unlimited";
+    private String latency = "none";
+    private List<String> extensions = List.of();
+    private boolean watch;
+    private boolean help;
+    private MappingsWatcher watcher;
+
+    /**
+     * @throws IllegalArgumentException If an option is unknown or its value invalid
+     */
+    static LauncherOptions parse(String... args) {
+        LauncherOptions options = new LauncherOptions();
+        for (String arg : args) {
+            if (arg.equals("--help")) {
+                options.help = true;
+                continue;
+            }
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            switch (name) {
+                case "port" -> options.port = number(name, value);
+                case "root" -> options.root = value;
+                case "workers" -> options.workers = workers(value);
+                case "threads" -> options.threads = number(name, value);
+                case "acceptors" -> options.acceptors = number(name, value);
+                case "async-threads" -> options.asyncThreads = number(name, value);
+                case "journal" -> options.journal = journal(value);
+                case "latency" -> {
+                    delayDistribution(value);
+                    options.latency = value;
+                }
+                case "extensions" -> options.extensions = Arrays.stream(value.split(","))
+                        .map(String::trim)
+                        .filter(extension -> !extension.isEmpty())
+                        .toList();
+                case "watch" -> options.watch = onOff(name, value);
+                default -> throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        }
+        return options;
+    }
+
+    /**
+     * WireMock configuration for these options; the latency profile is applied, and the mappings
+     * watched, once the server runs
+     */
+    WireMockConfiguration toConfiguration() {
+        WireMockConfiguration configuration = WireMockConfiguration.options()
+                .port(port)
+                .usingFilesUnderDirectory(root)
+                .containerThreads(getThreads())
+                .threadPoolFactory(workers == Workers.VIRTUAL
+                        ? new VirtualThreadPoolFactory()
+                        : new QueuedThreadPoolFactory())
+                // Delays complete, and dribbled bodies are written, from a scheduled executor instead
+                // of sleeping on a request thread
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(asyncThreads)
+                .httpServerFactory(new ScheduledWritesHttpServerFactory());
+        if (acceptors != null) {
+            configuration.jettyAcceptors(acceptors);
+        }
+        if (journal.equals("off")) {
+            configuration.disableRequestJournal();
+        } else if (!journal.equals("unlimited")) {
+            configuration.maxRequestJournalEntries(Integer.parseInt(journal));
+        }
+        // Stubs opt in to templating, as on WireMock's own standalone server
+        configuration.extensions(new ResponseTemplateTransformer(false));
+        if (!extensions.isEmpty()) {
+            configuration.extensions(extensions.toArray(new String[0]));
+        }
+        if (watch) {
+            watcher = new MappingsWatcher(getMappingsDirectory());
+            configuration.mappingSource(watcher);
+        }
+        return configuration;
+    }
+
+    int getPort() {
+        return port;
+    }
+
+    String getRoot() {
+        return root;
+    }
+
+    Path getMappingsDirectory() {
+        return Paths.get(root, "mappings");
+    }
+
+    Workers getWorkers() {
+        return workers;
+    }
+
+    int getThreads() {
+        if (threads != null) {
+            return threads;
+        }
+        return workers == Workers.VIRTUAL ? 10_000 : 200;
+    }
+
+    Integer getAcceptors() {
+        return acceptors;
+    }
+
+    String getJournal() {
+        return journal;
+    }
+
+    String getLatency() {
+        return latency;
+    }
+
+    /**
+     * Delay distribution of the latency option, or null for none
+     */
+    DelayDistribution getDelayDistribution() {
+        return delayDistribution(latency);
+    }
+
+    List<String> getExtensions() {
+        return extensions;
+    }
+
+    boolean isWatch() {
+        return watch;
+    }
+
+    /**
+     * Source of the last configuration when watching, to start once the server runs, or null
+     */
+    MappingsWatcher getWatcher() {
+        return watcher;
+    }
+
+    boolean isHelp() {
+        return help;
+    }
+
+    private static int number(String name, String value) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number < 0) {
+                throw new IllegalArgumentException("--" + name + " must not be negative: " + value);
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " needs a number but got: " + value);
+        }
+    }
+
+    private static boolean onOff(String name, String value) {
+        return switch (value) {
+            case "on" -> true;
+            case "off" -> false;
+            default -> throw new IllegalArgumentException("--" + name + " must be on or off but got: " + value);
+        };
+    }
+
+    private static Workers workers(String value) {
+        try {
+            return Workers.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("--workers must be platform or virtual but got: " + value);
+        }
+    }
+
+    private static String journal(String value) {
+        if (!value.equals("off") && !value.equals("unlimited")) {
+            number("journal", value);
+        }
+        return value;
+    }
+
+    private static DelayDistribution delayDistribution(String value) {
+        if (value.equals("none")) {
+            return null;
+        }
+        int colon = value.indexOf(':');
+        String kind = colon < 0 ? value : value.substring(0, colon);
+        String[] numbers = colon < 0 ? new String[0] : value.substring(colon + 1).split("[,-]");
+        try {
+            switch (kind) {
+                case "fixed":
+                    if (numbers.length == 1) {
+                        return new FixedDelayDistribution(Long.parseLong(numbers[0]));
+                    }
+                    break;
+                case "uniform":
+                    if (numbers.length == 2) {
+                        return new UniformDistribution(Integer.parseInt(numbers[0]), Integer.parseInt(numbers[1]));
+                    }
+                    break;
+                case "lognormal":
+                    if (numbers.length == 1 || numbers.length == 2) {
+                        double sigma = numbers.length == 2 ? Double.parseDouble(numbers[1]) : 0.5;
+                        return new LogNormal(Double.parseDouble(numbers[0]), sigma);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below with the whole value
+        }
+        throw new IllegalArgumentException("Invalid --latency: " + value);
+    }
+}
@@ -1,9 +1,113 @@
 package com.amalitech;
 
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.global.GlobalSettings;
+import com.github.tomakehurst.wiremock.http.DelayDistribution;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+/**
+ * Standalone launcher for the mock server, serving the same mappings as the tests outside the
+ * TestNG lifecycle, for example as the target of a load test.
+ * <p>
+ * Run it with the {@code runMock} Gradle task, which loads the test extensions, or with
+ * {@code java com.amalitech.Main --help} for the options. Once the server answers its first
+ * request, a report of the start-up times and settings is printed, and the server then runs
+ * until the process is stopped.
+ */
 public class Main {
-    public static void main(String[] args) {
-        System.out.println("Hello world!");
+    public static void main(String[] args) throws InterruptedException {
+        long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+        long launchStart = System.currentTimeMillis();
+
+        LauncherOptions options;
+        try {
+            options = LauncherOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LauncherOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        if (options.isHelp()) {
+            System.out.println(LauncherOptions.USAGE);
+            return;
+        }
+
+        WireMockServer server = new WireMockServer(options.toConfiguration());
+        server.start();
+        if (options.getWatcher() != null) {
+            try {
+                options.getWatcher().watch(server);
+            } catch (IOException e) {
+                System.err.println("Cannot watch " + options.getMappingsDirectory() + ": " + e.getMessage());
+            }
+        }
+        DelayDistribution latency = options.getDelayDistribution();
+        if (latency != null) {
+            server.updateGlobalSettings(GlobalSettings.builder().delayDistribution(latency).build());
+        }
+        long started = System.currentTimeMillis();
+
+        // Jetty threads may all be virtual, and so daemon threads, so the main thread holds the JVM open
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            stopped.countDown();
+        }));
+
+        awaitReady(server);
+        long ready = System.currentTimeMillis();
+        System.out.println(report(options, server, launchStart - jvmStart, started - launchStart, ready - started));
+        stopped.await();
+    }
+
+    /**
+     * Send the server its first request, so the report covers everything up to a served response
+     */
+    private static void awaitReady(WireMockServer server) {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.baseUrl() + "/__admin/mappings?limit=1"))
+                .build();
+        try {
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            throw new IllegalStateException("Mock server did not answer on " + server.baseUrl(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the mock server", e);
+        }
+    }
 
-        System.out.println("Hello world!");
+    static String report(LauncherOptions options, WireMockServer server, long jvmMillis, long startMillis,
+            long firstResponseMillis) {
+        String journal = switch (options.getJournal()) {
+            case "off" -> "off";
+            case "unlimited" -> "unlimited";
+            default -> options.getJournal() + " entries";
+        };
+        String workers = options.getWorkers() == LauncherOptions.Workers.VIRTUAL ? "virtual" : "platform";
+        return String.join(System.lineSeparator(),
+                "Mock server ready at " + server.baseUrl(),
+                "  mappings:   " + server.getStubMappings().size() + " from "
+                        + options.getMappingsDirectory().toAbsolutePath().normalize()
+                        + (options.isWatch() ? ", watched for changes" : ""),
+                "  workers:    " + workers + " threads, at most " + options.getThreads()
+                        + (options.getAcceptors() != null ? ", " + options.getAcceptors() + " acceptors" : ""),
+                "  journal:    " + journal,
+                "  latency:    " + options.getLatency(),
+                "  extensions: " + (options.getExtensions().isEmpty() ? "none" : options.getExtensions().stream()
+                        .map(extension -> extension.substring(extension.lastIndexOf('.') + 1))
+                        .collect(Collectors.joining(", "))),
+                "  start-up:   JVM " + jvmMillis + " ms, server " + startMillis + " ms, first response "
+                        + firstResponseMillis + " ms, total " + (jvmMillis + startMillis + firstResponseMillis)
+                        + " ms");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,209 @@
+package com.amalitech;
+
+import com.github.tomakehurst.wiremock.core.Admin;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.stubbing.StubMappings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Source for a directory of JSON mapping files that keeps a running server in step with them.
+ * <p>
+ * Mappings load like WireMock's own file source, but the stubs of each file are remembered. Once
+ * {@link #watch(Admin)} is called, a background thread follows the directory with a
+ * {@link WatchService}, and for each file created, changed or deleted it parses only that file and
+ * swaps only its stubs. Stubs go through WireMock's concurrent stub store one at a time, so
+ * requests keep being served throughout: replacements are added before the stubs they replace are
+ * removed, and stubs that keep their id are replaced in place. A file that fails to parse, as when
+ * caught half written, keeps its previous stubs until it is saved again.
+ */
+public class MappingsWatcher extends ReadOnlyMappingsSource implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(MappingsWatcher.class);
+
+    // Editors save in bursts of events; changes are applied once a burst has been quiet this long
+    static final long DEBOUNCE_MILLIS = 100;
+
+    private final Path directory;
+    private final Map<Path, List<StubMapping>> loaded = new HashMap<>();
+    private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+    private final AtomicInteger reloadedFiles = new AtomicInteger();
+    private WatchService watchService;
+    private Thread thread;
+
+    public MappingsWatcher(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public synchronized void loadMappingsInto(StubMappings stubMappings) {
+        loaded.clear();
+        for (Path file : mappingFiles(directory)) {
+            List<StubMapping> stubs = parse(file);
+            stubs.forEach(stubMappings::addMapping);
+            loaded.put(file, stubs);
+        }
+    }
+
+    /**
+     * Start applying file changes to a server whose mappings this source loaded
+     *
+     * @param admin Server to update, usually the {@code WireMockServer}
+     * @throws IOException If the directory cannot be watched
+     */
+    public synchronized void watch(Admin admin) throws IOException {
+        if (thread != null) {
+            throw new IllegalStateException("Already watching " + directory);
+        }
+        watchService = directory.getFileSystem().newWatchService();
+        register(directory);
+        thread = new Thread(() -> run(admin), "mappings-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Watching {} for mapping changes", directory.toAbsolutePath());
+    }
+
+    /**
+     * Number of file changes applied since watching started
+     */
+    public int getReloadedFiles() {
+        return reloadedFiles.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        Thread watcher;
+        synchronized (this) {
+            watcher = thread;
+            thread = null;
+            if (watchService != null) {
+                watchService.close();
+            }
+        }
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+    }
+
+    private void run(Admin admin) {
+        try {
+            while (true) {
+                Set<Path> changed = new TreeSet<>();
+                collect(watchService.take(), changed);
+                WatchKey more;
+                while ((more = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collect(more, changed);
+                }
+                for (Path file : changed) {
+                    reload(admin, file);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            log.debug("Stopped watching {}", directory);
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) {
+        Path parent = watchedDirectories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || parent == null) {
+                // Events were lost, so check every file
+                changed.addAll(mappingFiles(directory));
+                synchronized (this) {
+                    changed.addAll(loaded.keySet());
+                }
+                continue;
+            }
+            Path path = parent.resolve((Path) event.context());
+            if (Files.isDirectory(path)) {
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                    register(path);
+                    changed.addAll(mappingFiles(path));
+                }
+            } else if (isMappingFile(path)) {
+                changed.add(path);
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                // Possibly a directory, whose files went with it
+                synchronized (this) {
+                    loaded.keySet().stream().filter(file -> file.startsWith(path)).forEach(changed::add);
+                }
+            }
+        }
+        if (!key.reset()) {
+            watchedDirectories.remove(key);
+        }
+    }
+
+    private synchronized void reload(Admin admin, Path file) {
+        List<StubMapping> previous = loaded.getOrDefault(file, List.of());
+        List<StubMapping> current;
+        try {
+            current = Files.exists(file) ? parse(file) : List.of();
+        } catch (RuntimeException e) {
+            log.warn("Keeping the previous stubs of {}: {}", file, e.getMessage());
+            return;
+        }
+
+        Set<UUID> previousIds = previous.stream().map(StubMapping::getId).collect(Collectors.toSet());
+        Set<UUID> currentIds = new HashSet<>();
+        for (StubMapping stub : current) {
+            currentIds.add(stub.getId());
+            if (previousIds.contains(stub.getId())) {
+                try {
+                    admin.editStubMapping(stub);
+                } catch (RuntimeException e) {
+                    // Removed from the server since, such as by a test
+                    admin.addStubMapping(stub);
+                }
+            } else {
+                admin.addStubMapping(stub);
+            }
+        }
+        for (StubMapping stub : previous) {
+            if (!currentIds.contains(stub.getId())) {
+                admin.removeStubMapping(stub.getId());
+            }
+        }
+
+        if (current.isEmpty()) {
+            loaded.remove(file);
+        } else {
+            loaded.put(file, current);
+        }
+        reloadedFiles.incrementAndGet();
+        log.info("Reloaded {}: {} stubs, previously {}", directory.relativize(file), current.size(), previous.size());
+    }
+
+    private void register(Path root) {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.filter(Files::isDirectory).toList()) {
+                WatchKey key = path.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+                watchedDirectories.put(key, path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
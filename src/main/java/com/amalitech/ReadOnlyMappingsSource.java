@@ -0,0 +1,77 @@
+package com.amalitech;
+
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.common.JsonException;
+import com.github.tomakehurst.wiremock.standalone.MappingFileException;
+import com.github.tomakehurst.wiremock.standalone.MappingsSource;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.stubbing.StubMappingCollection;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Base for sources that load a directory of JSON mapping files and never write back to it.
+ * <p>
+ * Stubs saved or removed through the admin API only change the running server, as the files
+ * belong to the project rather than to the tests.
+ */
+public abstract class ReadOnlyMappingsSource implements MappingsSource {
+
+    /**
+     * Mapping files under a directory in path order, or none if it does not exist
+     */
+    protected static List<Path> mappingFiles(Path root) {
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(ReadOnlyMappingsSource::isMappingFile).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected static boolean isMappingFile(Path path) {
+        return path.toString().endsWith(".json");
+    }
+
+    /**
+     * Stubs of a mapping file holding a single mapping or a {@code mappings} array, marked as
+     * not needing a save
+     *
+     * @throws MappingFileException If the file is not a valid mapping, naming the file
+     */
+    protected static List<StubMapping> parse(Path file) {
+        try {
+            StubMappingCollection collection = Json.read(Files.readString(file), StubMappingCollection.class);
+            List<StubMapping> stubs = List.copyOf(collection.getMappingOrMappings());
+            stubs.forEach(stub -> stub.setDirty(false));
+            return stubs;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (JsonException e) {
+            throw new MappingFileException(file.toString(), e.getErrors().first().getDetail());
+        }
+    }
+
+    @Override
+    public void save(List<StubMapping> stubMappings) {
+    }
+
+    @Override
+    public void save(StubMapping stubMapping) {
+    }
+
+    @Override
+    public void remove(StubMapping stubMapping) {
+    }
+
+    @Override
+    public void removeAll() {
+    }
+}
@@ -0,0 +1,53 @@
+package com.amalitech;
+
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.http.AdminRequestHandler;
+import com.github.tomakehurst.wiremock.http.HttpServer;
+import com.github.tomakehurst.wiremock.http.HttpServerFactory;
+import com.github.tomakehurst.wiremock.http.StubRequestHandler;
+import com.github.tomakehurst.wiremock.jetty94.Jetty94HttpServer;
+import com.github.tomakehurst.wiremock.servlet.WireMockHandlerDispatchingServlet;
+import org.eclipse.jetty.server.Handler;
+import org.eclipse.jetty.server.handler.HandlerCollection;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+
+/**
+ * WireMock's Jetty server, with stubs served by a {@link ScheduledWritesServlet} so dribbled
+ * bodies hold no thread while they are written.
+ */
+public class ScheduledWritesHttpServerFactory implements HttpServerFactory {
+
+    @Override
+    public HttpServer buildHttpServer(Options options, AdminRequestHandler adminRequestHandler,
+                                      StubRequestHandler stubRequestHandler) {
+        return new ScheduledWritesHttpServer(options, adminRequestHandler, stubRequestHandler);
+    }
+
+    private static final class ScheduledWritesHttpServer extends Jetty94HttpServer {
+
+        private ScheduledWritesHttpServer(Options options, AdminRequestHandler adminRequestHandler,
+                                          StubRequestHandler stubRequestHandler) {
+            super(options, adminRequestHandler, stubRequestHandler);
+        }
+
+        @Override
+        protected HandlerCollection createHandler(Options options, AdminRequestHandler adminRequestHandler,
+                                                  StubRequestHandler stubRequestHandler) {
+            HandlerCollection handlers = super.createHandler(options, adminRequestHandler, stubRequestHandler);
+            // Only the stub context holds the stub handler; the admin context's servlet stays as is
+            for (Handler handler : handlers.getChildHandlersByClass(ServletContextHandler.class)) {
+                ServletContextHandler context = (ServletContextHandler) handler;
+                if (context.getAttribute(StubRequestHandler.class.getName()) == null) {
+                    continue;
+                }
+                for (ServletHolder holder : context.getServletHandler().getServlets()) {
+                    if (WireMockHandlerDispatchingServlet.class.getName().equals(holder.getClassName())) {
+                        holder.setHeldClass(ScheduledWritesServlet.class);
+                    }
+                }
+            }
+            return handlers;
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.amalitech;
+
+import com.github.tomakehurst.wiremock.http.ChunkedDribbleDelay;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.servlet.BodyChunker;
+import com.github.tomakehurst.wiremock.servlet.WireMockHandlerDispatchingServlet;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * WireMock's stub servlet, but writing chunked dribble bodies without holding a thread.
+ * <p>
+ * WireMock sleeps between the chunks of a dribbled body on the thread writing the response: a
+ * Jetty thread, or for a delayed response one of the few threads of the asynchronous response
+ * executor. Here the response is put in async mode instead, and each chunk is written with a
+ * non-blocking write when it is due, from a tick on the same executor; between chunks no thread
+ * is held. The chunks and their timing are those WireMock would use.
+ * <p>
+ * Needs the asynchronous response executor, which {@code asynchronousResponseEnabled} starts;
+ * without it, and for faults, WireMock's own response writing applies.
+ */
+public class ScheduledWritesServlet extends WireMockHandlerDispatchingServlet {
+    private static final long serialVersionUID = 1L;
+
+    private transient ScheduledExecutorService scheduler;
+
+    @Override
+    public void init(ServletConfig config) {
+        super.init(config);
+        ServletContext context = config.getServletContext();
+        scheduler = (ScheduledExecutorService) context.getAttribute(ASYNCHRONOUS_RESPONSE_EXECUTOR);
+    }
+
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        super.service(new HoldableRequest(request), response);
+    }
+
+    @Override
+    public void applyResponse(Response response, HttpServletRequest request, HttpServletResponse httpResponse) {
+        if (scheduler == null || !response.shouldAddChunkedDribbleDelay() || response.getFault() != null
+                || !(request instanceof HoldableRequest holdable)) {
+            super.applyResponse(response, request, httpResponse);
+            return;
+        }
+        // Status and headers go out as WireMock sets them; only the body is kept back
+        BufferedResponse buffered = new BufferedResponse(httpResponse);
+        super.applyResponse(Response.Builder.like(response).but().chunkedDribbleDelay(null).build(),
+                request, buffered);
+
+        // WireMock completes a delayed response's async context when this returns, so hold it open
+        HeldAsyncContext asyncContext = holdable.startAsync();
+        asyncContext.hold();
+        asyncContext.setTimeout(0);
+        try {
+            ServletOutputStream out = httpResponse.getOutputStream();
+            out.setWriteListener(
+                    new ScheduledWrite(buffered.body(), response.getChunkedDribbleDelay(), out, asyncContext));
+        } catch (IOException | RuntimeException e) {
+            asyncContext.release();
+            throw new IllegalStateException("Cannot write the dribbled body", e);
+        }
+    }
+
+    /**
+     * Writes the chunks of a body as they fall due, while the output accepts them
+     */
+    private final class ScheduledWrite implements WriteListener {
+        private final byte[][] chunks;
+        private final long intervalNanos;
+        private final long start = System.nanoTime();
+        private final ServletOutputStream out;
+        private final HeldAsyncContext asyncContext;
+        private int next;
+        private boolean flushPending;
+        private boolean tickScheduled;
+        private boolean finished;
+
+        private ScheduledWrite(byte[] body, ChunkedDribbleDelay dribble, ServletOutputStream out,
+                               HeldAsyncContext asyncContext) {
+            this.chunks = body.length == 0 ? new byte[0][] : BodyChunker.chunkBody(body, dribble.getNumberOfChunks());
+            this.intervalNanos = chunks.length == 0 ? 0
+                    : TimeUnit.MILLISECONDS.toNanos(dribble.getTotalDuration()) / chunks.length;
+            this.out = out;
+            this.asyncContext = asyncContext;
+        }
+
+        @Override
+        public void onWritePossible() {
+            writeDue();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            finish();
+        }
+
+        private synchronized void tick() {
+            tickScheduled = false;
+            writeDue();
+        }
+
+        private synchronized void writeDue() {
+            try {
+                // Each write and flush may leave the output not ready, and Jetty then calls back
+                while (!finished && out.isReady()) {
+                    if (flushPending) {
+                        flushPending = false;
+                        out.flush();
+                    } else if (next == chunks.length) {
+                        finish();
+                    } else {
+                        // Like WireMock, which sleeps an interval before each chunk
+                        long wait = start + intervalNanos * (next + 1) - System.nanoTime();
+                        if (wait > 0) {
+                            if (!tickScheduled) {
+                                tickScheduled = true;
+                                scheduler.schedule(this::tick, wait, TimeUnit.NANOSECONDS);
+                            }
+                            return;
+                        }
+                        out.write(chunks[next++]);
+                        flushPending = true;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // The client went away, or the server is stopping
+                finish();
+            }
+        }
+
+        private synchronized void finish() {
+            finished = true;
+            asyncContext.release();
+        }
+    }
+
+    /**
+     * Request whose async context the servlet can keep open past WireMock's completion of it
+     */
+    private static final class HoldableRequest extends HttpServletRequestWrapper {
+        private HeldAsyncContext asyncContext;
+
+        private HoldableRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        /**
+         * Starts async mode once; a delayed response has WireMock start it before the servlet does
+         */
+        @Override
+        public synchronized HeldAsyncContext startAsync() {
+            if (asyncContext == null) {
+                asyncContext = new HeldAsyncContext(super.startAsync());
+            }
+            return asyncContext;
+        }
+
+        @Override
+        public synchronized AsyncContext getAsyncContext() {
+            return asyncContext != null ? asyncContext : super.getAsyncContext();
+        }
+    }
+
+    /**
+     * Async context whose completion waits, while held, until it is released
+     */
+    private static final class HeldAsyncContext implements AsyncContext {
+        private final AsyncContext delegate;
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile boolean held;
+
+        private HeldAsyncContext(AsyncContext delegate) {
+            this.delegate = delegate;
+        }
+
+        private void hold() {
+            held = true;
+        }
+
+        private void release() {
+            held = false;
+            complete();
+        }
+
+        @Override
+        public void complete() {
+            if (!held && completed.compareAndSet(false, true)) {
+                delegate.complete();
+            }
+        }
+
+        @Override
+        public ServletRequest getRequest() {
+            return delegate.getRequest();
+        }
+
+        @Override
+        public ServletResponse getResponse() {
+            return delegate.getResponse();
+        }
+
+        @Override
+        public boolean hasOriginalRequestAndResponse() {
+            return delegate.hasOriginalRequestAndResponse();
+        }
+
+        @Override
+        public void dispatch() {
+            delegate.dispatch();
+        }
+
+        @Override
+        public void dispatch(String path) {
+            delegate.dispatch(path);
+        }
+
+        @Override
+        public void dispatch(ServletContext context, String path) {
+            delegate.dispatch(context, path);
+        }
+
+        @Override
+        public void start(Runnable run) {
+            delegate.start(run);
+        }
+
+        @Override
+        public void addListener(AsyncListener listener) {
+            delegate.addListener(listener);
+        }
+
+        @Override
+        public void addListener(AsyncListener listener, ServletRequest request, ServletResponse response) {
+            delegate.addListener(listener, request, response);
+        }
+
+        @Override
+        public <T extends AsyncListener> T createListener(Class<T> listenerClass) throws ServletException {
+            return delegate.createListener(listenerClass);
+        }
+
+        @Override
+        public void setTimeout(long timeout) {
+            delegate.setTimeout(timeout);
+        }
+
+        @Override
+        public long getTimeout() {
+            return delegate.getTimeout();
+        }
+    }
+
+    /**
+     * Response that passes status and headers through but keeps the body
+     */
+    private static final class BufferedResponse extends HttpServletResponseWrapper {
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        private BufferedResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        private byte[] body() {
+            return body.toByteArray();
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    body.write(b);
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) {
+                    body.write(bytes, offset, length);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public void flushBuffer() {
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.amalitech;
+
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.http.ThreadPoolFactory;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+
+/**
+ * Jetty thread pool whose threads are virtual, so requests that block their thread, such as slow
+ * uploads, cost no platform thread each and the pool can allow thousands of them at once.
+ */
+class VirtualThreadPoolFactory implements ThreadPoolFactory {
+    private static final int IDLE_TIMEOUT_MILLIS = 60_000;
+
+    @Override
+    public ThreadPool buildThreadPool(Options options) {
+        // Virtual threads are cheap to start, so none are kept in reserve
+        return new QueuedThreadPool(options.containerThreads(), 8, IDLE_TIMEOUT_MILLIS, 0, null, null,
+                Thread.ofVirtual().name("mock-worker-", 0).factory());
+    }
+}
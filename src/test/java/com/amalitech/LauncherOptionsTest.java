@@ -0,0 +1,64 @@
+package com.amalitech;
+
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.FixedDelayDistribution;
+import com.github.tomakehurst.wiremock.http.LogNormal;
+import com.github.tomakehurst.wiremock.http.UniformDistribution;
+import org.testng.annotations.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LauncherOptionsTest {
+
+    @Test
+    public void testDefaultsServeTestMappingsOnPlatformThreads() {
+        LauncherOptions options = LauncherOptions.parse();
+        WireMockConfiguration configuration = options.toConfiguration();
+
+        assertThat(configuration.portNumber()).isEqualTo(8080);
+        assertThat(configuration.filesRoot().getPath()).endsWith("src/test/resources");
+        assertThat(options.getWorkers()).isEqualTo(LauncherOptions.Workers.PLATFORM);
+        assertThat(configuration.containerThreads()).isEqualTo(200);
+        assertThat(configuration.httpServerFactory()).isInstanceOf(ScheduledWritesHttpServerFactory.class);
+        assertThat(configuration.requestJournalDisabled()).isFalse();
+        assertThat(configuration.maxRequestJournalEntries().isPresent()).isFalse();
+        assertThat(options.getDelayDistribution()).isNull();
+    }
+
+    @Test
+    public void testOptionsConfigureWorkersJournalAndLatency() {
+        LauncherOptions options = LauncherOptions.parse("--port=0", "--workers=virtual", "--journal=500",
+                "--latency=uniform:20-80", "--extensions=com.amalitech.test.extension.LatencyProfileTransformer, ");
+        WireMockConfiguration configuration = options.toConfiguration();
+
+        assertThat(configuration.containerThreads()).isEqualTo(10_000);
+        assertThat(configuration.threadPoolFactory()).isInstanceOf(VirtualThreadPoolFactory.class);
+        assertThat(configuration.maxRequestJournalEntries().get()).isEqualTo(500);
+        assertThat(options.getDelayDistribution()).isInstanceOf(UniformDistribution.class);
+        assertThat(options.getExtensions()).containsExactly("com.amalitech.test.extension.LatencyProfileTransformer");
+        assertThat(configuration.extensionsOfType(ResponseDefinitionTransformer.class)).containsKey("latency-profile");
+
+        assertThat(LauncherOptions.parse("--journal=off").toConfiguration().requestJournalDisabled()).isTrue();
+        LauncherOptions watching = LauncherOptions.parse("--watch=on");
+        watching.toConfiguration();
+        assertThat(watching.getWatcher()).isNotNull();
+        assertThat(LauncherOptions.parse("--latency=fixed:50").getDelayDistribution())
+                .isInstanceOf(FixedDelayDistribution.class);
+        assertThat(LauncherOptions.parse("--latency=lognormal:50,0.2").getDelayDistribution())
+                .isInstanceOf(LogNormal.class);
+    }
+
+    @Test
+    public void testInvalidOptionsAreRejected() {
+        assertThatThrownBy(() -> LauncherOptions.parse("--colour=red")).hasMessageContaining("Unknown option");
+        assertThatThrownBy(() -> LauncherOptions.parse("port=80")).hasMessageContaining("--name=value");
+        assertThatThrownBy(() -> LauncherOptions.parse("--workers=green")).hasMessageContaining("platform or virtual");
+        assertThatThrownBy(() -> LauncherOptions.parse("--journal=lots")).hasMessageContaining("number");
+        assertThatThrownBy(() -> LauncherOptions.parse("--watch=yes")).hasMessageContaining("on or off");
+        assertThatThrownBy(() -> LauncherOptions.parse("--latency=gamma:3")).hasMessageContaining("Invalid --latency");
+        assertThatThrownBy(() -> LauncherOptions.parse("--latency=uniform:20"))
+                .hasMessageContaining("Invalid --latency");
+    }
+}
@@ -0,0 +1,120 @@
+package com.amalitech;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MappingsWatcherTest {
+
+    @Test
+    public void testChangedFileSwapsOnlyItsStubs() throws IOException {
+        try (WatchedServer watched = new WatchedServer()) {
+            UUID vegId = watched.stubFor("/veg").getId();
+
+            Files.writeString(watched.directory.resolve("fruit.json"), mapping("/fruit", "pear"));
+            await(() -> watched.body("/fruit").equals("pear"));
+
+            assertThat(watched.server.getStubMappings()).hasSize(2);
+            assertThat(watched.stubFor("/veg").getId()).isEqualTo(vegId);
+            assertThat(watched.body("/veg")).isEqualTo("leek");
+        }
+    }
+
+    @Test
+    public void testAddedAndDeletedFilesAddAndRemoveStubs() throws IOException {
+        try (WatchedServer watched = new WatchedServer()) {
+            Files.createDirectories(watched.directory.resolve("nuts"));
+            Files.writeString(watched.directory.resolve("nuts/cashew.json"), mapping("/nuts", "cashew"));
+            await(() -> watched.body("/nuts").equals("cashew"));
+
+            Files.delete(watched.directory.resolve("veg.json"));
+            await(() -> watched.status("/veg") == 404);
+            assertThat(watched.server.getStubMappings()).hasSize(2);
+        }
+    }
+
+    @Test
+    public void testUnparseableFileKeepsPreviousStubs() throws IOException {
+        try (WatchedServer watched = new WatchedServer()) {
+            Files.writeString(watched.directory.resolve("fruit.json"), "{\"request\": {\"url\": ");
+            pause(1_000);
+            assertThat(watched.watcher.getReloadedFiles()).isZero();
+            assertThat(watched.body("/fruit")).isEqualTo("apple");
+
+            Files.writeString(watched.directory.resolve("fruit.json"), mapping("/fruit", "plum"));
+            await(() -> watched.body("/fruit").equals("plum"));
+        }
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition met in time").isLessThan(deadline);
+            pause(MappingsWatcher.DEBOUNCE_MILLIS);
+        }
+    }
+
+    private static String mapping(String url, String body) {
+        return "{\"request\": {\"method\": \"GET\", \"url\": \"" + url + "\"},"
+                + " \"response\": {\"status\": 200, \"body\": \"" + body + "\"}}";
+    }
+
+    /**
+     * Server loading a fresh directory of two mapping files through a watcher; one per test, as
+     * test methods run in parallel
+     */
+    private static class WatchedServer implements AutoCloseable {
+        private final Path directory;
+        private final MappingsWatcher watcher;
+        private final WireMockServer server;
+
+        WatchedServer() throws IOException {
+            directory = Files.createTempDirectory("mappings");
+            Files.writeString(directory.resolve("fruit.json"), mapping("/fruit", "apple"));
+            Files.writeString(directory.resolve("veg.json"), mapping("/veg", "leek"));
+            watcher = new MappingsWatcher(directory);
+            server = new WireMockServer(WireMockConfiguration.options().dynamicPort().mappingSource(watcher));
+            server.start();
+            watcher.watch(server);
+        }
+
+        StubMapping stubFor(String url) {
+            return server.getStubMappings().stream()
+                    .filter(stub -> url.equals(stub.getRequest().getUrl()))
+                    .findFirst()
+                    .orElseThrow();
+        }
+
+        String body(String url) {
+            return given().baseUri(server.baseUrl()).get(url).asString();
+        }
+
+        int status(String url) {
+            return given().baseUri(server.baseUrl()).get(url).statusCode();
+        }
+
+        @Override
+        public void close() throws IOException {
+            watcher.close();
+            server.stop();
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.amalitech.test.base;
 
 import com.amalitech.test.config.TestConfig;
+import com.amalitech.test.server.ParallelMappingsSource;
 import com.amalitech.test.server.ServerFactory;
 import com.amalitech.test.server.ServerFactoryProvider;
 import com.amalitech.test.server.WireMockServerFactory;
+import com.amalitech.test.utils.VirtualClock;
 import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockApp;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
 import io.restassured.specification.RequestSpecification;
 import io.restassured.specification.ResponseSpecification;
@@ -15,17 +19,56 @@ import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
 
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+
+@Listeners(DeclaredStubsListener.class)
 public abstract class BaseTest {
     private static final Logger log = LoggerFactory.getLogger(BaseTest.class);
+
+    /**
+     * Authorization header value the API tests send unless a load run gives them a user's own
+     */
+    public static final String DEFAULT_AUTH_TOKEN = "Bearer mock-jwt-token";
+
     protected static ServerFactory serverFactory;
+    private static volatile boolean externalServerFactory;
     protected RequestSpecification requestSpec;
+    protected String authToken = DEFAULT_AUTH_TOKEN;
     protected ResponseSpecification responseSpec;
     private WireMockServer wireMockServer;
+    private ServerFactory classServerFactory;
+
+    /**
+     * Get the server factory this test class runs against: its own when given one with
+     * {@link #useClassServerFactory} or a namespace of the shared mock server when
+     * {@link #usesOwnNamespace()}, otherwise the suite's
+     */
+    protected ServerFactory currentServerFactory() {
+        return classServerFactory != null ? classServerFactory : serverFactory;
+    }
+
+    /**
+     * Whether this class runs in a namespace of its own on the mock server shared by the JVM, named
+     * after the class, so parallel classes and suites reset without touching each other's stubs.
+     * Set the {@code mock.shared} property to turn it on; test instances driven outside TestNG
+     * keep the factory they are given.
+     */
+    protected boolean usesOwnNamespace() {
+        return Boolean.getBoolean("mock.shared") && !externalServerFactory;
+    }
 
     protected WireMockServer getWireMockServer() {
-        if (serverFactory instanceof WireMockServerFactory) {
-            return ((WireMockServerFactory) serverFactory).getWireMockServer();
+        ServerFactory serverFactory = currentServerFactory();
+        Optional<WireMockServer> localServer = serverFactory.localServer();
+        if (localServer.isPresent()) {
+            return localServer.get();
+        }
+        if (serverFactory.isMockServer()) {
+            throw new IllegalStateException("The mock runs in another process; register stubs through getWireMock()");
         }
 
         // If the WireMock server is null, create it with configuration from classpath
@@ -34,10 +77,13 @@ public abstract class BaseTest {
             log.info("Creating new WireMock server with mappings from classpath resources");
 
             try {
-                WireMockConfiguration config = WireMockConfiguration.options()
+                WireMockConfiguration config = WireMockServerFactory.configure(WireMockConfiguration.options())
                         .port(8080) // Use the default port or get from properties
                         .usingFilesUnderClasspath("src/test/resources"); // Important: This tells WireMock to look for
                                                                          // mappings in the classpath
+                // Parse the mapping files in parallel, in a fixed order
+                config.mappingSource(new ParallelMappingsSource(
+                        Paths.get(config.filesRoot().child(WireMockApp.MAPPINGS_ROOT).getPath())));
 
                 wireMockServer = new WireMockServer(config);
                 wireMockServer.start();
@@ -55,17 +101,89 @@ public abstract class BaseTest {
         return wireMockServer;
     }
 
+    /**
+     * Get a WireMock client for the mock the tests run against, whether in this JVM or in
+     * another process
+     */
+    protected WireMock getWireMock() {
+        return currentServerFactory().wireMock().orElseGet(() -> new WireMock(getWireMockServer()));
+    }
+
+    /**
+     * Import the stubs of mapping files into the mock in one call, each file parsed once per JVM;
+     * {@link WithStubs} does this declaratively before a test method
+     *
+     * @param resources Classpath resources of the files, earlier files winning over later ones
+     */
+    protected void applyStubs(List<String> resources) {
+        if (!currentServerFactory().isMockServer()) {
+            return;
+        }
+        log.info("Applying stubs from {}", resources);
+        getWireMock().importStubMappings(StubMappingCache.stubImport(resources));
+    }
+
+    /**
+     * Use an already initialized server factory for test instances driven outside TestNG,
+     * such as the load generator
+     *
+     * @param factory Initialized server factory
+     */
+    public static void useServerFactory(ServerFactory factory) {
+        externalServerFactory = true;
+        serverFactory = factory;
+        TestConfig.setBaseUrl(factory.baseUrl());
+    }
+
+    /**
+     * Get the server factory tests are currently running against
+     */
+    public static ServerFactory getServerFactory() {
+        return serverFactory;
+    }
+
     @BeforeSuite
     public void setupServerFactory() {
+        if (Boolean.getBoolean("mock.shared")) {
+            log.info("Test classes run in namespaces of the shared mock server");
+            return;
+        }
         // By default, use mock server - can be changed by test configurations
         serverFactory = ServerFactoryProvider.getMockServerFactory();
         serverFactory.initialize();
         TestConfig.setBaseUrl(serverFactory.baseUrl());
     }
 
+    /**
+     * Switch to a mock server running on virtual time, so stub delays and order timestamps
+     * follow a clock the test controls instead of the wall clock
+     *
+     * @return The clock shared with the server
+     */
+    public VirtualClock useVirtualTimeMockServer() {
+        releaseClassServerFactory();
+        // Clean up existing factory if needed
+        if (serverFactory != null) {
+            serverFactory.shutdown();
+        }
+
+        log.info("Switching to virtual-time mock server");
+        VirtualClock clock = new VirtualClock();
+        serverFactory = ServerFactoryProvider.getVirtualTimeMockServerFactory(clock);
+        serverFactory.initialize();
+        TestConfig.setBaseUrl(serverFactory.baseUrl());
+        return clock;
+    }
+
     @BeforeClass
     public void setupClass() {
         log.info("Base test class setup");
+        if (classServerFactory == null && usesOwnNamespace()) {
+            // Namespace names allow no '$', which nested classes have
+            classServerFactory = ServerFactoryProvider.getNamespaceServerFactory(
+                    getClass().getName().replace('$', '.'));
+            classServerFactory.initialize();
+        }
         initializeSpecifications();
     }
 
@@ -75,23 +193,50 @@ public abstract class BaseTest {
         initializeSpecifications();
 
         // Reset mock server if applicable
+        ServerFactory serverFactory = currentServerFactory();
         if (serverFactory.isMockServer()) {
             serverFactory.reset();
+            // Point the static stubFor and verify calls of this thread at the mock, wherever it
+            // runs; the default client calls localhost:8080, which most factories never listen on
+            WireMock.configureFor(getWireMock());
         }
     }
 
     private void initializeSpecifications() {
         // Create request specification from server factory
+        ServerFactory serverFactory = currentServerFactory();
         requestSpec = serverFactory.createRequestSpec();
         log.info("Using server at: {}", serverFactory.baseUrl());
     }
 
+    /**
+     * Run this test instance against a server factory of its own, such as a daemon namespace,
+     * leaving other classes on the suite's; call before the class setup
+     *
+     * @param factory Initialized server factory, shut down with the class
+     */
+    public void useClassServerFactory(ServerFactory factory) {
+        releaseClassServerFactory();
+        classServerFactory = factory;
+    }
+
+    /**
+     * Drop this class's own server factory, so a switch of server applies to it
+     */
+    private void releaseClassServerFactory() {
+        if (classServerFactory != null) {
+            classServerFactory.shutdown();
+            classServerFactory = null;
+        }
+    }
+
     /**
      * Switch to a real server for tests
      *
      * @param realServerUrl URL of the real server
      */
     public  void useRealServer(String realServerUrl) {
+        releaseClassServerFactory();
         // Clean up existing factory if needed
         if (serverFactory != null) {
             serverFactory.shutdown();
@@ -107,6 +252,7 @@ public abstract class BaseTest {
      * Switch to a mock server for tests
      */
     public void useMockServer() {
+        releaseClassServerFactory();
         // Clean up existing factory if needed
         if (serverFactory != null) {
             serverFactory.shutdown();
@@ -121,7 +267,9 @@ public abstract class BaseTest {
     @AfterClass
     public void tearDownTest() {
         log.info("Tearing down test");
-        if (serverFactory.isMockServer()) {
+        if (classServerFactory != null) {
+            releaseClassServerFactory();
+        } else if (serverFactory.isMockServer()) {
             serverFactory.reset();
         }
     }
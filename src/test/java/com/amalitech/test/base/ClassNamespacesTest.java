@@ -0,0 +1,63 @@
+package com.amalitech.test.base;
+
+import com.amalitech.test.server.MockNamespaces;
+import org.testng.annotations.Test;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ClassNamespacesTest {
+
+    @Test
+    public void testClassesResetTheirOwnNamespaceOnly() {
+        RedTest red = new RedTest();
+        BlueTest blue = new BlueTest();
+        red.setupClass();
+        blue.setupClass();
+        try {
+            red.setupMethod();
+            blue.setupMethod();
+            red.getWireMockServer().stubFor(get(urlPathEqualTo("/api/colour")).willReturn(okJson("{\"colour\":\"red\"}")));
+            blue.getWireMockServer().stubFor(get(urlPathEqualTo("/api/colour")).willReturn(okJson("{\"colour\":\"blue\"}")));
+
+            assertThat(colour(red)).isEqualTo("red");
+            assertThat(colour(blue)).isEqualTo("blue");
+            assertThat(red.requestSpec).isNotNull();
+            assertThat(MockNamespaces.shared().names())
+                    .contains(RedTest.class.getName().replace('$', '.'), BlueTest.class.getName().replace('$', '.'));
+
+            // The next test method of the red class starts over; the blue class keeps its stub
+            red.setupMethod();
+            assertThat(given().spec(red.requestSpec).get("/api/colour").statusCode()).isEqualTo(404);
+            assertThat(given().spec(red.requestSpec).get("/api/products").statusCode()).isEqualTo(200);
+            assertThat(colour(blue)).isEqualTo("blue");
+        } finally {
+            red.tearDownTest();
+            blue.tearDownTest();
+        }
+
+        assertThat(MockNamespaces.shared().names())
+                .doesNotContain(RedTest.class.getName().replace('$', '.'), BlueTest.class.getName().replace('$', '.'));
+    }
+
+    private static String colour(BaseTest test) {
+        return given().spec(test.requestSpec).get("/api/colour").jsonPath().getString("colour");
+    }
+
+    private static class RedTest extends BaseTest {
+        @Override
+        protected boolean usesOwnNamespace() {
+            return true;
+        }
+    }
+
+    private static class BlueTest extends BaseTest {
+        @Override
+        protected boolean usesOwnNamespace() {
+            return true;
+        }
+    }
+}
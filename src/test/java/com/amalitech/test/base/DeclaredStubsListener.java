@@ -0,0 +1,54 @@
+package com.amalitech.test.base;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Applies the {@link WithStubs} files of a test method right before it runs, which is after
+ * every {@code @BeforeMethod}, the per-method reset included.
+ */
+public class DeclaredStubsListener implements IInvokedMethodListener {
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isTestMethod() || !(testResult.getInstance() instanceof BaseTest)) {
+            return;
+        }
+        applyDeclaredStubs((BaseTest) testResult.getInstance(), method.getTestMethod().getConstructorOrMethod().getMethod());
+    }
+
+    /**
+     * Apply the files declared for a test method to the mock its test instance runs against
+     *
+     * @param test   Set-up test instance
+     * @param method Test method of the instance's class
+     */
+    public static void applyDeclaredStubs(BaseTest test, Method method) {
+        List<String> resources = resourcesFor(test.getClass(), method);
+        if (!resources.isEmpty()) {
+            test.applyStubs(resources);
+        }
+    }
+
+    /**
+     * Files declared for a test method, the method's before its class's
+     */
+    static List<String> resourcesFor(Class<?> testClass, Method method) {
+        List<String> resources = new ArrayList<>();
+        WithStubs onMethod = method.getAnnotation(WithStubs.class);
+        if (onMethod != null) {
+            resources.addAll(Arrays.asList(onMethod.value()));
+        }
+        WithStubs onClass = testClass.getAnnotation(WithStubs.class);
+        if (onClass != null) {
+            resources.addAll(Arrays.asList(onClass.value()));
+        }
+        return resources;
+    }
+}
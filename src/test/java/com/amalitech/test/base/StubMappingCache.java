@@ -0,0 +1,98 @@
+package com.amalitech.test.base;
+
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.common.JsonException;
+import com.github.tomakehurst.wiremock.standalone.MappingFileException;
+import com.github.tomakehurst.wiremock.stubbing.StubImport;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.stubbing.StubMappingCollection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stubs of the mapping files named by {@link WithStubs}, parsed on first use and kept for the
+ * rest of the JVM.
+ * <p>
+ * A parsed stub keeps its id, so importing it again overwrites the copy already on the mock
+ * instead of adding a duplicate. The parsed stubs are never handed out: every import gets
+ * shallow copies of its own, as the servers it goes to set the stubs' insertion order. The
+ * copies share the parsed request patterns and responses, which WireMock never changes.
+ */
+final class StubMappingCache {
+    private static final Map<String, List<StubMapping>> CACHE = new ConcurrentHashMap<>();
+
+    private StubMappingCache() {
+    }
+
+    /**
+     * Copies of the stubs of a mapping file, parsing it if no test used it yet
+     *
+     * @param resource Classpath resource of the file
+     * @throws IllegalArgumentException If there is no such resource
+     */
+    static List<StubMapping> get(String resource) {
+        List<StubMapping> stubMappings = new ArrayList<>();
+        for (StubMapping stubMapping : mappings(resource)) {
+            stubMappings.add(copy(stubMapping));
+        }
+        return stubMappings;
+    }
+
+    /**
+     * The stubs of a mapping file as kept, not to be changed or imported
+     */
+    static List<StubMapping> mappings(String resource) {
+        return CACHE.computeIfAbsent(resource, StubMappingCache::parse);
+    }
+
+    private static StubMapping copy(StubMapping stubMapping) {
+        StubMapping copy = new StubMapping(stubMapping.getRequest(), stubMapping.getResponse());
+        copy.setId(stubMapping.getId());
+        copy.setName(stubMapping.getName());
+        copy.setPersistent(stubMapping.isPersistent());
+        copy.setPriority(stubMapping.getPriority());
+        copy.setScenarioName(stubMapping.getScenarioName());
+        copy.setRequiredScenarioState(stubMapping.getRequiredScenarioState());
+        copy.setNewScenarioState(stubMapping.getNewScenarioState());
+        copy.setPostServeActions(stubMapping.getPostServeActions());
+        copy.setMetadata(stubMapping.getMetadata());
+        copy.setDirty(stubMapping.isDirty());
+        return copy;
+    }
+
+    /**
+     * One import of the stubs of several files, the first file's stubs taking precedence
+     */
+    static StubImport stubImport(List<String> resources) {
+        List<StubMapping> stubMappings = new ArrayList<>();
+        for (String resource : resources) {
+            stubMappings.addAll(get(resource));
+        }
+        // WireMock imports from last to first, so the first stubs end up the most recent
+        return new StubImport(stubMappings, StubImport.Options.DEFAULTS);
+    }
+
+    private static List<StubMapping> parse(String resource) {
+        URL url = StubMappingCache.class.getClassLoader().getResource(resource);
+        if (url == null) {
+            throw new IllegalArgumentException("No mapping file on the classpath at " + resource);
+        }
+        try (InputStream in = url.openStream()) {
+            String json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            // Stubs without an id in the file get one as they are parsed, which every copy shares
+            return List.copyOf(Json.read(json, StubMappingCollection.class).getMappingOrMappings());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (JsonException e) {
+            throw new MappingFileException(resource, e.getErrors().first().getDetail());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.amalitech.test.base;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Mapping files to apply to the mock before a test method of a {@link BaseTest}, after the
+ * per-method reset.
+ * <p>
+ * Files are classpath resources, such as {@code stubs/cart-empty.json}, holding one mapping or a
+ * {@code mappings} array as in the mappings directory. Each file is parsed once per JVM and the
+ * stubs of all files are imported in one call. On a class, the files apply to every test method;
+ * where a method's stubs and the class's match the same request at the same priority, the
+ * method's win.
+ */
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface WithStubs {
+
+    /**
+     * Classpath resources of the mapping files, earlier files winning over later ones
+     */
+    String[] value();
+}
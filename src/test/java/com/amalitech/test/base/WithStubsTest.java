@@ -0,0 +1,132 @@
+package com.amalitech.test.base;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WithStubsTest {
+
+    @Test
+    public void testEachFileIsParsedOncePerJvm() {
+        List<CompletableFuture<List<StubMapping>>> loads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            loads.add(CompletableFuture.supplyAsync(() -> StubMappingCache.mappings("stubs/cart-one-item.json")));
+        }
+
+        List<StubMapping> first = loads.get(0).join();
+        assertThat(first).hasSize(2);
+        assertThat(loads).allSatisfy(load -> assertThat(load.join()).isSameAs(first));
+    }
+
+    @Test
+    public void testEveryImportGetsCopiesWithTheSameIds() {
+        List<StubMapping> first = StubMappingCache.get("stubs/cart-one-item.json");
+        List<StubMapping> second = StubMappingCache.get("stubs/cart-one-item.json");
+        first.get(0).setInsertionIndex(7);
+
+        assertThat(second).hasSize(2);
+        for (int i = 0; i < first.size(); i++) {
+            assertThat(second.get(i)).isNotSameAs(first.get(i)).isEqualTo(first.get(i));
+            assertThat(second.get(i).getId()).isEqualTo(first.get(i).getId());
+            // Copied, not parsed again
+            assertThat(second.get(i).getRequest()).isSameAs(first.get(i).getRequest());
+        }
+        assertThat(StubMappingCache.mappings("stubs/cart-one-item.json").get(0).getInsertionIndex()).isZero();
+    }
+
+    @Test
+    public void testListenerAppliesStubsAfterTheMethodReset() {
+        TestListenerAdapter results = new TestListenerAdapter();
+        TestNG testng = new TestNG(false);
+        testng.setTestClasses(new Class<?>[] {AnnotatedTest.class});
+        testng.addListener(results);
+        testng.run();
+
+        assertThat(results.getFailedTests()).isEmpty();
+        assertThat(results.getConfigurationFailures()).isEmpty();
+        assertThat(results.getPassedTests()).extracting(result -> result.getMethod().getMethodName())
+                .containsExactlyInAnyOrder("testWithOneItem", "testEmpty");
+    }
+
+    @Test
+    public void testMethodStubsWinOverClassStubsAndReapplyIdempotently() throws Exception {
+        Method method = AnnotatedTest.class.getMethod("testWithOneItem");
+        List<String> resources = DeclaredStubsListener.resourcesFor(AnnotatedTest.class, method);
+        assertThat(resources).containsExactly("stubs/cart-one-item.json", "stubs/cart-empty.json");
+        assertThat(DeclaredStubsListener.resourcesFor(AnnotatedTest.class, AnnotatedTest.class.getMethod("testEmpty")))
+                .containsExactly("stubs/cart-empty.json");
+
+        WireMockServer server = new WireMockServer(WireMockConfiguration.options().dynamicPort()
+                .usingFilesUnderDirectory(Files.createTempDirectory("no-mappings").toString()));
+        server.start();
+        try {
+            WireMock client = new WireMock(server);
+            client.importStubMappings(StubMappingCache.stubImport(resources));
+            client.importStubMappings(StubMappingCache.stubImport(resources));
+
+            assertThat(server.getStubMappings()).hasSize(3);
+            assertThat(given().baseUri(server.baseUrl()).get("/api/cart").jsonPath().getList("items")).hasSize(1);
+            assertThat(given().baseUri(server.baseUrl()).delete("/api/cart").statusCode()).isEqualTo(204);
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testMissingFileNamesTheResource() {
+        assertThatThrownBy(() -> StubMappingCache.get("stubs/absent.json"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("stubs/absent.json");
+    }
+
+    /**
+     * Test class run through TestNG by {@link #testListenerAppliesStubsAfterTheMethodReset()}, in a
+     * namespace of its own so the reset before each method leaves the suite's mock alone; its
+     * group keeps the build from running it on its own
+     */
+    @WithStubs("stubs/cart-empty.json")
+    public static class AnnotatedTest extends BaseTest {
+
+        @Override
+        protected boolean usesOwnNamespace() {
+            return true;
+        }
+
+        // The suite that runs this class keeps its own server
+        @Override
+        public void setupServerFactory() {
+        }
+
+        @Override
+        public void tearDownServer() {
+        }
+
+        @Test(groups = "driven")
+        @WithStubs("stubs/cart-one-item.json")
+        public void testWithOneItem() {
+            assertThat(given().spec(requestSpec).get("/api/cart").jsonPath().getList("items")).hasSize(1);
+            assertThat(given().spec(requestSpec).delete("/api/cart").statusCode()).isEqualTo(204);
+        }
+
+        @Test(groups = "driven", priority = 1)
+        public void testEmpty() {
+            // Runs second, so the stubs of the first method must have gone with the reset
+            assertThat(given().spec(requestSpec).get("/api/cart").jsonPath().getList("items")).isEmpty();
+            assertThat(given().spec(requestSpec).delete("/api/cart").statusCode()).isEqualTo(404);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.amalitech.test.data;
+
+import com.amalitech.test.model.Cart;
+import com.amalitech.test.model.CartItem;
+import com.amalitech.test.model.Money;
+import com.amalitech.test.model.Order;
+import com.amalitech.test.model.Product;
+import com.amalitech.test.model.User;
+
+import java.util.List;
+
+/**
+ * Writes the domain models as JSON straight into a caller-owned buffer.
+ * <p>
+ * Output uses the same field names and number format as the Jackson mapping of the models, so it
+ * can be bound back with {@code response.as(...)}. Callers generating large data sets should reuse
+ * one {@link StringBuilder} per thread and clear it with {@code setLength(0)} between entities.
+ */
+public final class ModelJsonWriter {
+
+    private ModelJsonWriter() {
+    }
+
+    public static StringBuilder writeUser(User user, StringBuilder out) {
+        out.append('{');
+        field(out, "id", user.getId()).append(',');
+        field(out, "email", user.getEmail()).append(',');
+        field(out, "firstName", user.getFirstName()).append(',');
+        field(out, "lastName", user.getLastName()).append(',');
+        field(out, "token", user.getToken());
+        return out.append('}');
+    }
+
+    public static StringBuilder writeProduct(Product product, StringBuilder out) {
+        out.append('{');
+        name(out, "id").append(product.getId()).append(',');
+        field(out, "name", product.getName()).append(',');
+        field(out, "description", product.getDescription()).append(',');
+        field(out, "price", product.getPrice()).append(',');
+        name(out, "stockQuantity").append(product.getStockQuantity()).append(',');
+        field(out, "category", product.getCategory()).append(',');
+        name(out, "tags");
+        writeStrings(product.getTags(), out).append(',');
+        field(out, "imageUrl", product.getImageUrl());
+        return out.append('}');
+    }
+
+    public static StringBuilder writeCartItem(CartItem item, StringBuilder out) {
+        out.append('{');
+        name(out, "productId").append(item.getProductId()).append(',');
+        field(out, "productName", item.getProductName()).append(',');
+        name(out, "quantity").append(item.getQuantity()).append(',');
+        field(out, "unitPrice", item.getUnitPrice()).append(',');
+        field(out, "totalPrice", item.getTotalPrice());
+        return out.append('}');
+    }
+
+    public static StringBuilder writeCart(Cart cart, StringBuilder out) {
+        out.append('{');
+        field(out, "id", cart.getId()).append(',');
+        field(out, "userId", cart.getUserId()).append(',');
+        name(out, "items");
+        writeItems(cart.getItems(), out).append(',');
+        field(out, "subtotal", cart.getSubtotal()).append(',');
+        field(out, "tax", cart.getTax()).append(',');
+        field(out, "total", cart.getTotal());
+        return out.append('}');
+    }
+
+    public static StringBuilder writeOrder(Order order, StringBuilder out) {
+        out.append('{');
+        field(out, "id", order.getId()).append(',');
+        field(out, "userId", order.getUserId()).append(',');
+        field(out, "status", order.getStatus()).append(',');
+        field(out, "createdAt", order.getCreatedAt() == null ? null : order.getCreatedAt().toString()).append(',');
+        name(out, "items");
+        writeItems(order.getItems(), out).append(',');
+        field(out, "subtotal", order.getSubtotal()).append(',');
+        field(out, "tax", order.getTax()).append(',');
+        field(out, "shipping", order.getShipping()).append(',');
+        field(out, "total", order.getTotal()).append(',');
+
+        name(out, "shippingAddress");
+        writeAddress(order.getShippingAddress(), out).append(',');
+
+        name(out, "paymentInfo");
+        Order.PaymentInfo payment = order.getPaymentInfo();
+        if (payment == null) {
+            out.append("null");
+        } else {
+            out.append('{');
+            field(out, "method", payment.getMethod()).append(',');
+            field(out, "transactionId", payment.getTransactionId()).append(',');
+            field(out, "status", payment.getStatus()).append('}');
+        }
+        return out.append('}');
+    }
+
+    public static StringBuilder writeAddress(Order.Address address, StringBuilder out) {
+        if (address == null) {
+            return out.append("null");
+        }
+        out.append('{');
+        field(out, "street", address.getStreet()).append(',');
+        field(out, "city", address.getCity()).append(',');
+        field(out, "state", address.getState()).append(',');
+        field(out, "zipCode", address.getZipCode()).append(',');
+        field(out, "country", address.getCountry());
+        return out.append('}');
+    }
+
+    /**
+     * Write a JSON string literal, escaping quotes, backslashes and control characters
+     */
+    public static StringBuilder writeString(String value, StringBuilder out) {
+        return string(out, value);
+    }
+
+    private static StringBuilder writeItems(List<CartItem> items, StringBuilder out) {
+        if (items == null) {
+            return out.append("null");
+        }
+        out.append('[');
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            writeCartItem(items.get(i), out);
+        }
+        return out.append(']');
+    }
+
+    private static StringBuilder writeStrings(List<String> values, StringBuilder out) {
+        if (values == null) {
+            return out.append("null");
+        }
+        out.append('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            string(out, values.get(i));
+        }
+        return out.append(']');
+    }
+
+    private static StringBuilder name(StringBuilder out, String name) {
+        return out.append('"').append(name).append("\":");
+    }
+
+    private static StringBuilder field(StringBuilder out, String name, String value) {
+        return string(name(out, name), value);
+    }
+
+    private static StringBuilder field(StringBuilder out, String name, Money value) {
+        name(out, name);
+        return value == null ? out.append("null") : value.appendTo(out);
+    }
+
+    private static StringBuilder string(StringBuilder out, String value) {
+        if (value == null) {
+            return out.append("null");
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        return out.append('"');
+    }
+}
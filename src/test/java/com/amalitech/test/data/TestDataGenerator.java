@@ -0,0 +1,266 @@
+package com.amalitech.test.data;
+
+import com.amalitech.test.model.Cart;
+import com.amalitech.test.model.CartItem;
+import com.amalitech.test.model.Money;
+import com.amalitech.test.model.Order;
+import com.amalitech.test.model.Product;
+import com.amalitech.test.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic generator for the domain models.
+ * <p>
+ * Every entity is a pure function of the generator seed and its index: each field is derived by
+ * hashing {@code (seed, index, field)} instead of advancing a shared random sequence. That keeps
+ * generation free of per-entity random state, makes any slice of a data set reproducible on its
+ * own, and lets streams be split across threads without changing their contents.
+ */
+public class TestDataGenerator {
+    public static final long DEFAULT_CATALOGUE_SIZE = 10_000;
+    public static final List<String> CATEGORIES = List.of("Electronics", "Clothing", "Books", "Home & Kitchen");
+
+    private static final String[] FIRST_NAMES = {
+            "John", "Jane", "Kwame", "Ama", "Liam", "Olivia", "Kofi", "Efua", "Noah", "Emma", "Yaw", "Akosua"
+    };
+    private static final String[] LAST_NAMES = {
+            "Doe", "Smith", "Mensah", "Owusu", "Brown", "Johnson", "Boateng", "Asante", "Taylor", "Wilson"
+    };
+    private static final String[] ADJECTIVES = {
+            "Classic", "Wireless", "Premium", "Compact", "Smart", "Deluxe", "Portable", "Eco", "Pro", "Ultra"
+    };
+    private static final String[][] NOUNS_BY_CATEGORY = {
+            {"Smartphone", "Phone Case", "Headphones", "Laptop", "Tablet", "Smartwatch", "Speaker", "Charger"},
+            {"Jeans", "T-Shirt", "Jacket", "Sneakers", "Hoodie", "Dress", "Scarf", "Cap"},
+            {"Novel", "Cookbook", "Biography", "Atlas", "Poetry Collection", "Textbook", "Comic", "Journal"},
+            {"Pressure Cooker", "Blender", "Kettle", "Toaster", "Knife Set", "Frying Pan", "Coffee Maker", "Mixer"}
+    };
+    // Price bands per category, in minor units
+    private static final long[][] PRICE_RANGES = {
+            {1_999, 149_999}, {999, 19_999}, {499, 4_999}, {1_499, 39_999}
+    };
+    private static final String[] TAGS = {
+            "new", "sale", "bestseller", "limited", "gift", "eco-friendly", "premium", "clearance"
+    };
+    private static final String[] ORDER_STATUSES = {"pending", "processing", "shipped", "delivered", "cancelled"};
+    private static final String[] PAYMENT_METHODS = {"Credit Card", "PayPal", "Apple Pay"};
+    private static final String[] CITIES = {"New York", "Accra", "London", "Kumasi", "Chicago", "Berlin"};
+    private static final Money[] SHIPPING_PRICES = {Money.parse("10.00"), Money.parse("25.00")};
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final long ORDER_WINDOW_SECONDS = 365L * 24 * 60 * 60;
+
+    // Field salts, so that each attribute of an entity draws from an independent hash
+    private static final int F_FIRST_NAME = 1, F_LAST_NAME = 2, F_CATEGORY = 3, F_ADJECTIVE = 4, F_NOUN = 5,
+            F_PRICE = 6, F_STOCK = 7, F_TAG = 8, F_LINES = 9, F_LINE_PRODUCT = 10, F_LINE_QUANTITY = 11,
+            F_STATUS = 12, F_SHIPPING = 13, F_CREATED = 14, F_PAYMENT = 15, F_CITY = 16, F_STREET = 17,
+            F_PARTITION = 18, F_SECOND_TAG = 19, F_ZIP = 20;
+
+    private final long seed;
+    private final long catalogueSize;
+
+    /**
+     * Constructor with seed, using the default catalogue size for cart lines
+     *
+     * @param seed Seed for all generated values
+     */
+    public TestDataGenerator(long seed) {
+        this(seed, DEFAULT_CATALOGUE_SIZE);
+    }
+
+    /**
+     * Constructor with seed and catalogue size
+     *
+     * @param seed          Seed for all generated values
+     * @param catalogueSize Number of products cart and order lines are drawn from
+     */
+    public TestDataGenerator(long seed, long catalogueSize) {
+        if (catalogueSize <= 0) {
+            throw new IllegalArgumentException("Catalogue size must be positive: " + catalogueSize);
+        }
+        this.seed = seed;
+        this.catalogueSize = catalogueSize;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getCatalogueSize() {
+        return catalogueSize;
+    }
+
+    /**
+     * Derive an independent generator for one partition of a parallel run
+     *
+     * @param partition Partition number
+     * @return Generator with a seed derived from this seed and the partition
+     */
+    public TestDataGenerator forPartition(int partition) {
+        return new TestDataGenerator(hash(partition, F_PARTITION), catalogueSize);
+    }
+
+    public User user(long index) {
+        String firstName = pick(FIRST_NAMES, index, F_FIRST_NAME);
+        String lastName = pick(LAST_NAMES, index, F_LAST_NAME);
+
+        User user = new User();
+        user.setId("user-" + index);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setEmail(firstName.toLowerCase() + "." + lastName.toLowerCase() + "." + index + "@example.com");
+        user.setToken("mock-jwt-token-" + index);
+        return user;
+    }
+
+    /**
+     * Generate the product at a catalogue index; its id is {@code index + 1}
+     */
+    public Product product(long index) {
+        int category = categoryIndex(index);
+        String name = productName(index);
+        int firstTag = (int) bounded(index, F_TAG, TAGS.length);
+        int secondTag = (firstTag + 1 + (int) bounded(index, F_SECOND_TAG, TAGS.length - 1)) % TAGS.length;
+        List<String> tags = List.of(TAGS[firstTag], TAGS[secondTag]);
+
+        return new Product(index + 1, name, name + " from the " + CATEGORIES.get(category) + " range",
+                productPrice(index), (int) bounded(index, F_STOCK, 500), CATEGORIES.get(category), tags,
+                "https://images.example.com/products/" + (index + 1) + ".jpg");
+    }
+
+    public String productName(long index) {
+        String[] nouns = NOUNS_BY_CATEGORY[categoryIndex(index)];
+        return pick(ADJECTIVES, index, F_ADJECTIVE) + " " + pick(nouns, index, F_NOUN);
+    }
+
+    public String productCategory(long index) {
+        return CATEGORIES.get(categoryIndex(index));
+    }
+
+    public Money productPrice(long index) {
+        long[] range = PRICE_RANGES[categoryIndex(index)];
+        // Snap to .99 endings like the hand-written fixtures
+        long dollars = (range[0] + bounded(index, F_PRICE, range[1] - range[0])) / 100;
+        return Money.ofMinor(dollars * 100 + 99);
+    }
+
+    /**
+     * Generate a cart with up to {@code maxLines} lines drawn from the catalogue
+     */
+    public Cart cart(long index, int maxLines) {
+        Cart cart = new Cart();
+        cart.setId("cart-" + index);
+        cart.setUserId("user-" + index);
+        int lines = 1 + (int) bounded(index, F_LINES, maxLines);
+        for (int line = 0; line < lines; line++) {
+            cart.addItem(cartItem(index, line));
+        }
+        return cart;
+    }
+
+    public Order order(long index, int maxLines) {
+        Cart cart = cart(index, maxLines);
+        Money shipping = SHIPPING_PRICES[(int) bounded(index, F_SHIPPING, SHIPPING_PRICES.length)];
+
+        Order order = new Order();
+        order.setId("order-" + index);
+        order.setUserId(cart.getUserId());
+        order.setItems(cart.getItems());
+        order.setSubtotal(cart.getSubtotal());
+        order.setTax(cart.getTax());
+        order.setShipping(shipping);
+        order.setTotal(cart.getTotal().plus(shipping));
+        order.setStatus(pick(ORDER_STATUSES, index, F_STATUS));
+        order.setCreatedAt(EPOCH.plusSeconds(bounded(index, F_CREATED, ORDER_WINDOW_SECONDS)));
+
+        Order.Address address = new Order.Address();
+        address.setStreet((1 + bounded(index, F_STREET, 9_999)) + " Main Street");
+        address.setCity(pick(CITIES, index, F_CITY));
+        address.setState("NY");
+        address.setZipCode(String.format("%05d", bounded(index, F_ZIP, 100_000)));
+        address.setCountry("USA");
+        order.setShippingAddress(address);
+
+        Order.PaymentInfo paymentInfo = new Order.PaymentInfo();
+        paymentInfo.setMethod(pick(PAYMENT_METHODS, index, F_PAYMENT));
+        paymentInfo.setTransactionId("txn-" + Long.toHexString(hash(index, F_PAYMENT)));
+        paymentInfo.setStatus("completed");
+        order.setPaymentInfo(paymentInfo);
+        return order;
+    }
+
+    private CartItem cartItem(long cartIndex, int line) {
+        long lineKey = cartIndex * 1_000_003L + line;
+        long productIndex = bounded(lineKey, F_LINE_PRODUCT, catalogueSize);
+        return new CartItem(productIndex + 1, productName(productIndex),
+                1 + (int) bounded(lineKey, F_LINE_QUANTITY, 5), productPrice(productIndex));
+    }
+
+    /**
+     * Lazily generate users {@code 0..count-1}; the stream may be made parallel
+     */
+    public Stream<User> users(long count) {
+        return LongStream.range(0, count).mapToObj(this::user);
+    }
+
+    /**
+     * Lazily generate products {@code 0..count-1}; the stream may be made parallel
+     */
+    public Stream<Product> products(long count) {
+        return LongStream.range(0, count).mapToObj(this::product);
+    }
+
+    public Stream<Cart> carts(long count, int maxLines) {
+        return LongStream.range(0, count).mapToObj(index -> cart(index, maxLines));
+    }
+
+    public Stream<Order> orders(long count, int maxLines) {
+        return LongStream.range(0, count).mapToObj(index -> order(index, maxLines));
+    }
+
+    /**
+     * Generate products for one of {@code partitions} contiguous slices of {@code 0..count-1}
+     *
+     * @param count      Total number of products across all partitions
+     * @param partition  Slice to generate
+     * @param partitions Number of slices
+     * @return Products of the slice, identical to the same range of {@link #products(long)}
+     */
+    public Stream<Product> products(long count, int partition, int partitions) {
+        return partitionRange(count, partition, partitions).mapToObj(this::product);
+    }
+
+    static LongStream partitionRange(long count, int partition, int partitions) {
+        if (partitions <= 0 || partition < 0 || partition >= partitions) {
+            throw new IllegalArgumentException("Invalid partition " + partition + " of " + partitions);
+        }
+        long from = count / partitions * partition + Math.min(partition, count % partitions);
+        long size = count / partitions + (partition < count % partitions ? 1 : 0);
+        return LongStream.range(from, from + size);
+    }
+
+    private int categoryIndex(long index) {
+        return (int) bounded(index, F_CATEGORY, CATEGORIES.size());
+    }
+
+    private String pick(String[] values, long index, int field) {
+        return values[(int) bounded(index, field, values.length)];
+    }
+
+    private long bounded(long index, int field, long bound) {
+        return Math.floorMod(hash(index, field), bound);
+    }
+
+    /**
+     * SplitMix64 finaliser over seed, index and field
+     */
+    private long hash(long index, int field) {
+        long z = seed + index * 0x9E3779B97F4A7C15L + field * 0xC2B2AE3D27D4EB4FL;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,78 @@
+package com.amalitech.test.data;
+
+import com.amalitech.test.model.Cart;
+import com.amalitech.test.model.Money;
+import com.amalitech.test.model.Product;
+import com.amalitech.test.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TestDataGeneratorTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testSameSeedProducesSameData() {
+        TestDataGenerator first = new TestDataGenerator(42);
+        TestDataGenerator second = new TestDataGenerator(42);
+
+        for (long i = 0; i < 100; i++) {
+            assertThat(json(first.product(i))).isEqualTo(json(second.product(i)));
+            assertThat(json(first.cart(i, 5))).isEqualTo(json(second.cart(i, 5)));
+        }
+        assertThat(json(first.product(0))).isNotEqualTo(json(new TestDataGenerator(43).product(0)));
+    }
+
+    @Test
+    public void testParallelAndPartitionedStreamsMatchSequential() {
+        TestDataGenerator generator = new TestDataGenerator(7);
+        List<String> sequential = generator.products(1_000).map(this::json).collect(Collectors.toList());
+        List<String> parallel = generator.products(1_000).parallel().map(this::json).collect(Collectors.toList());
+        List<String> partitioned = IntStream.range(0, 3).boxed()
+                .flatMap(partition -> generator.products(1_000, partition, 3))
+                .map(this::json)
+                .collect(Collectors.toList());
+
+        assertThat(parallel).isEqualTo(sequential);
+        assertThat(partitioned).isEqualTo(sequential);
+    }
+
+    @Test
+    public void testJsonBindsBackToModels() throws Exception {
+        TestDataGenerator generator = new TestDataGenerator(1, 100);
+        StringBuilder buffer = new StringBuilder();
+
+        Cart cart = generator.cart(3, 20);
+        ModelJsonWriter.writeCart(cart, buffer);
+        Cart boundCart = objectMapper.readValue(buffer.toString(), Cart.class);
+        assertThat(boundCart.getItems()).hasSameSizeAs(cart.getItems());
+        assertThat(boundCart.getTotal()).isEqualTo(cart.getTotal());
+        assertThat(boundCart.getTotal()).isEqualTo(cart.getSubtotal().plus(cart.getSubtotal().percentage(1000)));
+
+        buffer.setLength(0);
+        User user = generator.user(5);
+        ModelJsonWriter.writeUser(user, buffer);
+        assertThat(objectMapper.readValue(buffer.toString(), User.class).getEmail()).isEqualTo(user.getEmail());
+
+        buffer.setLength(0);
+        Product product = generator.product(9);
+        ModelJsonWriter.writeProduct(product, buffer);
+        Product boundProduct = objectMapper.readValue(buffer.toString(), Product.class);
+        assertThat(boundProduct.getPrice()).isEqualTo(product.getPrice());
+        assertThat(boundProduct.getPrice()).isGreaterThan(Money.ZERO);
+        assertThat(boundProduct.getTags()).isEqualTo(product.getTags());
+    }
+
+    private String json(Product product) {
+        return ModelJsonWriter.writeProduct(product, new StringBuilder()).toString();
+    }
+
+    private String json(Cart cart) {
+        return ModelJsonWriter.writeCart(cart, new StringBuilder()).toString();
+    }
+}
@@ -1,10 +1,11 @@
 package com.amalitech.test.ecommerce;
 
 import com.amalitech.test.base.BaseTest;
+import com.amalitech.test.base.WithStubs;
 import com.amalitech.test.model.Cart;
 import com.amalitech.test.model.CartItem;
+import com.amalitech.test.model.Money;
 import com.amalitech.test.utils.ApiUtils;
-import com.github.tomakehurst.wiremock.WireMockServer;
 import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
 import org.slf4j.Logger;
@@ -12,159 +13,29 @@ import org.slf4j.LoggerFactory;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.assertj.core.api.Assertions.assertThat;
 
+@WithStubs("stubs/cart.json")
 public class CartApiTest extends BaseTest {
     private static final Logger log = LoggerFactory.getLogger(CartApiTest.class);
-    private WireMockServer wireMockServer;
-    private String authToken = "Bearer mock-jwt-token";
-    private String cartId;
+    // Id of the cart in stubs/cart.json
+    private static final String CART_ID = "3f6c2a8e-9b1d-4c7e-a5f0-2d8b6e1c9a47";
+    private boolean mockServer;
 
     @BeforeClass
     public void setUp() {
         super.setupClass();
-        wireMockServer = getWireMockServer();
-        cartId = UUID.randomUUID().toString();
-        setupCartStubs();
-    }
-
-    private void setupCartStubs() {
-        if (wireMockServer == null)
-            return;
-
-        // Stub for getting cart
-        wireMockServer.stubFor(get(urlPathEqualTo("/api/cart"))
-                .withHeader("Authorization", matching("Bearer .*"))
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\n" +
-                                "  \"id\": \"" + cartId + "\",\n" +
-                                "  \"userId\": \"user-123\",\n" +
-                                "  \"items\": [\n" +
-                                "    {\n" +
-                                "      \"productId\": 1,\n" +
-                                "      \"productName\": \"Smartphone\",\n" +
-                                "      \"quantity\": 1,\n" +
-                                "      \"unitPrice\": 599.99,\n" +
-                                "      \"totalPrice\": 599.99\n" +
-                                "    },\n" +
-                                "    {\n" +
-                                "      \"productId\": 2,\n" +
-                                "      \"productName\": \"Wireless Headphones\",\n" +
-                                "      \"quantity\": 2,\n" +
-                                "      \"unitPrice\": 149.99,\n" +
-                                "      \"totalPrice\": 299.98\n" +
-                                "    }\n" +
-                                "  ],\n" +
-                                "  \"subtotal\": 899.97,\n" +
-                                "  \"tax\": 90.00,\n" +
-                                "  \"total\": 989.97\n" +
-                                "}")));
-
-        // Stub for empty cart
-        wireMockServer.stubFor(get(urlPathEqualTo("/api/cart/empty"))
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\n" +
-                                "  \"id\": \"" + cartId + "\",\n" +
-                                "  \"userId\": \"user-123\",\n" +
-                                "  \"items\": [],\n" +
-                                "  \"subtotal\": 0,\n" +
-                                "  \"tax\": 0,\n" +
-                                "  \"total\": 0\n" +
-                                "}")));
-
-        // Stub for adding item to cart
-        wireMockServer.stubFor(post(urlPathEqualTo("/api/cart/items"))
-                .withHeader("Authorization", matching("Bearer .*"))
-                .withRequestBody(matchingJsonPath("$.productId"))
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\n" +
-                                "  \"id\": \"" + cartId + "\",\n" +
-                                "  \"userId\": \"user-123\",\n" +
-                                "  \"items\": [\n" +
-                                "    {\n" +
-                                "      \"productId\": 1,\n" +
-                                "      \"productName\": \"Smartphone\",\n" +
-                                "      \"quantity\": 1,\n" +
-                                "      \"unitPrice\": 599.99,\n" +
-                                "      \"totalPrice\": 599.99\n" +
-                                "    }\n" +
-                                "  ],\n" +
-                                "  \"subtotal\": 599.99,\n" +
-                                "  \"tax\": 60.00,\n" +
-                                "  \"total\": 659.99\n" +
-                                "}")));
-
-        // Stub for updating cart item quantity
-        wireMockServer.stubFor(put(urlPathMatching("/api/cart/items/\\d+"))
-                .withHeader("Authorization", matching("Bearer .*"))
-                .withRequestBody(matchingJsonPath("$.quantity"))
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\n" +
-                                "  \"id\": \"" + cartId + "\",\n" +
-                                "  \"userId\": \"user-123\",\n" +
-                                "  \"items\": [\n" +
-                                "    {\n" +
-                                "      \"productId\": 1,\n" +
-                                "      \"productName\": \"Smartphone\",\n" +
-                                "      \"quantity\": 2,\n" +
-                                "      \"unitPrice\": 599.99,\n" +
-                                "      \"totalPrice\": 1199.98\n" +
-                                "    }\n" +
-                                "  ],\n" +
-                                "  \"subtotal\": 1199.98,\n" +
-                                "  \"tax\": 120.00,\n" +
-                                "  \"total\": 1319.98\n" +
-                                "}")));
-
-        // Stub for removing item from cart
-        wireMockServer.stubFor(delete(urlPathMatching("/api/cart/items/\\d+"))
-                .withHeader("Authorization", matching("Bearer .*"))
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\n" +
-                                "  \"id\": \"" + cartId + "\",\n" +
-                                "  \"userId\": \"user-123\",\n" +
-                                "  \"items\": [],\n" +
-                                "  \"subtotal\": 0,\n" +
-                                "  \"tax\": 0,\n" +
-                                "  \"total\": 0\n" +
-                                "}")));
-
-        // Stub for clearing the cart
-        wireMockServer.stubFor(delete(urlPathEqualTo("/api/cart"))
-                .withHeader("Authorization", matching("Bearer .*"))
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\n" +
-                                "  \"id\": \"" + cartId + "\",\n" +
-                                "  \"userId\": \"user-123\",\n" +
-                                "  \"items\": [],\n" +
-                                "  \"subtotal\": 0,\n" +
-                                "  \"tax\": 0,\n" +
-                                "  \"total\": 0\n" +
-                                "}")));
+        mockServer = currentServerFactory().isMockServer();
     }
 
     @Test
     public void testGetCart() {
         // Skip test if not using mock server
-        if (wireMockServer == null) {
+        if (!mockServer) {
             log.info("Skipping mock-based test as we're using a real server");
             return;
         }
@@ -180,9 +51,9 @@ public class CartApiTest extends BaseTest {
 
         Cart cart = response.as(Cart.class);
         assertThat(cart).isNotNull();
-        assertThat(cart.getId()).isEqualTo(cartId);
+        assertThat(cart.getId()).isEqualTo(CART_ID);
         assertThat(cart.getItems()).hasSize(2);
-        assertThat(cart.getTotal()).isGreaterThan(BigDecimal.ZERO);
+        assertThat(cart.getTotal()).isGreaterThan(Money.ZERO);
 
         // Verify first item
         CartItem firstItem = cart.getItems().get(0);
@@ -197,7 +68,7 @@ public class CartApiTest extends BaseTest {
     @Test
     public void testAddItemToCart() {
         // Skip test if not using mock server
-        if (wireMockServer == null) {
+        if (!mockServer) {
             log.info("Skipping mock-based test as we're using a real server");
             return;
         }
@@ -231,7 +102,7 @@ public class CartApiTest extends BaseTest {
     @Test
     public void testUpdateCartItemQuantity() {
         // Skip test if not using mock server
-        if (wireMockServer == null) {
+        if (!mockServer) {
             log.info("Skipping mock-based test as we're using a real server");
             return;
         }
@@ -255,14 +126,14 @@ public class CartApiTest extends BaseTest {
         assertThat(jsonPath.getInt("items[0].quantity")).isEqualTo(2);
 
         // Check that total price was recalculated
-        BigDecimal totalPrice = new BigDecimal(jsonPath.getString("items[0].totalPrice"));
-        BigDecimal unitPrice = new BigDecimal(jsonPath.getString("items[0].unitPrice"));
+        Money totalPrice = Money.parse(jsonPath.getString("items[0].totalPrice"));
+        Money unitPrice = Money.parse(jsonPath.getString("items[0].unitPrice"));
 
-        assertThat(totalPrice).isEqualByComparingTo(unitPrice.multiply(BigDecimal.valueOf(2)));
+        assertThat(totalPrice).isEqualTo(unitPrice.times(2));
 
         // Verify the subtotal and total were updated
-        BigDecimal subtotal = new BigDecimal(jsonPath.getString("subtotal"));
-        assertThat(subtotal).isEqualByComparingTo(totalPrice);
+        Money subtotal = Money.parse(jsonPath.getString("subtotal"));
+        assertThat(subtotal).isEqualTo(totalPrice);
 
         // Verify the request was made
         verify(putRequestedFor(urlPathMatching("/api/cart/items/\\d+"))
@@ -273,7 +144,7 @@ public class CartApiTest extends BaseTest {
     @Test
     public void testRemoveItemFromCart() {
         // Skip test if not using mock server
-        if (wireMockServer == null) {
+        if (!mockServer) {
             log.info("Skipping mock-based test as we're using a real server");
             return;
         }
@@ -307,7 +178,7 @@ public class CartApiTest extends BaseTest {
     @Test
     public void testClearCart() {
         // Skip test if not using mock server
-        if (wireMockServer == null) {
+        if (!mockServer) {
             log.info("Skipping mock-based test as we're using a real server");
             return;
         }
@@ -1,9 +1,10 @@
 package com.amalitech.test.ecommerce;
 
 import com.amalitech.test.base.BaseTest;
+import com.amalitech.test.base.WithStubs;
+import com.amalitech.test.model.Money;
 import com.amalitech.test.model.Order;
 import com.amalitech.test.utils.ApiUtils;
-import com.github.tomakehurst.wiremock.WireMockServer;
 import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
 import org.slf4j.Logger;
@@ -11,149 +12,28 @@ import org.slf4j.LoggerFactory;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
-import java.math.BigDecimal;
-import java.util.UUID;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.assertj.core.api.Assertions.assertThat;
 
+@WithStubs("stubs/checkout.json")
 public class CheckoutApiTest extends BaseTest {
     private static final Logger log = LoggerFactory.getLogger(CheckoutApiTest.class);
-    private WireMockServer wireMockServer;
-    private String authToken = "Bearer mock-jwt-token";
-    private String cartId;
-    private String orderId;
+    // Ids of the cart and the order in stubs/checkout.json
+    private static final String CART_ID = "3f6c2a8e-9b1d-4c7e-a5f0-2d8b6e1c9a47";
+    private static final String ORDER_ID = "8d2e5b1f-6a3c-4e9d-b7f2-1c5a9e3d6b80";
+    private boolean mockServer;
 
     @BeforeClass
     public void setUp() {
         super.setupClass();
-        wireMockServer = getWireMockServer();
-        cartId = UUID.randomUUID().toString();
-        orderId = UUID.randomUUID().toString();
-        setupCheckoutStubs();
-    }
-
-    private void setupCheckoutStubs() {
-        if (wireMockServer == null)
-            return;
-
-        // Stub for initiating checkout
-        wireMockServer.stubFor(post(urlPathEqualTo("/api/checkout"))
-                .withHeader("Authorization", matching("Bearer .*"))
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\n" +
-                                "  \"checkoutId\": \"checkout-123\",\n" +
-                                "  \"cartId\": \"" + cartId + "\",\n" +
-                                "  \"subtotal\": 599.99,\n" +
-                                "  \"tax\": 60.00,\n" +
-                                "  \"shipping\": 10.00,\n" +
-                                "  \"total\": 669.99,\n" +
-                                "  \"paymentMethods\": [\"Credit Card\", \"PayPal\", \"Apple Pay\"],\n" +
-                                "  \"shippingMethods\": [\n" +
-                                "    {\"id\": \"standard\", \"name\": \"Standard Shipping\", \"price\": 10.00, \"estimatedDays\": \"3-5\"},\n"
-                                +
-                                "    {\"id\": \"express\", \"name\": \"Express Shipping\", \"price\": 25.00, \"estimatedDays\": \"1-2\"}\n"
-                                +
-                                "  ]\n" +
-                                "}")));
-
-        // Stub for validating shipping address
-        wireMockServer.stubFor(post(urlPathEqualTo("/api/checkout/shipping-address"))
-                .withHeader("Authorization", matching("Bearer .*"))
-                .withRequestBody(matchingJsonPath("$.address"))
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\n" +
-                                "  \"valid\": true,\n" +
-                                "  \"normalized\": {\n" +
-                                "    \"street\": \"123 Main Street\",\n" +
-                                "    \"city\": \"New York\",\n" +
-                                "    \"state\": \"NY\",\n" +
-                                "    \"zipCode\": \"10001\",\n" +
-                                "    \"country\": \"USA\"\n" +
-                                "  }\n" +
-                                "}")));
-
-        // Stub for selecting shipping method
-        wireMockServer.stubFor(post(urlPathEqualTo("/api/checkout/shipping-method"))
-                .withHeader("Authorization", matching("Bearer .*"))
-                .withRequestBody(matchingJsonPath("$.shippingMethodId"))
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\n" +
-                                "  \"checkoutId\": \"checkout-123\",\n" +
-                                "  \"shippingMethod\": {\n" +
-                                "    \"id\": \"express\",\n" +
-                                "    \"name\": \"Express Shipping\",\n" +
-                                "    \"price\": 25.00,\n" +
-                                "    \"estimatedDays\": \"1-2\"\n" +
-                                "  },\n" +
-                                "  \"subtotal\": 599.99,\n" +
-                                "  \"tax\": 60.00,\n" +
-                                "  \"shipping\": 25.00,\n" +
-                                "  \"total\": 684.99\n" +
-                                "}")));
-
-        // Stub for processing payment
-        wireMockServer.stubFor(post(urlPathEqualTo("/api/checkout/payment"))
-                .withHeader("Authorization", matching("Bearer .*"))
-                .withRequestBody(matchingJsonPath("$.paymentMethod"))
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\n" +
-                                "  \"transactionId\": \"txn-" + UUID.randomUUID().toString() + "\",\n" +
-                                "  \"status\": \"success\",\n" +
-                                "  \"orderId\": \"" + orderId + "\"\n" +
-                                "}")));
-
-        // Stub for retrieving order after checkout
-        wireMockServer.stubFor(get(urlPathEqualTo("/api/orders/" + orderId))
-                .withHeader("Authorization", matching("Bearer .*"))
-                .willReturn(aResponse()
-                        .withStatus(200)
-                        .withHeader("Content-Type", "application/json")
-                        .withBody("{\n" +
-                                "  \"id\": \"" + orderId + "\",\n" +
-                                "  \"userId\": \"user-123\",\n" +
-                                "  \"status\": \"pending\",\n" +
-                                "  \"createdAt\": \"2023-07-15T08:30:45Z\",\n" +
-                                "  \"items\": [\n" +
-                                "    {\n" +
-                                "      \"productId\": 1,\n" +
-                                "      \"productName\": \"Smartphone\",\n" +
-                                "      \"quantity\": 1,\n" +
-                                "      \"unitPrice\": 599.99,\n" +
-                                "      \"totalPrice\": 599.99\n" +
-                                "    }\n" +
-                                "  ],\n" +
-                                "  \"subtotal\": 599.99,\n" +
-                                "  \"tax\": 60.00,\n" +
-                                "  \"shipping\": 25.00,\n" +
-                                "  \"total\": 684.99,\n" +
-                                "  \"shippingAddress\": {\n" +
-                                "    \"street\": \"123 Main Street\",\n" +
-                                "    \"city\": \"New York\",\n" +
-                                "    \"state\": \"NY\",\n" +
-                                "    \"zipCode\": \"10001\",\n" +
-                                "    \"country\": \"USA\"\n" +
-                                "  },\n" +
-                                "  \"paymentInfo\": {\n" +
-                                "    \"method\": \"Credit Card\",\n" +
-                                "    \"transactionId\": \"txn-789-xyz\",\n" +
-                                "    \"status\": \"completed\"\n" +
-                                "  }\n" +
-                                "}")));
+        mockServer = currentServerFactory().isMockServer();
     }
 
     @Test
     public void testInitiateCheckout() {
         // Skip test if not using mock server
-        if (wireMockServer == null) {
+        if (!mockServer) {
             log.info("Skipping mock-based test as we're using a real server");
             return;
         }
@@ -169,7 +49,7 @@ public class CheckoutApiTest extends BaseTest {
 
         JsonPath jsonPath = response.jsonPath();
         assertThat(jsonPath.getString("checkoutId")).isEqualTo("checkout-123");
-        assertThat(jsonPath.getString("cartId")).isEqualTo(cartId);
+        assertThat(jsonPath.getString("cartId")).isEqualTo(CART_ID);
 
         // Verify payment methods
         assertThat(jsonPath.getList("paymentMethods")).contains("Credit Card", "PayPal", "Apple Pay");
@@ -186,7 +66,7 @@ public class CheckoutApiTest extends BaseTest {
     @Test
     public void testValidateShippingAddress() {
         // Skip test if not using mock server
-        if (wireMockServer == null) {
+        if (!mockServer) {
             log.info("Skipping mock-based test as we're using a real server");
             return;
         }
@@ -225,7 +105,7 @@ public class CheckoutApiTest extends BaseTest {
     @Test
     public void testSelectShippingMethod() {
         // Skip test if not using mock server
-        if (wireMockServer == null) {
+        if (!mockServer) {
             log.info("Skipping mock-based test as we're using a real server");
             return;
         }
@@ -246,12 +126,12 @@ public class CheckoutApiTest extends BaseTest {
         assertThat(jsonPath.getString("shippingMethod.id")).isEqualTo("express");
 
         // Total should include shipping cost
-        BigDecimal subtotal = new BigDecimal(jsonPath.getString("subtotal"));
-        BigDecimal tax = new BigDecimal(jsonPath.getString("tax"));
-        BigDecimal shipping = new BigDecimal(jsonPath.getString("shipping"));
-        BigDecimal total = new BigDecimal(jsonPath.getString("total"));
+        Money subtotal = Money.parse(jsonPath.getString("subtotal"));
+        Money tax = Money.parse(jsonPath.getString("tax"));
+        Money shipping = Money.parse(jsonPath.getString("shipping"));
+        Money total = Money.parse(jsonPath.getString("total"));
 
-        assertThat(total).isEqualByComparingTo(subtotal.add(tax).add(shipping));
+        assertThat(total).isEqualTo(subtotal.plus(tax).plus(shipping));
 
         // Verify the request was made
         verify(postRequestedFor(urlPathEqualTo("/api/checkout/shipping-method"))
@@ -262,7 +142,7 @@ public class CheckoutApiTest extends BaseTest {
     @Test
     public void testProcessPayment() {
         // Skip test if not using mock server
-        if (wireMockServer == null) {
+        if (!mockServer) {
             log.info("Skipping mock-based test as we're using a real server");
             return;
         }
@@ -296,7 +176,7 @@ public class CheckoutApiTest extends BaseTest {
     @Test
     public void testCompleteCheckoutFlow() {
         // Skip test if not using mock server
-        if (wireMockServer == null) {
+        if (!mockServer) {
             log.info("Skipping mock-based test as we're using a real server");
             return;
         }
@@ -351,7 +231,7 @@ public class CheckoutApiTest extends BaseTest {
 
         // Verify order details
         JsonPath orderJson = orderResponse.jsonPath();
-        assertThat(orderJson.getString("id")).isEqualTo(orderId);
+        assertThat(orderJson.getString("id")).isEqualTo(ORDER_ID);
         assertThat(orderJson.getString("status")).isEqualTo("pending");
 
         // Verify payment info
@@ -366,6 +246,6 @@ public class CheckoutApiTest extends BaseTest {
         verify(postRequestedFor(urlPathEqualTo("/api/checkout/shipping-address")));
         verify(postRequestedFor(urlPathEqualTo("/api/checkout/shipping-method")));
         verify(postRequestedFor(urlPathEqualTo("/api/checkout/payment")));
-        verify(getRequestedFor(urlPathEqualTo("/api/orders/" + orderId)));
+        verify(getRequestedFor(urlPathEqualTo("/api/orders/" + ORDER_ID)));
     }
 }
@@ -12,7 +12,6 @@ import org.testng.annotations.Test;
 
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -21,16 +20,18 @@ public class OrderApiTest extends BaseTest {
     private static final Logger log = LoggerFactory.getLogger(OrderApiTest.class);
     private WireMockServer wireMockServer;
     private static final String ORDERS_BASE_PATH = "/api/orders";
-    private final String authToken = "Bearer mock-jwt-token";
-    private String orderId;
+    // Id of the first order listed by mappings/order.json
+    private static final String ORDER_ID = "5b7e9c2d-3a1f-4d6b-8e0c-9f2a4b6d8e13";
 
     @BeforeClass
     public void setUp() {
         super.setupClass();
-        orderId = UUID.randomUUID().toString();
 
-        // Comment out or remove this line to use the mock server
-        useRealServer("https://localhost:8080");
+        // Set orders.baseUrl, e.g. https://localhost:8080, to run against a real server
+        String realServerUrl = System.getProperty("orders.baseUrl");
+        if (realServerUrl != null && !realServerUrl.isBlank()) {
+            useRealServer(realServerUrl);
+        }
     }
 
     @Test
@@ -53,7 +54,7 @@ public class OrderApiTest extends BaseTest {
                 .isNotNull()
                 .hasSize(2);
         assertThat(jsonPath.getInt("totalCount")).isEqualTo(2);
-        assertThat(jsonPath.getString("orders[0].id")).isEqualTo(orderId);
+        assertThat(jsonPath.getString("orders[0].id")).isEqualTo(ORDER_ID);
         assertThat(jsonPath.getString("orders[0].status")).isEqualTo("delivered");
 
         // Verify pagination info
@@ -112,7 +113,7 @@ public class OrderApiTest extends BaseTest {
         List<Map<String, Object>> orders = jsonPath.getList("orders");
 
         assertThat(orders).hasSize(1);
-        assertThat(jsonPath.getString("orders[0].id")).isEqualTo(orderId);
+        assertThat(jsonPath.getString("orders[0].id")).isEqualTo(ORDER_ID);
 
         verify(getRequestedFor(urlPathEqualTo(ORDERS_BASE_PATH))
                 .withHeader("Authorization", equalTo(authToken))
@@ -126,7 +127,7 @@ public class OrderApiTest extends BaseTest {
 
         // Arrange
         requestSpec.header("Authorization", authToken);
-        String orderPath = ORDERS_BASE_PATH + "/" + orderId;
+        String orderPath = ORDERS_BASE_PATH + "/" + ORDER_ID;
 
         // Act
         Response response = ApiUtils.performGetRequest(requestSpec, orderPath);
@@ -136,7 +137,7 @@ public class OrderApiTest extends BaseTest {
 
         JsonPath jsonPath = response.jsonPath();
 
-        assertThat(jsonPath.getString("id")).isEqualTo(orderId);
+        assertThat(jsonPath.getString("id")).isEqualTo(ORDER_ID);
         assertThat(jsonPath.getString("status")).isEqualTo("delivered");
 
         // Check items
@@ -182,7 +183,7 @@ public class OrderApiTest extends BaseTest {
 
         // Arrange
         requestSpec.header("Authorization", authToken);
-        String cancelPath = ORDERS_BASE_PATH + "/" + orderId + "/cancel";
+        String cancelPath = ORDERS_BASE_PATH + "/" + ORDER_ID + "/cancel";
 
         // Act
         Response response = ApiUtils.performPostRequest(requestSpec, cancelPath, "{}");
@@ -191,7 +192,7 @@ public class OrderApiTest extends BaseTest {
         assertThat(response.getStatusCode()).isEqualTo(200);
 
         JsonPath jsonPath = response.jsonPath();
-        assertThat(jsonPath.getString("id")).isEqualTo(orderId);
+        assertThat(jsonPath.getString("id")).isEqualTo(ORDER_ID);
         assertThat(jsonPath.getString("status")).isEqualTo("cancelled");
         assertThat(jsonPath.getString("cancelledAt")).isNotEmpty();
         assertThat(jsonPath.getString("refundStatus")).isEqualTo("pending");
@@ -206,7 +207,7 @@ public class OrderApiTest extends BaseTest {
 
         // Arrange
         requestSpec.header("Authorization", authToken);
-        String trackingPath = ORDERS_BASE_PATH + "/" + orderId + "/tracking";
+        String trackingPath = ORDERS_BASE_PATH + "/" + ORDER_ID + "/tracking";
 
         // Act
         Response response = ApiUtils.performGetRequest(requestSpec, trackingPath);
@@ -215,7 +216,7 @@ public class OrderApiTest extends BaseTest {
         assertThat(response.getStatusCode()).isEqualTo(200);
 
         JsonPath jsonPath = response.jsonPath();
-        assertThat(jsonPath.getString("orderId")).isEqualTo(orderId);
+        assertThat(jsonPath.getString("orderId")).isEqualTo(ORDER_ID);
         assertThat(jsonPath.getString("trackingNumber")).isEqualTo("TRK12345678");
         assertThat(jsonPath.getString("status")).isEqualTo("Delivered");
 
@@ -238,7 +239,7 @@ public class OrderApiTest extends BaseTest {
 
         // Arrange
         requestSpec.header("Authorization", authToken);
-        String returnPath = ORDERS_BASE_PATH + "/" + orderId + "/return";
+        String returnPath = ORDERS_BASE_PATH + "/" + ORDER_ID + "/return";
         String requestBody = "{\n" +
                 "  \"reason\": \"Defective product\",\n" +
                 "  \"items\": [\n" +
@@ -257,7 +258,7 @@ public class OrderApiTest extends BaseTest {
 
         JsonPath jsonPath = response.jsonPath();
         assertThat(jsonPath.getString("returnId")).isNotEmpty();
-        assertThat(jsonPath.getString("orderId")).isEqualTo(orderId);
+        assertThat(jsonPath.getString("orderId")).isEqualTo(ORDER_ID);
         assertThat(jsonPath.getString("status")).isEqualTo("pending_approval");
         assertThat(jsonPath.getString("reason")).isEqualTo("Defective product");
         assertThat(jsonPath.getString("returnLabel")).startsWith("https://");
@@ -4,7 +4,6 @@ import com.amalitech.test.base.BaseTest;
 import com.amalitech.test.model.User;
 import com.amalitech.test.utils.ApiUtils;
 import com.amalitech.test.utils.JsonUtils;
-import com.github.tomakehurst.wiremock.WireMockServer;
 import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
 import org.slf4j.Logger;
@@ -18,7 +17,6 @@ import static org.assertj.core.api.Assertions.assertThat;
 public class AuthApiTest extends BaseTest {
     private static final Logger log = LoggerFactory.getLogger(AuthApiTest.class);
     private static final String JSON_BASE_PATH = "json/auth/";
-    private static final String AUTH_TOKEN = "Bearer mock-jwt-token";
 
     private static final String LOGIN_REQUEST_FALLBACK = """
             {
@@ -35,10 +33,8 @@ public class AuthApiTest extends BaseTest {
     @BeforeClass
     public void setUp() {
         super.setupClass();
-        //comment out or remove this line to use the mock server
-        WireMockServer wireMockServer = getWireMockServer();
-        log.info("WireMock server setup with mappings from resources directory. WireMock server is {}null",
-                wireMockServer == null ? "" : "not ");
+        log.info("Running against a {} server with mappings from resources directory",
+                currentServerFactory().isMockServer() ? "mock" : "real");
 
         // Comment out or remove this line to use the mock server
 //         useRealServer("https://localhost:8080");
@@ -131,7 +127,7 @@ public class AuthApiTest extends BaseTest {
     @Test
     public void testGetProfile() {
 
-        requestSpec.header("Authorization", AUTH_TOKEN);
+        requestSpec.header("Authorization", authToken);
 
         Response response = ApiUtils.performGetRequest(requestSpec, "/api/auth/profile");
 
@@ -147,13 +143,13 @@ public class AuthApiTest extends BaseTest {
         assertThat(jsonPath.getBoolean("shippingAddresses[0].isDefault")).isTrue();
 
         verify(getRequestedFor(urlPathEqualTo("/api/auth/profile"))
-                .withHeader("Authorization", equalTo(AUTH_TOKEN)));
+                .withHeader("Authorization", equalTo(authToken)));
     }
 
     @Test
     public void testChangePassword() {
 
-        requestSpec.header("Authorization", AUTH_TOKEN)
+        requestSpec.header("Authorization", authToken)
                 .contentType("application/json");
 
         String requestBody = JsonUtils.loadJsonFromResources(JSON_BASE_PATH + "change-password-request.json");
@@ -167,7 +163,7 @@ public class AuthApiTest extends BaseTest {
         assertThat(jsonPath.getString("message")).isEqualTo("Password changed successfully");
 
         verify(postRequestedFor(urlPathEqualTo("/api/auth/change-password"))
-                .withHeader("Authorization", equalTo(AUTH_TOKEN))
+                .withHeader("Authorization", equalTo(authToken))
                 .withRequestBody(matchingJsonPath("$.currentPassword"))
                 .withRequestBody(matchingJsonPath("$.newPassword")));
     }
@@ -175,7 +171,7 @@ public class AuthApiTest extends BaseTest {
     @Test
     public void testLogout() {
 
-        requestSpec.header("Authorization", AUTH_TOKEN);
+        requestSpec.header("Authorization", authToken);
 
         Response response = ApiUtils.performPostRequest(requestSpec, "/api/auth/logout", "");
 
@@ -186,7 +182,7 @@ public class AuthApiTest extends BaseTest {
         assertThat(jsonPath.getString("message")).isEqualTo("Logged out successfully");
 
         verify(postRequestedFor(urlPathEqualTo("/api/auth/logout"))
-                .withHeader("Authorization", equalTo(AUTH_TOKEN)));
+                .withHeader("Authorization", equalTo(authToken)));
     }
 
 }
\ No newline at end of file
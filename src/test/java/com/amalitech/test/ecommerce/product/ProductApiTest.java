@@ -2,7 +2,6 @@ package com.amalitech.test.ecommerce.product;
 
 import com.amalitech.test.base.BaseTest;
 import com.amalitech.test.utils.ApiUtils;
-import com.github.tomakehurst.wiremock.WireMockServer;
 import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
 import org.testng.annotations.BeforeClass;
@@ -20,9 +19,6 @@ public class ProductApiTest extends BaseTest {
     @BeforeClass
     public void setUp() {
         super.setupClass();
-        WireMockServer wireMockServer = getWireMockServer();
-//        log.info("WireMock server setup with mappings from resources directory. WireMock server is {}null",
-//                wireMockServer == null ? "" : "not ");
 
         // Comment out or remove this line to use the mock server
 
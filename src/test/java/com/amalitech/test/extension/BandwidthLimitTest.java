@@ -0,0 +1,175 @@
+package com.amalitech.test.extension;
+
+import com.amalitech.test.server.WireMockServerFactory;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BandwidthLimitTest {
+    private static final int BODY_BYTES = 20_000;
+    private static final int CONCURRENT_RESPONSES = 20;
+
+    private WireMockServer server;
+    private HttpClient client;
+
+    @BeforeClass
+    public void startServer() {
+        server = new WireMockServer(WireMockServerFactory.configure(options().dynamicPort()));
+        server.start();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    public void testBucketQueuesTransfersBeyondBurst() {
+        TokenBucket bucket = new TokenBucket(1_000, 500, 0);
+
+        assertThat(bucket.reserve(500, 0)).isZero();
+        assertThat(bucket.reserve(500, 0)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(bucket.reserve(500, 0)).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+        // After two idle seconds the backlog is cleared and the burst refilled, but no more
+        assertThat(bucket.reserve(1_000, TimeUnit.SECONDS.toNanos(3)))
+                .isEqualTo(TimeUnit.SECONDS.toNanos(3) + TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    public void testPerClientLimitDribblesBody() throws Exception {
+        stub("/api/orders/history", Map.of("perClientBytesPerSecond", 40_000));
+
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = client.send(request("/api/orders/history"),
+                HttpResponse.BodyHandlers.ofInputStream());
+        long headersMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        byte[] body;
+        try (InputStream in = response.body()) {
+            body = in.readAllBytes();
+        }
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 20 KB at 40 KB/s, less the first chunk the burst lets through
+        assertThat(body).hasSize(BODY_BYTES);
+        assertThat(totalMillis).isBetween(400L, 3_000L);
+        assertThat(headersMillis).isLessThan(totalMillis / 2);
+    }
+
+    @Test
+    public void testStubLimitIsSharedByConcurrentResponses() {
+        stub("/api/orders/export", Map.of("bytesPerSecond", 80_000, "bucket", "export"));
+
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<byte[]>>> responses = List.of(
+                client.sendAsync(request("/api/orders/export"), HttpResponse.BodyHandlers.ofByteArray()),
+                client.sendAsync(request("/api/orders/export"), HttpResponse.BodyHandlers.ofByteArray()));
+        responses.forEach(response -> assertThat(response.join().body()).hasSize(BODY_BYTES));
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 40 KB in total at 80 KB/s
+        assertThat(totalMillis).isBetween(400L, 3_000L);
+    }
+
+    @Test
+    public void testDelayedThrottledResponseDoesNotStallOtherDelayedResponses() throws Exception {
+        WireMockServer single = new WireMockServer(WireMockServerFactory.configure(options().dynamicPort())
+                .asynchronousResponseThreads(1));
+        single.start();
+        try {
+            single.stubFor(get(urlEqualTo("/api/orders/export")).willReturn(aResponse()
+                    .withStatus(200)
+                    .withBody(new byte[BODY_BYTES])
+                    .withFixedDelay(100)
+                    .withTransformers(BandwidthLimitTransformer.NAME)
+                    .withTransformerParameters(Parameters.one(BandwidthLimitTransformer.PARAMETER,
+                            Map.of("perClientBytesPerSecond", 10_000)))));
+            single.stubFor(get(urlEqualTo("/api/ping")).willReturn(aResponse().withStatus(200).withFixedDelay(50)));
+
+            long start = System.nanoTime();
+            CompletableFuture<HttpResponse<byte[]>> export = client.sendAsync(
+                    HttpRequest.newBuilder(URI.create(single.baseUrl() + "/api/orders/export")).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            // Past the export's delay, so it is dribbling when the ping's delay is up
+            Thread.sleep(500);
+            long pingStart = System.nanoTime();
+            HttpResponse<byte[]> ping = client.send(
+                    HttpRequest.newBuilder(URI.create(single.baseUrl() + "/api/ping")).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            long pingMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pingStart);
+            assertThat(export.join().body()).hasSize(BODY_BYTES);
+            long exportMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // The export dribbles for about two seconds, which the only scheduler thread must not spend on it
+            assertThat(ping.statusCode()).isEqualTo(200);
+            assertThat(pingMillis).isLessThan(1_000);
+            assertThat(exportMillis).isBetween(1_500L, 5_000L);
+        } finally {
+            single.stop();
+        }
+    }
+
+    @Test
+    public void testThrottledResponsesHoldNoJettyThread() {
+        // A pool this small leaves only a few threads for requests once Jetty's own are taken
+        WireMockServer small = new WireMockServer(WireMockServerFactory.configure(options().dynamicPort())
+                .containerThreads(10));
+        small.start();
+        try {
+            for (int i = 0; i < CONCURRENT_RESPONSES; i++) {
+                small.stubFor(get(urlEqualTo("/api/orders/export/" + i)).willReturn(aResponse()
+                        .withStatus(200)
+                        .withBody(new byte[BODY_BYTES])
+                        .withFixedDelay(100)
+                        .withTransformers(BandwidthLimitTransformer.NAME)
+                        .withTransformerParameters(Parameters.one(BandwidthLimitTransformer.PARAMETER,
+                                Map.of("bytesPerSecond", 20_000, "bucket", "export-" + i)))));
+            }
+
+            long start = System.nanoTime();
+            List<CompletableFuture<HttpResponse<byte[]>>> responses = IntStream.range(0, CONCURRENT_RESPONSES)
+                    .mapToObj(i -> client.sendAsync(
+                            HttpRequest.newBuilder(URI.create(small.baseUrl() + "/api/orders/export/" + i)).build(),
+                            HttpResponse.BodyHandlers.ofByteArray()))
+                    .toList();
+            responses.forEach(response -> assertThat(response.join().body()).hasSize(BODY_BYTES));
+            long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // Each takes about a second; holding a thread each, they would take several times that
+            assertThat(totalMillis).isBetween(800L, 2_500L);
+        } finally {
+            small.stop();
+        }
+    }
+
+    private void stub(String url, Map<String, Object> bandwidth) {
+        server.stubFor(get(urlEqualTo(url)).willReturn(aResponse()
+                .withStatus(200)
+                .withBody(new byte[BODY_BYTES])
+                .withTransformers(BandwidthLimitTransformer.NAME)
+                .withTransformerParameters(Parameters.one(BandwidthLimitTransformer.PARAMETER, bandwidth))));
+    }
+
+    private HttpRequest request(String path) {
+        return HttpRequest.newBuilder(URI.create(server.baseUrl() + path)).build();
+    }
+}
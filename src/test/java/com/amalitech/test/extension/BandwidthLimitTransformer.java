@@ -0,0 +1,113 @@
+package com.amalitech.test.extension;
+
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.common.Metadata;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseTransformer;
+import com.github.tomakehurst.wiremock.http.ChunkedDribbleDelay;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends a stub's response body at a limited bandwidth, in chunks spread over the transfer time.
+ * <p>
+ * Attach with {@code "transformers": ["bandwidth-limit"]} and configure under the
+ * {@code bandwidth} transformer parameter:
+ * <ul>
+ * <li>{@code bytesPerSecond} - rate shared by every response of the stub, like a server uplink</li>
+ * <li>{@code perClientBytesPerSecond} - rate per client IP, like each client's own slow link</li>
+ * <li>{@code burstBytes} - bytes a bucket lets out at once after being idle (default one chunk)</li>
+ * <li>{@code chunkBytes} - size of the chunks the body is written in (default 1024)</li>
+ * <li>{@code bucket} - name of the shared bucket; stubs with the same name share bandwidth, and
+ * stubs without one share it only with stubs configured identically</li>
+ * </ul>
+ * At least one of the rates is required. Each response reserves its body size on its buckets;
+ * when earlier responses still hold the bandwidth it finishes correspondingly later. The time the
+ * buckets assign becomes a WireMock chunked dribble delay. Buckets start over when the server's
+ * stubs are reset.
+ * <p>
+ * The latency before the body, whether fixed or from a latency profile or saturation, stays an
+ * initial delay, waited on WireMock's asynchronous response executor. On servers built by
+ * {@link com.amalitech.ScheduledWritesHttpServerFactory}, as those configured by
+ * {@code WireMockServerFactory} are, the chunks are then written by scheduled non-blocking writes,
+ * so a throttled response holds no thread while it waits or dribbles. Other servers write them
+ * the way WireMock does, sleeping between chunks on the thread writing the response.
+ */
+public class BandwidthLimitTransformer extends ResponseTransformer implements StubLifecycleAdapter {
+    public static final String NAME = "bandwidth-limit";
+    public static final String PARAMETER = "bandwidth";
+
+    private static final int DEFAULT_CHUNK_BYTES = 1024;
+
+    private final Map<Object, TokenBucket> stubBuckets = new ConcurrentHashMap<>();
+    private final Map<Object, Map<String, TokenBucket>> clientBuckets = new ConcurrentHashMap<>();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public Response transform(Request request, Response response, FileSource files, Parameters parameters) {
+        Metadata settings = parameters == null ? null : parameters.getMetadata(PARAMETER, null);
+        if (settings == null) {
+            throw new IllegalArgumentException(NAME + " needs a '" + PARAMETER + "' transformer parameter");
+        }
+        if (!settings.containsKey("bytesPerSecond") && !settings.containsKey("perClientBytesPerSecond")) {
+            throw new IllegalArgumentException(NAME + " needs bytesPerSecond or perClientBytesPerSecond");
+        }
+        byte[] body = response.getBody();
+        if (body == null || body.length == 0) {
+            return response;
+        }
+
+        int chunkBytes = settings.getInt("chunkBytes", DEFAULT_CHUNK_BYTES);
+        double burstBytes = settings.getInt("burstBytes", chunkBytes);
+        Object bucketKey = settings.containsKey("bucket") ? settings.getString("bucket") : settings;
+        long now = System.nanoTime();
+        long done = now;
+        if (settings.containsKey("bytesPerSecond")) {
+            double rate = rate(settings, "bytesPerSecond");
+            done = Math.max(done, stubBuckets
+                    .computeIfAbsent(bucketKey, key -> new TokenBucket(rate, burstBytes, now))
+                    .reserve(body.length, now));
+        }
+        if (settings.containsKey("perClientBytesPerSecond")) {
+            double rate = rate(settings, "perClientBytesPerSecond");
+            done = Math.max(done, clientBuckets
+                    .computeIfAbsent(bucketKey, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(request.getClientIp(), ip -> new TokenBucket(rate, burstBytes, now))
+                    .reserve(body.length, now));
+        }
+
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(done - now);
+        if (durationMillis < 1) {
+            return response;
+        }
+        // WireMock sleeps whole milliseconds between chunks, so use no more chunks than milliseconds
+        int chunks = (int) Math.max(1, Math.min((body.length + chunkBytes - 1) / chunkBytes, durationMillis));
+        return Response.Builder.like(response).but()
+                .chunkedDribbleDelay(new ChunkedDribbleDelay(chunks, (int) Math.min(Integer.MAX_VALUE, durationMillis)))
+                .build();
+    }
+
+    private static double rate(Metadata settings, String key) {
+        Object value = settings.get(key);
+        return value instanceof Number number ? number.doubleValue() : Double.parseDouble(value.toString());
+    }
+
+    @Override
+    public void afterStubsReset() {
+        stubBuckets.clear();
+        clientBuckets.clear();
+    }
+}
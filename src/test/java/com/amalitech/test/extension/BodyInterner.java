@@ -0,0 +1,208 @@
+package com.amalitech.test.extension;
+
+import com.github.tomakehurst.wiremock.admin.Router;
+import com.github.tomakehurst.wiremock.extension.AdminApiExtension;
+import com.github.tomakehurst.wiremock.http.Body;
+import com.github.tomakehurst.wiremock.http.ContentTypeHeader;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Makes the stubs of a server share one copy of each distinct response body, so suites that
+ * register thousands of stubs with the same large body keep it in memory once.
+ * <p>
+ * Every stub created or edited gets its body swapped for the shared copy, which is counted per
+ * stub and dropped with its last stub. The stubs serve and serialize exactly as before. Bodies
+ * shorter than {@link #MIN_INTERNED_BYTES} are left alone, as tracking them costs more than
+ * sharing them saves. {@code GET /__admin/bodies} reports the bytes saved.
+ */
+public class BodyInterner implements StubLifecycleAdapter, AdminApiExtension {
+    public static final String NAME = "body-interner";
+
+    static final int MIN_INTERNED_BYTES = 128;
+
+    private final Map<BodyKey, SharedBody> bodies = new HashMap<>();
+    private long storedBytes;
+    private long stubBodyBytes;
+    private int stubBodies;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void contributeAdminApiRoutes(Router router) {
+        router.add(RequestMethod.GET, "/bodies", (admin, request, pathParams) ->
+                ResponseDefinition.okForJson(Map.of(
+                        "stubBodies", getStubBodies(),
+                        "distinctBodies", getDistinctBodies(),
+                        "storedBytes", getStoredBytes(),
+                        "savedBytes", getSavedBytes())));
+    }
+
+    @Override
+    public void beforeStubCreated(StubMapping stub) {
+        intern(stub);
+    }
+
+    @Override
+    public void beforeStubEdited(StubMapping oldStub, StubMapping newStub) {
+        intern(newStub);
+    }
+
+    @Override
+    public void afterStubEdited(StubMapping oldStub, StubMapping newStub) {
+        release(oldStub);
+    }
+
+    @Override
+    public void afterStubRemoved(StubMapping stub) {
+        release(stub);
+    }
+
+    @Override
+    public synchronized void afterStubsReset() {
+        bodies.clear();
+        storedBytes = 0;
+        stubBodyBytes = 0;
+        stubBodies = 0;
+    }
+
+    /**
+     * Stubs holding a shared body
+     */
+    public synchronized int getStubBodies() {
+        return stubBodies;
+    }
+
+    /**
+     * Distinct bodies the stubs share
+     */
+    public synchronized int getDistinctBodies() {
+        return bodies.size();
+    }
+
+    /**
+     * Bytes of the distinct bodies, each counted once
+     */
+    public synchronized long getStoredBytes() {
+        return storedBytes;
+    }
+
+    /**
+     * Bytes the stubs would hold on top of {@link #getStoredBytes()} with a copy of the body each
+     */
+    public synchronized long getSavedBytes() {
+        return stubBodyBytes - storedBytes;
+    }
+
+    private synchronized void intern(StubMapping stub) {
+        ResponseDefinition response = stub.getResponse();
+        byte[] content = contentOf(response);
+        if (content == null) {
+            return;
+        }
+
+        SharedBody shared = bodies.computeIfAbsent(new BodyKey(content), key -> {
+            storedBytes += content.length;
+            return new SharedBody(content);
+        });
+        shared.references++;
+        stubBodies++;
+        stubBodyBytes += content.length;
+        if (shared.content != content) {
+            stub.setResponse(withBody(response, shared.content));
+        }
+    }
+
+    private synchronized void release(StubMapping stub) {
+        byte[] content = contentOf(stub.getResponse());
+        if (content == null) {
+            return;
+        }
+
+        BodyKey key = new BodyKey(content);
+        SharedBody shared = bodies.get(key);
+        if (shared == null) {
+            return;
+        }
+        stubBodies--;
+        stubBodyBytes -= content.length;
+        if (--shared.references == 0) {
+            bodies.remove(key);
+            storedBytes -= content.length;
+        }
+    }
+
+    /**
+     * Inline body of a stub's response worth sharing, or null
+     */
+    private static byte[] contentOf(ResponseDefinition response) {
+        if (response == null || response.getReponseBody() == null) {
+            return null;
+        }
+        byte[] content = response.getReponseBody().asBytes();
+        return content != null && content.length >= MIN_INTERNED_BYTES ? content : null;
+    }
+
+    /**
+     * The same response with a body of the same kind, so it serializes as {@code body},
+     * {@code jsonBody} or {@code base64Body} as before
+     */
+    private static ResponseDefinition withBody(ResponseDefinition response, byte[] content) {
+        Body original = response.getReponseBody();
+        Body body;
+        if (original.isJson()) {
+            body = Body.fromJsonBytes(content);
+        } else if (original.isBinary()) {
+            body = new Body(content);
+        } else {
+            // Without a content type WireMock keeps the bytes as text, as it does for a string body
+            body = Body.ofBinaryOrText(content, ContentTypeHeader.absent());
+        }
+        return new ResponseDefinition(response.getStatus(), response.getStatusMessage(), body,
+                response.getBodyFileName(), response.getHeaders(), response.getAdditionalProxyRequestHeaders(),
+                response.getFixedDelayMilliseconds(), response.getDelayDistribution(),
+                response.getChunkedDribbleDelay(), response.getProxyBaseUrl(), response.getProxyUrlPrefixToRemove(),
+                response.getFault(), response.getTransformers(), response.getTransformerParameters(),
+                response.isFromConfiguredStub());
+    }
+
+    /**
+     * Body bytes compared by content, with the hash computed once
+     */
+    private static final class BodyKey {
+        private final byte[] content;
+        private final int hash;
+
+        private BodyKey(byte[] content) {
+            this.content = content;
+            this.hash = Arrays.hashCode(content);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof BodyKey && Arrays.equals(content, ((BodyKey) o).content);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class SharedBody {
+        private final byte[] content;
+        private int references;
+
+        private SharedBody(byte[] content) {
+            this.content = content;
+        }
+    }
+}
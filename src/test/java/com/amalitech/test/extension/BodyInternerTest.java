@@ -0,0 +1,118 @@
+package com.amalitech.test.extension;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import io.restassured.path.json.JsonPath;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BodyInternerTest {
+    // Compact, as WireMock stores a jsonBody, so text and JSON stubs hold the same bytes
+    private static final String ORDER = "{\"status\":\"CONFIRMED\",\"items\":["
+            + "{\"productId\":1,\"name\":\"Product A\",\"quantity\":2,\"price\":19.99},"
+            + "{\"productId\":2,\"name\":\"Product B\",\"quantity\":1,\"price\":29.99}],"
+            + "\"total\":69.97,\"currency\":\"USD\"}";
+
+    @Test
+    public void testIdenticalBodiesShareOneCopyAndServeUnchanged() throws IOException {
+        BodyInterner interner = new BodyInterner();
+        WireMockServer server = server(interner);
+        server.start();
+        try {
+            List<StubMapping> stubs = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                stubs.add(server.stubFor(get(urlEqualTo("/api/orders/" + i)).willReturn(okJson(ORDER))));
+                stubs.add(server.stubFor(get(urlEqualTo("/api/orders/" + i + "/json"))
+                        .willReturn(aResponse().withJsonBody(Json.node(ORDER)))));
+            }
+            String serialized = Json.write(server.getStubMapping(stubs.get(0).getId()).getItem());
+
+            // Text and JSON bodies of the same bytes keep their kind but share the array
+            byte[] shared = stubs.get(0).getResponse().getByteBody();
+            assertThat(stubs).allSatisfy(stub -> assertThat(stub.getResponse().getByteBody()).isSameAs(shared));
+            assertThat(stubs.get(0).getResponse().getBody()).isEqualTo(ORDER);
+            assertThat(stubs.get(1).getResponse().getJsonBody()).isEqualTo(Json.node(ORDER));
+            assertThat(serialized).contains("\"body\"").doesNotContain("base64Body");
+
+            assertThat(interner.getStubBodies()).isEqualTo(400);
+            assertThat(interner.getDistinctBodies()).isEqualTo(1);
+            assertThat(interner.getSavedBytes()).isEqualTo(399L * shared.length);
+            assertThat(given().baseUri(server.baseUrl()).get("/api/orders/7").jsonPath().getDouble("total"))
+                    .isEqualTo(69.97);
+            assertThat(given().baseUri(server.baseUrl()).get("/api/orders/7/json").jsonPath().getDouble("total"))
+                    .isEqualTo(69.97);
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testRemoveEditAndResetReleaseBodies() throws IOException {
+        BodyInterner interner = new BodyInterner();
+        WireMockServer server = server(interner);
+        server.start();
+        try {
+            StubMapping first = server.stubFor(get(urlEqualTo("/api/orders/1")).willReturn(okJson(ORDER)));
+            StubMapping second = server.stubFor(get(urlEqualTo("/api/orders/2")).willReturn(okJson(ORDER)));
+            server.stubFor(get(urlEqualTo("/api/ping")).willReturn(okJson("{}")));
+            assertThat(interner.getStubBodies()).isEqualTo(2);
+
+            server.editStub(get(urlEqualTo("/api/orders/2")).withId(second.getId())
+                    .willReturn(okJson(ORDER.replace("CONFIRMED", "SHIPPED"))));
+            assertThat(interner.getDistinctBodies()).isEqualTo(2);
+            assertThat(interner.getSavedBytes()).isZero();
+
+            server.removeStubMapping(first);
+            assertThat(interner.getStubBodies()).isEqualTo(1);
+            assertThat(interner.getDistinctBodies()).isEqualTo(1);
+            assertThat(interner.getStoredBytes()).isEqualTo(ORDER.length() - "CONFIRMED".length() + "SHIPPED".length());
+
+            server.resetAll();
+            assertThat(interner.getStubBodies()).isZero();
+            assertThat(interner.getStoredBytes()).isZero();
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testAdminApiReportsSavings() throws IOException {
+        WireMockServer server = server(new BodyInterner());
+        server.start();
+        try {
+            for (int i = 0; i < 10; i++) {
+                server.stubFor(get(urlEqualTo("/api/orders/" + i)).willReturn(okJson(ORDER)));
+            }
+
+            JsonPath bodies = given().baseUri(server.baseUrl()).get("/__admin/bodies").jsonPath();
+            assertThat(bodies.getMap("")).containsAllEntriesOf(Map.of(
+                    "stubBodies", 10, "distinctBodies", 1, "storedBytes", ORDER.length()));
+            assertThat(bodies.getLong("savedBytes")).isEqualTo(9L * ORDER.length());
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * Server without the default mappings, so only the test's stubs count
+     */
+    private static WireMockServer server(BodyInterner interner) throws IOException {
+        return new WireMockServer(options().dynamicPort()
+                .usingFilesUnderDirectory(Files.createTempDirectory("no-mappings").toString())
+                .extensions(interner));
+    }
+}
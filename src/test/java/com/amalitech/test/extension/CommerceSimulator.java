@@ -0,0 +1,351 @@
+package com.amalitech.test.extension;
+
+import com.amalitech.test.data.ModelJsonWriter;
+import com.amalitech.test.data.TestDataGenerator;
+import com.amalitech.test.model.Cart;
+import com.amalitech.test.model.CartItem;
+import com.amalitech.test.model.Money;
+import com.amalitech.test.model.Order;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory cart, checkout and order backend keyed by session token.
+ * <p>
+ * Sessions live in a {@link ConcurrentHashMap}, whose per-bin locking stripes access across
+ * sessions; every operation then locks only its own session. Concurrent shoppers therefore never
+ * contend with each other, while calls within one session are applied in order. Totals come from
+ * {@link Cart} itself so they always agree with the client-side model.
+ */
+public class CommerceSimulator {
+    public static final Money STANDARD_SHIPPING = Money.parse("10.00");
+    public static final Money EXPRESS_SHIPPING = Money.parse("25.00");
+
+    private final TestDataGenerator catalogue;
+    private final Clock clock;
+    private final Map<String, Session> sessions =
+            new ConcurrentHashMap<>(1024, 0.75f, Runtime.getRuntime().availableProcessors() * 4);
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Constructor with the catalogue products are resolved against
+     *
+     * @param seed          Catalogue seed, the same as the product catalogue stub uses
+     * @param catalogueSize Number of products; product ids run from 1 to this size
+     */
+    public CommerceSimulator(long seed, long catalogueSize) {
+        this(seed, catalogueSize, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Constructor with the clock that stamps orders, such as a
+     * {@link com.amalitech.test.utils.VirtualClock} shared with the test
+     */
+    public CommerceSimulator(long seed, long catalogueSize, Clock clock) {
+        this.catalogue = new TestDataGenerator(seed, catalogueSize);
+        this.clock = clock;
+    }
+
+    /**
+     * Drop all sessions, carts and orders
+     */
+    public void reset() {
+        sessions.clear();
+    }
+
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    private Session session(String token) {
+        return sessions.computeIfAbsent(token, key -> new Session("cart-" + sequence.incrementAndGet()));
+    }
+
+    public Result getCart(String token) {
+        Session session = session(token);
+        synchronized (session) {
+            return session.cartResult(200);
+        }
+    }
+
+    public Result clearCart(String token) {
+        Session session = session(token);
+        synchronized (session) {
+            session.resetCart();
+            return session.cartResult(200);
+        }
+    }
+
+    public Result addItem(String token, long productId, int quantity) {
+        if (productId < 1 || productId > catalogue.getCatalogueSize()) {
+            return Result.error(404, "Product not found");
+        }
+        if (quantity < 1) {
+            return Result.error(400, "Quantity must be positive");
+        }
+
+        long index = productId - 1;
+        Session session = session(token);
+        synchronized (session) {
+            try {
+                session.cart.addItem(new CartItem(productId, catalogue.productName(index), quantity,
+                        catalogue.productPrice(index)));
+            } catch (ArithmeticException e) {
+                return Result.error(400, "Quantity too large");
+            } catch (IllegalArgumentException e) {
+                return Result.error(400, e.getMessage());
+            }
+            return session.cartResult(200);
+        }
+    }
+
+    public Result updateItemQuantity(String token, long productId, int quantity) {
+        Session session = session(token);
+        synchronized (session) {
+            if (!session.cart.containsItem(productId)) {
+                return Result.error(404, "Item not in cart");
+            }
+            if (quantity < 1) {
+                session.cart.removeItem(productId);
+            } else {
+                try {
+                    session.cart.updateItemQuantity(productId, quantity);
+                } catch (ArithmeticException e) {
+                    return Result.error(400, "Quantity too large");
+                }
+            }
+            return session.cartResult(200);
+        }
+    }
+
+    public Result removeItem(String token, long productId) {
+        Session session = session(token);
+        synchronized (session) {
+            if (!session.cart.containsItem(productId)) {
+                return Result.error(404, "Item not in cart");
+            }
+            session.cart.removeItem(productId);
+            return session.cartResult(200);
+        }
+    }
+
+    public Result initiateCheckout(String token) {
+        Session session = session(token);
+        synchronized (session) {
+            if (session.cart.getItems().isEmpty()) {
+                return Result.error(400, "Cart is empty");
+            }
+            session.checkoutId = "checkout-" + sequence.incrementAndGet();
+            StringBuilder json = new StringBuilder(512);
+            json.append("{\"checkoutId\":\"").append(session.checkoutId)
+                    .append("\",\"cartId\":\"").append(session.cart.getId()).append('"');
+            session.appendTotals(json);
+            json.append(",\"paymentMethods\":[\"Credit Card\",\"PayPal\",\"Apple Pay\"],\"shippingMethods\":[");
+            appendShippingMethod(json, "standard", "Standard Shipping", STANDARD_SHIPPING, "3-5").append(',');
+            appendShippingMethod(json, "express", "Express Shipping", EXPRESS_SHIPPING, "1-2");
+            return Result.ok(json.append("]}"));
+        }
+    }
+
+    public Result setShippingAddress(String token, Order.Address address) {
+        Session session = session(token);
+        synchronized (session) {
+            session.shippingAddress = address;
+            StringBuilder json = new StringBuilder(256).append("{\"valid\":true,\"normalized\":");
+            return Result.ok(ModelJsonWriter.writeAddress(address, json).append('}'));
+        }
+    }
+
+    public Result selectShippingMethod(String token, String shippingMethodId) {
+        Money price;
+        String name;
+        String days;
+        if ("standard".equals(shippingMethodId)) {
+            price = STANDARD_SHIPPING;
+            name = "Standard Shipping";
+            days = "3-5";
+        } else if ("express".equals(shippingMethodId)) {
+            price = EXPRESS_SHIPPING;
+            name = "Express Shipping";
+            days = "1-2";
+        } else {
+            return Result.error(400, "Unknown shipping method");
+        }
+
+        Session session = session(token);
+        synchronized (session) {
+            session.shipping = price;
+            StringBuilder json = new StringBuilder(256);
+            json.append("{\"checkoutId\":\"").append(session.checkoutId).append("\",\"shippingMethod\":");
+            appendShippingMethod(json, shippingMethodId, name, price, days);
+            session.appendTotals(json);
+            return Result.ok(json.append('}'));
+        }
+    }
+
+    public Result processPayment(String token, String paymentMethod) {
+        Session session = session(token);
+        synchronized (session) {
+            if (session.cart.getItems().isEmpty()) {
+                return Result.error(400, "Cart is empty");
+            }
+
+            long orderNumber = sequence.incrementAndGet();
+            Order order = new Order();
+            order.setId("order-" + orderNumber);
+            order.setUserId(session.cart.getUserId());
+            order.setItems(new ArrayList<>(session.cart.getItems()));
+            order.setSubtotal(session.cart.getSubtotal());
+            order.setTax(session.cart.getTax());
+            order.setShipping(session.shipping);
+            order.setTotal(session.cart.getTotal().plus(session.shipping));
+            order.setStatus("pending");
+            order.setCreatedAt(LocalDateTime.now(clock));
+            order.setShippingAddress(session.shippingAddress);
+
+            Order.PaymentInfo paymentInfo = new Order.PaymentInfo();
+            paymentInfo.setMethod(paymentMethod);
+            paymentInfo.setTransactionId("txn-" + orderNumber);
+            paymentInfo.setStatus("completed");
+            order.setPaymentInfo(paymentInfo);
+
+            session.orders.put(order.getId(), order);
+            session.resetCart();
+
+            return Result.ok(new StringBuilder(128)
+                    .append("{\"transactionId\":\"").append(paymentInfo.getTransactionId())
+                    .append("\",\"status\":\"success\",\"orderId\":\"").append(order.getId()).append("\"}"));
+        }
+    }
+
+    public Result getOrder(String token, String orderId) {
+        Session session = session(token);
+        synchronized (session) {
+            Order order = session.orders.get(orderId);
+            if (order == null) {
+                return Result.error(404, "Order not found");
+            }
+            return Result.ok(ModelJsonWriter.writeOrder(order, new StringBuilder(1024)));
+        }
+    }
+
+    public Result listOrders(String token, String status, int page, int pageSize) {
+        Session session = session(token);
+        synchronized (session) {
+            List<Order> matching = new ArrayList<>();
+            for (Order order : session.orders.values()) {
+                if (status == null || status.equals(order.getStatus())) {
+                    matching.add(order);
+                }
+            }
+
+            // Computed in long so huge page numbers land past the end rather than overflowing
+            int from = (int) Math.min(Math.max(0, ((long) page - 1) * pageSize), matching.size());
+            int to = (int) Math.min((long) from + pageSize, matching.size());
+            StringBuilder json = new StringBuilder(256 + (to - from) * 1024).append("{\"orders\":[");
+            for (int i = from; i < to; i++) {
+                if (i > from) {
+                    json.append(',');
+                }
+                ModelJsonWriter.writeOrder(matching.get(i), json);
+            }
+            return Result.ok(json.append("],\"page\":").append(page)
+                    .append(",\"pageSize\":").append(pageSize)
+                    .append(",\"totalCount\":").append(matching.size())
+                    .append(",\"totalPages\":").append(((long) matching.size() + pageSize - 1) / pageSize)
+                    .append('}'));
+        }
+    }
+
+    public Result cancelOrder(String token, String orderId) {
+        Session session = session(token);
+        synchronized (session) {
+            Order order = session.orders.get(orderId);
+            if (order == null) {
+                return Result.error(404, "Order not found");
+            }
+            if (!"pending".equals(order.getStatus()) && !"processing".equals(order.getStatus())) {
+                return Result.error(409, "Order cannot be cancelled in status " + order.getStatus());
+            }
+            order.setStatus("cancelled");
+            return Result.ok(ModelJsonWriter.writeOrder(order, new StringBuilder(1024)));
+        }
+    }
+
+    private static StringBuilder appendShippingMethod(StringBuilder json, String id, String name, Money price,
+            String days) {
+        json.append("{\"id\":\"").append(id).append("\",\"name\":\"").append(name).append("\",\"price\":");
+        return price.appendTo(json).append(",\"estimatedDays\":\"").append(days).append("\"}");
+    }
+
+    /**
+     * Status code and JSON body of a simulated call
+     */
+    public static class Result {
+        private final int status;
+        private final String body;
+
+        Result(int status, CharSequence body) {
+            this.status = status;
+            this.body = body.toString();
+        }
+
+        static Result ok(CharSequence body) {
+            return new Result(200, body);
+        }
+
+        static Result error(int status, String message) {
+            StringBuilder json = new StringBuilder(message.length() + 16).append("{\"error\":");
+            return new Result(status, ModelJsonWriter.writeString(message, json).append('}'));
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getBody() {
+            return body;
+        }
+    }
+
+    private static class Session {
+        private final String cartId;
+        private final Map<String, Order> orders = new LinkedHashMap<>();
+        private Cart cart;
+        private String checkoutId;
+        private Money shipping = STANDARD_SHIPPING;
+        private Order.Address shippingAddress;
+
+        Session(String cartId) {
+            this.cartId = cartId;
+            resetCart();
+        }
+
+        void resetCart() {
+            cart = new Cart();
+            cart.setId(cartId);
+            cart.setUserId("user-" + cartId.substring("cart-".length()));
+            checkoutId = null;
+            shipping = STANDARD_SHIPPING;
+        }
+
+        Result cartResult(int status) {
+            return new Result(status, ModelJsonWriter.writeCart(cart, new StringBuilder(256)));
+        }
+
+        void appendTotals(StringBuilder json) {
+            json.append(",\"subtotal\":");
+            cart.getSubtotal().appendTo(json).append(",\"tax\":");
+            cart.getTax().appendTo(json).append(",\"shipping\":");
+            shipping.appendTo(json).append(",\"total\":");
+            cart.getTotal().plus(shipping).appendTo(json);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.amalitech.test.extension;
+
+import com.amalitech.test.data.TestDataGenerator;
+import com.amalitech.test.model.Cart;
+import com.amalitech.test.model.CartItem;
+import com.amalitech.test.model.Money;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CommerceSimulatorTest {
+    private static final int SIZE = 1_000;
+
+    private final TestDataGenerator generator = new TestDataGenerator(42, SIZE);
+    private WireMockServer wireMockServer;
+
+    @BeforeClass
+    public void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.options()
+                .dynamicPort()
+                .extensions(new CommerceSimulatorTransformer(new CommerceSimulator(42, SIZE))));
+        wireMockServer.start();
+        wireMockServer.stubFor(CommerceSimulatorTransformer.simulatorStub());
+    }
+
+    @AfterClass
+    public void tearDown() {
+        wireMockServer.stop();
+    }
+
+    private RequestSpecification session(String token) {
+        return given()
+                .baseUri(wireMockServer.baseUrl())
+                .header("Authorization", token)
+                .contentType(ContentType.JSON);
+    }
+
+    @Test
+    public void testCartKeepsStateAndTotals() {
+        String token = "Bearer cart-state";
+        session(token).body("{\"productId\": 3, \"quantity\": 2}").post("/api/cart/items");
+        session(token).body("{\"productId\": 7, \"quantity\": 1}").post("/api/cart/items");
+        session(token).body("{\"productId\": 3, \"quantity\": 1}").post("/api/cart/items");
+        session(token).body("{\"quantity\": 4}").put("/api/cart/items/7");
+
+        Cart cart = session(token).get("/api/cart").as(Cart.class);
+
+        Cart expected = new Cart();
+        expected.addItem(new CartItem(3L, generator.productName(2), 3, generator.productPrice(2)));
+        expected.addItem(new CartItem(7L, generator.productName(6), 4, generator.productPrice(6)));
+        assertThat(cart.getItems()).extracting(CartItem::getProductId).containsExactly(3L, 7L);
+        assertThat(cart.getSubtotal()).isEqualTo(expected.getSubtotal());
+        assertThat(cart.getTax()).isEqualTo(expected.getTax());
+        assertThat(cart.getTotal()).isEqualTo(expected.getTotal());
+
+        assertThat(session(token).delete("/api/cart/items/3").as(Cart.class).getItems()).hasSize(1);
+        assertThat(session(token).delete("/api/cart/items/3").getStatusCode()).isEqualTo(404);
+        assertThat(session(token).body("{\"productId\": " + (SIZE + 1) + "}").post("/api/cart/items")
+                .getStatusCode()).isEqualTo(404);
+        assertThat(given().baseUri(wireMockServer.baseUrl()).get("/api/cart").getStatusCode()).isEqualTo(401);
+    }
+
+    @Test
+    public void testCheckoutCreatesOrder() {
+        String token = "Bearer checkout-flow";
+        session(token).body("{\"productId\": 10, \"quantity\": 2}").post("/api/cart/items");
+        Cart cart = session(token).get("/api/cart").as(Cart.class);
+
+        assertThat(session(token).post("/api/checkout").jsonPath().getString("checkoutId")).startsWith("checkout-");
+        session(token).body("{\"address\": {\"street\": \"1 Main St\", \"city\": \"Accra\", \"state\": \"GA\","
+                + " \"zipCode\": \"00233\", \"country\": \"GH\"}}").post("/api/checkout/shipping-address");
+        Response method = session(token).body("{\"shippingMethodId\": \"express\"}")
+                .post("/api/checkout/shipping-method");
+        assertThat(Money.parse(method.jsonPath().getString("total")))
+                .isEqualTo(cart.getTotal().plus(CommerceSimulator.EXPRESS_SHIPPING));
+
+        String orderId = session(token).body("{\"paymentMethod\": \"PayPal\"}").post("/api/checkout/payment")
+                .jsonPath().getString("orderId");
+        JsonPath order = session(token).get("/api/orders/" + orderId).jsonPath();
+
+        assertThat(order.getString("status")).isEqualTo("pending");
+        assertThat(Money.parse(order.getString("total")))
+                .isEqualTo(cart.getTotal().plus(CommerceSimulator.EXPRESS_SHIPPING));
+        assertThat(order.getString("shippingAddress.city")).isEqualTo("Accra");
+        assertThat(order.getString("paymentInfo.method")).isEqualTo("PayPal");
+        assertThat(session(token).get("/api/cart").as(Cart.class).getItems()).isEmpty();
+        assertThat(session(token).get("/api/orders?status=pending").jsonPath().getInt("totalCount")).isEqualTo(1);
+        JsonPath farPage = session(token).get("/api/orders?page=2147483647&pageSize=2147483647").jsonPath();
+        assertThat(farPage.getList("orders")).isEmpty();
+        assertThat(farPage.getInt("totalCount")).isEqualTo(1);
+
+        assertThat(session(token).post("/api/orders/" + orderId + "/cancel").jsonPath().getString("status"))
+                .isEqualTo("cancelled");
+        assertThat(session(token).post("/api/orders/" + orderId + "/cancel").getStatusCode()).isEqualTo(409);
+    }
+
+    @Test
+    public void testOverflowingQuantityIsABadRequest() {
+        String token = "Bearer cart-overflow";
+        session(token).body("{\"productId\": 5, \"quantity\": " + Integer.MAX_VALUE + "}").post("/api/cart/items");
+
+        Response response = session(token).body("{\"productId\": 5, \"quantity\": 1}").post("/api/cart/items");
+        assertThat(response.getStatusCode()).isEqualTo(400);
+        assertThat(response.jsonPath().getString("error")).isEqualTo("Quantity too large");
+        assertThat(session(token).get("/api/cart").jsonPath().getInt("items[0].quantity")).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testErrorMessagesAreEscaped() {
+        String body = CommerceSimulator.Result.error(404, "No simulated endpoint for GET /api/\"x\"\\y").getBody();
+
+        assertThat(new JsonPath(body).getString("error")).isEqualTo("No simulated endpoint for GET /api/\"x\"\\y");
+    }
+
+    @Test
+    public void testConcurrentSessionsAreIsolated() throws Exception {
+        int sessions = 16;
+        int itemsPerSession = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Cart>> carts = new ArrayList<>();
+            for (int s = 0; s < sessions; s++) {
+                String token = "Bearer concurrent-" + s;
+                carts.add(executor.submit(() -> {
+                    for (int i = 1; i <= itemsPerSession; i++) {
+                        session(token).body("{\"productId\": " + i + ", \"quantity\": 1}").post("/api/cart/items");
+                    }
+                    return session(token).get("/api/cart").as(Cart.class);
+                }));
+            }
+
+            Cart expected = new Cart();
+            for (int i = 1; i <= itemsPerSession; i++) {
+                expected.addItem(new CartItem((long) i, generator.productName(i - 1), 1, generator.productPrice(i - 1)));
+            }
+            for (Future<Cart> cart : carts) {
+                assertThat(cart.get().getItems()).hasSize(itemsPerSession);
+                assertThat(cart.get().getTotal()).isEqualTo(expected.getTotal());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
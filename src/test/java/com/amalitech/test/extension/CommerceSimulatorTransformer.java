@@ -0,0 +1,177 @@
+package com.amalitech.test.extension;
+
+import com.amalitech.test.model.Order;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import java.io.IOException;
+
+import static com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder.like;
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+
+/**
+ * Routes cart, checkout and order calls to a shared {@link CommerceSimulator}.
+ * <p>
+ * Sessions are keyed by the {@code Authorization} header; requests without it get a 401. The
+ * simulator state is dropped whenever the server's stubs are reset, so each test method started
+ * by {@code BaseTest} sees empty carts. Register the stub returned by {@link #simulatorStub()}
+ * to route all {@code /api/cart}, {@code /api/checkout} and {@code /api/orders} calls here.
+ */
+public class CommerceSimulatorTransformer extends ResponseDefinitionTransformer implements StubLifecycleAdapter {
+    public static final String NAME = "commerce-simulator";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final CommerceSimulator simulator;
+
+    /**
+     * Default constructor resolves products against the same catalogue as the product search stub
+     */
+    public CommerceSimulatorTransformer() {
+        this(new CommerceSimulator(42, Integer.getInteger("catalogue.size", 10_000)));
+    }
+
+    public CommerceSimulatorTransformer(CommerceSimulator simulator) {
+        this.simulator = simulator;
+    }
+
+    /**
+     * Stub that sends every cart, checkout and order request to the simulator
+     */
+    public static MappingBuilder simulatorStub() {
+        return any(urlPathMatching("/api/(cart|checkout|orders)(/.*)?"))
+                .atPriority(1)
+                .willReturn(aResponse().withTransformers(NAME));
+    }
+
+    public CommerceSimulator getSimulator() {
+        return simulator;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition,
+            FileSource files, Parameters parameters) {
+        String token = request.getHeader("Authorization");
+        CommerceSimulator.Result result;
+        if (token == null || token.isBlank()) {
+            result = new CommerceSimulator.Result(401, "{\"error\":\"Missing Authorization header\"}");
+        } else {
+            try {
+                result = route(request, token);
+            } catch (IOException | IllegalArgumentException e) {
+                result = new CommerceSimulator.Result(400, "{\"error\":\"Malformed request\"}");
+            }
+        }
+
+        return like(responseDefinition).but()
+                .withStatus(result.getStatus())
+                .withHeader("Content-Type", "application/json")
+                .withBody(result.getBody())
+                .build();
+    }
+
+    private CommerceSimulator.Result route(Request request, String token) throws IOException {
+        String path = request.getUrl();
+        int queryStart = path.indexOf('?');
+        if (queryStart >= 0) {
+            path = path.substring(0, queryStart);
+        }
+        String[] segments = path.substring(1).split("/");
+        RequestMethod method = request.getMethod();
+        String resource = segments.length > 1 ? segments[1] : "";
+
+        if (resource.equals("cart")) {
+            if (segments.length == 2) {
+                if (method.equals(RequestMethod.GET)) {
+                    return simulator.getCart(token);
+                }
+                if (method.equals(RequestMethod.DELETE)) {
+                    return simulator.clearCart(token);
+                }
+            } else if (segments[2].equals("items")) {
+                if (segments.length == 3 && method.equals(RequestMethod.POST)) {
+                    JsonNode body = body(request);
+                    return simulator.addItem(token, body.path("productId").asLong(),
+                            body.path("quantity").asInt(1));
+                }
+                if (segments.length == 4) {
+                    long productId = Long.parseLong(segments[3]);
+                    if (method.equals(RequestMethod.PUT)) {
+                        return simulator.updateItemQuantity(token, productId, body(request).path("quantity").asInt());
+                    }
+                    if (method.equals(RequestMethod.DELETE)) {
+                        return simulator.removeItem(token, productId);
+                    }
+                }
+            }
+        } else if (resource.equals("checkout") && method.equals(RequestMethod.POST)) {
+            if (segments.length == 2) {
+                return simulator.initiateCheckout(token);
+            }
+            switch (segments[2]) {
+                case "shipping-address":
+                    return simulator.setShippingAddress(token,
+                            objectMapper.treeToValue(body(request).path("address"), Order.Address.class));
+                case "shipping-method":
+                    return simulator.selectShippingMethod(token, body(request).path("shippingMethodId").asText());
+                case "payment":
+                    return simulator.processPayment(token, body(request).path("paymentMethod").asText());
+                default:
+                    break;
+            }
+        } else if (resource.equals("orders")) {
+            if (segments.length == 2 && method.equals(RequestMethod.GET)) {
+                return simulator.listOrders(token, queryParameter(request, "status"),
+                        Math.max(1, intQueryParameter(request, "page", 1)),
+                        Math.max(1, intQueryParameter(request, "pageSize", 10)));
+            }
+            if (segments.length == 3 && method.equals(RequestMethod.GET)) {
+                return simulator.getOrder(token, segments[2]);
+            }
+            if (segments.length == 4 && segments[3].equals("cancel") && method.equals(RequestMethod.POST)) {
+                return simulator.cancelOrder(token, segments[2]);
+            }
+        }
+        return CommerceSimulator.Result.error(404, "No simulated endpoint for " + method + " " + path);
+    }
+
+    private static JsonNode body(Request request) throws IOException {
+        String body = request.getBodyAsString();
+        return body == null || body.isEmpty() ? objectMapper.createObjectNode() : objectMapper.readTree(body);
+    }
+
+    private static String queryParameter(Request request, String name) {
+        QueryParameter parameter = request.queryParameter(name);
+        return parameter != null && parameter.isPresent() ? parameter.firstValue() : null;
+    }
+
+    private static int intQueryParameter(Request request, String name, int defaultValue) {
+        String value = queryParameter(request, name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    @Override
+    public void afterStubsReset() {
+        simulator.reset();
+    }
+}
@@ -0,0 +1,200 @@
+package com.amalitech.test.extension;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+
+import java.io.FileNotFoundException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * Distribution of the delay a stub adds before responding, in milliseconds.
+ * <p>
+ * Profiles are described by a map, as given in a stub's transformer parameters:
+ * <ul>
+ * <li>{@code {"distribution": "fixed", "millis": 100}}</li>
+ * <li>{@code {"distribution": "uniform", "lower": 20, "upper": 80}}</li>
+ * <li>{@code {"distribution": "exponential", "mean": 50}} - memoryless, as in textbook queueing models</li>
+ * <li>{@code {"distribution": "lognormal", "median": 50, "sigma": 0.5}}</li>
+ * <li>{@code {"distribution": "bimodal", "fastMedian": 20, "slowMedian": 800, "slowFraction": 0.05}}
+ * - mostly fast with an occasional slow mode, such as a cache miss or a GC pause</li>
+ * <li>{@code {"distribution": "histogram", "percentiles": {"50": 20, "99": 250, "100": 900}}}
+ * - interpolated between the given percentiles, as read off a production dashboard</li>
+ * <li>{@code {"distribution": "histogram", "file": "build/reports/load/latency.hlog", "tag": "st:GET_/api/orders"}}
+ * - replays the service times a load run recorded in an HdrHistogram log</li>
+ * </ul>
+ * Every profile also accepts {@code maxMillis} to cap the delay.
+ */
+@FunctionalInterface
+public interface LatencyProfile {
+
+    long sampleMillis(RandomGenerator random);
+
+    /**
+     * Build a profile from its description
+     *
+     * @throws IllegalArgumentException If the description is incomplete or names an unknown distribution
+     */
+    static LatencyProfile parse(Map<String, ?> description) {
+        String distribution = String.valueOf(description.get("distribution"));
+        LatencyProfile profile = switch (distribution) {
+            case "fixed" -> fixed(number(description, "millis"));
+            case "uniform" -> uniform(number(description, "lower"), number(description, "upper"));
+            case "exponential" -> exponential(number(description, "mean"));
+            case "lognormal" -> logNormal(number(description, "median"), number(description, "sigma", 0.5));
+            case "bimodal" -> bimodal(number(description, "fastMedian"), number(description, "slowMedian"),
+                    number(description, "slowFraction"), number(description, "sigma", 0.25));
+            case "histogram" -> description.containsKey("file")
+                    ? histogramLog(String.valueOf(description.get("file")), (String) description.get("tag"))
+                    : percentiles(percentileMap(description));
+            default -> throw new IllegalArgumentException("Unknown latency distribution: " + distribution);
+        };
+        return description.containsKey("maxMillis") ? profile.capped((long) number(description, "maxMillis")) : profile;
+    }
+
+    static LatencyProfile fixed(double millis) {
+        long delay = Math.round(millis);
+        return random -> delay;
+    }
+
+    static LatencyProfile uniform(double lower, double upper) {
+        if (upper < lower) {
+            throw new IllegalArgumentException("upper must not be less than lower");
+        }
+        return random -> Math.round(lower + random.nextDouble() * (upper - lower));
+    }
+
+    static LatencyProfile exponential(double mean) {
+        return random -> Math.round(random.nextExponential() * mean);
+    }
+
+    /**
+     * Log-normal delays, the usual shape of service response times
+     *
+     * @param median Median delay in milliseconds
+     * @param sigma  Standard deviation of the underlying normal
+     */
+    static LatencyProfile logNormal(double median, double sigma) {
+        double mu = Math.log(median);
+        return random -> Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+    }
+
+    /**
+     * Mixture of two log-normal modes with the same spread
+     */
+    static LatencyProfile bimodal(double fastMedian, double slowMedian, double slowFraction, double sigma) {
+        LatencyProfile fast = logNormal(fastMedian, sigma);
+        LatencyProfile slow = logNormal(slowMedian, sigma);
+        return random -> random.nextDouble() < slowFraction ? slow.sampleMillis(random) : fast.sampleMillis(random);
+    }
+
+    /**
+     * Delays interpolated linearly between percentiles; below the lowest percentile the delay
+     * ramps up from zero
+     *
+     * @param percentiles Delay in milliseconds by percentile, 0 to 100
+     */
+    static LatencyProfile percentiles(Map<Double, Double> percentiles) {
+        TreeMap<Double, Double> points = new TreeMap<>(percentiles);
+        points.putIfAbsent(0.0, 0.0);
+        if (points.lastKey() < 100) {
+            points.put(100.0, points.lastEntry().getValue());
+        }
+        double[] quantiles = new double[QuantileTable.SIZE + 1];
+        for (int i = 0; i <= QuantileTable.SIZE; i++) {
+            double percentile = 100.0 * i / QuantileTable.SIZE;
+            Map.Entry<Double, Double> low = points.floorEntry(percentile);
+            Map.Entry<Double, Double> high = points.ceilingEntry(percentile);
+            quantiles[i] = low.getKey().equals(high.getKey()) ? low.getValue()
+                    : low.getValue() + (high.getValue() - low.getValue())
+                    * (percentile - low.getKey()) / (high.getKey() - low.getKey());
+        }
+        return new QuantileTable(quantiles);
+    }
+
+    /**
+     * Replay the distribution of values, in nanoseconds, recorded in an HdrHistogram interval log
+     * such as the one the load test writes
+     *
+     * @param file HdrHistogram log
+     * @param tag  Tag of the histograms to use, or null for all
+     */
+    static LatencyProfile histogramLog(String file, String tag) {
+        Histogram total = null;
+        try (HistogramLogReader reader = new HistogramLogReader(file)) {
+            while (reader.hasNext()) {
+                Histogram interval = (Histogram) reader.nextIntervalHistogram();
+                if (interval != null && (tag == null || tag.equals(interval.getTag()))) {
+                    if (total == null) {
+                        total = new Histogram(interval.getNumberOfSignificantValueDigits());
+                    }
+                    total.add(interval);
+                }
+            }
+        } catch (FileNotFoundException e) {
+            throw new IllegalArgumentException("Histogram log not found: " + file, e);
+        }
+        if (total == null || total.getTotalCount() == 0) {
+            throw new IllegalArgumentException("No histogram tagged " + tag + " in " + file);
+        }
+        double[] quantiles = new double[QuantileTable.SIZE + 1];
+        for (int i = 0; i <= QuantileTable.SIZE; i++) {
+            quantiles[i] = total.getValueAtPercentile(100.0 * i / QuantileTable.SIZE) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+        return new QuantileTable(quantiles);
+    }
+
+    /**
+     * This profile with delays cut off at a maximum
+     */
+    default LatencyProfile capped(long maxMillis) {
+        return random -> Math.min(sampleMillis(random), maxMillis);
+    }
+
+    private static double number(Map<String, ?> description, String key) {
+        Object value = description.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Latency profile needs '" + key + "': " + description);
+        }
+        return value instanceof Number number ? number.doubleValue() : Double.parseDouble(value.toString());
+    }
+
+    private static double number(Map<String, ?> description, String key, double defaultValue) {
+        return description.containsKey(key) ? number(description, key) : defaultValue;
+    }
+
+    private static Map<Double, Double> percentileMap(Map<String, ?> description) {
+        if (!(description.get("percentiles") instanceof Map<?, ?> given) || given.isEmpty()) {
+            throw new IllegalArgumentException("Histogram latency profile needs 'percentiles' or 'file': " + description);
+        }
+        Map<Double, Double> percentiles = new TreeMap<>();
+        given.forEach((key, value) -> percentiles.put(Double.parseDouble(key.toString()),
+                value instanceof Number number ? number.doubleValue() : Double.parseDouble(value.toString())));
+        return percentiles;
+    }
+
+    /**
+     * Samples by inverse transform from a precomputed table of evenly spaced quantiles, so a draw
+     * costs two array reads whatever the source histogram's resolution
+     */
+    final class QuantileTable implements LatencyProfile {
+        // 0.01% steps keep the p99.99 tail while the table stays under 100 KB
+        static final int SIZE = 10_000;
+
+        private final double[] quantiles;
+
+        QuantileTable(double[] quantiles) {
+            this.quantiles = quantiles;
+        }
+
+        @Override
+        public long sampleMillis(RandomGenerator random) {
+            double position = random.nextDouble() * SIZE;
+            int index = (int) position;
+            double fraction = position - index;
+            return Math.round(quantiles[index] + (quantiles[index + 1] - quantiles[index]) * fraction);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.amalitech.test.extension;
+
+import com.amalitech.test.server.WireMockServerFactory;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.testng.annotations.Test;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class LatencyProfileTest {
+
+    @Test
+    public void testDistributionsHitTheirMedians() {
+        assertThat(median(LatencyProfile.parse(Map.of("distribution", "fixed", "millis", 40)))).isEqualTo(40);
+        assertThat(median(LatencyProfile.parse(Map.of("distribution", "uniform", "lower", 10, "upper", 30))))
+                .isCloseTo(20, within(1L));
+        assertThat(median(LatencyProfile.parse(Map.of("distribution", "lognormal", "median", 80, "sigma", 0.5))))
+                .isCloseTo(80, within(3L));
+        assertThat(median(LatencyProfile.parse(Map.of("distribution", "lognormal", "median", 80, "maxMillis", 50))))
+                .isEqualTo(50);
+    }
+
+    @Test
+    public void testBimodalMixesModes() {
+        LatencyProfile profile = LatencyProfile.parse(Map.of("distribution", "bimodal",
+                "fastMedian", 10, "slowMedian", 1000, "slowFraction", 0.1));
+        long[] samples = samples(profile);
+        long slow = Arrays.stream(samples).filter(sample -> sample > 200).count();
+
+        assertThat(slow / (double) samples.length).isCloseTo(0.1, within(0.01));
+        assertThat(samples[samples.length / 2]).isCloseTo(11, within(3L));
+    }
+
+    @Test
+    public void testPercentilesAreInterpolated() {
+        LatencyProfile profile = LatencyProfile.parse(Map.of("distribution", "histogram",
+                "percentiles", Map.of("50", 20, "90", 100, "100", 500)));
+        long[] samples = samples(profile);
+
+        assertThat(samples[samples.length / 2]).isCloseTo(20, within(1L));
+        assertThat(samples[(int) (samples.length * 0.7)]).isCloseTo(60, within(2L));
+        assertThat(samples[samples.length - 1]).isLessThanOrEqualTo(500);
+        assertThatThrownBy(() -> LatencyProfile.parse(Map.of("distribution", "histogram")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testHistogramLogIsReplayed() throws Exception {
+        Path file = Files.createTempFile("latency", ".hlog");
+        Histogram recorded = new Histogram(3);
+        for (int i = 1; i <= 1000; i++) {
+            recorded.recordValue(i * 1_000_000L); // 1 to 1000 ms in nanoseconds
+        }
+        recorded.setTag("st:GET_/api/orders");
+        try (PrintStream out = new PrintStream(file.toFile())) {
+            new HistogramLogWriter(out).outputIntervalHistogram(recorded);
+        }
+
+        LatencyProfile profile = LatencyProfile.parse(Map.of("distribution", "histogram",
+                "file", file.toString(), "tag", "st:GET_/api/orders"));
+        Files.delete(file);
+
+        assertThat(median(profile)).isCloseTo(500, within(5L));
+    }
+
+    @Test
+    public void testDelayedResponsesDoNotHoldContainerThreads() {
+        WireMockServer server = new WireMockServer(WireMockServerFactory.configure(options().dynamicPort())
+                .containerThreads(10));
+        server.start();
+        try {
+            server.stubFor(get(urlEqualTo("/api/slow")).willReturn(aResponse()
+                    .withStatus(200)
+                    .withTransformers(LatencyProfileTransformer.NAME)
+                    .withTransformerParameters(Parameters.one(LatencyProfileTransformer.PARAMETER,
+                            Map.of("distribution", "fixed", "millis", 500)))));
+
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(server.baseUrl() + "/api/slow")).build();
+            long start = System.nanoTime();
+            List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+            }
+            responses.forEach(response -> assertThat(response.join().statusCode()).isEqualTo(200));
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            // Sleeping on ten container threads would take ten seconds
+            assertThat(elapsedMillis).isBetween(500L, 8_000L);
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static long median(LatencyProfile profile) {
+        long[] samples = samples(profile);
+        return samples[samples.length / 2];
+    }
+
+    private static long[] samples(LatencyProfile profile) {
+        SplittableRandom random = new SplittableRandom(3);
+        long[] samples = new long[50_000];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = profile.sampleMillis(random);
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+}
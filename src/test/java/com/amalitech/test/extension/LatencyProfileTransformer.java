@@ -0,0 +1,61 @@
+package com.amalitech.test.extension;
+
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.common.Metadata;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder.like;
+
+/**
+ * Delays a stub's response by a value drawn from a {@link LatencyProfile}.
+ * <p>
+ * Attach with {@code "transformers": ["latency-profile"]} and describe the profile under the
+ * {@code latency} transformer parameter, e.g.
+ * {@code "transformerParameters": {"latency": {"distribution": "lognormal", "median": 80}}}.
+ * List it after any transformer that builds the response. The delay is added to the stub's own
+ * fixed delay.
+ * <p>
+ * The sampled delay is handed to WireMock as the response's initial delay. With asynchronous
+ * responses enabled, as {@link com.amalitech.test.server.WireMockServerFactory#configure} does,
+ * WireMock then releases the Jetty thread and completes the response from a scheduled executor,
+ * so thousands of delayed responses in flight hold no request threads.
+ */
+public class LatencyProfileTransformer extends ResponseDefinitionTransformer {
+    public static final String NAME = "latency-profile";
+    public static final String PARAMETER = "latency";
+
+    // Parsed profiles by description; histogram files in particular are too costly to read per request
+    private final Map<Map<String, Object>, LatencyProfile> profiles = new ConcurrentHashMap<>();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition,
+            FileSource files, Parameters parameters) {
+        Metadata description = parameters == null ? null : parameters.getMetadata(PARAMETER, null);
+        if (description == null) {
+            throw new IllegalArgumentException(NAME + " needs a '" + PARAMETER + "' transformer parameter");
+        }
+        LatencyProfile profile = profiles.computeIfAbsent(description, LatencyProfile::parse);
+        long delay = Math.max(0, profile.sampleMillis(ThreadLocalRandom.current()));
+        Integer fixedDelay = responseDefinition.getFixedDelayMilliseconds();
+        return like(responseDefinition)
+                .withFixedDelay((int) Math.min(Integer.MAX_VALUE, delay + (fixedDelay == null ? 0 : fixedDelay)))
+                .build();
+    }
+}
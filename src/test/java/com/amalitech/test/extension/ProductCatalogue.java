@@ -0,0 +1,272 @@
+package com.amalitech.test.extension;
+
+import com.amalitech.test.data.TestDataGenerator;
+import com.amalitech.test.model.Money;
+import com.amalitech.test.model.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory product catalogue backed by {@link TestDataGenerator}.
+ * <p>
+ * Only an inverted index is stored: for every lower-cased token of a product name or category the
+ * sorted array of matching catalogue indexes. Product fields are regenerated from the seed when a
+ * page is rendered, so a catalogue of millions of products costs a few ints per product.
+ */
+public class ProductCatalogue {
+    private static final int[] NO_MATCHES = new int[0];
+
+    private final TestDataGenerator generator;
+    private final int size;
+    private final Map<String, int[]> postingsByTerm;
+    private final Map<String, int[]> postingsByCategory;
+
+    /**
+     * Build the catalogue and its index
+     *
+     * @param seed Seed passed to the data generator
+     * @param size Number of products, ids run from 1 to size
+     */
+    public ProductCatalogue(long seed, int size) {
+        this.generator = new TestDataGenerator(seed, size);
+        this.size = size;
+
+        Map<String, PostingsBuilder> terms = new HashMap<>();
+        Map<String, PostingsBuilder> categories = new HashMap<>();
+        for (int index = 0; index < size; index++) {
+            String category = generator.productCategory(index);
+            categories.computeIfAbsent(normalise(category), key -> new PostingsBuilder()).add(index);
+            for (String token : tokenize(generator.productName(index) + " " + category)) {
+                terms.computeIfAbsent(token, key -> new PostingsBuilder()).add(index);
+            }
+        }
+
+        this.postingsByTerm = freeze(terms);
+        this.postingsByCategory = freeze(categories);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get a product by id
+     *
+     * @param id Product id
+     * @return The product, or null if the id is outside the catalogue
+     */
+    public Product findById(long id) {
+        return id >= 1 && id <= size ? generator.product(id - 1) : null;
+    }
+
+    /**
+     * Search the catalogue. All query tokens must match (AND semantics); a blank query matches all.
+     *
+     * @param query    Free-text query, may be null
+     * @param category Category filter, case-insensitive, may be null
+     * @param minPrice Inclusive lower price bound, may be null
+     * @param maxPrice Inclusive upper price bound, may be null
+     * @param page     1-based page number
+     * @param pageSize Maximum number of products on the page
+     * @return The requested page and the total number of matches
+     */
+    public SearchResult search(String query, String category, Money minPrice, Money maxPrice, int page, int pageSize) {
+        List<int[]> lists = new ArrayList<>();
+        for (String token : tokenize(query)) {
+            lists.add(postingsByTerm.getOrDefault(token, NO_MATCHES));
+        }
+        if (category != null && !category.isBlank()) {
+            lists.add(postingsByCategory.getOrDefault(normalise(category), NO_MATCHES));
+        }
+
+        long min = minPrice == null ? Long.MIN_VALUE : minPrice.getMinorUnits();
+        long max = maxPrice == null ? Long.MAX_VALUE : maxPrice.getMinorUnits();
+        boolean priceFiltered = minPrice != null || maxPrice != null;
+        long firstOnPage = (long) (page - 1) * pageSize;
+
+        List<Product> products = new ArrayList<>(Math.min(pageSize, 64));
+        long total = 0;
+        Cursor cursor = lists.isEmpty() ? new RangeCursor(size) : intersect(lists);
+        for (int index = cursor.next(); index >= 0; index = cursor.next()) {
+            if (priceFiltered) {
+                long price = generator.productPrice(index).getMinorUnits();
+                if (price < min || price > max) {
+                    continue;
+                }
+            }
+            if (total >= firstOnPage && products.size() < pageSize) {
+                products.add(generator.product(index));
+            }
+            total++;
+        }
+        return new SearchResult(products, total);
+    }
+
+    private static Cursor intersect(List<int[]> lists) {
+        lists.sort((a, b) -> Integer.compare(a.length, b.length));
+        if (lists.size() == 1) {
+            return new ArrayCursor(lists.get(0));
+        }
+        return new IntersectionCursor(lists.toArray(new int[0][]));
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letterOrDigit = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letterOrDigit && start < 0) {
+                start = i;
+            } else if (!letterOrDigit && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static String normalise(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, int[]> freeze(Map<String, PostingsBuilder> builders) {
+        Map<String, int[]> postings = new HashMap<>(builders.size() * 2);
+        builders.forEach((term, builder) -> postings.put(term, builder.toArray()));
+        return postings;
+    }
+
+    /**
+     * One page of search results
+     */
+    public static class SearchResult {
+        private final List<Product> products;
+        private final long totalCount;
+
+        SearchResult(List<Product> products, long totalCount) {
+            this.products = products;
+            this.totalCount = totalCount;
+        }
+
+        public List<Product> getProducts() {
+            return products;
+        }
+
+        public long getTotalCount() {
+            return totalCount;
+        }
+    }
+
+    private static class PostingsBuilder {
+        private int[] values = new int[16];
+        private int count;
+
+        void add(int index) {
+            // Indexes arrive in ascending order, so consecutive duplicates are the only ones possible
+            if (count > 0 && values[count - 1] == index) {
+                return;
+            }
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = index;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, count);
+        }
+    }
+
+    private interface Cursor {
+        /**
+         * @return The next matching index in ascending order, or -1 when exhausted
+         */
+        int next();
+    }
+
+    private static class RangeCursor implements Cursor {
+        private final int size;
+        private int next;
+
+        RangeCursor(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public int next() {
+            return next < size ? next++ : -1;
+        }
+    }
+
+    private static class ArrayCursor implements Cursor {
+        private final int[] values;
+        private int position;
+
+        ArrayCursor(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public int next() {
+            return position < values.length ? values[position++] : -1;
+        }
+    }
+
+    /**
+     * Walks the shortest list and gallops through the longer ones
+     */
+    private static class IntersectionCursor implements Cursor {
+        private final int[][] lists;
+        private final int[] positions;
+
+        IntersectionCursor(int[][] lists) {
+            this.lists = lists;
+            this.positions = new int[lists.length];
+        }
+
+        @Override
+        public int next() {
+            int[] shortest = lists[0];
+            candidates:
+            while (positions[0] < shortest.length) {
+                int candidate = shortest[positions[0]++];
+                for (int i = 1; i < lists.length; i++) {
+                    positions[i] = gallop(lists[i], positions[i], candidate);
+                    if (positions[i] >= lists[i].length) {
+                        positions[0] = shortest.length;
+                        return -1;
+                    }
+                    if (lists[i][positions[i]] != candidate) {
+                        continue candidates;
+                    }
+                }
+                return candidate;
+            }
+            return -1;
+        }
+
+        /**
+         * @return First position at or after {@code from} whose value is not less than {@code target}
+         */
+        private static int gallop(int[] values, int from, int target) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < values.length && values[high] < target) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, values.length);
+            int found = Arrays.binarySearch(values, low, high, target);
+            return found >= 0 ? found : -found - 1;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.amalitech.test.extension;
+
+import com.amalitech.test.data.TestDataGenerator;
+import com.amalitech.test.model.Money;
+import com.amalitech.test.model.Product;
+import com.amalitech.test.server.WireMockServerFactory;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProductCatalogueTest {
+    private static final int SIZE = 5_000;
+
+    private final ProductCatalogue catalogue = ProductCatalogueTransformer.catalogue(11, SIZE);
+    private final TestDataGenerator generator = new TestDataGenerator(11, SIZE);
+    private WireMockServer wireMockServer;
+
+    @BeforeClass
+    public void setUp() {
+        wireMockServer = new WireMockServer(WireMockServerFactory.configure(WireMockConfiguration.options()
+                .dynamicPort()));
+        wireMockServer.start();
+        // Same priority as the file-based product mappings, and newer, so the catalogue answers
+        wireMockServer.stubFor(get(urlPathMatching("/api/products/.*"))
+                .atPriority(1)
+                .willReturn(aResponse()
+                        .withTransformers(ProductCatalogueTransformer.NAME)
+                        .withTransformerParameter("seed", 11)
+                        .withTransformerParameter("catalogueSize", SIZE)));
+    }
+
+    @AfterClass
+    public void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    public void testSearchMatchesFullScan() {
+        ProductCatalogue.SearchResult result = catalogue.search("wireless phone", null, null, null, 1, SIZE);
+
+        List<Long> expected = LongStream.range(0, SIZE)
+                .mapToObj(generator::product)
+                .filter(product -> {
+                    String name = product.getName().toLowerCase(Locale.ROOT);
+                    return name.startsWith("wireless ") && name.contains("phone ");
+                })
+                .map(Product::getId)
+                .collect(Collectors.toList());
+
+        assertThat(expected).isNotEmpty();
+        assertThat(result.getProducts()).extracting(Product::getId).isEqualTo(expected);
+        assertThat(result.getTotalCount()).isEqualTo(expected.size());
+    }
+
+    @Test
+    public void testFiltersAndPagination() {
+        Money min = Money.parse("10.00");
+        Money max = Money.parse("20.00");
+        ProductCatalogue.SearchResult all = catalogue.search(null, "clothing", min, max, 1, SIZE);
+        ProductCatalogue.SearchResult secondPage = catalogue.search(null, "Clothing", min, max, 2, 7);
+
+        assertThat(all.getProducts()).allSatisfy(product -> {
+            assertThat(product.getCategory()).isEqualTo("Clothing");
+            assertThat(product.getPrice()).isBetween(min, max);
+        });
+        assertThat(secondPage.getTotalCount()).isEqualTo(all.getTotalCount());
+        assertThat(secondPage.getProducts()).extracting(Product::getId)
+                .isEqualTo(all.getProducts().subList(7, 14).stream().map(Product::getId).collect(Collectors.toList()));
+        assertThat(catalogue.search("unknown-term", null, null, null, 1, 10).getTotalCount()).isZero();
+    }
+
+    @Test
+    public void testServedThroughTransformer() {
+        Response response = given()
+                .baseUri(wireMockServer.baseUrl())
+                .get("/api/products/search?query=phone&page=1&pageSize=5");
+
+        assertThat(response.getStatusCode()).isEqualTo(200);
+        JsonPath jsonPath = response.jsonPath();
+        assertThat(jsonPath.getList("results")).hasSize(5);
+        assertThat(jsonPath.getLong("totalCount"))
+                .isEqualTo(catalogue.search("phone", null, null, null, 1, 1).getTotalCount());
+        assertThat(jsonPath.getString("results[0].name")).containsIgnoringCase("phone");
+
+        Product product = given().baseUri(wireMockServer.baseUrl()).get("/api/products/42").as(Product.class);
+        assertThat(product.getName()).isEqualTo(generator.product(41).getName());
+
+        assertThat(given().baseUri(wireMockServer.baseUrl()).get("/api/products/" + (SIZE + 1)).getStatusCode())
+                .isEqualTo(404);
+    }
+}
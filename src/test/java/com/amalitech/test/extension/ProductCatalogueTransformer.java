@@ -0,0 +1,189 @@
+package com.amalitech.test.extension;
+
+import com.amalitech.test.data.ModelJsonWriter;
+import com.amalitech.test.model.Money;
+import com.amalitech.test.model.Product;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder.like;
+
+/**
+ * Serves product search, listing and lookup from a generated {@link ProductCatalogue}.
+ * <p>
+ * Attach to a stub with {@code "transformers": ["product-catalogue"]}. Optional transformer
+ * parameters are {@code catalogueSize} and {@code seed}; the size defaults to the
+ * {@code catalogue.size} system property. Supported query parameters are {@code query},
+ * {@code category}, {@code minPrice}, {@code maxPrice}, {@code page} and {@code pageSize}.
+ * A request whose last path segment is numeric returns that single product.
+ */
+public class ProductCatalogueTransformer extends ResponseDefinitionTransformer {
+    public static final String NAME = "product-catalogue";
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalogueTransformer.class);
+    private static final int DEFAULT_CATALOGUE_SIZE = Integer.getInteger("catalogue.size", 10_000);
+    private static final int DEFAULT_SEED = 42;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Catalogues are expensive to index and immutable, so they are shared by all stubs and servers
+    private static final Map<CatalogueKey, ProductCatalogue> CATALOGUES = new ConcurrentHashMap<>();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    /**
+     * Get, building if necessary, the shared catalogue for a seed and size
+     */
+    public static ProductCatalogue catalogue(long seed, int size) {
+        return CATALOGUES.computeIfAbsent(new CatalogueKey(seed, size), key -> {
+            long start = System.nanoTime();
+            ProductCatalogue catalogue = new ProductCatalogue(key.seed, key.size);
+            log.info("Indexed product catalogue of {} products in {} ms", key.size,
+                    (System.nanoTime() - start) / 1_000_000);
+            return catalogue;
+        });
+    }
+
+    @Override
+    public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition,
+            FileSource files, Parameters parameters) {
+        Parameters params = parameters == null ? Parameters.empty() : parameters;
+        ProductCatalogue catalogue = catalogue(params.getInt("seed", DEFAULT_SEED),
+                params.getInt("catalogueSize", DEFAULT_CATALOGUE_SIZE));
+
+        try {
+            String path = request.getUrl();
+            int queryStart = path.indexOf('?');
+            if (queryStart >= 0) {
+                path = path.substring(0, queryStart);
+            }
+            String lastSegment = path.substring(path.lastIndexOf('/') + 1);
+            if (!lastSegment.isEmpty() && lastSegment.chars().allMatch(Character::isDigit)) {
+                return productResponse(responseDefinition, catalogue, Long.parseLong(lastSegment));
+            }
+            return searchResponse(request, responseDefinition, catalogue);
+        } catch (IllegalArgumentException e) {
+            return jsonResponse(responseDefinition, 400, errorJson(e.getMessage()));
+        }
+    }
+
+    private ResponseDefinition productResponse(ResponseDefinition responseDefinition, ProductCatalogue catalogue,
+            long id) {
+        Product product = catalogue.findById(id);
+        if (product == null) {
+            return jsonResponse(responseDefinition, 404, errorJson("Product not found"));
+        }
+        return jsonResponse(responseDefinition, 200, ModelJsonWriter.writeProduct(product, new StringBuilder()));
+    }
+
+    private ResponseDefinition searchResponse(Request request, ResponseDefinition responseDefinition,
+            ProductCatalogue catalogue) {
+        String query = queryParameter(request, "query");
+        String category = queryParameter(request, "category");
+        Money minPrice = moneyParameter(request, "minPrice");
+        Money maxPrice = moneyParameter(request, "maxPrice");
+        int page = intParameter(request, "page", 1);
+        int pageSize = intParameter(request, "pageSize", DEFAULT_PAGE_SIZE);
+        if (page < 1 || pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page must be >= 1 and pageSize between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        ProductCatalogue.SearchResult result = catalogue.search(query, category, minPrice, maxPrice, page, pageSize);
+
+        StringBuilder json = new StringBuilder(256 + result.getProducts().size() * 256);
+        json.append("{\"results\":[");
+        for (int i = 0; i < result.getProducts().size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            ModelJsonWriter.writeProduct(result.getProducts().get(i), json);
+        }
+        long totalPages = (result.getTotalCount() + pageSize - 1) / pageSize;
+        json.append("],\"page\":").append(page)
+                .append(",\"pageSize\":").append(pageSize)
+                .append(",\"totalCount\":").append(result.getTotalCount())
+                .append(",\"totalPages\":").append(totalPages)
+                .append('}');
+        return jsonResponse(responseDefinition, 200, json);
+    }
+
+    private static ResponseDefinition jsonResponse(ResponseDefinition responseDefinition, int status,
+            CharSequence body) {
+        return like(responseDefinition).but()
+                .withStatus(status)
+                .withHeader("Content-Type", "application/json")
+                .withBody(body.toString())
+                .build();
+    }
+
+    private static String errorJson(String message) {
+        return "{\"error\": \"" + message.replace("\"", "'") + "\"}";
+    }
+
+    private static String queryParameter(Request request, String name) {
+        QueryParameter parameter = request.queryParameter(name);
+        return parameter != null && parameter.isPresent() ? parameter.firstValue() : null;
+    }
+
+    private static int intParameter(Request request, String name, int defaultValue) {
+        String value = queryParameter(request, name);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static Money moneyParameter(Request request, String name) {
+        String value = queryParameter(request, name);
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Money.parse(value);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static final class CatalogueKey {
+        private final long seed;
+        private final int size;
+
+        CatalogueKey(long seed, int size) {
+            this.seed = seed;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CatalogueKey && ((CatalogueKey) o).seed == seed && ((CatalogueKey) o).size == size;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(seed, size);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.amalitech.test.extension;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * A service with a fixed number of servers and a bounded wait queue (M/M/c/K when service times
+ * are exponential), simulated in step with the requests arriving at a stub.
+ * <p>
+ * Each admitted request is assigned to the server that frees up first and completes one service
+ * time after it starts; the time until then is the response delay. Requests arriving while
+ * every server is busy and the queue is full are rejected. Latency therefore stays near the
+ * service time at low load and climbs steeply as arrivals approach the capacity of
+ * {@code servers / serviceTime}, as a real backend's does.
+ */
+public final class QueueingModel {
+    private final int servers;
+    private final int queueCapacity;
+    private final LatencyProfile serviceTime;
+    private final long[] freeAt;
+    private final PriorityQueue<Long> completions = new PriorityQueue<>();
+    private long admitted;
+    private long rejected;
+
+    /**
+     * @param servers       Requests served in parallel
+     * @param queueCapacity Requests that may wait for a server; 0 rejects whenever all are busy
+     * @param serviceTime   Distribution of the time a server spends per request
+     * @param nowNanos      {@link System#nanoTime()} at creation; all servers start idle
+     */
+    public QueueingModel(int servers, int queueCapacity, LatencyProfile serviceTime, long nowNanos) {
+        if (servers < 1 || queueCapacity < 0) {
+            throw new IllegalArgumentException("Need at least one server and a non-negative queue");
+        }
+        this.servers = servers;
+        this.queueCapacity = queueCapacity;
+        this.serviceTime = serviceTime;
+        this.freeAt = new long[servers];
+        Arrays.fill(freeAt, nowNanos);
+    }
+
+    /**
+     * Admit a request arriving now
+     *
+     * @return Nanoseconds until its response is complete, or -1 if it is rejected
+     */
+    public synchronized long admit(long nowNanos, RandomGenerator random) {
+        while (!completions.isEmpty() && completions.peek() - nowNanos <= 0) {
+            completions.poll();
+        }
+        if (completions.size() >= servers + queueCapacity) {
+            rejected++;
+            return -1;
+        }
+
+        int server = 0;
+        for (int i = 1; i < servers; i++) {
+            if (freeAt[i] - freeAt[server] < 0) {
+                server = i;
+            }
+        }
+        long start = freeAt[server] - nowNanos > 0 ? freeAt[server] : nowNanos;
+        long completion = start + TimeUnit.MILLISECONDS.toNanos(Math.max(0, serviceTime.sampleMillis(random)));
+        freeAt[server] = completion;
+        completions.add(completion);
+        admitted++;
+        return completion - nowNanos;
+    }
+
+    /**
+     * Requests being served or waiting at the given time
+     */
+    public synchronized int inSystem(long nowNanos) {
+        return (int) completions.stream().filter(completion -> completion - nowNanos > 0).count();
+    }
+
+    public synchronized long getAdmitted() {
+        return admitted;
+    }
+
+    public synchronized long getRejected() {
+        return rejected;
+    }
+}
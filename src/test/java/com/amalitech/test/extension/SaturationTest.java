@@ -0,0 +1,96 @@
+package com.amalitech.test.extension;
+
+import com.amalitech.test.server.WireMockServerFactory;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SaturationTest {
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void testRequestsQueueThenGetRejected() {
+        QueueingModel model = new QueueingModel(2, 1, LatencyProfile.fixed(100), 0);
+        SplittableRandom random = new SplittableRandom(1);
+
+        assertThat(model.admit(0, random)).isEqualTo(100 * MS);
+        assertThat(model.admit(0, random)).isEqualTo(100 * MS);
+        assertThat(model.admit(0, random)).isEqualTo(200 * MS);
+        assertThat(model.admit(0, random)).isEqualTo(-1);
+        assertThat(model.inSystem(0)).isEqualTo(3);
+
+        // Both servers finished their first request; one is still busy with the queued one
+        assertThat(model.admit(100 * MS, random)).isEqualTo(100 * MS);
+        assertThat(model.getAdmitted()).isEqualTo(4);
+        assertThat(model.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    public void testLatencyGrowsTowardsCapacity() {
+        // Four servers at 10 ms each handle 400 requests per second
+        assertThat(meanDelayMillis(100)).isLessThan(12);
+        assertThat(meanDelayMillis(380)).isGreaterThan(2 * meanDelayMillis(100));
+    }
+
+    @Test
+    public void testStubRejectsExcessConcurrentRequests() {
+        WireMockServer server = new WireMockServer(WireMockServerFactory.configure(options().dynamicPort()));
+        server.start();
+        try {
+            server.stubFor(get(urlEqualTo("/api/payments/authorize")).willReturn(aResponse()
+                    .withStatus(200)
+                    .withTransformers(SaturationTransformer.NAME)
+                    .withTransformerParameters(Parameters.one(SaturationTransformer.PARAMETER, Map.of(
+                            "servers", 2, "queueCapacity", 2, "rejectStatus", 429, "retryAfterSeconds", 1,
+                            "service", Map.of("distribution", "fixed", "millis", 300))))));
+
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(server.baseUrl() + "/api/payments/authorize")).build();
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+
+            List<HttpResponse<String>> rejected = responses.stream().map(CompletableFuture::join)
+                    .filter(response -> response.statusCode() == 429).toList();
+            assertThat(rejected).hasSize(6);
+            assertThat(rejected.get(0).headers().firstValue("Retry-After")).hasValue("1");
+            assertThat(rejected.get(0).body()).contains("Service saturated");
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * Mean simulated delay of Poisson arrivals at the given rate
+     */
+    private static double meanDelayMillis(double arrivalsPerSecond) {
+        QueueingModel model = new QueueingModel(4, 1_000, LatencyProfile.exponential(10), 0);
+        SplittableRandom random = new SplittableRandom(5);
+        long now = 0;
+        double total = 0;
+        int requests = 50_000;
+        for (int i = 0; i < requests; i++) {
+            now += (long) (random.nextExponential() * 1e9 / arrivalsPerSecond);
+            total += model.admit(now, random);
+        }
+        return total / requests / MS;
+    }
+}
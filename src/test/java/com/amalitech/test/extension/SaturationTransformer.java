@@ -0,0 +1,114 @@
+package com.amalitech.test.extension;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.common.Metadata;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder.like;
+
+/**
+ * Makes a stub behave like a backend that saturates, by routing its requests through a
+ * {@link QueueingModel}.
+ * <p>
+ * Attach with {@code "transformers": ["saturation"]}, listed after any transformer that builds
+ * the response, and configure under the {@code saturation} transformer parameter:
+ * <ul>
+ * <li>{@code servers} - requests the backend serves in parallel (required)</li>
+ * <li>{@code queueCapacity} - requests that may wait for a server (default 0)</li>
+ * <li>{@code serviceMillis} - mean of exponential service times, giving an M/M/c/K queue; or
+ * {@code service}, any {@link LatencyProfile} description</li>
+ * <li>{@code rejectStatus} - status of rejected requests (default 503; 429 for a rate limiter)</li>
+ * <li>{@code retryAfterSeconds} - adds a {@code Retry-After} header to rejections</li>
+ * <li>{@code model} - name of the queue; stubs with the same name share one backend, and stubs
+ * without one share it only with stubs configured identically</li>
+ * </ul>
+ * Admitted requests are delayed until their simulated completion, which the asynchronous
+ * responses of {@link com.amalitech.test.server.WireMockServerFactory#configure} serve without
+ * holding a thread. Queues start empty again when the server's stubs are reset.
+ */
+public class SaturationTransformer extends ResponseDefinitionTransformer implements StubLifecycleAdapter {
+    public static final String NAME = "saturation";
+    public static final String PARAMETER = "saturation";
+
+    private static final int DEFAULT_REJECT_STATUS = 503;
+
+    private final Map<Object, QueueingModel> models = new ConcurrentHashMap<>();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    /**
+     * The queue a stub configuration uses, created on first use
+     */
+    public QueueingModel model(Map<String, Object> settings) {
+        Object key = settings.containsKey("model") ? settings.get("model") : settings;
+        return models.computeIfAbsent(key, k -> {
+            Metadata metadata = new Metadata(settings);
+            Integer servers = metadata.getInt("servers", null);
+            if (servers == null) {
+                throw new IllegalArgumentException(NAME + " needs 'servers'");
+            }
+            LatencyProfile serviceTime;
+            if (metadata.containsKey("service")) {
+                serviceTime = LatencyProfile.parse(metadata.getMetadata("service"));
+            } else if (metadata.containsKey("serviceMillis")) {
+                serviceTime = LatencyProfile.parse(Map.of("distribution", "exponential",
+                        "mean", metadata.get("serviceMillis")));
+            } else {
+                throw new IllegalArgumentException(NAME + " needs 'serviceMillis' or 'service'");
+            }
+            return new QueueingModel(servers, metadata.getInt("queueCapacity", 0), serviceTime, System.nanoTime());
+        });
+    }
+
+    @Override
+    public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition,
+            FileSource files, Parameters parameters) {
+        Metadata settings = parameters == null ? null : parameters.getMetadata(PARAMETER, null);
+        if (settings == null) {
+            throw new IllegalArgumentException(NAME + " needs a '" + PARAMETER + "' transformer parameter");
+        }
+
+        long delayNanos = model(settings).admit(System.nanoTime(), ThreadLocalRandom.current());
+        if (delayNanos < 0) {
+            ResponseDefinitionBuilder rejection = like(responseDefinition).but()
+                    .withStatus(settings.getInt("rejectStatus", DEFAULT_REJECT_STATUS))
+                    .withHeader("Content-Type", "application/json")
+                    .withBodyFile(null)
+                    .withBody("{\"error\":\"Service saturated\"}")
+                    .withFixedDelay(null);
+            Integer retryAfter = settings.getInt("retryAfterSeconds", null);
+            if (retryAfter != null) {
+                rejection.withHeader("Retry-After", String.valueOf(retryAfter));
+            }
+            return rejection.build();
+        }
+
+        long delayMillis = (delayNanos + TimeUnit.MILLISECONDS.toNanos(1) - 1) / TimeUnit.MILLISECONDS.toNanos(1);
+        Integer fixedDelay = responseDefinition.getFixedDelayMilliseconds();
+        return like(responseDefinition)
+                .withFixedDelay((int) Math.min(Integer.MAX_VALUE, delayMillis + (fixedDelay == null ? 0 : fixedDelay)))
+                .build();
+    }
+
+    @Override
+    public void afterStubsReset() {
+        models.clear();
+    }
+}
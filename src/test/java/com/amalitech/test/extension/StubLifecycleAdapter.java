@@ -0,0 +1,46 @@
+package com.amalitech.test.extension;
+
+import com.github.tomakehurst.wiremock.extension.StubLifecycleListener;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+
+/**
+ * {@link StubLifecycleListener} whose callbacks do nothing, so an extension overrides only the
+ * ones it needs.
+ * <p>
+ * An interface rather than a base class, as most listeners are transformers already extending
+ * WireMock's.
+ */
+public interface StubLifecycleAdapter extends StubLifecycleListener {
+
+    @Override
+    default void beforeStubCreated(StubMapping stub) {
+    }
+
+    @Override
+    default void afterStubCreated(StubMapping stub) {
+    }
+
+    @Override
+    default void beforeStubEdited(StubMapping oldStub, StubMapping newStub) {
+    }
+
+    @Override
+    default void afterStubEdited(StubMapping oldStub, StubMapping newStub) {
+    }
+
+    @Override
+    default void beforeStubRemoved(StubMapping stub) {
+    }
+
+    @Override
+    default void afterStubRemoved(StubMapping stub) {
+    }
+
+    @Override
+    default void beforeStubsReset() {
+    }
+
+    @Override
+    default void afterStubsReset() {
+    }
+}
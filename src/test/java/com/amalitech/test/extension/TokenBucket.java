@@ -0,0 +1,47 @@
+package com.amalitech.test.extension;
+
+/**
+ * Token bucket over bytes, used to schedule transfers on a link of limited bandwidth.
+ * <p>
+ * Instead of blocking until tokens are available, {@link #reserve} takes them at once, letting the
+ * balance go negative, and returns when the transfer will have completed. A negative balance is
+ * the backlog of transfers already promised the link, so concurrent responses on one bucket share
+ * its rate and finish one after another, as they would on a real link.
+ */
+public final class TokenBucket {
+    private final double bytesPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * @param bytesPerSecond Sustained rate
+     * @param burstBytes     Bytes that can go out at once after the link has been idle
+     * @param nowNanos       {@link System#nanoTime()} at creation; the bucket starts full
+     */
+    public TokenBucket(double bytesPerSecond, double burstBytes, long nowNanos) {
+        if (!(bytesPerSecond > 0)) {
+            throw new IllegalArgumentException("bytesPerSecond must be positive: " + bytesPerSecond);
+        }
+        this.bytesPerNano = bytesPerSecond / 1e9;
+        this.capacity = Math.max(0, burstBytes);
+        this.tokens = capacity;
+        this.lastRefill = nowNanos;
+    }
+
+    /**
+     * Reserve bandwidth for a transfer
+     *
+     * @param bytes    Size of the transfer
+     * @param nowNanos {@link System#nanoTime()} when it starts
+     * @return {@link System#nanoTime()} by which it has been sent, not before {@code nowNanos}
+     */
+    public synchronized long reserve(long bytes, long nowNanos) {
+        if (nowNanos - lastRefill > 0) {
+            tokens = Math.min(capacity, tokens + (nowNanos - lastRefill) * bytesPerNano);
+            lastRefill = nowNanos;
+        }
+        tokens -= bytes;
+        return tokens >= 0 ? nowNanos : nowNanos + (long) Math.ceil(-tokens / bytesPerNano);
+    }
+}
@@ -0,0 +1,74 @@
+package com.amalitech.test.extension;
+
+import com.amalitech.test.utils.VirtualClock;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseTransformer;
+import com.github.tomakehurst.wiremock.http.ChunkedDribbleDelay;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
+
+import java.time.Duration;
+
+/**
+ * Serves every response immediately and charges its delay to a {@link VirtualClock} instead.
+ * <p>
+ * Applies globally and must be registered after every other extension, so that it sees the final
+ * delay: fixed and random delays, latency profiles, queueing delays and bandwidth dribbles alike.
+ * The clock moves forward by that delay, as though the caller had waited for the response, and
+ * the delay is reported in the {@value #DELAY_HEADER} header so the client can decide whether it
+ * would have timed out. A client that sends its read timeout in the {@value #TIMEOUT_HEADER}
+ * header is charged no more than the timeout, as it would have given up then. Requests are charged
+ * one after another, so virtual time suits tests that call the server sequentially rather than
+ * load runs.
+ */
+public class VirtualTimeTransformer extends ResponseTransformer {
+    public static final String NAME = "virtual-time";
+    public static final String DELAY_HEADER = "X-Virtual-Delay-Millis";
+    public static final String TIMEOUT_HEADER = "X-Virtual-Timeout-Millis";
+
+    private final VirtualClock clock;
+
+    public VirtualTimeTransformer(VirtualClock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Response transform(Request request, Response response, FileSource files, Parameters parameters) {
+        ChunkedDribbleDelay dribble = response.getChunkedDribbleDelay();
+        long delayMillis = response.getInitialDelay()
+                + (response.shouldAddChunkedDribbleDelay() ? dribble.getTotalDuration() : 0);
+        if (delayMillis <= 0) {
+            return response;
+        }
+
+        clock.advance(Duration.ofMillis(Math.min(delayMillis, timeoutMillis(request))));
+        return Response.Builder.like(response).but()
+                .incrementInitialDelay(-response.getInitialDelay())
+                .chunkedDribbleDelay(null)
+                .headers(response.getHeaders().plus(new HttpHeader(DELAY_HEADER, String.valueOf(delayMillis))))
+                .build();
+    }
+
+    /**
+     * Read timeout the client reported, or no limit
+     */
+    private static long timeoutMillis(Request request) {
+        String timeout = request.getHeader(TIMEOUT_HEADER);
+        if (timeout == null) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            long millis = Long.parseLong(timeout.trim());
+            return millis > 0 ? millis : Long.MAX_VALUE;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(TIMEOUT_HEADER + " must be a number of milliseconds: " + timeout);
+        }
+    }
+}
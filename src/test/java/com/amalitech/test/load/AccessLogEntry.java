@@ -0,0 +1,71 @@
+package com.amalitech.test.load;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * One request reconstructed from an access log line
+ */
+public final class AccessLogEntry {
+    /** Status used when the log line does not record one */
+    public static final int UNKNOWN_STATUS = -1;
+
+    private final Instant timestamp;
+    private final String method;
+    private final String path;
+    private final int status;
+    private final Map<String, String> headers;
+    private final String body;
+
+    public AccessLogEntry(Instant timestamp, String method, String path, int status, Map<String, String> headers,
+            String body) {
+        this.timestamp = timestamp;
+        this.method = method;
+        this.path = path;
+        this.status = status;
+        this.headers = headers == null ? Collections.emptyMap() : Collections.unmodifiableMap(headers);
+        this.body = body;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Path and query string, as requested
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Status the production server answered with, or {@link #UNKNOWN_STATUS}
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Request headers; NCSA logs record none worth replaying
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Request body, or null if the log did not capture one
+     */
+    public String getBody() {
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return timestamp + " " + method + " " + path + " " + status;
+    }
+}
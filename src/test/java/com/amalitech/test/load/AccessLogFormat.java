@@ -0,0 +1,124 @@
+package com.amalitech.test.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Access log formats the trace replayer reads, one request per line
+ */
+public enum AccessLogFormat {
+    /**
+     * NCSA common or combined log format, as written by Apache, nginx and most load balancers:
+     * {@code 10.0.0.1 - - [10/Oct/2024:13:55:36 +0000] "GET /api/products?page=2 HTTP/1.1" 200 2326 ...}
+     */
+    NCSA {
+        private final Pattern line = Pattern.compile(
+                "^\\S+ \\S+ \\S+ \\[([^]]+)] \"(\\S+) (\\S+)(?: [^\"]*)?\" (\\d{3}|-)(?: .*)?$");
+        private final DateTimeFormatter timestamp =
+                DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
+
+        @Override
+        AccessLogEntry parseLine(String text) {
+            Matcher matcher = line.matcher(text);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Not an NCSA log line: " + text);
+            }
+            try {
+                Instant time = OffsetDateTime.parse(matcher.group(1), timestamp).toInstant();
+                String status = matcher.group(4);
+                return new AccessLogEntry(time, matcher.group(2), pathOf(matcher.group(3)),
+                        status.equals("-") ? AccessLogEntry.UNKNOWN_STATUS : Integer.parseInt(status), null, null);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Bad timestamp in: " + text, e);
+            }
+        }
+    },
+
+    /**
+     * One JSON object per line with {@code timestamp} (ISO-8601 or epoch milliseconds),
+     * {@code method}, {@code path} (or {@code url}/{@code uri}) and optionally {@code status},
+     * {@code headers} and {@code body}, as structured request logging usually produces
+     */
+    JSON_LINES {
+        private final ObjectMapper objectMapper = new ObjectMapper();
+
+        @Override
+        AccessLogEntry parseLine(String text) {
+            try {
+                JsonNode json = objectMapper.readTree(text);
+                JsonNode time = first(json, "timestamp", "time", "@timestamp");
+                JsonNode method = json.get("method");
+                JsonNode path = first(json, "path", "url", "uri");
+                if (time == null || method == null || path == null) {
+                    throw new IllegalArgumentException("Missing timestamp, method or path: " + text);
+                }
+
+                Map<String, String> headers = new LinkedHashMap<>();
+                JsonNode headerNode = json.get("headers");
+                if (headerNode != null) {
+                    headerNode.fields().forEachRemaining(field -> headers.put(field.getKey(), field.getValue().asText()));
+                }
+                JsonNode body = json.get("body");
+                JsonNode status = json.get("status");
+                return new AccessLogEntry(
+                        time.isNumber() ? Instant.ofEpochMilli(time.asLong()) : Instant.parse(time.asText()),
+                        method.asText().toUpperCase(Locale.ROOT),
+                        pathOf(path.asText()),
+                        status == null ? AccessLogEntry.UNKNOWN_STATUS : status.asInt(AccessLogEntry.UNKNOWN_STATUS),
+                        headers,
+                        body == null || body.isNull() ? null : body.isTextual() ? body.asText() : body.toString());
+            } catch (JsonProcessingException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Bad JSON log line: " + text, e);
+            }
+        }
+
+        private JsonNode first(JsonNode json, String... names) {
+            for (String name : names) {
+                if (json.hasNonNull(name)) {
+                    return json.get(name);
+                }
+            }
+            return null;
+        }
+    };
+
+    /**
+     * Parse one line
+     *
+     * @param line Log line, not blank
+     * @return The request it records
+     * @throws IllegalArgumentException If the line is not in this format
+     */
+    abstract AccessLogEntry parseLine(String line);
+
+    /**
+     * Guess the format from the first line of a log
+     */
+    public static AccessLogFormat detect(String firstLine) {
+        return firstLine.stripLeading().startsWith("{") ? JSON_LINES : NCSA;
+    }
+
+    /**
+     * Path and query of a logged URL, which may be absolute when logged by a proxy
+     */
+    private static String pathOf(String url) {
+        if (url.startsWith("/")) {
+            return url;
+        }
+        URI uri = URI.create(url);
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        return uri.getRawQuery() == null ? path : path + "?" + uri.getRawQuery();
+    }
+}
@@ -0,0 +1,262 @@
+package com.amalitech.test.load;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A user journey: steps joined by weighted transitions, walked as a Markov chain.
+ * <p>
+ * After each step the user pauses for the step's think time and then moves to a next step
+ * chosen at random by transition weight; {@link #EXIT} ends the session. A step without
+ * transitions also ends it. Example:
+ * <pre>{@code
+ * Journey shopper = Journey.builder("shopper")
+ *         .step("login", login, ThinkTime.logNormal(Duration.ofSeconds(2), 0.5))
+ *         .step("browse", browse, ThinkTime.exponential(Duration.ofSeconds(5)))
+ *         .step("checkout", checkout, ThinkTime.none())
+ *         .transition("login", "browse", 1)
+ *         .transition("browse", "browse", 0.6)
+ *         .transition("browse", "checkout", 0.1)
+ *         .transition("browse", Journey.EXIT, 0.3)
+ *         .build();
+ * }</pre>
+ */
+public final class Journey {
+    public static final String EXIT = "exit";
+
+    private final String name;
+    private final Node start;
+    private final Map<String, Node> nodes;
+    private final boolean abortOnFailure;
+    private final int maxSteps;
+
+    private Journey(Builder builder) {
+        this.name = builder.name;
+        this.abortOnFailure = builder.abortOnFailure;
+        this.maxSteps = builder.maxSteps;
+
+        Map<String, Node> nodes = new LinkedHashMap<>();
+        for (Map.Entry<String, StepDefinition> entry : builder.steps.entrySet()) {
+            nodes.put(entry.getKey(), new Node(entry.getKey(), entry.getValue().step, entry.getValue().thinkTime));
+        }
+        for (Map.Entry<String, Map<String, Double>> entry : builder.transitions.entrySet()) {
+            Node from = nodes.get(entry.getKey());
+            if (from == null) {
+                throw new IllegalArgumentException("Transition from unknown step: " + entry.getKey());
+            }
+            int count = entry.getValue().size();
+            from.targets = new Node[count];
+            from.cumulativeWeights = new double[count];
+            double total = 0;
+            int i = 0;
+            for (Map.Entry<String, Double> target : entry.getValue().entrySet()) {
+                if (!target.getKey().equals(EXIT) && !nodes.containsKey(target.getKey())) {
+                    throw new IllegalArgumentException("Transition to unknown step: " + target.getKey());
+                }
+                total += target.getValue();
+                from.targets[i] = nodes.get(target.getKey());
+                from.cumulativeWeights[i] = total;
+                i++;
+            }
+        }
+        String startName = builder.start != null ? builder.start : builder.steps.keySet().iterator().next();
+        this.start = nodes.get(startName);
+        if (start == null) {
+            throw new IllegalArgumentException("Unknown start step: " + startName);
+        }
+        this.nodes = Collections.unmodifiableMap(nodes);
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Step names in declaration order
+     */
+    public List<String> getStepNames() {
+        return new ArrayList<>(nodes.keySet());
+    }
+
+    /**
+     * Walk one session from the start step until it exits, fails (if aborting on failure), reaches
+     * the step limit or passes the deadline. Think times are slept on the calling thread.
+     *
+     * @param session       The virtual user
+     * @param intendedStart {@link System#nanoTime()} at which the session was due to start
+     * @param deadline      {@link System#nanoTime()} after which no further step is started
+     * @param observer      Receives the timing and outcome of every step
+     * @return Number of steps taken
+     */
+    public int walk(JourneySession session, long intendedStart, long deadline, StepObserver observer)
+            throws InterruptedException {
+        Node node = start;
+        long due = intendedStart;
+        int steps = 0;
+        while (node != null && steps < maxSteps && due - deadline < 0) {
+            long stepStart = System.nanoTime();
+            LatencyRecorder.setIntendedStart(due);
+            Throwable failure = null;
+            try {
+                node.step.run(session);
+            } catch (Exception | AssertionError e) {
+                failure = e;
+            }
+            long stepEnd = System.nanoTime();
+            LatencyRecorder.takeIntendedStart(stepEnd);
+            observer.onStep(node.name, due, stepStart, stepEnd, failure);
+            steps++;
+            if (failure != null && abortOnFailure) {
+                break;
+            }
+
+            long think = Math.max(0, node.thinkTime.nextNanos(session.getRandom()));
+            due = stepEnd + think;
+            node = node.next(session);
+            if (node != null && think > 0 && due - deadline < 0) {
+                TimeUnit.NANOSECONDS.sleep(think);
+            }
+        }
+        return steps;
+    }
+
+    /**
+     * An action a virtual user performs
+     */
+    @FunctionalInterface
+    public interface Step {
+        void run(JourneySession session) throws Exception;
+
+        /**
+         * Step that runs a scenario, such as a test method, as the session's user
+         */
+        static Step of(Scenario scenario) {
+            return scenario::run;
+        }
+    }
+
+    /**
+     * Receives the outcome of each step walked
+     */
+    @FunctionalInterface
+    public interface StepObserver {
+        void onStep(String step, long intendedStart, long start, long end, Throwable failure);
+    }
+
+    public static final class Builder {
+        private final String name;
+        private final Map<String, StepDefinition> steps = new LinkedHashMap<>();
+        private final Map<String, Map<String, Double>> transitions = new LinkedHashMap<>();
+        private String start;
+        private boolean abortOnFailure = true;
+        private int maxSteps = 1_000;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Add a step; the first step added is the start unless {@link #start} says otherwise
+         */
+        public Builder step(String stepName, Step step, ThinkTime thinkTime) {
+            if (stepName.equals(EXIT)) {
+                throw new IllegalArgumentException("'" + EXIT + "' is reserved");
+            }
+            if (steps.putIfAbsent(stepName, new StepDefinition(step, thinkTime)) != null) {
+                throw new IllegalArgumentException("Duplicate step: " + stepName);
+            }
+            return this;
+        }
+
+        public Builder step(String stepName, Scenario scenario, ThinkTime thinkTime) {
+            return step(stepName, Step.of(scenario), thinkTime);
+        }
+
+        /**
+         * Add a weighted transition; weights out of a step need not sum to one
+         */
+        public Builder transition(String from, String to, double weight) {
+            if (!(weight > 0)) {
+                throw new IllegalArgumentException("Weight must be positive: " + weight);
+            }
+            transitions.computeIfAbsent(from, key -> new LinkedHashMap<>()).merge(to, weight, Double::sum);
+            return this;
+        }
+
+        public Builder start(String stepName) {
+            this.start = stepName;
+            return this;
+        }
+
+        /**
+         * Whether a failed step ends the session, as a real user would give up; default true
+         */
+        public Builder abortOnFailure(boolean abortOnFailure) {
+            this.abortOnFailure = abortOnFailure;
+            return this;
+        }
+
+        /**
+         * Upper bound on steps per session, guarding against journeys that rarely exit
+         */
+        public Builder maxSteps(int maxSteps) {
+            this.maxSteps = maxSteps;
+            return this;
+        }
+
+        public Journey build() {
+            if (steps.isEmpty()) {
+                throw new IllegalStateException("Journey " + name + " has no steps");
+            }
+            return new Journey(this);
+        }
+    }
+
+    private static final class StepDefinition {
+        private final Step step;
+        private final ThinkTime thinkTime;
+
+        StepDefinition(Step step, ThinkTime thinkTime) {
+            this.step = step;
+            this.thinkTime = thinkTime;
+        }
+    }
+
+    private static final class Node {
+        private final String name;
+        private final Step step;
+        private final ThinkTime thinkTime;
+        private Node[] targets = new Node[0];
+        private double[] cumulativeWeights = new double[0];
+
+        Node(String name, Step step, ThinkTime thinkTime) {
+            this.name = name;
+            this.step = step;
+            this.thinkTime = thinkTime;
+        }
+
+        /**
+         * Next step by transition weight, or null to exit
+         */
+        Node next(JourneySession session) {
+            if (targets.length == 0) {
+                return null;
+            }
+            double pick = session.getRandom().nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+            for (int i = 0; i < targets.length; i++) {
+                if (pick < cumulativeWeights[i]) {
+                    return targets[i];
+                }
+            }
+            return targets[targets.length - 1];
+        }
+    }
+}
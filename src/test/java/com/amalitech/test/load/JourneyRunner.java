@@ -0,0 +1,139 @@
+package com.amalitech.test.load;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a population of virtual users through a {@link Journey}.
+ * <p>
+ * In open loop new sessions arrive at the profile's rate and {@code maxInFlight} caps the number
+ * of concurrent users; in closed loop a fixed population starts a new session whenever one ends.
+ * Each user is a virtual thread that sleeps through its think times, so a sleeping user costs a
+ * few kilobytes of heap and populations of hundreds of thousands fit in a normal test JVM.
+ * <p>
+ * Every session draws from its own random stream split off a seeded root, so a run with the same
+ * seed produces the same sequence of paths and think times per session.
+ */
+public class JourneyRunner {
+    private static final Logger log = LoggerFactory.getLogger(JourneyRunner.class);
+
+    /** Prefix of step entries in the latency recorder */
+    public static final String STEP_PREFIX = "step ";
+
+    private final Journey journey;
+    private final SplittableRandom root;
+    private final AtomicLong sessionIds = new AtomicLong();
+
+    public JourneyRunner(Journey journey, long seed) {
+        this.journey = journey;
+        this.root = new SplittableRandom(seed);
+    }
+
+    public LoadResult run(LoadProfile profile) {
+        try (LatencyRecorder latency = new LatencyRecorder()) {
+            return run(profile, latency);
+        }
+    }
+
+    /**
+     * Apply the profile and wait for every session to end. Sessions stop taking new steps at the
+     * end of the profile's duration.
+     */
+    public LoadResult run(LoadProfile profile, LatencyRecorder latency) {
+        LoadResult result = new LoadResult(profile, journey.getStepNames(), latency);
+        log.info("Starting journey {} with {}", journey.getName(), profile);
+        LatencyRecorder previous = LatencyRecorder.active();
+        LatencyRecorder.setActive(latency);
+        LatencyRecordingFilter.install();
+
+        Journey.StepObserver observer = (step, intendedStart, start, end, failure) -> {
+            result.stats(step).record(end - start, failure);
+            latency.record(STEP_PREFIX + step, intendedStart, start, end);
+        };
+
+        long start = System.nanoTime();
+        long end = start + profile.getDuration().toNanos();
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("user-", 0).factory())) {
+            if (profile.getMode() == LoadProfile.Mode.OPEN) {
+                arriveOpenLoop(profile, result, executor, observer, start, end);
+            } else {
+                for (int user = 0; user < profile.getUsers(); user++) {
+                    executor.execute(() -> {
+                        long now;
+                        while ((now = System.nanoTime()) - end < 0) {
+                            if (!walk(newSession(), now, end, observer, result)) {
+                                return;
+                            }
+                        }
+                    });
+                }
+            }
+        } finally {
+            LatencyRecorder.setActive(previous);
+        }
+        result.setElapsed(Duration.ofNanos(System.nanoTime() - start));
+        latency.sampleInterval();
+
+        log.info("Finished journey {}: {} sessions, {} steps ok, {} failed", journey.getName(),
+                result.getSessions(), result.getSuccesses(), result.getFailures());
+        return result;
+    }
+
+    private void arriveOpenLoop(LoadProfile profile, LoadResult result, ExecutorService executor,
+            Journey.StepObserver observer, long start, long end) {
+        double intervalNanos = 1e9 / profile.getArrivalsPerSecond();
+        AtomicInteger active = new AtomicInteger();
+        for (long arrival = 0; ; arrival++) {
+            long intendedStart = start + (long) (arrival * intervalNanos);
+            if (intendedStart - end >= 0) {
+                break;
+            }
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            if (active.get() >= profile.getMaxInFlight()) {
+                result.recordDropped();
+                continue;
+            }
+            active.incrementAndGet();
+            JourneySession session = newSession();
+            executor.execute(() -> {
+                try {
+                    walk(session, intendedStart, end, observer, result);
+                } finally {
+                    active.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    private boolean walk(JourneySession session, long intendedStart, long end, Journey.StepObserver observer,
+            LoadResult result) {
+        try {
+            result.recordSession(journey.walk(session, intendedStart, end, observer));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private JourneySession newSession() {
+        SplittableRandom random;
+        synchronized (root) {
+            random = root.split();
+        }
+        return new JourneySession(sessionIds.incrementAndGet(), random);
+    }
+}
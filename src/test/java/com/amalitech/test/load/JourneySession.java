@@ -0,0 +1,49 @@
+package com.amalitech.test.load;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * State of one virtual user walking a {@link Journey}.
+ * <p>
+ * A session is only ever used by the thread walking it, so it needs no synchronization.
+ */
+public class JourneySession {
+    private final long id;
+    private final RandomGenerator random;
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    public JourneySession(long id, RandomGenerator random) {
+        this.id = id;
+        this.random = random;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Authorization header value unique to this user, for stateful mocks such as the commerce
+     * simulator
+     */
+    public String getToken() {
+        return "Bearer session-" + id;
+    }
+
+    public RandomGenerator getRandom() {
+        return random;
+    }
+
+    /**
+     * Value a previous step stored, such as a cart or order id
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key) {
+        return (T) attributes.get(key);
+    }
+
+    public void put(String key, Object value) {
+        attributes.put(key, value);
+    }
+}
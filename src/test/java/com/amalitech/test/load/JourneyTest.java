@@ -0,0 +1,147 @@
+package com.amalitech.test.load;
+
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+public class JourneyTest {
+
+    @Test
+    public void testTransitionsFollowWeights() throws InterruptedException {
+        Map<String, LongAdder> visits = new ConcurrentHashMap<>();
+        Journey.Step count = session -> { };
+        Journey journey = Journey.builder("funnel")
+                .step("home", count, ThinkTime.none())
+                .step("search", count, ThinkTime.none())
+                .step("cart", count, ThinkTime.none())
+                .transition("home", "search", 3)
+                .transition("home", "cart", 1)
+                .build();
+
+        SplittableRandom root = new SplittableRandom(42);
+        Journey.StepObserver observer = (step, intendedStart, start, end, failure) ->
+                visits.computeIfAbsent(step, key -> new LongAdder()).increment();
+        for (int i = 0; i < 20_000; i++) {
+            int steps = journey.walk(new JourneySession(i, root.split()), System.nanoTime(), Long.MAX_VALUE, observer);
+            assertThat(steps).isEqualTo(2);
+        }
+
+        assertThat(visits.get("home").sum()).isEqualTo(20_000);
+        assertThat(visits.get("search").sum() / 20_000.0).isCloseTo(0.75, within(0.02));
+        assertThat(visits.get("cart").sum() / 20_000.0).isCloseTo(0.25, within(0.02));
+    }
+
+    @Test
+    public void testFailedStepEndsSession() throws InterruptedException {
+        List<String> walked = new ArrayList<>();
+        Journey journey = Journey.builder("failing")
+                .step("login", session -> {
+                    throw new IllegalStateException("401");
+                }, ThinkTime.none())
+                .step("browse", session -> { }, ThinkTime.none())
+                .transition("login", "browse", 1)
+                .build();
+
+        int steps = journey.walk(new JourneySession(1, new SplittableRandom(1)), System.nanoTime(), Long.MAX_VALUE,
+                (step, intendedStart, start, end, failure) -> walked.add(step + (failure == null ? "" : " failed")));
+
+        assertThat(steps).isEqualTo(1);
+        assertThat(walked).containsExactly("login failed");
+    }
+
+    @Test
+    public void testThinkTimeDistributions() {
+        SplittableRandom random = new SplittableRandom(7);
+        Duration mean = Duration.ofMillis(100);
+        assertThat(average(ThinkTime.exponential(mean), random)).isCloseTo(100e6, within(3e6));
+        assertThat(average(ThinkTime.uniform(Duration.ofMillis(50), Duration.ofMillis(150)), random))
+                .isCloseTo(100e6, within(2e6));
+        // Mean of a log-normal is median * exp(sigma^2 / 2)
+        assertThat(average(ThinkTime.logNormal(mean, 0.5), random)).isCloseTo(100e6 * Math.exp(0.125), within(4e6));
+        assertThat(average(ThinkTime.constant(mean).scaled(0.5), random)).isEqualTo(50e6);
+        assertThat(ThinkTime.exponential(mean).capped(Duration.ofMillis(1)).nextNanos(random)).isLessThanOrEqualTo(1_000_000);
+        assertThatThrownBy(() -> ThinkTime.uniform(Duration.ofSeconds(2), Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testRunnerSustainsLargePopulation() {
+        LongAdder calls = new LongAdder();
+        Journey.Step step = session -> calls.increment();
+        Journey journey = Journey.builder("idle")
+                .step("visit", step, ThinkTime.uniform(Duration.ofMillis(50), Duration.ofMillis(150)))
+                .transition("visit", "visit", 9)
+                .transition("visit", Journey.EXIT, 1)
+                .build();
+
+        LoadResult result = new JourneyRunner(journey, 1).run(LoadProfile.closedLoop(10_000, Duration.ofSeconds(2)));
+
+        // Every user takes its first step as soon as it starts, then about one every 100 ms; the
+        // bound leaves room for a busy machine, where starting 10,000 users takes a while
+        assertThat(result.getSuccesses()).isEqualTo(calls.sum()).isGreaterThan(20_000);
+        assertThat(result.getFailures()).isZero();
+        assertThat(result.getSessions()).isGreaterThanOrEqualTo(10_000);
+        assertThat(result.getLatency().getResponseTimes(JourneyRunner.STEP_PREFIX + "visit").getTotalCount())
+                .isEqualTo(calls.sum());
+        assertThat(result.report()).contains("Sessions:", "step visit");
+    }
+
+    @Test
+    public void testShopperJourneyRunsEveryStepAsTheSessionsUser() throws InterruptedException {
+        Map<String, Set<String>> tokensByScenario = new ConcurrentHashMap<>();
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String name : List.of("AuthApiTest.testSuccessfulLogin", "ProductApiTest.testSearchProducts",
+                "ProductApiTest.testGetProductDetails", "CartApiTest.testAddItemToCart",
+                "CheckoutApiTest.testInitiateCheckout", "CheckoutApiTest.testProcessPayment",
+                "OrderApiTest.testFilterOrdersByStatus")) {
+            scenarios.add(new Scenario() {
+                @Override
+                public String getName() {
+                    return name;
+                }
+
+                @Override
+                public void run() {
+                    throw new AssertionError("A journey step must run as its session's user");
+                }
+
+                @Override
+                public void run(JourneySession session) {
+                    tokensByScenario.computeIfAbsent(name, key -> ConcurrentHashMap.newKeySet()).add(session.getToken());
+                }
+            });
+        }
+
+        Journey journey = ShopperJourney.create(scenarios, 0);
+        SplittableRandom root = new SplittableRandom(3);
+        for (int i = 0; i < 2_000; i++) {
+            journey.walk(new JourneySession(i, root.split()), System.nanoTime(), Long.MAX_VALUE,
+                    (step, intendedStart, start, end, failure) -> assertThat(failure).isNull());
+        }
+
+        assertThat(tokensByScenario).containsKey("OrderApiTest.testFilterOrdersByStatus");
+        assertThat(tokensByScenario.get("AuthApiTest.testSuccessfulLogin")).hasSize(2_000)
+                .contains("Bearer session-0", "Bearer session-1999");
+        assertThat(tokensByScenario.get("CheckoutApiTest.testProcessPayment"))
+                .isSubsetOf(tokensByScenario.get("CheckoutApiTest.testInitiateCheckout"));
+    }
+
+    private static double average(ThinkTime thinkTime, SplittableRandom random) {
+        long total = 0;
+        for (int i = 0; i < 100_000; i++) {
+            total += thinkTime.nextNanos(random);
+        }
+        return total / 100_000.0;
+    }
+}
@@ -0,0 +1,300 @@
+package com.amalitech.test.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-endpoint latency histograms for calls made during a load run.
+ * <p>
+ * Every call is recorded twice: once as service time, from the moment the request was sent, and
+ * once as response time, from the moment it was <em>meant</em> to be sent. The load generator
+ * publishes that intended start for open-loop arrivals; when a stalled server delays the next
+ * send, the wait shows up in the response time instead of being silently omitted, which is the
+ * coordinated omission that makes averages and naive percentiles look healthy. Closed-loop runs
+ * have no schedule, so both figures are the same.
+ * <p>
+ * Each endpoint records into HdrHistogram {@link Recorder}s, whose writers are wait-free: calls
+ * on any number of virtual threads increment counts without locks, and the reporting thread swaps
+ * out the interval histogram and merges it into the run total. Values are nanoseconds.
+ */
+public class LatencyRecorder implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(LatencyRecorder.class);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+    private static final int MIN_HEX_ID_LENGTH = 8;
+    private static final int UUID_LENGTH = 36;
+
+    // Inherited so the virtual threads a load run starts report to its recorder, while runs in
+    // parallel test methods keep separate recorders
+    private static final InheritableThreadLocal<LatencyRecorder> active = new InheritableThreadLocal<>();
+    private static final ThreadLocal<long[]> intendedStart = ThreadLocal.withInitial(() -> new long[]{-1});
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private final long startTimeMillis = System.currentTimeMillis();
+    private ScheduledExecutorService intervalLogger;
+    private HistogramLogWriter logWriter;
+
+    /**
+     * Recorder that {@link #recordCall} on this thread reports to, or null when no load run is active
+     */
+    public static LatencyRecorder active() {
+        return active.get();
+    }
+
+    /**
+     * Set the recorder for this thread and the threads it starts from now on; null clears it
+     */
+    public static void setActive(LatencyRecorder recorder) {
+        if (recorder == null) {
+            active.remove();
+        } else {
+            active.set(recorder);
+        }
+    }
+
+    /**
+     * Publish when the next call on this thread was scheduled to start
+     */
+    public static void setIntendedStart(long nanoTime) {
+        intendedStart.get()[0] = nanoTime;
+    }
+
+    /**
+     * Take the intended start published for this thread; later calls in the same scenario are
+     * measured from their actual start, so the delay is only charged once
+     */
+    static long takeIntendedStart(long actualStart) {
+        long[] slot = intendedStart.get();
+        long intended = slot[0];
+        slot[0] = -1;
+        return intended < 0 || intended - actualStart > 0 ? actualStart : intended;
+    }
+
+    /**
+     * Record a client call if a load run is active; no-op otherwise
+     *
+     * @param method    HTTP method
+     * @param endpoint  Path, with or without query string
+     * @param startNanos {@link System#nanoTime()} when the call was sent
+     */
+    public static void recordCall(String method, String endpoint, long startNanos) {
+        LatencyRecorder recorder = active.get();
+        if (recorder != null) {
+            long end = System.nanoTime();
+            recorder.record(method + " " + normalize(endpoint), takeIntendedStart(startNanos), startNanos, end);
+        }
+    }
+
+    /**
+     * Record one completed call
+     *
+     * @param name          Endpoint or scenario name
+     * @param intendedStart When the call should have started
+     * @param start         When it actually started
+     * @param end           When it completed
+     */
+    public void record(String name, long intendedStart, long start, long end) {
+        Endpoint endpoint = endpoints.computeIfAbsent(name, Endpoint::new);
+        endpoint.responseTime.recordValue(Math.max(0, end - intendedStart));
+        endpoint.serviceTime.recordValue(Math.max(0, end - start));
+    }
+
+    /**
+     * Replace ids in a path with {@code {id}} so histograms are per endpoint, not per resource.
+     * A segment counts as an id if it is all digits, a UUID or a hex id of at least
+     * {@value #MIN_HEX_ID_LENGTH} digits, so versions and names such as {@code v2} stay.
+     */
+    static String normalize(String endpoint) {
+        int query = endpoint.indexOf('?');
+        String path = query >= 0 ? endpoint.substring(0, query) : endpoint;
+        StringBuilder out = new StringBuilder(path.length());
+        int segmentStart = 0;
+        while (segmentStart <= path.length()) {
+            int segmentEnd = path.indexOf('/', segmentStart);
+            if (segmentEnd < 0) {
+                segmentEnd = path.length();
+            }
+            if (segmentStart > 0) {
+                out.append('/');
+            }
+            out.append(isId(path, segmentStart, segmentEnd) ? "{id}" : path.substring(segmentStart, segmentEnd));
+            segmentStart = segmentEnd + 1;
+        }
+        return out.toString();
+    }
+
+    private static boolean isId(String path, int start, int end) {
+        if (start == end) {
+            return false;
+        }
+        boolean digits = true;
+        boolean hex = true;
+        for (int i = start; i < end; i++) {
+            char c = path.charAt(i);
+            digits &= c >= '0' && c <= '9';
+            hex &= Character.digit(c, 16) >= 0;
+        }
+        return digits || (hex && end - start >= MIN_HEX_ID_LENGTH) || isUuid(path, start, end);
+    }
+
+    private static boolean isUuid(String path, int start, int end) {
+        if (end - start != UUID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            char c = path.charAt(start + i);
+            boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+            if (dash ? c != '-' : Character.digit(c, 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write interval histograms to an HdrHistogram log, readable with HistogramLogProcessor or
+     * HdrHistogram's plotting tools. Each line is tagged with the endpoint name and whether it is
+     * response time ({@code rt:}) or service time ({@code st:}).
+     */
+    public synchronized void startIntervalLog(Path file, Duration interval) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        logWriter = new HistogramLogWriter(new PrintStream(file.toFile()));
+        logWriter.outputLogFormatVersion();
+        logWriter.outputStartTime(startTimeMillis);
+        logWriter.setBaseTime(startTimeMillis);
+        logWriter.outputLegend();
+
+        intervalLogger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "latency-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        intervalLogger.scheduleAtFixedRate(this::sampleInterval, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Move everything recorded since the last sample into the run totals and the interval log
+     */
+    public synchronized void sampleInterval() {
+        for (Endpoint endpoint : endpoints.values()) {
+            endpoint.sample(logWriter);
+        }
+    }
+
+    /**
+     * Run-total response time histogram for an endpoint, or null if it was never called
+     */
+    public synchronized Histogram getResponseTimes(String name) {
+        Endpoint endpoint = endpoints.get(name);
+        if (endpoint == null) {
+            return null;
+        }
+        endpoint.sample(logWriter);
+        return endpoint.responseTotal.copy();
+    }
+
+    /**
+     * Run-total service time histogram for an endpoint, or null if it was never called
+     */
+    public synchronized Histogram getServiceTimes(String name) {
+        Endpoint endpoint = endpoints.get(name);
+        if (endpoint == null) {
+            return null;
+        }
+        endpoint.sample(logWriter);
+        return endpoint.serviceTotal.copy();
+    }
+
+    /**
+     * Percentile table of response and service times in milliseconds, one row per endpoint
+     */
+    public synchronized String percentileReport() {
+        sampleInterval();
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-52s %-4s %9s", "endpoint", "", "count"));
+        for (double percentile : PERCENTILES) {
+            out.append(String.format(" %9s", "p" + (percentile == (long) percentile
+                    ? String.valueOf((long) percentile) : String.valueOf(percentile))));
+        }
+        out.append(String.format(" %9s%n", "max"));
+
+        for (Endpoint endpoint : new TreeMap<>(endpoints).values()) {
+            appendRow(out, endpoint.name, "rt", endpoint.responseTotal);
+            appendRow(out, "", "st", endpoint.serviceTotal);
+        }
+        return out.toString();
+    }
+
+    private static void appendRow(StringBuilder out, String name, String kind, Histogram histogram) {
+        out.append(String.format("%-52s %-4s %9d", name, kind, histogram.getTotalCount()));
+        for (double percentile : PERCENTILES) {
+            out.append(String.format(" %9.2f", histogram.getValueAtPercentile(percentile) / 1e6));
+        }
+        out.append(String.format(" %9.2f%n", histogram.getMaxValue() / 1e6));
+    }
+
+    @Override
+    public synchronized void close() {
+        if (intervalLogger != null) {
+            intervalLogger.shutdownNow();
+            intervalLogger = null;
+        }
+        sampleInterval();
+        if (logWriter != null) {
+            logWriter.close();
+            logWriter = null;
+        }
+        if (active.get() == this) {
+            active.remove();
+        }
+        log.debug("Latency recorder closed with {} endpoints", endpoints.size());
+    }
+
+    private static final class Endpoint {
+        private final String name;
+        private final Recorder responseTime = new Recorder(SIGNIFICANT_DIGITS);
+        private final Recorder serviceTime = new Recorder(SIGNIFICANT_DIGITS);
+        private final Histogram responseTotal = new Histogram(SIGNIFICANT_DIGITS);
+        private final Histogram serviceTotal = new Histogram(SIGNIFICANT_DIGITS);
+        private Histogram responseInterval;
+        private Histogram serviceInterval;
+
+        Endpoint(String name) {
+            this.name = name;
+        }
+
+        void sample(HistogramLogWriter logWriter) {
+            responseInterval = responseTime.getIntervalHistogram(responseInterval);
+            serviceInterval = serviceTime.getIntervalHistogram(serviceInterval);
+            responseTotal.add(responseInterval);
+            serviceTotal.add(serviceInterval);
+            if (logWriter != null && responseInterval.getTotalCount() > 0) {
+                responseInterval.setTag("rt:" + tag());
+                serviceInterval.setTag("st:" + tag());
+                logWriter.outputIntervalHistogram(responseInterval);
+                logWriter.outputIntervalHistogram(serviceInterval);
+            }
+        }
+
+        private String tag() {
+            // Log tags cannot contain whitespace or commas
+            return name.replace(' ', '_').replace(',', ';');
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.amalitech.test.load;
+
+import com.amalitech.test.utils.ApiUtils;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.specification.RequestSpecification;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class LatencyRecorderTest {
+
+    @Test
+    public void testNormalizeReplacesIds() {
+        assertThat(LatencyRecorder.normalize("/api/orders/5b7e9c2d-3a1f-4d6b-8e0c-9f2a4b6d8e13?status=pending"))
+                .isEqualTo("/api/orders/{id}");
+        assertThat(LatencyRecorder.normalize("/api/products/42/reviews")).isEqualTo("/api/products/{id}/reviews");
+        assertThat(LatencyRecorder.normalize("/api/sessions/65f1a2b3c4d5e6f708192a3b")).isEqualTo("/api/sessions/{id}");
+        assertThat(LatencyRecorder.normalize("/api/cart")).isEqualTo("/api/cart");
+    }
+
+    @Test
+    public void testNormalizeKeepsSegmentsThatAreNotIds() {
+        assertThat(LatencyRecorder.normalize("/api/v2/products")).isEqualTo("/api/v2/products");
+        assertThat(LatencyRecorder.normalize("/api/orders/order-123")).isEqualTo("/api/orders/order-123");
+        assertThat(LatencyRecorder.normalize("/api/products/abc12")).isEqualTo("/api/products/abc12");
+    }
+
+    @Test
+    public void testResponseTimeIncludesWaitForIntendedStart() {
+        try (LatencyRecorder recorder = new LatencyRecorder()) {
+            long intended = 0;
+            long start = TimeUnit.MILLISECONDS.toNanos(100);
+            long end = start + TimeUnit.MILLISECONDS.toNanos(10);
+            for (int i = 0; i < 100; i++) {
+                recorder.record("GET /api/cart", intended, start, end);
+            }
+
+            Histogram responseTimes = recorder.getResponseTimes("GET /api/cart");
+            Histogram serviceTimes = recorder.getServiceTimes("GET /api/cart");
+            assertThat(responseTimes.getTotalCount()).isEqualTo(100);
+            assertThat((double) responseTimes.getValueAtPercentile(50)).isCloseTo(110e6, within(0.2e6));
+            assertThat((double) serviceTimes.getValueAtPercentile(50)).isCloseTo(10e6, within(0.02e6));
+        }
+    }
+
+    @Test
+    public void testIntendedStartIsChargedToFirstCallOnly() {
+        try (LatencyRecorder recorder = new LatencyRecorder()) {
+            LatencyRecorder.setActive(recorder);
+            long intended = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(50);
+            LatencyRecorder.setIntendedStart(intended);
+
+            LatencyRecorder.recordCall("POST", "/api/auth/login", System.nanoTime());
+            LatencyRecorder.recordCall("GET", "/api/cart", System.nanoTime());
+
+            assertThat(recorder.getResponseTimes("POST /api/auth/login").getMaxValue())
+                    .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+            assertThat(recorder.getResponseTimes("GET /api/cart").getMaxValue())
+                    .isLessThan(TimeUnit.MILLISECONDS.toNanos(50));
+        } finally {
+            LatencyRecorder.setActive(null);
+        }
+    }
+
+    @Test
+    public void testRestAssuredCallsOfARunAreRecorded() {
+        WireMockServer server = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        server.start();
+        try {
+            server.stubFor(get(urlPathEqualTo("/api/products/7")).willReturn(okJson("{\"id\": 7}")));
+            RequestSpecification spec = new RequestSpecBuilder().setBaseUri(server.baseUrl()).build();
+            Scenario scenario = Scenario.of("product", () -> ApiUtils.performGetRequest(spec, "/api/products/7"));
+
+            LoadResult result = new LoadGenerator(List.of(scenario))
+                    .run(LoadProfile.openLoop(20, Duration.ofMillis(300)));
+
+            assertThat(result.getSuccesses()).isPositive();
+            assertThat(result.getLatency().getServiceTimes("GET /api/products/{id}").getTotalCount())
+                    .isEqualTo(result.getSuccesses());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testLoadRunWritesTaggedIntervalLog() throws Exception {
+        Path log = Files.createTempFile("latency", ".hlog");
+        Scenario scenario = Scenario.of("browse", () -> {
+            long start = System.nanoTime();
+            Thread.sleep(2);
+            LatencyRecorder.recordCall("GET", "/api/products/7", start);
+        });
+
+        LoadResult result;
+        try (LatencyRecorder recorder = new LatencyRecorder()) {
+            recorder.startIntervalLog(log, Duration.ofMillis(100));
+            result = new LoadGenerator(List.of(scenario)).run(LoadProfile.openLoop(100, Duration.ofMillis(500)),
+                    recorder);
+        }
+
+        assertThat(result.getLatency().getResponseTimes("GET /api/products/{id}").getTotalCount())
+                .isEqualTo(result.getSuccesses());
+        assertThat(result.report()).contains("scenario browse", "GET /api/products/{id}", "p99.99");
+
+        Set<String> tags = new HashSet<>();
+        HistogramLogReader reader = new HistogramLogReader(log.toFile());
+        while (reader.hasNext()) {
+            tags.add(reader.nextIntervalHistogram().getTag());
+        }
+        assertThat(tags).contains("rt:GET_/api/products/{id}", "st:GET_/api/products/{id}", "rt:scenario_browse");
+        Files.delete(log);
+    }
+}
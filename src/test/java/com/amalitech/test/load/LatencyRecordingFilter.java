@@ -0,0 +1,44 @@
+package com.amalitech.test.load;
+
+import io.restassured.RestAssured;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Global RestAssured filter that reports every call made on a thread with an active
+ * {@link LatencyRecorder}, so scenarios built from the API tests are measured per endpoint
+ * without the tests knowing about load runs. Calls on other threads pass straight through.
+ */
+final class LatencyRecordingFilter implements Filter {
+    private static final LatencyRecordingFilter INSTANCE = new LatencyRecordingFilter();
+
+    private LatencyRecordingFilter() {
+    }
+
+    /**
+     * Add the filter to RestAssured's global filters unless it is there already; a
+     * {@code RestAssured.reset()} removes it, so load runs install it each time they start
+     */
+    static synchronized void install() {
+        if (!RestAssured.filters().contains(INSTANCE)) {
+            RestAssured.filters(INSTANCE);
+        }
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+            FilterContext ctx) {
+        if (LatencyRecorder.active() == null) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        long start = System.nanoTime();
+        try {
+            return ctx.next(requestSpec, responseSpec);
+        } finally {
+            LatencyRecorder.recordCall(requestSpec.getMethod(), requestSpec.getUserDefinedPath(), start);
+        }
+    }
+}
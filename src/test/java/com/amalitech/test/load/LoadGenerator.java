@@ -0,0 +1,140 @@
+package com.amalitech.test.load;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs scenarios under an open- or closed-loop {@link LoadProfile} on virtual threads.
+ * <p>
+ * Scenarios are picked round-robin. In open loop a single pacing thread starts each call at
+ * its scheduled time, computed from the start of the run rather than from the previous call, so
+ * pacing errors never accumulate. Every call runs on its own virtual thread, so thousands of calls
+ * blocked on slow responses cost little more than their stacks. Each open-loop call publishes
+ * its scheduled start to {@link LatencyRecorder}, so latencies include any time the call spent
+ * waiting to be sent.
+ */
+public class LoadGenerator {
+    private static final Logger log = LoggerFactory.getLogger(LoadGenerator.class);
+
+    /** Prefix of scenario-level entries in the latency recorder, next to the per-endpoint ones */
+    public static final String SCENARIO_PREFIX = "scenario ";
+
+    private final List<Scenario> scenarios;
+    private final AtomicLong next = new AtomicLong();
+
+    public LoadGenerator(List<Scenario> scenarios) {
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("No scenarios to run");
+        }
+        this.scenarios = List.copyOf(scenarios);
+    }
+
+    /**
+     * Apply the profile and wait for every started call to finish
+     */
+    public LoadResult run(LoadProfile profile) {
+        try (LatencyRecorder latency = new LatencyRecorder()) {
+            return run(profile, latency);
+        }
+    }
+
+    /**
+     * Apply the profile, recording scenario and RestAssured call latencies into the given
+     * recorder, and wait for every started call to finish
+     */
+    public LoadResult run(LoadProfile profile, LatencyRecorder latency) {
+        LoadResult result = new LoadResult(profile, scenarios.stream().map(Scenario::getName).toList(), latency);
+        log.info("Starting {} with {} scenarios", profile, scenarios.size());
+        LatencyRecorder previous = LatencyRecorder.active();
+        LatencyRecorder.setActive(latency);
+        LatencyRecordingFilter.install();
+
+        long start = System.nanoTime();
+        long end = start + profile.getDuration().toNanos();
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("load-", 0).factory())) {
+            if (profile.getMode() == LoadProfile.Mode.OPEN) {
+                runOpenLoop(profile, result, executor, start, end);
+            } else {
+                runClosedLoop(profile, result, executor, end);
+            }
+        } finally {
+            LatencyRecorder.setActive(previous);
+        }
+        result.setElapsed(Duration.ofNanos(System.nanoTime() - start));
+        latency.sampleInterval();
+
+        log.info("Finished load run: {} ok, {} failed, {} dropped", result.getSuccesses(), result.getFailures(),
+                result.getDropped());
+        return result;
+    }
+
+    private void runOpenLoop(LoadProfile profile, LoadResult result, ExecutorService executor, long start,
+            long end) {
+        double intervalNanos = 1e9 / profile.getArrivalsPerSecond();
+        AtomicInteger inFlight = new AtomicInteger();
+        for (long arrival = 0; ; arrival++) {
+            long intendedStart = start + (long) (arrival * intervalNanos);
+            if (intendedStart - end >= 0) {
+                break;
+            }
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            if (inFlight.get() >= profile.getMaxInFlight()) {
+                result.recordDropped();
+                continue;
+            }
+            inFlight.incrementAndGet();
+            Scenario scenario = nextScenario();
+            executor.execute(() -> {
+                try {
+                    execute(scenario, result, intendedStart);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    private void runClosedLoop(LoadProfile profile, LoadResult result, ExecutorService executor, long end) {
+        for (int user = 0; user < profile.getUsers(); user++) {
+            executor.execute(() -> {
+                long now;
+                while ((now = System.nanoTime()) - end < 0) {
+                    // A closed loop has no schedule to fall behind, so calls are due when they start
+                    execute(nextScenario(), result, now);
+                }
+            });
+        }
+    }
+
+    private Scenario nextScenario() {
+        return scenarios.get((int) (next.getAndIncrement() % scenarios.size()));
+    }
+
+    private static void execute(Scenario scenario, LoadResult result, long intendedStart) {
+        long callStart = System.nanoTime();
+        LatencyRecorder.setIntendedStart(intendedStart);
+        Throwable failure = null;
+        try {
+            scenario.run();
+        } catch (Exception | AssertionError e) {
+            failure = e;
+        }
+        long callEnd = System.nanoTime();
+        LatencyRecorder.takeIntendedStart(callEnd);
+        result.stats(scenario.getName()).record(callEnd - callStart, failure);
+        result.getLatency().record(SCENARIO_PREFIX + scenario.getName(), intendedStart, callStart, callEnd);
+    }
+}
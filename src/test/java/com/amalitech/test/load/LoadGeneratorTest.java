@@ -0,0 +1,69 @@
+package com.amalitech.test.load;
+
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoadGeneratorTest {
+
+    @Test
+    public void testOpenLoopKeepsArrivalRateWhenCallsAreSlow() {
+        AtomicInteger inFlight = new AtomicInteger();
+        LongAccumulator maxInFlight = new LongAccumulator(Math::max, 0);
+        Scenario slow = Scenario.of("slow", () -> {
+            maxInFlight.accumulate(inFlight.incrementAndGet());
+            Thread.sleep(200);
+            inFlight.decrementAndGet();
+        });
+
+        LoadResult result = new LoadGenerator(List.of(slow))
+                .run(LoadProfile.openLoop(200, Duration.ofSeconds(1)));
+
+        // 200 arrivals regardless of the 200 ms service time, so about 40 overlap
+        assertThat(result.getSuccesses()).isBetween(195L, 200L);
+        assertThat(result.getDropped()).isZero();
+        assertThat(maxInFlight.get()).isGreaterThan(20);
+    }
+
+    @Test
+    public void testOpenLoopDropsArrivalsBeyondMaxInFlight() {
+        Scenario stuck = Scenario.of("stuck", () -> Thread.sleep(1_000));
+
+        LoadResult result = new LoadGenerator(List.of(stuck))
+                .run(LoadProfile.openLoop(100, Duration.ofMillis(500)).withMaxInFlight(10));
+
+        assertThat(result.getSuccesses()).isEqualTo(10);
+        assertThat(result.getDropped()).isEqualTo(40);
+    }
+
+    @Test
+    public void testClosedLoopRunsFixedUsersAndRecordsFailures() {
+        AtomicInteger inFlight = new AtomicInteger();
+        LongAccumulator maxInFlight = new LongAccumulator(Math::max, 0);
+        AtomicInteger calls = new AtomicInteger();
+        Scenario ok = Scenario.of("ok", () -> {
+            maxInFlight.accumulate(inFlight.incrementAndGet());
+            Thread.sleep(5);
+            inFlight.decrementAndGet();
+        });
+        Scenario failing = Scenario.of("failing", () -> {
+            if (calls.incrementAndGet() % 2 == 0) {
+                throw new AssertionError("expected 200 but was 500");
+            }
+        });
+
+        LoadResult result = new LoadGenerator(List.of(ok, failing))
+                .run(LoadProfile.closedLoop(4, Duration.ofMillis(300)));
+
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(4);
+        assertThat(result.getScenarioStats().get("ok").getFailures()).isZero();
+        assertThat(result.getScenarioStats().get("failing").getFailures()).isPositive();
+        assertThat(result.getScenarioStats().get("failing").getFirstFailure()).contains("expected 200 but was 500");
+        assertThat(result.report()).contains("closed loop, 4 users");
+    }
+}
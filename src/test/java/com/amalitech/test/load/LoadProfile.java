@@ -0,0 +1,101 @@
+package com.amalitech.test.load;
+
+import java.time.Duration;
+
+/**
+ * How much load to apply and for how long.
+ * <p>
+ * An open-loop profile starts scenarios at a fixed arrival rate whether or not earlier calls have
+ * finished, like independent users would; a slow server then builds up in-flight work instead of
+ * silently lowering the load. A closed-loop profile runs a fixed number of users back to back, so
+ * throughput adapts to the server's response time.
+ */
+public final class LoadProfile {
+    private static final int DEFAULT_MAX_IN_FLIGHT = 10_000;
+
+    public enum Mode {
+        OPEN,
+        CLOSED
+    }
+
+    private final Mode mode;
+    private final double arrivalsPerSecond;
+    private final int users;
+    private final Duration duration;
+    private final int maxInFlight;
+
+    private LoadProfile(Mode mode, double arrivalsPerSecond, int users, Duration duration, int maxInFlight) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Duration must be positive: " + duration);
+        }
+        this.mode = mode;
+        this.arrivalsPerSecond = arrivalsPerSecond;
+        this.users = users;
+        this.duration = duration;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Start scenarios at a fixed rate
+     *
+     * @param arrivalsPerSecond Scenario starts per second
+     * @param duration          How long to keep starting scenarios
+     */
+    public static LoadProfile openLoop(double arrivalsPerSecond, Duration duration) {
+        if (!(arrivalsPerSecond > 0)) {
+            throw new IllegalArgumentException("Arrival rate must be positive: " + arrivalsPerSecond);
+        }
+        return new LoadProfile(Mode.OPEN, arrivalsPerSecond, 0, duration, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Run a fixed number of users, each starting its next scenario as soon as the last one ends
+     *
+     * @param users    Concurrent users
+     * @param duration How long the users keep going
+     */
+    public static LoadProfile closedLoop(int users, Duration duration) {
+        if (users < 1) {
+            throw new IllegalArgumentException("Users must be positive: " + users);
+        }
+        return new LoadProfile(Mode.CLOSED, 0, users, duration, users);
+    }
+
+    /**
+     * Limit the scenarios an open-loop run keeps in flight; arrivals beyond it are dropped and
+     * reported instead of exhausting memory against a stalled server
+     */
+    public LoadProfile withMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Max in flight must be positive: " + maxInFlight);
+        }
+        return new LoadProfile(mode, arrivalsPerSecond, users, duration, maxInFlight);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public double getArrivalsPerSecond() {
+        return arrivalsPerSecond;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    @Override
+    public String toString() {
+        return mode == Mode.OPEN
+                ? String.format("open loop, %.1f/s for %s", arrivalsPerSecond, duration)
+                : String.format("closed loop, %d users for %s", users, duration);
+    }
+}
@@ -0,0 +1,186 @@
+package com.amalitech.test.load;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome of a load run, per scenario (or journey step) and in total.
+ * <p>
+ * Counters are {@link LongAdder}s so the many virtual threads recording calls never contend on
+ * a shared cache line.
+ */
+public class LoadResult {
+    private final LoadProfile profile;
+    private final LatencyRecorder latency;
+    private final Map<String, ScenarioStats> stats = new LinkedHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sessions = new LongAdder();
+    private final LongAdder sessionSteps = new LongAdder();
+    private volatile Duration elapsed = Duration.ZERO;
+
+    LoadResult(LoadProfile profile, Collection<String> names, LatencyRecorder latency) {
+        this.profile = profile;
+        this.latency = latency;
+        for (String name : names) {
+            stats.put(name, new ScenarioStats(name));
+        }
+    }
+
+    ScenarioStats stats(String name) {
+        return stats.get(name);
+    }
+
+    void recordSession(int steps) {
+        sessions.increment();
+        sessionSteps.add(steps);
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    void setElapsed(Duration elapsed) {
+        this.elapsed = elapsed;
+    }
+
+    public LoadProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Latency histograms of scenarios and of the RestAssured calls they made
+     */
+    public LatencyRecorder getLatency() {
+        return latency;
+    }
+
+    public Map<String, ScenarioStats> getScenarioStats() {
+        return Collections.unmodifiableMap(stats);
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Open-loop arrivals skipped because too many scenarios were already in flight
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Journey sessions that ran to an end; zero for scenario runs
+     */
+    public long getSessions() {
+        return sessions.sum();
+    }
+
+    public long getSuccesses() {
+        return stats.values().stream().mapToLong(ScenarioStats::getSuccesses).sum();
+    }
+
+    public long getFailures() {
+        return stats.values().stream().mapToLong(ScenarioStats::getFailures).sum();
+    }
+
+    /**
+     * Completed scenarios per second over the whole run
+     */
+    public double getThroughput() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : (getSuccesses() + getFailures()) * 1e9 / nanos;
+    }
+
+    /**
+     * Plain-text summary table
+     */
+    public String report() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Load run: %s, elapsed %.1f s, %.1f calls/s, %d dropped%n",
+                profile, elapsed.toMillis() / 1000.0, getThroughput(), getDropped()));
+        if (getSessions() > 0) {
+            out.append(String.format("Sessions: %d completed, %.1f steps on average%n", getSessions(),
+                    (double) sessionSteps.sum() / getSessions()));
+        }
+        out.append(String.format("%-50s %10s %10s %12s %12s%n", "scenario", "ok", "failed", "mean ms", "max ms"));
+        for (ScenarioStats s : stats.values()) {
+            out.append(String.format("%-50s %10d %10d %12.2f %12.2f%n", s.getName(), s.getSuccesses(),
+                    s.getFailures(), s.getMeanNanos() / 1e6, s.getMaxNanos() / 1e6));
+            if (s.getFirstFailure() != null) {
+                out.append("    first failure: ").append(s.getFirstFailure()).append(System.lineSeparator());
+            }
+        }
+        out.append(System.lineSeparator()).append("Latency (ms), rt = from intended start, st = service time")
+                .append(System.lineSeparator()).append(latency.percentileReport());
+        return out.toString();
+    }
+
+    @Override
+    public String toString() {
+        return report();
+    }
+
+    /**
+     * Call counts and service times of one scenario
+     */
+    public static class ScenarioStats {
+        private final String name;
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicReference<String> firstFailure = new AtomicReference<>();
+
+        ScenarioStats(String name) {
+            this.name = name;
+        }
+
+        void record(long nanos, Throwable failure) {
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            if (failure == null) {
+                successes.increment();
+            } else {
+                failures.increment();
+                if (firstFailure.get() == null) {
+                    firstFailure.compareAndSet(null, failure.getClass().getSimpleName() + ": " + failure.getMessage());
+                }
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getSuccesses() {
+            return successes.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        public double getMeanNanos() {
+            long calls = getSuccesses() + getFailures();
+            return calls == 0 ? 0 : (double) totalNanos.sum() / calls;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /**
+         * Type and message of the first failure, or null if every call passed
+         */
+        public String getFirstFailure() {
+            return firstFailure.get();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.amalitech.test.load;
+
+import com.amalitech.test.base.BaseTest;
+import com.amalitech.test.ecommerce.CartApiTest;
+import com.amalitech.test.ecommerce.CheckoutApiTest;
+import com.amalitech.test.ecommerce.OrderApiTest;
+import com.amalitech.test.ecommerce.auth.AuthApiTest;
+import com.amalitech.test.ecommerce.product.ProductApiTest;
+import com.amalitech.test.server.ServerFactory;
+import com.amalitech.test.server.ServerFactoryProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line entry point that runs the API tests as a load test, or replays an access log.
+ * <p>
+ * Configured with system properties, which the {@code loadTest} Gradle task passes through from
+ * {@code -Pload.*} project properties:
+ * <ul>
+ * <li>{@code load.mode} - {@code open} or {@code closed} (default closed)</li>
+ * <li>{@code load.rate} - open-loop arrivals per second (default 50)</li>
+ * <li>{@code load.users} - closed-loop concurrent users (default 10)</li>
+ * <li>{@code load.duration} - run time in seconds (default 30)</li>
+ * <li>{@code load.maxInFlight} - open-loop limit on concurrent calls (default 10000)</li>
+ * <li>{@code load.baseUrl} - target a real server instead of the WireMock mock</li>
+ * <li>{@code load.classes} - comma separated test classes (default the auth, product, cart, checkout and order tests)</li>
+ * <li>{@code load.histogramLog} - HdrHistogram interval log (default build/reports/load/latency.hlog)</li>
+ * <li>{@code load.journey} - {@code shopper} to run virtual users through the {@link ShopperJourney} instead of
+ * calling test methods independently; open loop then counts session arrivals and {@code load.maxInFlight}
+ * caps concurrent users</li>
+ * <li>{@code load.thinkTimeScale} - factor applied to journey think times (default 1)</li>
+ * <li>{@code load.seed} - seed for journey paths and think times (default 1)</li>
+ * <li>{@code load.replay} - NCSA or JSON-lines access log (optionally gzipped) to replay with the
+ * {@link TraceReplayer} instead of running the tests; the load profile properties are then ignored
+ * except {@code load.maxInFlight}</li>
+ * <li>{@code load.replaySpeed} - replay speed factor, or {@code max} to send as fast as possible (default 1)</li>
+ * <li>{@code load.verify} - {@code true} to check the tests' {@code verify(...)} calls against the mock's
+ * request journal (default false)</li>
+ * </ul>
+ * The task also passes {@code -Pmock.*} properties, such as {@code mock.nodes} to spread the mock
+ * over a {@link com.amalitech.test.server.ClusterServerFactory}. Unless verifying, the mock keeps
+ * the last {@value #UNVERIFIED_JOURNAL_ENTRIES} requests in its journal; {@code mock.journal}
+ * sets another bound, {@code off} or {@code unlimited}.
+ */
+public class LoadTestRunner {
+    private static final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private static final List<Class<? extends BaseTest>> DEFAULT_CLASSES = List.of(
+            AuthApiTest.class, ProductApiTest.class, CartApiTest.class, CheckoutApiTest.class, OrderApiTest.class);
+
+    static final int UNVERIFIED_JOURNAL_ENTRIES = 1000;
+
+    public static void main(String[] args) throws Exception {
+        boolean verify = Boolean.getBoolean("load.verify");
+        if (!verify && System.getProperty("mock.journal") == null) {
+            System.setProperty("mock.journal", String.valueOf(UNVERIFIED_JOURNAL_ENTRIES));
+        }
+        String baseUrl = System.getProperty("load.baseUrl");
+        ServerFactory serverFactory = baseUrl == null || baseUrl.isBlank()
+                ? ServerFactoryProvider.getMockServerFactory()
+                : ServerFactoryProvider.getRealServerFactory(baseUrl);
+        serverFactory.initialize();
+
+        boolean succeeded;
+        try (LatencyRecorder latency = new LatencyRecorder()) {
+            Path histogramLog = Path.of(System.getProperty("load.histogramLog", "build/reports/load/latency.hlog"));
+            latency.startIntervalLog(histogramLog, Duration.ofSeconds(1));
+            String replay = System.getProperty("load.replay");
+            succeeded = replay == null || replay.isBlank()
+                    ? runLoad(serverFactory, verify, latency)
+                    : runReplay(serverFactory, Path.of(replay), latency);
+            log.info("Interval histograms written to {}", histogramLog.toAbsolutePath());
+        } finally {
+            serverFactory.shutdown();
+        }
+        if (!succeeded) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean runLoad(ServerFactory serverFactory, boolean verify, LatencyRecorder latency)
+            throws ClassNotFoundException {
+        LoadProfile profile = profile();
+        List<Scenario> scenarios = TestScenarios.fromTestClasses(serverFactory, testClasses(), verify);
+        LoadResult result;
+        String journey = System.getProperty("load.journey");
+        if (journey == null || journey.isBlank()) {
+            result = new LoadGenerator(scenarios).run(profile, latency);
+        } else if (ShopperJourney.NAME.equalsIgnoreCase(journey)) {
+            double thinkTimeScale = Double.parseDouble(System.getProperty("load.thinkTimeScale", "1"));
+            result = new JourneyRunner(ShopperJourney.create(scenarios, thinkTimeScale),
+                    Long.getLong("load.seed", 1)).run(profile, latency);
+        } else {
+            throw new IllegalArgumentException("Unknown journey: " + journey);
+        }
+        System.out.println(result.report());
+        if (result.getSuccesses() == 0) {
+            log.error("No scenario completed successfully");
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean runReplay(ServerFactory serverFactory, Path accessLog, LatencyRecorder latency)
+            throws IOException {
+        String speed = System.getProperty("load.replaySpeed", "1");
+        ReplayResult result = new TraceReplayer(serverFactory, Integer.getInteger("load.maxInFlight", 10_000))
+                .replay(accessLog, speed.equalsIgnoreCase("max") ? TraceReplayer.MAX_SPEED : Double.parseDouble(speed),
+                        latency);
+        System.out.println(result.report());
+        if (result.getSent() == 0) {
+            log.error("No request replayed from {}", accessLog);
+            return false;
+        }
+        return true;
+    }
+
+    static LoadProfile profile() {
+        Duration duration = Duration.ofSeconds(Long.getLong("load.duration", 30));
+        if ("open".equalsIgnoreCase(System.getProperty("load.mode", "closed"))) {
+            return LoadProfile.openLoop(Double.parseDouble(System.getProperty("load.rate", "50")), duration)
+                    .withMaxInFlight(Integer.getInteger("load.maxInFlight", 10_000));
+        }
+        return LoadProfile.closedLoop(Integer.getInteger("load.users", 10), duration);
+    }
+
+    static List<Class<? extends BaseTest>> testClasses() throws ClassNotFoundException {
+        String names = System.getProperty("load.classes");
+        if (names == null || names.isBlank()) {
+            return DEFAULT_CLASSES;
+        }
+        List<Class<? extends BaseTest>> classes = new ArrayList<>();
+        for (String name : names.split(",")) {
+            classes.add(Class.forName(name.trim()).asSubclass(BaseTest.class));
+        }
+        return classes;
+    }
+}
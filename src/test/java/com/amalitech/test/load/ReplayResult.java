@@ -0,0 +1,157 @@
+package com.amalitech.test.load;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome of replaying an access log: how many requests went out, how the answers compared with
+ * the logged statuses, and the latency histograms per endpoint
+ */
+public class ReplayResult {
+    private final LatencyRecorder latency;
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder matched = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder parseErrors = new LongAdder();
+    private final Map<String, Mismatch> mismatches = new ConcurrentHashMap<>();
+    private final AtomicReference<String> firstError = new AtomicReference<>();
+    private final AtomicReference<String> firstParseError = new AtomicReference<>();
+    private volatile Duration elapsed = Duration.ZERO;
+
+    ReplayResult(LatencyRecorder latency) {
+        this.latency = latency;
+    }
+
+    void recordResponse(AccessLogEntry entry, int status) {
+        sent.increment();
+        if (entry.getStatus() == AccessLogEntry.UNKNOWN_STATUS || entry.getStatus() == status) {
+            matched.increment();
+        } else {
+            mismatches.computeIfAbsent(entry.getStatus() + " -> " + status,
+                    key -> new Mismatch(entry.getMethod() + " " + entry.getPath())).count.increment();
+        }
+    }
+
+    void recordError(String name, Exception e) {
+        sent.increment();
+        errors.increment();
+        firstError.compareAndSet(null, name + ": " + e);
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    void recordParseError(String message) {
+        parseErrors.increment();
+        firstParseError.compareAndSet(null, message);
+    }
+
+    void setElapsed(Duration elapsed) {
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Response and service times per endpoint, measured from each request's logged offset
+     */
+    public LatencyRecorder getLatency() {
+        return latency;
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    /**
+     * Requests sent, including those that failed without a response
+     */
+    public long getSent() {
+        return sent.sum();
+    }
+
+    /**
+     * Responses with the logged status, or to log lines without one
+     */
+    public long getMatched() {
+        return matched.sum();
+    }
+
+    /**
+     * Responses whose status differs from the logged one
+     */
+    public long getMismatches() {
+        return mismatches.values().stream().mapToLong(mismatch -> mismatch.count.sum()).sum();
+    }
+
+    /**
+     * Mismatch counts keyed by {@code "logged -> actual"} status, e.g. {@code "200 -> 404"}
+     */
+    public Map<String, Long> getMismatchesByStatus() {
+        Map<String, Long> counts = new TreeMap<>();
+        mismatches.forEach((key, mismatch) -> counts.put(key, mismatch.count.sum()));
+        return counts;
+    }
+
+    /**
+     * Requests that got no response: connection failures, timeouts and invalid request lines
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Requests skipped because too many were already in flight
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Log lines that could not be parsed
+     */
+    public long getParseErrors() {
+        return parseErrors.sum();
+    }
+
+    /**
+     * Plain-text summary
+     */
+    public String report() {
+        StringBuilder out = new StringBuilder();
+        double seconds = elapsed.toNanos() / 1e9;
+        out.append(String.format("Replay: elapsed %.1f s, %d sent (%.1f/s), %d matched, %d mismatched, "
+                        + "%d failed, %d dropped, %d unparsable lines%n", seconds, getSent(),
+                seconds == 0 ? 0 : getSent() / seconds, getMatched(), getMismatches(), getErrors(), getDropped(),
+                getParseErrors()));
+        new TreeMap<>(mismatches).forEach((key, mismatch) -> out.append(String.format("    %-14s %8d  e.g. %s%n",
+                key, mismatch.count.sum(), mismatch.example)));
+        if (firstError.get() != null) {
+            out.append("    first failure: ").append(firstError.get()).append(System.lineSeparator());
+        }
+        if (firstParseError.get() != null) {
+            out.append("    first unparsable line: ").append(firstParseError.get()).append(System.lineSeparator());
+        }
+        out.append(System.lineSeparator()).append("Latency (ms), rt = from logged time, st = service time")
+                .append(System.lineSeparator()).append(latency.percentileReport());
+        return out.toString();
+    }
+
+    @Override
+    public String toString() {
+        return report();
+    }
+
+    private static final class Mismatch {
+        private final LongAdder count = new LongAdder();
+        private final String example;
+
+        Mismatch(String example) {
+            this.example = example;
+        }
+    }
+}
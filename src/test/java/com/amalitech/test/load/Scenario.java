@@ -0,0 +1,49 @@
+package com.amalitech.test.load;
+
+/**
+ * One unit of work the load generator repeats, such as a single test method
+ */
+public interface Scenario {
+
+    String getName();
+
+    /**
+     * Execute the scenario once; any exception or assertion error counts as a failed call
+     */
+    void run() throws Exception;
+
+    /**
+     * Execute the scenario once as a journey's virtual user; scenarios that call the API as a
+     * user, such as the test methods, authenticate with the session's token
+     */
+    default void run(JourneySession session) throws Exception {
+        run();
+    }
+
+    /**
+     * Create a scenario from a name and an action
+     */
+    static Scenario of(String name, Action action) {
+        return new Scenario() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public void run() throws Exception {
+                action.run();
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+
+    @FunctionalInterface
+    interface Action {
+        void run() throws Exception;
+    }
+}
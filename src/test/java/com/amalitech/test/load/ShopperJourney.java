@@ -0,0 +1,84 @@
+package com.amalitech.test.load;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The default shopper journey, built from the API test scenarios: log in, browse the catalogue,
+ * add to the cart, check out, pay and look up orders, with drop-off at every stage. Every step
+ * runs as the session's own user, with its {@link JourneySession#getToken() token}.
+ * <p>
+ * Transition weights follow a typical e-commerce funnel, where most sessions never reach the
+ * cart and a fraction of carts are abandoned at checkout. Think times are log-normal with
+ * medians of a few seconds, capped so that no single pause outlasts a short test run.
+ */
+public final class ShopperJourney {
+    public static final String NAME = "shopper";
+
+    private static final Duration MAX_THINK_TIME = Duration.ofSeconds(30);
+
+    private ShopperJourney() {
+    }
+
+    /**
+     * Build the journey
+     *
+     * @param scenarios      Scenarios from {@link TestScenarios#fromTestClasses}, which must include the auth,
+     *                       product, cart, checkout and order tests
+     * @param thinkTimeScale Factor applied to every think time; 0 removes them
+     */
+    public static Journey create(Iterable<Scenario> scenarios, double thinkTimeScale) {
+        Map<String, Scenario> byName = new HashMap<>();
+        scenarios.forEach(scenario -> byName.put(scenario.getName(), scenario));
+        Function<String, Scenario> require = name -> {
+            Scenario found = byName.get(name);
+            if (found == null) {
+                throw new IllegalArgumentException("The shopper journey needs the scenario " + name);
+            }
+            return found;
+        };
+
+        Scenario search = require.apply("ProductApiTest.testSearchProducts");
+        Scenario details = require.apply("ProductApiTest.testGetProductDetails");
+        Journey.Step browse = session -> {
+            if (session.getRandom().nextBoolean()) {
+                search.run(session);
+            } else {
+                details.run(session);
+            }
+        };
+
+        return Journey.builder(NAME)
+                .step("login", require.apply("AuthApiTest.testSuccessfulLogin"),
+                        think(Duration.ofSeconds(2), thinkTimeScale))
+                .step("browse", browse, think(Duration.ofSeconds(5), thinkTimeScale))
+                .step("cart", require.apply("CartApiTest.testAddItemToCart"),
+                        think(Duration.ofSeconds(3), thinkTimeScale))
+                .step("checkout", require.apply("CheckoutApiTest.testInitiateCheckout"),
+                        think(Duration.ofSeconds(10), thinkTimeScale))
+                .step("payment", require.apply("CheckoutApiTest.testProcessPayment"),
+                        think(Duration.ofSeconds(5), thinkTimeScale))
+                .step("orders", require.apply("OrderApiTest.testFilterOrdersByStatus"), ThinkTime.none())
+                .transition("login", "browse", 0.65)
+                .transition("login", "cart", 0.2)
+                .transition("login", "orders", 0.05)
+                .transition("login", Journey.EXIT, 0.1)
+                .transition("browse", "browse", 0.5)
+                .transition("browse", "cart", 0.3)
+                .transition("browse", Journey.EXIT, 0.2)
+                .transition("cart", "checkout", 0.5)
+                .transition("cart", "browse", 0.3)
+                .transition("cart", Journey.EXIT, 0.2)
+                .transition("checkout", "payment", 0.8)
+                .transition("checkout", Journey.EXIT, 0.2)
+                .transition("payment", "orders", 0.4)
+                .transition("payment", Journey.EXIT, 0.6)
+                .build();
+    }
+
+    private static ThinkTime think(Duration median, double scale) {
+        return ThinkTime.logNormal(median, 0.6).capped(MAX_THINK_TIME).scaled(scale);
+    }
+}
@@ -0,0 +1,289 @@
+package com.amalitech.test.load;
+
+import com.amalitech.test.base.BaseTest;
+import com.amalitech.test.base.DeclaredStubsListener;
+import com.amalitech.test.base.WithStubs;
+import com.amalitech.test.server.ServerFactory;
+import com.github.tomakehurst.wiremock.client.CountMatchingStrategy;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.Admin;
+import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Turns the TestNG API test classes into load scenarios, one per {@code @Test} method.
+ * <p>
+ * Each class is set up once, running its {@code @BeforeClass} methods against the given server
+ * factory exactly as TestNG would, and the {@link WithStubs} files of all its test methods are
+ * applied, so stubs are registered once. Concurrent calls then run on
+ * shallow copies of that prototype taken from a pool, and each call gets a fresh request spec
+ * the way {@code @BeforeMethod} provides one, so tests that add headers to {@code requestSpec}
+ * never see each other's changes, and the static WireMock client of the calling thread points at
+ * the factory's mock, as {@code verify(...)} would on a test thread, unless verification is
+ * skipped. The server is not reset between calls.
+ * <p>
+ * Run as a journey step, a test authenticates with the {@link JourneySession#getToken() session's token}
+ * in place of {@link BaseTest#DEFAULT_AUTH_TOKEN}, so every virtual user is a shopper of its own.
+ */
+public final class TestScenarios {
+    private static final Field REQUEST_SPEC_FIELD;
+    private static final Field AUTH_TOKEN_FIELD;
+
+    static {
+        try {
+            REQUEST_SPEC_FIELD = BaseTest.class.getDeclaredField("requestSpec");
+            REQUEST_SPEC_FIELD.setAccessible(true);
+            AUTH_TOKEN_FIELD = BaseTest.class.getDeclaredField("authToken");
+            AUTH_TOKEN_FIELD.setAccessible(true);
+        } catch (NoSuchFieldException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private TestScenarios() {
+    }
+
+    /**
+     * Build scenarios from test classes that verify their requests as under TestNG
+     *
+     * @param serverFactory Initialized server factory the tests should call
+     * @param testClasses   Test classes whose enabled, parameterless {@code @Test} methods become scenarios
+     * @return Scenarios in class and method name order
+     */
+    public static List<Scenario> fromTestClasses(ServerFactory serverFactory,
+            List<Class<? extends BaseTest>> testClasses) {
+        return fromTestClasses(serverFactory, testClasses, true);
+    }
+
+    /**
+     * Build scenarios from test classes
+     *
+     * @param serverFactory Initialized server factory the tests should call
+     * @param testClasses   Test classes whose enabled, parameterless {@code @Test} methods become scenarios
+     * @param verify        Whether the tests' {@code verify(...)} calls check the mock's journal; if not they
+     *                      pass without a query, so the journal can be bounded or off
+     * @return Scenarios in class and method name order
+     */
+    public static List<Scenario> fromTestClasses(ServerFactory serverFactory,
+            List<Class<? extends BaseTest>> testClasses, boolean verify) {
+        BaseTest.useServerFactory(serverFactory);
+        WireMock client = verify
+                ? serverFactory.wireMock().orElse(null)
+                : serverFactory.admin().map(UnverifiedWireMock::new).orElseGet(UnverifiedWireMock::new);
+        List<Scenario> scenarios = new ArrayList<>();
+        for (Class<? extends BaseTest> testClass : testClasses) {
+            InstancePool pool = new InstancePool(serverFactory, client, prepare(testClass, serverFactory));
+            for (Method method : testMethods(testClass)) {
+                String name = testClass.getSimpleName() + "." + method.getName();
+                scenarios.add(new TestMethodScenario(name, pool, method));
+            }
+        }
+        return scenarios;
+    }
+
+    private static BaseTest prepare(Class<? extends BaseTest> testClass, ServerFactory serverFactory) {
+        try {
+            BaseTest prototype = testClass.getDeclaredConstructor().newInstance();
+            for (Method method : beforeClassMethods(testClass)) {
+                method.setAccessible(true);
+                method.invoke(prototype);
+            }
+            if (BaseTest.getServerFactory() != serverFactory) {
+                throw new IllegalStateException(testClass.getName()
+                        + " switches to its own server in its class setup and cannot run against this one");
+            }
+            for (Method method : testMethods(testClass)) {
+                DeclaredStubsListener.applyDeclaredStubs(prototype, method);
+            }
+            return prototype;
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Setup of " + testClass.getName() + " failed", e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot instantiate " + testClass.getName(), e);
+        }
+    }
+
+    private static List<Method> beforeClassMethods(Class<?> testClass) {
+        // Superclass methods first, skipping any the subclass overrides, as TestNG orders them
+        Deque<Class<?>> hierarchy = new ArrayDeque<>();
+        for (Class<?> c = testClass; c != null && c != Object.class; c = c.getSuperclass()) {
+            hierarchy.push(c);
+        }
+        List<Method> methods = new ArrayList<>();
+        for (Class<?> c : hierarchy) {
+            for (Method method : sorted(c.getDeclaredMethods())) {
+                if (method.isAnnotationPresent(BeforeClass.class) && method.getParameterCount() == 0
+                        && !isOverridden(method, testClass)) {
+                    methods.add(method);
+                }
+            }
+        }
+        return methods;
+    }
+
+    private static boolean isOverridden(Method method, Class<?> testClass) {
+        for (Class<?> c = testClass; c != method.getDeclaringClass(); c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod(method.getName());
+                return true;
+            } catch (NoSuchMethodException e) {
+                // Not overridden at this level
+            }
+        }
+        return false;
+    }
+
+    private static List<Method> testMethods(Class<?> testClass) {
+        List<Method> methods = new ArrayList<>();
+        for (Method method : sorted(testClass.getMethods())) {
+            Test test = method.getAnnotation(Test.class);
+            if (test != null && test.enabled() && method.getParameterCount() == 0
+                    && !Modifier.isStatic(method.getModifiers())) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    private static Method[] sorted(Method[] methods) {
+        Method[] copy = methods.clone();
+        Arrays.sort(copy, Comparator.comparing(Method::getName));
+        return copy;
+    }
+
+    /**
+     * A test method, called as the default user or as a journey session's user
+     */
+    private static final class TestMethodScenario implements Scenario {
+        private final String name;
+        private final InstancePool pool;
+        private final Method method;
+
+        TestMethodScenario(String name, InstancePool pool, Method method) {
+            this.name = name;
+            this.pool = pool;
+            this.method = method;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void run() throws Exception {
+            pool.invoke(method, BaseTest.DEFAULT_AUTH_TOKEN);
+        }
+
+        @Override
+        public void run(JourneySession session) throws Exception {
+            pool.invoke(method, session.getToken());
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Copies of one set-up test instance, reused across calls
+     */
+    private static final class InstancePool {
+        private final ServerFactory serverFactory;
+        private final WireMock client;
+        private final BaseTest prototype;
+        private final List<Field> fields = new ArrayList<>();
+        private final Queue<BaseTest> idle = new ConcurrentLinkedQueue<>();
+
+        InstancePool(ServerFactory serverFactory, WireMock client, BaseTest prototype) {
+            this.serverFactory = serverFactory;
+            this.client = client;
+            this.prototype = prototype;
+            for (Class<?> c = prototype.getClass(); c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+            }
+        }
+
+        void invoke(Method method, String authToken) throws Exception {
+            BaseTest instance = idle.poll();
+            if (instance == null) {
+                instance = copy();
+            }
+            try {
+                // The static client is per thread, and load threads never run the method setup
+                if (client != null) {
+                    WireMock.configureFor(client);
+                }
+                REQUEST_SPEC_FIELD.set(instance, serverFactory.createRequestSpec());
+                AUTH_TOKEN_FIELD.set(instance, authToken);
+                method.invoke(instance);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            } finally {
+                idle.offer(instance);
+            }
+        }
+
+        private BaseTest copy() throws ReflectiveOperationException {
+            BaseTest instance = prototype.getClass().getDeclaredConstructor().newInstance();
+            for (Field field : fields) {
+                field.set(instance, field.get(prototype));
+            }
+            return instance;
+        }
+    }
+
+    /**
+     * Static client of load threads that skips verification, as a bounded journal may have dropped
+     * the requests a test checks and the load's other calls add to any count; everything else still
+     * reaches the mock when it runs in this JVM, or the default client's server otherwise
+     */
+    private static final class UnverifiedWireMock extends WireMock {
+
+        UnverifiedWireMock() {
+        }
+
+        UnverifiedWireMock(Admin admin) {
+            super(admin);
+        }
+
+        @Override
+        public void verifyThat(RequestPatternBuilder requestPatternBuilder) {
+        }
+
+        @Override
+        public void verifyThat(int count, RequestPatternBuilder requestPatternBuilder) {
+        }
+
+        @Override
+        public void verifyThat(CountMatchingStrategy expectedCount, RequestPatternBuilder requestPatternBuilder) {
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.amalitech.test.load;
+
+import java.time.Duration;
+import java.util.random.RandomGenerator;
+
+/**
+ * Distribution of the pause a user takes after a journey step, in nanoseconds
+ */
+@FunctionalInterface
+public interface ThinkTime {
+
+    long nextNanos(RandomGenerator random);
+
+    /**
+     * No pause; the next step starts as soon as the previous one ends
+     */
+    static ThinkTime none() {
+        return random -> 0;
+    }
+
+    static ThinkTime constant(Duration duration) {
+        long nanos = duration.toNanos();
+        return random -> nanos;
+    }
+
+    /**
+     * Evenly distributed between two bounds
+     */
+    static ThinkTime uniform(Duration min, Duration max) {
+        long minNanos = min.toNanos();
+        long range = max.toNanos() - minNanos;
+        if (range < 0) {
+            throw new IllegalArgumentException("max must not be less than min");
+        }
+        return random -> range == 0 ? minNanos : minNanos + random.nextLong(range + 1);
+    }
+
+    /**
+     * Memoryless pauses with the given mean, as between independent user actions
+     */
+    static ThinkTime exponential(Duration mean) {
+        double meanNanos = mean.toNanos();
+        return random -> (long) (random.nextExponential() * meanNanos);
+    }
+
+    /**
+     * Log-normal pauses: most users act around the median, a long tail reads the page for much
+     * longer. Measured page dwell times usually fit this shape best.
+     *
+     * @param median Median pause
+     * @param sigma  Standard deviation of the underlying normal; 0.5 to 1 is typical
+     */
+    static ThinkTime logNormal(Duration median, double sigma) {
+        double mu = Math.log(median.toNanos());
+        return random -> (long) Math.exp(mu + sigma * random.nextGaussian());
+    }
+
+    /**
+     * This distribution with every pause multiplied by a factor, to compress or stretch a journey
+     */
+    default ThinkTime scaled(double factor) {
+        return random -> (long) (nextNanos(random) * factor);
+    }
+
+    /**
+     * This distribution with pauses cut off at a maximum
+     */
+    default ThinkTime capped(Duration max) {
+        long maxNanos = max.toNanos();
+        return random -> Math.min(nextNanos(random), maxNanos);
+    }
+}
@@ -0,0 +1,196 @@
+package com.amalitech.test.load;
+
+import com.amalitech.test.server.ClusterServerFactory;
+import com.amalitech.test.server.ServerFactory;
+import com.amalitech.test.server.ShardingFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Replays a recorded access log against the server behind a {@link ServerFactory}.
+ * <p>
+ * The log is streamed line by line, so its size is limited by disk rather than heap; gzipped
+ * logs ({@code .gz}) are read directly. Each request is sent at its original offset from the
+ * first one, divided by the speed factor, on its own virtual thread, so bursts in the trace
+ * reach the server as bursts. Response times are measured from the intended send time, and
+ * every response whose status differs from the logged one is counted as a mismatch, which
+ * against the mock shows the traffic the stubs do not cover.
+ * <p>
+ * Requests go out through a plain {@link HttpClient} rather than the REST-assured spec of the
+ * factory, whose console logging would dominate the timings of a large trace. The client speaks
+ * HTTP/1.1 like the logged clients did; a cleartext HTTP/2 upgrade would multiplex a burst onto
+ * one connection and fail it once the server's stream limit is reached.
+ */
+public class TraceReplayer {
+    private static final Logger log = LoggerFactory.getLogger(TraceReplayer.class);
+
+    /** Replay as fast as the server allows, ignoring the logged timing */
+    public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+
+    // Headers HttpClient sets itself and refuses to take from the caller
+    private static final Set<String> RESTRICTED_HEADERS =
+            Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private static final int DEFAULT_MAX_IN_FLIGHT = 10_000;
+
+    private final ServerFactory serverFactory;
+    private final int maxInFlight;
+
+    public TraceReplayer(ServerFactory serverFactory) {
+        this(serverFactory, DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * @param serverFactory Initialized factory of the server to replay against
+     * @param maxInFlight   Limit on outstanding requests; requests due beyond it are dropped
+     */
+    public TraceReplayer(ServerFactory serverFactory, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.serverFactory = serverFactory;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public ReplayResult replay(Path accessLog, double speed) throws IOException {
+        try (LatencyRecorder latency = new LatencyRecorder()) {
+            return replay(accessLog, speed, latency);
+        }
+    }
+
+    /**
+     * Replay a log and wait for every request to complete
+     *
+     * @param accessLog NCSA or JSON-lines log, detected from its first line
+     * @param speed     1 for the original timing, 2 for twice as fast, {@link #MAX_SPEED} for no pacing
+     * @param latency   Recorder for response and service times per endpoint
+     */
+    public ReplayResult replay(Path accessLog, double speed, LatencyRecorder latency) throws IOException {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Speed must be positive: " + speed);
+        }
+        ReplayResult result = new ReplayResult(latency);
+        String baseUrl = serverFactory.baseUrl();
+        // A mock cluster is balanced the way its request specs balance the tests
+        ShardingFilter sharding = serverFactory instanceof ClusterServerFactory cluster
+                ? cluster.getShardingFilter() : null;
+        log.info("Replaying {} against {} at {}x", accessLog, baseUrl, speed);
+
+        AtomicInteger inFlight = new AtomicInteger();
+        long start = System.nanoTime();
+        // Closed in reverse order: the executor waits for outstanding requests before the client goes
+        try (BufferedReader reader = open(accessLog);
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .build();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            AccessLogFormat format = null;
+            Instant firstTimestamp = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == null) {
+                    format = AccessLogFormat.detect(line);
+                }
+                AccessLogEntry entry;
+                try {
+                    entry = format.parseLine(line);
+                } catch (IllegalArgumentException e) {
+                    result.recordParseError(e.getMessage());
+                    continue;
+                }
+
+                if (firstTimestamp == null) {
+                    firstTimestamp = entry.getTimestamp();
+                }
+                long offset = Duration.between(firstTimestamp, entry.getTimestamp()).toNanos();
+                long intendedStart = speed == MAX_SPEED ? System.nanoTime() : start + (long) (offset / speed);
+                long wait;
+                while ((wait = intendedStart - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                if (inFlight.get() >= maxInFlight) {
+                    result.recordDropped();
+                    continue;
+                }
+                inFlight.incrementAndGet();
+                executor.execute(() -> {
+                    try {
+                        send(client, sharding == null ? baseUrl
+                                : sharding.nodeFor(entry.getHeaders().get(ClusterServerFactory.SESSION_HEADER)),
+                                entry, intendedStart, result);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        }
+        result.setElapsed(Duration.ofNanos(System.nanoTime() - start));
+        latency.sampleInterval();
+
+        log.info("Finished replay of {}: {} sent, {} mismatched, {} failed", accessLog, result.getSent(),
+                result.getMismatches(), result.getErrors());
+        return result;
+    }
+
+    private void send(HttpClient client, String baseUrl, AccessLogEntry entry, long intendedStart,
+            ReplayResult result) {
+        String name = entry.getMethod() + " " + LatencyRecorder.normalize(entry.getPath());
+        long callStart = System.nanoTime();
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + entry.getPath()))
+                    .timeout(Duration.ofSeconds(30))
+                    .method(entry.getMethod(), entry.getBody() == null
+                            ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofString(entry.getBody()));
+            for (Map.Entry<String, String> header : entry.getHeaders().entrySet()) {
+                if (!RESTRICTED_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+                    request.header(header.getKey(), header.getValue());
+                }
+            }
+            HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            result.recordResponse(entry, response.statusCode());
+        } catch (IOException | IllegalArgumentException e) {
+            result.recordError(name, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.recordError(name, e);
+        } finally {
+            result.getLatency().record(name, intendedStart, callStart, System.nanoTime());
+        }
+    }
+
+    private static BufferedReader open(Path accessLog) throws IOException {
+        InputStream in = Files.newInputStream(accessLog);
+        if (accessLog.getFileName().toString().endsWith(".gz")) {
+            in = new GZIPInputStream(in, 64 * 1024);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+    }
+}
@@ -0,0 +1,104 @@
+package com.amalitech.test.load;
+
+import com.amalitech.test.server.WireMockServerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TraceReplayerTest {
+    private WireMockServerFactory serverFactory;
+
+    @BeforeClass
+    public void startServer() {
+        serverFactory = new WireMockServerFactory(0);
+        serverFactory.initialize();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopServer() {
+        serverFactory.shutdown();
+    }
+
+    @Test
+    public void testParseNcsaCombinedLine() {
+        AccessLogEntry entry = AccessLogFormat.NCSA.parseLine("10.0.0.1 - frank [10/Oct/2024:13:55:36 +0200] "
+                + "\"GET /api/products/search?q=phone HTTP/1.1\" 200 2326 \"-\" \"Mozilla/5.0\"");
+
+        assertThat(entry.getTimestamp()).isEqualTo(Instant.parse("2024-10-10T11:55:36Z"));
+        assertThat(entry.getMethod()).isEqualTo("GET");
+        assertThat(entry.getPath()).isEqualTo("/api/products/search?q=phone");
+        assertThat(entry.getStatus()).isEqualTo(200);
+        assertThatThrownBy(() -> AccessLogFormat.NCSA.parseLine("not a log line"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testParseJsonLine() {
+        AccessLogEntry entry = AccessLogFormat.JSON_LINES.parseLine("{\"timestamp\":1700000000123,\"method\":\"post\","
+                + "\"url\":\"https://shop.example.com/api/auth/login\",\"status\":401,"
+                + "\"headers\":{\"Content-Type\":\"application/json\"},\"body\":{\"email\":\"a@b.c\"}}");
+
+        assertThat(entry.getTimestamp()).isEqualTo(Instant.ofEpochMilli(1700000000123L));
+        assertThat(entry.getMethod()).isEqualTo("POST");
+        assertThat(entry.getPath()).isEqualTo("/api/auth/login");
+        assertThat(entry.getHeaders()).containsEntry("Content-Type", "application/json");
+        assertThat(entry.getBody()).isEqualTo("{\"email\":\"a@b.c\"}");
+        assertThat(AccessLogFormat.detect(" {\"method\":\"GET\"}")).isEqualTo(AccessLogFormat.JSON_LINES);
+    }
+
+    @Test
+    public void testReplayFollowsLoggedTimingAndCountsMismatches() throws IOException {
+        Path log = Files.createTempFile("access", ".log");
+        Files.write(log, List.of(
+                "10.0.0.1 - - [10/Oct/2024:13:55:36 +0000] \"GET /api/products/categories HTTP/1.1\" 200 512",
+                "10.0.0.2 - - [10/Oct/2024:13:55:36 +0000] \"GET /api/products/12/reviews HTTP/1.1\" 200 1024",
+                "garbage",
+                "10.0.0.3 - - [10/Oct/2024:13:55:37 +0000] \"GET /api/not-stubbed HTTP/1.1\" 200 10",
+                "10.0.0.4 - - [10/Oct/2024:13:55:38 +0000] \"GET /api/products/categories HTTP/1.1\" 200 512"));
+
+        // Two seconds of log at 4x take about half a second
+        ReplayResult result = new TraceReplayer(serverFactory).replay(log, 4);
+        Files.delete(log);
+
+        assertThat(result.getElapsed().toMillis()).isBetween(450L, 5_000L);
+        assertThat(result.getSent()).isEqualTo(4);
+        assertThat(result.getMatched()).isEqualTo(3);
+        assertThat(result.getMismatchesByStatus()).containsEntry("200 -> 404", 1L);
+        assertThat(result.getParseErrors()).isEqualTo(1);
+        assertThat(result.getLatency().getResponseTimes("GET /api/products/{id}/reviews").getTotalCount()).isEqualTo(1);
+        assertThat(result.report()).contains("200 -> 404", "GET /api/not-stubbed");
+    }
+
+    @Test
+    public void testReplayGzippedJsonLinesAtMaxSpeed() throws IOException {
+        Path log = Files.createTempFile("access", ".jsonl.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(log))) {
+            for (int i = 0; i < 200; i++) {
+                // An hour of traffic, which only replays quickly when pacing is off
+                String line = "{\"timestamp\":\"" + Instant.parse("2024-10-10T00:00:00Z").plusSeconds(i * 18L)
+                        + "\",\"method\":\"GET\",\"path\":\"/api/products/categories\",\"status\":200}\n";
+                out.write(line.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        ReplayResult result = new TraceReplayer(serverFactory).replay(log, TraceReplayer.MAX_SPEED);
+        Files.delete(log);
+
+        assertThat(result.getSent()).isEqualTo(200);
+        assertThat(result.getMatched()).isEqualTo(200);
+        assertThat(result.getErrors()).isZero();
+        assertThat(result.getElapsed().toSeconds()).isLessThan(30);
+    }
+}
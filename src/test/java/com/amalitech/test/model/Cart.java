@@ -1,22 +1,47 @@
 package com.amalitech.test.model;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Shopping cart with one line per product.
+ * <p>
+ * Lines are indexed by product id and the subtotal is kept as a running sum, so adding, removing
+ * or re-quantifying a line is O(1) regardless of cart size. Quantities must therefore be changed
+ * through {@link #updateItemQuantity(Long, int)} rather than on the {@link CartItem} directly.
+ * <p>
+ * The one-line-per-product rule holds for carts built here; lines read from a server with
+ * {@link #setItems(List)} are kept as sent, even several for a product. Updating or removing such
+ * a product acts on all of its lines.
+ */
 public class Cart {
+    // 10% tax, in basis points
+    private static final long TAX_RATE_BASIS_POINTS = 1000;
+
     private String id;
     private String userId;
-    private List<CartItem> items;
-    private BigDecimal subtotal;
-    private BigDecimal tax;
-    private BigDecimal total;
+    private final Map<Long, CartItem> itemsByProductId;
+    // Every line in order; CartItem compares by identity, so duplicate products keep their lines
+    private final Set<CartItem> lines;
+    private List<CartItem> itemsView;
+    private long subtotalMinorUnits;
+    private Money subtotal;
+    private Money tax;
+    private Money total;
 
     public Cart() {
-        this.items = new ArrayList<>();
-        this.subtotal = BigDecimal.ZERO;
-        this.tax = BigDecimal.ZERO;
-        this.total = BigDecimal.ZERO;
+        this.itemsByProductId = new HashMap<>();
+        this.lines = Collections.newSetFromMap(new LinkedHashMap<>());
+        this.subtotal = Money.ZERO;
+        this.tax = Money.ZERO;
+        this.total = Money.ZERO;
     }
 
     // Getters and setters
@@ -36,68 +61,148 @@ public class Cart {
         this.userId = userId;
     }
 
+    /**
+     * Get the cart lines in insertion order
+     *
+     * @return Read-only snapshot of the lines, rebuilt only after the cart changes
+     */
     public List<CartItem> getItems() {
-        return items;
+        if (itemsView == null) {
+            itemsView = Collections.unmodifiableList(new ArrayList<>(lines));
+        }
+        return itemsView;
     }
 
+    /**
+     * Replace the lines with those of a server's cart, as they are
+     *
+     * @throws ArithmeticException If the line totals overflow, leaving the cart unchanged
+     */
     public void setItems(List<CartItem> items) {
-        this.items = items;
-        recalculateTotals();
-    }
-
-    public BigDecimal getSubtotal() {
+        long subtotalMinorUnits = 0;
+        for (CartItem item : items) {
+            subtotalMinorUnits = Math.addExact(subtotalMinorUnits, lineTotal(item));
+        }
+
+        this.itemsByProductId.clear();
+        this.lines.clear();
+        for (CartItem item : items) {
+            this.itemsByProductId.putIfAbsent(item.getProductId(), item);
+            this.lines.add(item);
+        }
+        this.subtotalMinorUnits = subtotalMinorUnits;
+        updateTotals();
+    }
+
+    public Money getSubtotal() {
         return subtotal;
     }
 
-    public void setSubtotal(BigDecimal subtotal) {
+    public void setSubtotal(Money subtotal) {
         this.subtotal = subtotal;
     }
 
-    public BigDecimal getTax() {
+    public Money getTax() {
         return tax;
     }
 
-    public void setTax(BigDecimal tax) {
+    public void setTax(Money tax) {
         this.tax = tax;
     }
 
-    public BigDecimal getTotal() {
+    public Money getTotal() {
         return total;
     }
 
-    public void setTotal(BigDecimal total) {
+    public void setTotal(Money total) {
         this.total = total;
     }
 
     // Helper methods
+
+    /**
+     * Add a line to the cart, or add its quantity to the existing line for the same product
+     *
+     * @throws IllegalArgumentException If the product is already in the cart at another unit price
+     */
     public void addItem(CartItem item) {
-        this.items.add(item);
-        recalculateTotals();
+        CartItem existing = this.itemsByProductId.get(item.getProductId());
+        if (existing == null) {
+            long subtotalMinorUnits = Math.addExact(this.subtotalMinorUnits, lineTotal(item));
+            this.itemsByProductId.put(item.getProductId(), item);
+            this.lines.add(item);
+            this.subtotalMinorUnits = subtotalMinorUnits;
+        } else if (!Objects.equals(existing.getUnitPrice(), item.getUnitPrice())) {
+            throw new IllegalArgumentException("Product " + item.getProductId() + " is already in the cart at "
+                    + existing.getUnitPrice() + ", not " + item.getUnitPrice());
+        } else {
+            setQuantity(existing, Math.addExact(existing.getQuantity(), item.getQuantity()));
+        }
+        updateTotals();
     }
 
-    public void removeItem(Long productId) {
-        this.items.removeIf(item -> item.getProductId().equals(productId));
-        recalculateTotals();
+    public boolean containsItem(Long productId) {
+        return this.itemsByProductId.containsKey(productId);
     }
 
+    public void removeItem(Long productId) {
+        CartItem removed = this.itemsByProductId.remove(productId);
+        if (removed != null) {
+            this.lines.remove(removed);
+            this.subtotalMinorUnits = Math.subtractExact(this.subtotalMinorUnits, lineTotal(removed));
+            removeOtherLines(productId);
+            updateTotals();
+        }
+    }
+
+    /**
+     * Set the quantity of a product, merging any further lines of it into its first
+     */
     public void updateItemQuantity(Long productId, int quantity) {
-        this.items.stream()
-                .filter(item -> item.getProductId().equals(productId))
-                .findFirst()
-                .ifPresent(item -> {
-                    item.setQuantity(quantity);
-                    recalculateTotals();
-                });
-    }
-
-    private void recalculateTotals() {
-        this.subtotal = this.items.stream()
-                .map(CartItem::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Assume tax rate of 10%
-        this.tax = this.subtotal.multiply(new BigDecimal("0.1"));
-
-        this.total = this.subtotal.add(this.tax);
+        CartItem item = this.itemsByProductId.get(productId);
+        if (item != null) {
+            removeOtherLines(productId);
+            setQuantity(item, quantity);
+            updateTotals();
+        }
+    }
+
+    private void setQuantity(CartItem item, int quantity) {
+        long previous = lineTotal(item);
+        item.setQuantity(quantity);
+        this.subtotalMinorUnits = Math.addExact(
+                Math.subtractExact(this.subtotalMinorUnits, previous), lineTotal(item));
+    }
+
+    /**
+     * Drop the lines of a product other than its indexed one, which only a cart read from a server
+     * has; a scan, so only when the cart holds more lines than products
+     */
+    private void removeOtherLines(Long productId) {
+        if (this.lines.size() == this.itemsByProductId.size()) {
+            return;
+        }
+        CartItem kept = this.itemsByProductId.get(productId);
+        Iterator<CartItem> iterator = this.lines.iterator();
+        while (iterator.hasNext()) {
+            CartItem line = iterator.next();
+            if (line != kept && Objects.equals(line.getProductId(), productId)) {
+                iterator.remove();
+                this.subtotalMinorUnits = Math.subtractExact(this.subtotalMinorUnits, lineTotal(line));
+            }
+        }
+    }
+
+    private static long lineTotal(CartItem item) {
+        return item.getTotalPrice() == null ? 0 : item.getTotalPrice().getMinorUnits();
+    }
+
+    private void updateTotals() {
+        this.itemsView = null;
+        this.subtotal = Money.ofMinor(this.subtotalMinorUnits);
+
+        this.tax = this.subtotal.percentage(TAX_RATE_BASIS_POINTS);
+
+        this.total = this.subtotal.plus(this.tax);
     }
 }
@@ -1,23 +1,21 @@
 package com.amalitech.test.model;
 
-import java.math.BigDecimal;
-
 public class CartItem {
     private Long productId;
     private String productName;
     private int quantity;
-    private BigDecimal unitPrice;
-    private BigDecimal totalPrice;
+    private Money unitPrice;
+    private Money totalPrice;
 
     public CartItem() {
     }
 
-    public CartItem(Long productId, String productName, int quantity, BigDecimal unitPrice) {
+    public CartItem(Long productId, String productName, int quantity, Money unitPrice) {
         this.productId = productId;
         this.productName = productName;
         this.quantity = quantity;
         this.unitPrice = unitPrice;
-        this.totalPrice = unitPrice.multiply(new BigDecimal(quantity));
+        this.totalPrice = unitPrice.times(quantity);
     }
 
     // Getters and setters
@@ -42,28 +40,29 @@ public class CartItem {
     }
 
     public void setQuantity(int quantity) {
-        this.quantity = quantity;
+        // Total first, so an overflow leaves the line as it was
         if (this.unitPrice != null) {
-            this.totalPrice = this.unitPrice.multiply(new BigDecimal(quantity));
+            this.totalPrice = this.unitPrice.times(quantity);
         }
+        this.quantity = quantity;
     }
 
-    public BigDecimal getUnitPrice() {
+    public Money getUnitPrice() {
         return unitPrice;
     }
 
-    public void setUnitPrice(BigDecimal unitPrice) {
+    public void setUnitPrice(Money unitPrice) {
         this.unitPrice = unitPrice;
         if (this.quantity > 0) {
-            this.totalPrice = unitPrice.multiply(new BigDecimal(quantity));
+            this.totalPrice = unitPrice.times(quantity);
         }
     }
 
-    public BigDecimal getTotalPrice() {
+    public Money getTotalPrice() {
         return totalPrice;
     }
 
-    public void setTotalPrice(BigDecimal totalPrice) {
+    public void setTotalPrice(Money totalPrice) {
         this.totalPrice = totalPrice;
     }
 }
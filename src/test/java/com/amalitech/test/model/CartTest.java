@@ -0,0 +1,125 @@
+package com.amalitech.test.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CartTest {
+
+    @Test
+    public void testTotalsFollowMutations() {
+        Cart cart = new Cart();
+        cart.addItem(new CartItem(1L, "Smartphone", 1, Money.parse("599.99")));
+        cart.addItem(new CartItem(2L, "Wireless Headphones", 2, Money.parse("149.99")));
+
+        assertThat(cart.getSubtotal()).isEqualTo(Money.parse("899.97"));
+        assertThat(cart.getTax()).isEqualTo(Money.parse("90.00"));
+        assertThat(cart.getTotal()).isEqualTo(Money.parse("989.97"));
+
+        cart.updateItemQuantity(1L, 2);
+        assertThat(cart.getSubtotal()).isEqualTo(Money.parse("1499.96"));
+
+        cart.removeItem(2L);
+        assertThat(cart.getItems()).extracting(CartItem::getProductId).containsExactly(1L);
+        assertThat(cart.getSubtotal()).isEqualTo(Money.parse("1199.98"));
+        assertThat(cart.getTotal()).isEqualTo(Money.parse("1319.98"));
+
+        cart.removeItem(1L);
+        assertThat(cart.getItems()).isEmpty();
+        assertThat(cart.getTotal()).isEqualTo(Money.ZERO);
+    }
+
+    @Test
+    public void testSameProductIsMergedIntoOneLine() {
+        Cart cart = new Cart();
+        cart.addItem(new CartItem(1L, "Smartphone", 1, Money.parse("599.99")));
+        cart.addItem(new CartItem(1L, "Smartphone", 2, Money.parse("599.99")));
+
+        assertThat(cart.getItems()).hasSize(1);
+        assertThat(cart.getItems().get(0).getQuantity()).isEqualTo(3);
+        assertThat(cart.getSubtotal()).isEqualTo(Money.parse("1799.97"));
+    }
+
+    @Test
+    public void testServerCartIsTakenAsSent() throws Exception {
+        Cart cart = new ObjectMapper().readValue("{\"items\": ["
+                + "{\"productId\": 1, \"quantity\": 1, \"unitPrice\": 599.99, \"totalPrice\": 599.99},"
+                + "{\"productId\": 2, \"quantity\": 1, \"unitPrice\": 149.99, \"totalPrice\": 149.99},"
+                + "{\"productId\": 1, \"quantity\": 1, \"unitPrice\": 549.99, \"totalPrice\": 549.99}]}", Cart.class);
+
+        assertThat(cart.getItems()).extracting(CartItem::getProductId).containsExactly(1L, 2L, 1L);
+        assertThat(cart.getSubtotal()).isEqualTo(Money.parse("1299.97"));
+
+        // Setting the product's quantity leaves it one line
+        cart.updateItemQuantity(1L, 2);
+        assertThat(cart.getItems()).extracting(CartItem::getProductId).containsExactly(1L, 2L);
+        assertThat(cart.getSubtotal()).isEqualTo(Money.parse("1349.97"));
+
+        cart.setItems(List.of(cart.getItems().get(0), new CartItem(2L, "Wireless Headphones", 1, Money.parse("149.99")),
+                new CartItem(1L, "Smartphone", 1, Money.parse("549.99"))));
+        cart.removeItem(1L);
+        assertThat(cart.getItems()).extracting(CartItem::getProductId).containsExactly(2L);
+        assertThat(cart.getSubtotal()).isEqualTo(Money.parse("149.99"));
+    }
+
+    @Test
+    public void testOverflowingServerCartLeavesTheCartUnchanged() {
+        Cart cart = new Cart();
+        cart.addItem(new CartItem(1L, "Smartphone", 1, Money.parse("599.99")));
+
+        Money half = Money.ofMinor(Long.MAX_VALUE / 2 + 1);
+        assertThatThrownBy(() -> cart.setItems(List.of(
+                new CartItem(2L, "Server", 1, half), new CartItem(3L, "Rack", 1, half))))
+                .isInstanceOf(ArithmeticException.class);
+        assertThat(cart.getItems()).extracting(CartItem::getProductId).containsExactly(1L);
+        assertThat(cart.getSubtotal()).isEqualTo(Money.parse("599.99"));
+    }
+
+    @Test
+    public void testSameProductAtAnotherPriceIsRejected() {
+        Cart cart = new Cart();
+        cart.addItem(new CartItem(1L, "Smartphone", 1, Money.parse("599.99")));
+
+        assertThatThrownBy(() -> cart.addItem(new CartItem(1L, "Smartphone", 1, Money.parse("549.99"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("599.99");
+        assertThat(cart.getItems().get(0).getQuantity()).isEqualTo(1);
+        assertThat(cart.getSubtotal()).isEqualTo(Money.parse("599.99"));
+    }
+
+    @Test
+    public void testIncrementalTotalsMatchFullRecalculation() {
+        Random random = new Random(42);
+        Cart cart = new Cart();
+        int rejected = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long productId = random.nextInt(500);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    // Two prices per product, so some adds meet the product at the other price
+                    CartItem item = new CartItem(productId, "Product " + productId, 1 + random.nextInt(5),
+                            Money.ofMinor(1 + productId * 199 + random.nextInt(2)));
+                    Money before = cart.getSubtotal();
+                    try {
+                        cart.addItem(item);
+                    } catch (IllegalArgumentException e) {
+                        rejected++;
+                        assertThat(cart.getSubtotal()).isEqualTo(before);
+                    }
+                }
+                case 1 -> cart.removeItem(productId);
+                default -> cart.updateItemQuantity(productId, 1 + random.nextInt(10));
+            }
+        }
+        assertThat(rejected).isPositive();
+
+        long expected = cart.getItems().stream().mapToLong(item -> item.getTotalPrice().getMinorUnits()).sum();
+        assertThat(cart.getSubtotal().getMinorUnits()).isEqualTo(expected);
+        assertThat(cart.getTotal()).isEqualTo(cart.getSubtotal().plus(cart.getSubtotal().percentage(1000)));
+    }
+}
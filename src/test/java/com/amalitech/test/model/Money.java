@@ -0,0 +1,289 @@
+package com.amalitech.test.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.CharBuffer;
+
+/**
+ * Immutable monetary amount stored as a whole number of minor units (cents).
+ * <p>
+ * All arithmetic is exact on {@code long} values and throws {@link ArithmeticException} on overflow.
+ * Whenever a value has to be brought back to two decimal places (parsing more precise input or
+ * applying a rate) it is rounded {@link RoundingMode#HALF_UP}, the same rule as
+ * {@code BigDecimal.setScale(2, RoundingMode.HALF_UP)}.
+ * <p>
+ * In JSON a Money is written as a plain number with two decimals ({@code 599.99}) and read from
+ * either a number or a numeric string without going through {@link BigDecimal}.
+ */
+@JsonSerialize(using = Money.Serializer.class)
+@JsonDeserialize(using = Money.Deserializer.class)
+public final class Money implements Comparable<Money> {
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final long MINOR_PER_MAJOR = 100;
+    private static final long BASIS_POINTS = 10_000;
+    // "-9223372036854775808" plus the decimal point
+    private static final int MAX_TEXT_LENGTH = 21;
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    /**
+     * Create an amount from minor units
+     *
+     * @param minorUnits Amount in cents
+     * @return The amount
+     */
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * Create an amount from a decimal value, rounding half-up to two decimal places
+     *
+     * @param amount Decimal amount in major units
+     * @return The amount
+     */
+    public static Money of(BigDecimal amount) {
+        return ofMinor(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Parse a decimal string such as {@code "599.99"}, {@code "-3"} or {@code "89.997"},
+     * rounding half-up to two decimal places
+     *
+     * @param text Decimal text in major units
+     * @return The amount
+     */
+    public static Money parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    private static Money parse(CharSequence text, int start, int end) {
+        if (start >= end) {
+            throw new NumberFormatException("Empty money value");
+        }
+
+        int i = start;
+        boolean negative = false;
+        char first = text.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+
+        long units = 0;
+        int digits = 0;
+        for (; i < end && text.charAt(i) != '.'; i++) {
+            units = Math.addExact(Math.multiplyExact(units, 10), digit(text, i));
+            digits++;
+        }
+
+        int fractionDigits = 0;
+        boolean roundUp = false;
+        if (i < end) {
+            for (i++; i < end; i++) {
+                int d = digit(text, i);
+                if (fractionDigits < SCALE) {
+                    units = Math.addExact(Math.multiplyExact(units, 10), d);
+                } else if (fractionDigits == SCALE) {
+                    // Half-up only depends on the first discarded digit
+                    roundUp = d >= 5;
+                }
+                fractionDigits++;
+                digits++;
+            }
+        }
+
+        if (digits == 0) {
+            throw new NumberFormatException("No digits in money value: " + text.subSequence(start, end));
+        }
+
+        for (int pad = fractionDigits; pad < SCALE; pad++) {
+            units = Math.multiplyExact(units, 10);
+        }
+        if (roundUp) {
+            units = Math.addExact(units, 1);
+        }
+        return ofMinor(negative ? -units : units);
+    }
+
+    private static int digit(CharSequence text, int index) {
+        char c = text.charAt(index);
+        if (c < '0' || c > '9') {
+            // Exponent notation and other exotic forms are rare enough to take the slow path
+            throw new NumberFormatException("Unexpected character '" + c + "' in money value: " + text);
+        }
+        return c - '0';
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money times(long quantity) {
+        return ofMinor(Math.multiplyExact(minorUnits, quantity));
+    }
+
+    /**
+     * Apply a rate expressed in basis points (1000 = 10%), rounding half-up to the cent
+     *
+     * @param basisPoints Rate in hundredths of a percent
+     * @return The rounded share of this amount
+     */
+    public Money percentage(long basisPoints) {
+        long scaled = Math.multiplyExact(minorUnits, basisPoints);
+        long result = scaled / BASIS_POINTS;
+        long remainder = Math.abs(scaled % BASIS_POINTS);
+        if (remainder * 2 >= BASIS_POINTS) {
+            result += Long.signum(scaled);
+        }
+        return ofMinor(result);
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * Append the decimal representation to a buffer without intermediate strings
+     *
+     * @param sb Buffer to append to
+     * @return The same buffer
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        if (minorUnits == Long.MIN_VALUE) {
+            return sb.append(toBigDecimal().toPlainString());
+        }
+        long value = Math.abs(minorUnits);
+        if (minorUnits < 0) {
+            sb.append('-');
+        }
+        long cents = value % MINOR_PER_MAJOR;
+        sb.append(value / MINOR_PER_MAJOR).append('.');
+        return sb.append((char) ('0' + cents / 10)).append((char) ('0' + cents % 10));
+    }
+
+    /**
+     * Write the amount right-aligned into the buffer
+     *
+     * @return Index of the first character written
+     */
+    private int format(char[] buf) {
+        int pos = buf.length;
+        long value = Math.abs(minorUnits);
+        if (value < 0) {
+            // Long.MIN_VALUE has no positive counterpart
+            String text = toBigDecimal().toPlainString();
+            text.getChars(0, text.length(), buf, buf.length - text.length());
+            return buf.length - text.length();
+        }
+
+        for (int i = 0; i < SCALE; i++) {
+            buf[--pos] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        buf[--pos] = '.';
+        do {
+            buf[--pos] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        if (minorUnits < 0) {
+            buf[--pos] = '-';
+        }
+        return pos;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money && ((Money) o).minorUnits == minorUnits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        char[] buf = new char[MAX_TEXT_LENGTH];
+        int start = format(buf);
+        return new String(buf, start, buf.length - start);
+    }
+
+    /**
+     * Writes Money as a JSON number with exactly two decimals
+     */
+    public static class Serializer extends JsonSerializer<Money> {
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            char[] buf = new char[MAX_TEXT_LENGTH];
+            int start = value.format(buf);
+            gen.writeNumber(buf, start, buf.length - start);
+        }
+    }
+
+    /**
+     * Reads Money directly from the token text of a JSON number or numeric string
+     */
+    public static class Deserializer extends JsonDeserializer<Money> {
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                    && token != JsonToken.VALUE_STRING) {
+                return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+            }
+
+            CharBuffer text = CharBuffer.wrap(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+            try {
+                return parse(text);
+            } catch (NumberFormatException e) {
+                // Fall back to BigDecimal for exponent notation such as 1.5E3
+                try {
+                    return of(new BigDecimal(text.toString().trim()));
+                } catch (NumberFormatException | ArithmeticException fallbackFailure) {
+                    return (Money) ctxt.handleWeirdStringValue(Money.class, text.toString(), e.getMessage());
+                }
+            } catch (ArithmeticException e) {
+                return (Money) ctxt.handleWeirdStringValue(Money.class, text.toString(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.amalitech.test.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.testng.annotations.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MoneyTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testParseAndFormat() {
+        assertThat(Money.parse("599.99").getMinorUnits()).isEqualTo(59999);
+        assertThat(Money.parse("90").toString()).isEqualTo("90.00");
+        assertThat(Money.parse("0.5").toString()).isEqualTo("0.50");
+        assertThat(Money.parse("-12.3").toString()).isEqualTo("-12.30");
+        assertThat(Money.ofMinor(7).toString()).isEqualTo("0.07");
+        assertThat(Money.ofMinor(Long.MIN_VALUE).toString())
+                .isEqualTo(BigDecimal.valueOf(Long.MIN_VALUE, 2).toPlainString());
+    }
+
+    @Test
+    public void testRoundingMatchesBigDecimalHalfUp() {
+        String[] values = {"89.997", "89.995", "89.9949", "-89.995", "-0.004", "0.005", "1.23456789"};
+        for (String value : values) {
+            assertThat(Money.parse(value)).as(value).isEqualTo(Money.of(new BigDecimal(value)));
+        }
+    }
+
+    @Test
+    public void testPercentage() {
+        // Tax values used by the cart and checkout stubs
+        assertThat(Money.parse("899.97").percentage(1000)).isEqualTo(Money.parse("90.00"));
+        assertThat(Money.parse("599.99").percentage(1000)).isEqualTo(Money.parse("60.00"));
+        assertThat(Money.parse("0.05").percentage(1000)).isEqualTo(Money.parse("0.01"));
+        assertThat(Money.parse("-0.05").percentage(1000)).isEqualTo(Money.parse("-0.01"));
+        assertThat(Money.parse("0.04").percentage(1000)).isEqualTo(Money.ZERO);
+    }
+
+    @Test
+    public void testOverflowIsRejected() {
+        assertThatThrownBy(() -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.parse("99999999999999999999"))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    public void testOversizedJsonAmountIsAMappingError() {
+        assertThatThrownBy(() -> objectMapper.readValue("{\"subtotal\": 99999999999999999999}", Cart.class))
+                .isInstanceOf(InvalidFormatException.class)
+                .hasMessageContaining("99999999999999999999");
+        assertThatThrownBy(() -> objectMapper.readValue("{\"subtotal\": \"-99999999999999999999.5\"}", Cart.class))
+                .isInstanceOf(InvalidFormatException.class);
+    }
+
+    @Test
+    public void testJsonRoundTrip() throws Exception {
+        Cart cart = objectMapper.readValue("{\"items\": ["
+                + "{\"productId\": 1, \"productName\": \"Smartphone\", \"quantity\": 1, \"unitPrice\": 599.99, \"totalPrice\": 599.99},"
+                + "{\"productId\": 2, \"productName\": \"Wireless Headphones\", \"quantity\": 2, \"unitPrice\": \"149.99\", \"totalPrice\": 299.98}"
+                + "], \"subtotal\": 899.97, \"tax\": 90.00, \"total\": 9.8997E2}", Cart.class);
+
+        assertThat(cart.getItems().get(1).getUnitPrice()).isEqualTo(Money.parse("149.99"));
+        assertThat(cart.getSubtotal()).isEqualTo(Money.ofMinor(89997));
+        assertThat(cart.getTotal()).isEqualTo(Money.parse("989.97"));
+
+        String json = objectMapper.writeValueAsString(cart);
+        assertThat(json).contains("\"subtotal\":899.97", "\"tax\":90.00", "\"total\":989.97");
+    }
+}
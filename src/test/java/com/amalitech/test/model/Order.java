@@ -1,17 +1,19 @@
 package com.amalitech.test.model;
 
-import java.math.BigDecimal;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import java.time.LocalDateTime;
 import java.util.List;
 
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class Order {
     private String id;
     private String userId;
     private List<CartItem> items;
-    private BigDecimal subtotal;
-    private BigDecimal tax;
-    private BigDecimal shipping;
-    private BigDecimal total;
+    private Money subtotal;
+    private Money tax;
+    private Money shipping;
+    private Money total;
     private String status;
     private LocalDateTime createdAt;
     private Address shippingAddress;
@@ -42,35 +44,35 @@ public class Order {
         this.items = items;
     }
 
-    public BigDecimal getSubtotal() {
+    public Money getSubtotal() {
         return subtotal;
     }
 
-    public void setSubtotal(BigDecimal subtotal) {
+    public void setSubtotal(Money subtotal) {
         this.subtotal = subtotal;
     }
 
-    public BigDecimal getTax() {
+    public Money getTax() {
         return tax;
     }
 
-    public void setTax(BigDecimal tax) {
+    public void setTax(Money tax) {
         this.tax = tax;
     }
 
-    public BigDecimal getShipping() {
+    public Money getShipping() {
         return shipping;
     }
 
-    public void setShipping(BigDecimal shipping) {
+    public void setShipping(Money shipping) {
         this.shipping = shipping;
     }
 
-    public BigDecimal getTotal() {
+    public Money getTotal() {
         return total;
     }
 
-    public void setTotal(BigDecimal total) {
+    public void setTotal(Money total) {
         this.total = total;
     }
 
@@ -1,13 +1,12 @@
 package com.amalitech.test.model;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 public class Product {
     private Long id;
     private String name;
     private String description;
-    private BigDecimal price;
+    private Money price;
     private int stockQuantity;
     private String category;
     private List<String> tags;
@@ -16,7 +15,7 @@ public class Product {
     public Product() {
     }
 
-    public Product(Long id, String name, String description, BigDecimal price,
+    public Product(Long id, String name, String description, Money price,
             int stockQuantity, String category, List<String> tags, String imageUrl) {
         this.id = id;
         this.name = name;
@@ -53,11 +52,11 @@ public class Product {
         this.description = description;
     }
 
-    public BigDecimal getPrice() {
+    public Money getPrice() {
         return price;
     }
 
-    public void setPrice(BigDecimal price) {
+    public void setPrice(Money price) {
         this.price = price;
     }
 
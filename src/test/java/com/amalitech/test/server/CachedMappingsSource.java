@@ -0,0 +1,106 @@
+package com.amalitech.test.server;
+
+import com.amalitech.ReadOnlyMappingsSource;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.stubbing.StubMappings;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Read-only source for the JSON mapping files of a directory that keeps the stubs it parsed, so
+ * a reset only parses the files added or changed since the last load.
+ * <p>
+ * Files are compared by modification time and size, and those to parse are parsed side by side
+ * on a fork-join pool. The stubs are added in path order, and the cached ones again on every
+ * load, so one source must serve a single server.
+ */
+class CachedMappingsSource extends ReadOnlyMappingsSource {
+    private final Path mappingsDirectory;
+    private final ForkJoinPool pool;
+    private final Map<Path, CachedFile> cache = new HashMap<>();
+    private int parsedFiles;
+
+    CachedMappingsSource(Path mappingsDirectory) {
+        this(mappingsDirectory, ForkJoinPool.commonPool());
+    }
+
+    CachedMappingsSource(Path mappingsDirectory, ForkJoinPool pool) {
+        this.mappingsDirectory = mappingsDirectory;
+        this.pool = pool;
+    }
+
+    @Override
+    public synchronized void loadMappingsInto(StubMappings stubMappings) {
+        List<Path> files = mappingFiles(mappingsDirectory);
+        cache.keySet().retainAll(files);
+
+        List<Path> changed = files.stream().filter(file -> !isCached(file)).toList();
+        List<CachedFile> parsed = pool.submit(() -> changed.parallelStream().map(CachedFile::read).toList()).join();
+        for (CachedFile file : parsed) {
+            cache.put(file.path, file);
+        }
+        parsedFiles = parsed.size();
+
+        for (Path file : files) {
+            for (StubMapping stubMapping : cache.get(file).stubMappings) {
+                stubMapping.setDirty(false);
+                stubMappings.addMapping(stubMapping);
+            }
+        }
+    }
+
+    /**
+     * Number of files parsed by the last load; the others came from the cache
+     */
+    synchronized int getParsedFiles() {
+        return parsedFiles;
+    }
+
+    private boolean isCached(Path file) {
+        CachedFile cached = cache.get(file);
+        if (cached == null) {
+            return false;
+        }
+        BasicFileAttributes attributes = attributes(file);
+        return cached.modified.equals(attributes.lastModifiedTime()) && cached.size == attributes.size();
+    }
+
+    private static BasicFileAttributes attributes(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class CachedFile {
+        private final Path path;
+        private final FileTime modified;
+        private final long size;
+        private final List<StubMapping> stubMappings;
+
+        private CachedFile(Path path, FileTime modified, long size, List<StubMapping> stubMappings) {
+            this.path = path;
+            this.modified = modified;
+            this.size = size;
+            this.stubMappings = stubMappings;
+        }
+
+        /**
+         * Parses a file, taking its attributes first so a change made meanwhile is parsed again
+         */
+        private static CachedFile read(Path file) {
+            BasicFileAttributes attributes = attributes(file);
+            return new CachedFile(file, attributes.lastModifiedTime(), attributes.size(), parse(file));
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.amalitech.test.server;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.admin.LimitAndOffsetPaginator;
+import com.github.tomakehurst.wiremock.admin.model.GetGlobalSettingsResult;
+import com.github.tomakehurst.wiremock.admin.model.GetScenariosResult;
+import com.github.tomakehurst.wiremock.admin.model.GetServeEventsResult;
+import com.github.tomakehurst.wiremock.admin.model.ListStubMappingsResult;
+import com.github.tomakehurst.wiremock.admin.model.ServeEventQuery;
+import com.github.tomakehurst.wiremock.admin.model.SingleServedStubResult;
+import com.github.tomakehurst.wiremock.admin.model.SingleStubMappingResult;
+import com.github.tomakehurst.wiremock.core.Admin;
+import com.github.tomakehurst.wiremock.core.Options;
+import com.github.tomakehurst.wiremock.global.GlobalSettings;
+import com.github.tomakehurst.wiremock.matching.RequestPattern;
+import com.github.tomakehurst.wiremock.matching.StringValuePattern;
+import com.github.tomakehurst.wiremock.recording.RecordSpec;
+import com.github.tomakehurst.wiremock.recording.RecordSpecBuilder;
+import com.github.tomakehurst.wiremock.recording.RecordingStatusResult;
+import com.github.tomakehurst.wiremock.recording.SnapshotRecordResult;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.stubbing.StubImport;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.verification.FindNearMissesResult;
+import com.github.tomakehurst.wiremock.verification.FindRequestsResult;
+import com.github.tomakehurst.wiremock.verification.FindServeEventsResult;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import com.github.tomakehurst.wiremock.verification.NearMiss;
+import com.github.tomakehurst.wiremock.verification.VerificationResult;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * {@link Admin} of a {@link ClusterServerFactory}, so a {@code WireMock} client built on it,
+ * including the static one behind {@code verify(...)}, sees the cluster as one server.
+ * <p>
+ * Stubs, settings and recordings go to the primary, which replicates its stubs. Journal queries
+ * run on every node and merge their results, and journal and scenario resets apply to every node,
+ * as each keeps its own.
+ */
+class ClusterAdmin implements Admin {
+    /**
+     * Near misses listed for a request pattern, as many as WireMock lists for one server
+     */
+    private static final int NEAR_MISS_COUNT = 3;
+
+    private final List<WireMockServer> nodes;
+
+    /**
+     * @param nodes Started nodes, the primary first
+     */
+    ClusterAdmin(List<WireMockServer> nodes) {
+        this.nodes = List.copyOf(nodes);
+    }
+
+    private WireMockServer primary() {
+        return nodes.get(0);
+    }
+
+    private <T> List<T> merge(Function<WireMockServer, List<T>> query) {
+        List<T> merged = new ArrayList<>();
+        for (WireMockServer node : nodes) {
+            merged.addAll(query.apply(node));
+        }
+        return merged;
+    }
+
+    @Override
+    public void addStubMapping(StubMapping stubMapping) {
+        primary().addStubMapping(stubMapping);
+    }
+
+    @Override
+    public void editStubMapping(StubMapping stubMapping) {
+        primary().editStubMapping(stubMapping);
+    }
+
+    @Override
+    public void removeStubMapping(StubMapping stubMapping) {
+        primary().removeStubMapping(stubMapping);
+    }
+
+    @Override
+    public void removeStubMapping(UUID id) {
+        primary().removeStubMapping(id);
+    }
+
+    @Override
+    public ListStubMappingsResult listAllStubMappings() {
+        return primary().listAllStubMappings();
+    }
+
+    @Override
+    public SingleStubMappingResult getStubMapping(UUID id) {
+        return primary().getStubMapping(id);
+    }
+
+    @Override
+    public void saveMappings() {
+        primary().saveMappings();
+    }
+
+    @Override
+    public void resetRequests() {
+        nodes.forEach(WireMockServer::resetRequests);
+    }
+
+    @Override
+    public void resetScenarios() {
+        nodes.forEach(WireMockServer::resetScenarios);
+    }
+
+    /**
+     * Resets the primary, whose replicator resets the other nodes
+     */
+    @Override
+    public void resetMappings() {
+        primary().resetMappings();
+    }
+
+    @Override
+    public void resetAll() {
+        primary().resetAll();
+    }
+
+    @Override
+    public void resetToDefaultMappings() {
+        primary().resetToDefaultMappings();
+    }
+
+    /**
+     * Serve events of every node, most recent first as WireMock lists them
+     */
+    @Override
+    public GetServeEventsResult getServeEvents() {
+        return getServeEvents(ServeEventQuery.ALL);
+    }
+
+    @Override
+    public GetServeEventsResult getServeEvents(ServeEventQuery query) {
+        List<ServeEvent> events = merge(node -> node.getServeEvents(query).getServeEvents());
+        events.sort(Comparator.comparing((ServeEvent event) -> event.getRequest().getLoggedDate()).reversed());
+        return primary().getOptions().requestJournalDisabled()
+                ? GetServeEventsResult.requestJournalDisabled(LimitAndOffsetPaginator.none(events))
+                : GetServeEventsResult.requestJournalEnabled(LimitAndOffsetPaginator.none(events));
+    }
+
+    @Override
+    public SingleServedStubResult getServedStub(UUID id) {
+        for (WireMockServer node : nodes) {
+            SingleServedStubResult result = node.getServedStub(id);
+            if (result.isPresent()) {
+                return result;
+            }
+        }
+        return primary().getServedStub(id);
+    }
+
+    /**
+     * Matching requests summed over the nodes
+     */
+    @Override
+    public VerificationResult countRequestsMatching(RequestPattern requestPattern) {
+        int count = 0;
+        for (WireMockServer node : nodes) {
+            VerificationResult result = node.countRequestsMatching(requestPattern);
+            if (result.requestJournalIsDisabled()) {
+                return result;
+            }
+            count += result.getCount();
+        }
+        return VerificationResult.withCount(count);
+    }
+
+    @Override
+    public FindRequestsResult findRequestsMatching(RequestPattern requestPattern) {
+        return findRequests(node -> node.findRequestsMatching(requestPattern));
+    }
+
+    @Override
+    public FindRequestsResult findUnmatchedRequests() {
+        return findRequests(WireMockServer::findUnmatchedRequests);
+    }
+
+    private FindRequestsResult findRequests(Function<WireMockServer, FindRequestsResult> query) {
+        List<LoggedRequest> requests = new ArrayList<>();
+        for (WireMockServer node : nodes) {
+            FindRequestsResult result = query.apply(node);
+            if (result.requestJournalIsDisabled()) {
+                return result;
+            }
+            requests.addAll(result.getRequests());
+        }
+        return FindRequestsResult.withRequests(requests);
+    }
+
+    @Override
+    public void removeServeEvent(UUID eventId) {
+        nodes.forEach(node -> node.removeServeEvent(eventId));
+    }
+
+    @Override
+    public FindServeEventsResult removeServeEventsMatching(RequestPattern requestPattern) {
+        return new FindServeEventsResult(merge(node -> node.removeServeEventsMatching(requestPattern).getServeEvents()));
+    }
+
+    @Override
+    public FindServeEventsResult removeServeEventsForStubsMatchingMetadata(StringValuePattern pattern) {
+        return new FindServeEventsResult(
+                merge(node -> node.removeServeEventsForStubsMatchingMetadata(pattern).getServeEvents()));
+    }
+
+    /**
+     * Near misses among the stubs, which every node shares
+     */
+    @Override
+    public FindNearMissesResult findTopNearMissesFor(LoggedRequest loggedRequest) {
+        return primary().findTopNearMissesFor(loggedRequest);
+    }
+
+    /**
+     * Closest requests of every node, the best first
+     */
+    @Override
+    public FindNearMissesResult findTopNearMissesFor(RequestPattern requestPattern) {
+        List<NearMiss> nearMisses = merge(node -> node.findTopNearMissesFor(requestPattern).getNearMisses());
+        return new FindNearMissesResult(nearMisses.stream().sorted().limit(NEAR_MISS_COUNT).toList());
+    }
+
+    @Override
+    public FindNearMissesResult findNearMissesForUnmatchedRequests() {
+        return new FindNearMissesResult(merge(node -> node.findNearMissesForUnmatchedRequests().getNearMisses()));
+    }
+
+    @Override
+    public GetScenariosResult getAllScenarios() {
+        return primary().getAllScenarios();
+    }
+
+    @Override
+    public void resetScenario(String name) {
+        nodes.forEach(node -> node.resetScenario(name));
+    }
+
+    @Override
+    public void setScenarioState(String name, String state) {
+        nodes.forEach(node -> node.setScenarioState(name, state));
+    }
+
+    @Override
+    public void updateGlobalSettings(GlobalSettings settings) {
+        nodes.forEach(node -> node.updateGlobalSettings(settings));
+    }
+
+    @Override
+    public SnapshotRecordResult snapshotRecord() {
+        return primary().snapshotRecord();
+    }
+
+    @Override
+    public SnapshotRecordResult snapshotRecord(RecordSpec spec) {
+        return primary().snapshotRecord(spec);
+    }
+
+    @Override
+    public SnapshotRecordResult snapshotRecord(RecordSpecBuilder spec) {
+        return primary().snapshotRecord(spec);
+    }
+
+    @Override
+    public void startRecording(String targetBaseUrl) {
+        primary().startRecording(targetBaseUrl);
+    }
+
+    @Override
+    public void startRecording(RecordSpec spec) {
+        primary().startRecording(spec);
+    }
+
+    @Override
+    public void startRecording(RecordSpecBuilder recordSpec) {
+        primary().startRecording(recordSpec);
+    }
+
+    @Override
+    public SnapshotRecordResult stopRecording() {
+        return primary().stopRecording();
+    }
+
+    @Override
+    public RecordingStatusResult getRecordingStatus() {
+        return primary().getRecordingStatus();
+    }
+
+    @Override
+    public Options getOptions() {
+        return primary().getOptions();
+    }
+
+    @Override
+    public void shutdownServer() {
+        nodes.forEach(WireMockServer::shutdownServer);
+    }
+
+    @Override
+    public ListStubMappingsResult findAllStubsByMetadata(StringValuePattern pattern) {
+        return primary().findAllStubsByMetadata(pattern);
+    }
+
+    @Override
+    public void removeStubsByMetadata(StringValuePattern pattern) {
+        primary().removeStubsByMetadata(pattern);
+    }
+
+    @Override
+    public void importStubs(StubImport stubImport) {
+        primary().importStubs(stubImport);
+    }
+
+    @Override
+    public GetGlobalSettingsResult getGlobalSettings() {
+        return primary().getGlobalSettings();
+    }
+}
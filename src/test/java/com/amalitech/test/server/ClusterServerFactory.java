@@ -0,0 +1,190 @@
+package com.amalitech.test.server;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.CountMatchingStrategy;
+import com.github.tomakehurst.wiremock.client.VerificationException;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.Admin;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.matching.RequestPatternBuilder;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.filter.log.RequestLoggingFilter;
+import io.restassured.filter.log.ResponseLoggingFilter;
+import io.restassured.specification.RequestSpecification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Factory for a cluster of WireMock servers in the test JVM, each on its own port and Jetty pool,
+ * for load tests that need more throughput than one server gives.
+ * <p>
+ * The first node is the primary: it loads the default mappings, and every stub registered on it,
+ * through {@link #getWireMockServer()} as usual, is replicated to the other nodes. Request specs
+ * from {@link #createRequestSpec()} balance calls across the nodes with a {@link ShardingFilter}
+ * keyed on the {@code Authorization} header, so a session's cart, checkout and scenario state
+ * stay on one node. Each node keeps its own journal; verify and query requests through this
+ * factory or a client on its {@link #admin()} to see the whole cluster.
+ */
+public class ClusterServerFactory implements ServerFactory {
+    private static final Logger log = LoggerFactory.getLogger(ClusterServerFactory.class);
+
+    public static final String SESSION_HEADER = "Authorization";
+
+    private final int nodeCount;
+    private final List<WireMockServer> nodes = new ArrayList<>();
+    private ShardingFilter shardingFilter;
+    private ClusterAdmin admin;
+    private WireMock client;
+
+    /**
+     * @param nodeCount Number of WireMock servers to start
+     */
+    public ClusterServerFactory(int nodeCount) {
+        if (nodeCount < 1) {
+            throw new IllegalArgumentException("A cluster needs at least one node");
+        }
+        this.nodeCount = nodeCount;
+    }
+
+    @Override
+    public void initialize() {
+        log.info("Starting WireMock cluster of {} nodes", nodeCount);
+
+        // Replicas load no mappings of their own; they get the primary's through the replicator
+        List<WireMockServer> replicas = new ArrayList<>();
+        for (int i = 1; i < nodeCount; i++) {
+            replicas.add(new WireMockServer(WireMockServerFactory.configure(WireMockConfiguration.options()
+                    .dynamicPort()
+                    .mappingSource(new NoMappingsSource()))));
+        }
+        WireMockServer primary = new WireMockServer(WireMockServerFactory.configure(WireMockConfiguration.options()
+                        .dynamicPort())
+                .extensions(new StubReplicator(replicas)));
+
+        nodes.add(primary);
+        nodes.addAll(replicas);
+        nodes.forEach(WireMockServer::start);
+        admin = new ClusterAdmin(nodes);
+        client = new WireMock(admin);
+        shardingFilter = new ShardingFilter(nodes.stream().map(WireMockServer::baseUrl).toList(), SESSION_HEADER);
+
+        log.info("WireMock cluster started on ports: {}", nodes.stream().map(WireMockServer::port).toList());
+    }
+
+    @Override
+    public void reset() {
+        WireMockServer primary = getWireMockServer();
+        if (primary != null && primary.isRunning()) {
+            log.info("Resetting WireMock cluster");
+            primary.resetAll();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        log.info("Stopping WireMock cluster");
+        for (WireMockServer node : nodes) {
+            if (node.isRunning()) {
+                node.stop();
+            }
+        }
+    }
+
+    /**
+     * Base URL of the primary; requests through {@link #createRequestSpec()} go to any node
+     */
+    @Override
+    public String baseUrl() {
+        return getWireMockServer().baseUrl();
+    }
+
+    /**
+     * Get the primary, on which stubs are registered for the whole cluster
+     */
+    public WireMockServer getWireMockServer() {
+        return nodes.isEmpty() ? null : nodes.get(0);
+    }
+
+    @Override
+    public Optional<WireMockServer> localServer() {
+        return Optional.ofNullable(getWireMockServer());
+    }
+
+    /**
+     * Admin that registers stubs on the primary and verifies and queries requests across every
+     * node; the clients tests get, the static one included, are built on it
+     */
+    @Override
+    public Optional<Admin> admin() {
+        return Optional.ofNullable(admin);
+    }
+
+    public List<WireMockServer> getNodes() {
+        return List.copyOf(nodes);
+    }
+
+    public ShardingFilter getShardingFilter() {
+        return shardingFilter;
+    }
+
+    @Override
+    public RequestSpecification createRequestSpec() {
+        // Balance first so the logged request shows the node it went to
+        return new RequestSpecBuilder()
+                .setBaseUri(baseUrl())
+                .setUrlEncodingEnabled(false)
+                .addFilter(shardingFilter)
+                .addFilter(new RequestLoggingFilter())
+                .addFilter(new ResponseLoggingFilter())
+                .build();
+    }
+
+    @Override
+    public boolean isMockServer() {
+        return true;
+    }
+
+    /**
+     * Serve events of every node, most recent first as WireMock lists them
+     */
+    public List<ServeEvent> getAllServeEvents() {
+        return client.getServeEvents();
+    }
+
+    /**
+     * Requests matching a pattern on any node
+     */
+    public List<LoggedRequest> findAll(RequestPatternBuilder requestPatternBuilder) {
+        return client.find(requestPatternBuilder);
+    }
+
+    public List<LoggedRequest> findAllUnmatchedRequests() {
+        return client.findAllUnmatchedRequests();
+    }
+
+    /**
+     * Verify the cluster received at least one matching request
+     */
+    public void verify(RequestPatternBuilder requestPatternBuilder) {
+        client.verifyThat(requestPatternBuilder);
+    }
+
+    public void verify(int count, RequestPatternBuilder requestPatternBuilder) {
+        client.verifyThat(count, requestPatternBuilder);
+    }
+
+    /**
+     * Verify the number of matching requests summed over all nodes
+     *
+     * @throws VerificationException If the total does not match, as {@link WireMockServer#verify} would
+     */
+    public void verify(CountMatchingStrategy expectedCount, RequestPatternBuilder requestPatternBuilder) {
+        client.verifyThat(expectedCount, requestPatternBuilder);
+    }
+}
@@ -0,0 +1,148 @@
+package com.amalitech.test.server;
+
+import com.amalitech.test.ecommerce.auth.AuthApiTest;
+import com.amalitech.test.extension.CommerceSimulatorTransformer;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.VerificationException;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ClusterServerFactoryTest {
+    private ClusterServerFactory cluster;
+
+    @BeforeClass
+    public void setUp() {
+        cluster = new ClusterServerFactory(3);
+        cluster.initialize();
+    }
+
+    @AfterClass
+    public void tearDown() {
+        cluster.shutdown();
+    }
+
+    @Test
+    public void testRingSpreadsKeysAndMovesFewOnResize() {
+        ConsistentHashRing<String> four = new ConsistentHashRing<>(List.of("a", "b", "c", "d"));
+        ConsistentHashRing<String> three = new ConsistentHashRing<>(List.of("a", "b", "c"));
+        Map<String, Integer> shares = new HashMap<>();
+        int moved = 0;
+        for (int i = 0; i < 10_000; i++) {
+            String session = "Bearer user-" + i;
+            String node = four.nodeFor(session);
+            shares.merge(node, 1, Integer::sum);
+            if (!node.equals("d") && !node.equals(three.nodeFor(session))) {
+                moved++;
+            }
+        }
+
+        assertThat(shares.values()).allSatisfy(share -> assertThat(share).isBetween(1_500, 3_500));
+        assertThat(moved).isZero();
+    }
+
+    @Test
+    public void testStubsReplicateToEveryNode() {
+        WireMockServer primary = cluster.getWireMockServer();
+        StubMapping stub = primary.stubFor(get(urlPathEqualTo("/api/cluster/ping")).willReturn(okJson("{\"v\":1}")));
+
+        for (WireMockServer node : cluster.getNodes()) {
+            assertThat(given().baseUri(node.baseUrl()).get("/api/cluster/ping").jsonPath().getInt("v")).isEqualTo(1);
+        }
+
+        primary.editStub(get(urlPathEqualTo("/api/cluster/ping")).withId(stub.getId()).willReturn(okJson("{\"v\":2}")));
+        for (WireMockServer node : cluster.getNodes()) {
+            assertThat(given().baseUri(node.baseUrl()).get("/api/cluster/ping").jsonPath().getInt("v")).isEqualTo(2);
+        }
+
+        primary.removeStubMapping(stub.getId());
+        for (WireMockServer node : cluster.getNodes()) {
+            assertThat(given().baseUri(node.baseUrl()).get("/api/cluster/ping").statusCode()).isEqualTo(404);
+        }
+    }
+
+    @Test
+    public void testSessionsStickToOneNodeAndJournalAggregates() {
+        cluster.getWireMockServer().stubFor(CommerceSimulatorTransformer.simulatorStub());
+        int sessions = 30;
+        for (int i = 0; i < sessions; i++) {
+            RequestSpecification session = given().spec(cluster.createRequestSpec())
+                    .header(ClusterServerFactory.SESSION_HEADER, "Bearer cluster-" + i)
+                    .contentType(ContentType.JSON);
+            session.body("{\"productId\": 5, \"quantity\": 1}").post("/api/cart/items");
+            session.body("{\"productId\": 5, \"quantity\": 1}").post("/api/cart/items");
+
+            // The simulator keeps carts per node, so the count only adds up if both calls met
+            assertThat(given().spec(cluster.createRequestSpec())
+                    .header(ClusterServerFactory.SESSION_HEADER, "Bearer cluster-" + i)
+                    .get("/api/cart").jsonPath().getInt("items[0].quantity")).isEqualTo(2);
+        }
+
+        assertThat(cluster.getNodes()).allSatisfy(node ->
+                assertThat(node.findAll(postRequestedFor(urlPathEqualTo("/api/cart/items")))).isNotEmpty());
+        cluster.verify(2 * sessions, postRequestedFor(urlPathEqualTo("/api/cart/items")));
+        assertThat(cluster.getAllServeEvents()).hasSizeGreaterThanOrEqualTo(3 * sessions);
+        assertThatThrownBy(() -> cluster.verify(getRequestedFor(urlPathEqualTo("/api/cluster/never"))))
+                .isInstanceOf(VerificationException.class);
+    }
+
+    @Test
+    public void testApiTestClassVerifiesAcrossTheCluster() {
+        ClusterServerFactory pair = new ClusterServerFactory(2);
+        pair.initialize();
+        try {
+            WireMockServer replica = pair.getNodes().get(1);
+            String token = IntStream.range(0, 100).mapToObj(i -> "Bearer replica-" + i)
+                    .filter(session -> pair.getShardingFilter().nodeFor(session).equals(replica.baseUrl()))
+                    .findFirst().orElseThrow();
+            ClusterAuthApiTest test = new ClusterAuthApiTest();
+            test.factory = pair;
+            test.setUp();
+
+            // The profile call lands on the replica, so its static verify only passes cluster-wide
+            test.setupMethod();
+            test.testSuccessfulLogin();
+            test.setupMethod();
+            test.useToken(token);
+            test.testGetProfile();
+            assertThat(replica.findAll(getRequestedFor(urlPathEqualTo("/api/auth/profile")))).hasSize(1);
+        } finally {
+            pair.shutdown();
+        }
+    }
+
+    /**
+     * Auth tests on a cluster standing in for the suite's, as {@code mock.nodes} would make it,
+     * without swapping the factory of the running suite
+     */
+    @Test(groups = "driven")
+    public static class ClusterAuthApiTest extends AuthApiTest {
+        private ServerFactory factory;
+
+        @Override
+        protected ServerFactory currentServerFactory() {
+            return factory;
+        }
+
+        void useToken(String token) {
+            authToken = token;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.amalitech.test.server;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maps keys to nodes so that each key always lands on the same node, and adding or removing a
+ * node only moves the keys of that node.
+ * <p>
+ * Every node is placed on a 64-bit ring at {@link #POINTS_PER_NODE} pseudo-random points, and a
+ * key belongs to the first point at or after its own hash. The many points per node even out
+ * the share of keys each node receives.
+ *
+ * @param <T> Node type
+ */
+public final class ConsistentHashRing<T> {
+    static final int POINTS_PER_NODE = 160;
+
+    private final TreeMap<Long, T> ring = new TreeMap<>();
+
+    /**
+     * @param nodes Nodes, each identified by its {@code toString()}
+     */
+    public ConsistentHashRing(List<T> nodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one node");
+        }
+        for (T node : nodes) {
+            for (int point = 0; point < POINTS_PER_NODE; point++) {
+                ring.put(hash(node + "#" + point), node);
+            }
+        }
+    }
+
+    /**
+     * The node a key belongs to
+     */
+    public T nodeFor(String key) {
+        Map.Entry<Long, T> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * 64-bit FNV-1a, finished with the MurmurHash3 mixer so similar keys spread over the ring
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+}
@@ -0,0 +1,93 @@
+package com.amalitech.test.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Factory that attaches to a running {@link MockDaemon} instead of starting a server, so a test
+ * run starts against a warm mock.
+ * <p>
+ * The run works in a namespace of its own on the daemon. Initializing and resetting the factory
+ * reset that namespace, which reloads only the mapping files changed since the previous reset;
+ * shutting it down leaves the namespace warm for the next run. The mock lives in another JVM, so
+ * stubs are registered and verified through {@link #getWireMock()} or in bulk through this
+ * factory, as on any {@link RemoteServerFactory}.
+ */
+public class DaemonServerFactory extends RemoteServerFactory {
+    private static final Logger log = LoggerFactory.getLogger(DaemonServerFactory.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    public static final String DEFAULT_NAMESPACE = "tests";
+
+    private final String daemonUrl;
+    private final String namespace;
+    private int reloadedFiles;
+
+    /**
+     * @param daemonUrl Base URL of the daemon, such as {@code http://localhost:8090}
+     * @param namespace Namespace to run in, unique to each concurrent run
+     */
+    public DaemonServerFactory(String daemonUrl, String namespace) {
+        super(withoutTrailingSlash(daemonUrl) + MockNamespaces.PATH_PREFIX + namespace);
+        this.daemonUrl = withoutTrailingSlash(daemonUrl);
+        this.namespace = namespace;
+    }
+
+    @Override
+    public void initialize() {
+        log.info("Attaching to mock daemon at {}, namespace {}", daemonUrl, namespace);
+        resetNamespace();
+        super.initialize();
+    }
+
+    @Override
+    public void reset() {
+        resetNamespace();
+    }
+
+    /**
+     * Detaches without touching the daemon, which keeps the namespace warm for the next run
+     */
+    @Override
+    public void shutdown() {
+        log.info("Detaching from mock daemon at {}", daemonUrl);
+    }
+
+    /**
+     * Number of mapping files the daemon parsed on the last reset, because they were new or changed
+     */
+    public int getReloadedFiles() {
+        return reloadedFiles;
+    }
+
+    private static String withoutTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    private void resetNamespace() {
+        byte[] response;
+        try {
+            response = send("POST", URI.create(daemonUrl + "/__admin/namespaces/" + namespace + "/reset"), null);
+        } catch (IllegalStateException e) {
+            if (e.getCause() instanceof IOException) {
+                throw new IllegalStateException(
+                        "No mock daemon at " + daemonUrl + "; start one with gradle mockDaemon", e);
+            }
+            throw e;
+        }
+
+        try {
+            JsonNode report = objectMapper.readTree(response);
+            reloadedFiles = report.path("reloadedFiles").asInt();
+            log.info("Mock namespace {} reset with {} mappings, {} mapping files reloaded",
+                    namespace, report.path("mappings").asInt(), reloadedFiles);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unexpected reset response from mock daemon", e);
+        }
+    }
+}
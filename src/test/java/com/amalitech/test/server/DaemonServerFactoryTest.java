@@ -0,0 +1,124 @@
+package com.amalitech.test.server;
+
+import com.amalitech.test.ecommerce.auth.AuthApiTest;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.direct.DirectCallHttpServerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DaemonServerFactoryTest {
+    private MockNamespaces daemon;
+
+    @BeforeClass
+    public void setUp() {
+        daemon = new MockNamespaces(0);
+        daemon.start();
+    }
+
+    @AfterClass
+    public void tearDown() {
+        daemon.stop();
+    }
+
+    @Test
+    public void testAttachedRunStubsRemotelyAndReloadsOnlyChangedFiles() {
+        DaemonServerFactory factory = new DaemonServerFactory(daemon.baseUrl(), "run-1");
+        factory.initialize();
+        assertThat(factory.getReloadedFiles()).isPositive();
+
+        WireMock wireMock = factory.getWireMock();
+        wireMock.register(get(urlPathEqualTo("/api/daemon/ping")).willReturn(okJson("{\"warm\":true}")));
+        assertThat(given().spec(factory.createRequestSpec()).get("/api/daemon/ping").jsonPath().getBoolean("warm"))
+                .isTrue();
+        wireMock.verifyThat(1, getRequestedFor(urlPathEqualTo("/api/daemon/ping")));
+
+        factory.reset();
+        assertThat(factory.getReloadedFiles()).isZero();
+        assertThat(given().spec(factory.createRequestSpec()).get("/api/daemon/ping").statusCode()).isEqualTo(404);
+        assertThat(given().spec(factory.createRequestSpec()).get("/api/products").statusCode()).isEqualTo(200);
+
+        // Detaching keeps the namespace warm for the next run
+        factory.shutdown();
+        assertThat(daemon.names()).contains("run-1");
+    }
+
+    @Test
+    public void testApiTestClassRunsAgainstTheDaemon() {
+        DaemonServerFactory factory = new DaemonServerFactory(daemon.baseUrl(), "run-3");
+        factory.initialize();
+        AuthApiTest test = new AuthApiTest();
+        test.useClassServerFactory(factory);
+        test.setUp();
+
+        // Each method resets the namespace and verifies through the static client, as under TestNG
+        test.setupMethod();
+        test.testSuccessfulLogin();
+        test.setupMethod();
+        test.testInvalidLogin();
+        factory.getWireMock().verifyThat(0, postRequestedFor(urlPathEqualTo("/api/auth/login")));
+        factory.getWireMock().verifyThat(1, postRequestedFor(urlPathEqualTo("/api/auth/login/wrong")));
+        test.tearDownTest();
+
+        assertThat(daemon.names()).contains("run-3");
+    }
+
+    @Test
+    public void testMissingDaemonFailsWithHint() {
+        DaemonServerFactory factory = new DaemonServerFactory("http://localhost:1", "run-2");
+
+        assertThatThrownBy(factory::initialize)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("gradle mockDaemon");
+    }
+
+    @Test
+    public void testCachedSourceParsesNewAndChangedFilesOnly() throws IOException {
+        Path directory = Files.createTempDirectory("mappings");
+        Path first = directory.resolve("first.json");
+        Files.writeString(first, mapping("/first"));
+        Files.writeString(directory.resolve("second.json"), mapping("/second"));
+        CachedMappingsSource source = new CachedMappingsSource(directory);
+        WireMockServer server = new WireMockServer(WireMockConfiguration.options()
+                .httpServerFactory(new DirectCallHttpServerFactory())
+                .mappingSource(source));
+        server.start();
+        try {
+            assertThat(source.getParsedFiles()).isEqualTo(2);
+
+            server.resetAll();
+            assertThat(source.getParsedFiles()).isZero();
+            assertThat(server.getStubMappings()).hasSize(2);
+
+            Files.writeString(first, mapping("/first/changed"));
+            Files.setLastModifiedTime(first, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+            Files.writeString(directory.resolve("third.json"), mapping("/third"));
+            server.resetAll();
+            assertThat(source.getParsedFiles()).isEqualTo(2);
+            assertThat(server.getStubMappings()).hasSize(3)
+                    .anySatisfy(stub -> assertThat(stub.getRequest().getUrl()).isEqualTo("/first/changed"));
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static String mapping(String url) {
+        return "{\"request\": {\"method\": \"GET\", \"url\": \"" + url + "\"}, \"response\": {\"status\": 200}}";
+    }
+}
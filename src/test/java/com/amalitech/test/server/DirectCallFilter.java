@@ -0,0 +1,148 @@
+package com.amalitech.test.server;
+
+import com.github.tomakehurst.wiremock.direct.DirectCallHttpServer;
+import com.github.tomakehurst.wiremock.http.Cookie;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Answers RestAssured requests from an in-process WireMock instead of sending them.
+ * <p>
+ * The request is converted to a WireMock request and handed to the server's stub request
+ * handler, so matching, transformers, the journal and verification behave as over HTTP, but no
+ * socket, HTTP encoding or Jetty thread is involved. Add it after every other filter: it answers
+ * the request itself, so filters after it never run. Not supported: multipart uploads,
+ * chunked dribble delays (the body arrives at once) and faults, which surface as a
+ * {@link SocketException} whatever their kind.
+ */
+public class DirectCallFilter implements Filter {
+    private final DirectCallHttpServer server;
+
+    public DirectCallFilter(DirectCallHttpServer server) {
+        this.server = server;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+            FilterContext ctx) {
+        if (!requestSpec.getMultiPartParams().isEmpty()) {
+            throw new UnsupportedOperationException("Multipart requests need the HTTP transport");
+        }
+        com.github.tomakehurst.wiremock.http.Response response = server.stubRequest(toRequest(requestSpec));
+        if (response.getFault() != null) {
+            throw DirectCallFilter.<RuntimeException>sneakyThrow(
+                    new SocketException("Simulated " + response.getFault() + " fault"));
+        }
+        return toResponse(response);
+    }
+
+    private static DirectCallRequest toRequest(FilterableRequestSpecification requestSpec) {
+        List<HttpHeader> headers = new ArrayList<>();
+        for (Header header : requestSpec.getHeaders()) {
+            headers.add(new HttpHeader(header.getName(), header.getValue()));
+        }
+        Map<String, Cookie> cookies = new LinkedHashMap<>();
+        requestSpec.getCookies().forEach(cookie -> cookies.put(cookie.getName(), new Cookie(cookie.getValue())));
+        if (!cookies.isEmpty()) {
+            headers.add(new HttpHeader("Cookie", requestSpec.getCookies().asList().stream()
+                    .map(cookie -> cookie.getName() + "=" + cookie.getValue())
+                    .collect(Collectors.joining("; "))));
+        }
+
+        byte[] body;
+        if (requestSpec.getBody() == null && !requestSpec.getFormParams().isEmpty()) {
+            body = formBody(requestSpec.getFormParams()).getBytes(StandardCharsets.UTF_8);
+            if (requestSpec.getContentType() == null) {
+                headers.add(new HttpHeader("Content-Type", "application/x-www-form-urlencoded; charset=UTF-8"));
+            }
+        } else {
+            body = bodyBytes(requestSpec.getBody(), new HttpHeaders(headers).getContentTypeHeader().charset());
+        }
+
+        return new DirectCallRequest(RequestMethod.fromString(requestSpec.getMethod()), URI.create(requestSpec.getURI()),
+                new HttpHeaders(headers), cookies, body);
+    }
+
+    private static byte[] bodyBytes(Object body, Charset charset) {
+        try {
+            if (body == null) {
+                return new byte[0];
+            } else if (body instanceof byte[] bytes) {
+                return bytes;
+            } else if (body instanceof File file) {
+                return Files.readAllBytes(file.toPath());
+            } else if (body instanceof InputStream stream) {
+                return stream.readAllBytes();
+            }
+            return body.toString().getBytes(charset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the request body", e);
+        }
+    }
+
+    private static String formBody(Map<String, String> params) {
+        return params.entrySet().stream()
+                .map(param -> URLEncoder.encode(param.getKey(), StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+    }
+
+    private static Response toResponse(com.github.tomakehurst.wiremock.http.Response response) {
+        List<Header> headers = new ArrayList<>();
+        String contentType = null;
+        for (HttpHeader header : response.getHeaders().all()) {
+            if (header.keyEquals("Content-Type")) {
+                contentType = header.firstValue();
+                continue;
+            }
+            for (String value : header.values()) {
+                headers.add(new Header(header.key(), value));
+            }
+        }
+
+        byte[] body = response.getBody();
+        String statusMessage = response.getStatusMessage();
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(response.getStatus())
+                .setStatusLine("HTTP/1.1 " + response.getStatus() + (statusMessage == null ? "" : " " + statusMessage))
+                .setHeaders(new Headers(headers))
+                .setBody(body == null ? new byte[0] : body);
+        if (contentType != null) {
+            builder.setContentType(contentType);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Throw a checked exception from a method that cannot declare it, as RestAssured itself does
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> T sneakyThrow(Throwable throwable) throws T {
+        throw (T) throwable;
+    }
+}
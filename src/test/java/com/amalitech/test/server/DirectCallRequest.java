@@ -0,0 +1,160 @@
+package com.amalitech.test.server;
+
+import com.github.tomakehurst.wiremock.common.Urls;
+import com.github.tomakehurst.wiremock.http.ContentTypeHeader;
+import com.github.tomakehurst.wiremock.http.Cookie;
+import com.github.tomakehurst.wiremock.http.HttpHeader;
+import com.github.tomakehurst.wiremock.http.HttpHeaders;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.google.common.base.Optional;
+
+import java.net.URI;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A request handed to WireMock without going over the wire, as built by {@link DirectCallFilter}
+ */
+class DirectCallRequest implements Request {
+    private final RequestMethod method;
+    private final URI uri;
+    private final HttpHeaders headers;
+    private final Map<String, Cookie> cookies;
+    private final byte[] body;
+
+    DirectCallRequest(RequestMethod method, URI uri, HttpHeaders headers, Map<String, Cookie> cookies, byte[] body) {
+        this.method = method;
+        this.uri = uri;
+        this.headers = headers;
+        this.cookies = cookies;
+        this.body = body;
+    }
+
+    @Override
+    public String getUrl() {
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        return uri.getRawQuery() == null ? path : path + "?" + uri.getRawQuery();
+    }
+
+    @Override
+    public String getAbsoluteUrl() {
+        return uri.toString();
+    }
+
+    @Override
+    public RequestMethod getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getScheme() {
+        return uri.getScheme();
+    }
+
+    @Override
+    public String getHost() {
+        return uri.getHost();
+    }
+
+    @Override
+    public int getPort() {
+        return uri.getPort();
+    }
+
+    @Override
+    public String getClientIp() {
+        return "127.0.0.1";
+    }
+
+    @Override
+    public String getHeader(String key) {
+        HttpHeader header = headers.getHeader(key);
+        return header.isPresent() ? header.firstValue() : null;
+    }
+
+    @Override
+    public HttpHeader header(String key) {
+        return headers.getHeader(key);
+    }
+
+    @Override
+    public ContentTypeHeader contentTypeHeader() {
+        return headers.getContentTypeHeader();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public boolean containsHeader(String key) {
+        return headers.getHeader(key).isPresent();
+    }
+
+    @Override
+    public Set<String> getAllHeaderKeys() {
+        return headers.keys();
+    }
+
+    @Override
+    public Map<String, Cookie> getCookies() {
+        return cookies;
+    }
+
+    @Override
+    public QueryParameter queryParameter(String key) {
+        QueryParameter parameter = Urls.splitQuery(uri).get(key);
+        return parameter != null ? parameter : QueryParameter.absent(key);
+    }
+
+    @Override
+    public byte[] getBody() {
+        return body;
+    }
+
+    @Override
+    public String getBodyAsString() {
+        return new String(body, contentTypeHeader().charset());
+    }
+
+    @Override
+    public String getBodyAsBase64() {
+        return Base64.getEncoder().encodeToString(body);
+    }
+
+    @Override
+    public boolean isMultipart() {
+        return false;
+    }
+
+    @Override
+    public Collection<Part> getParts() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Part getPart(String name) {
+        return null;
+    }
+
+    @Override
+    public boolean isBrowserProxyRequest() {
+        return false;
+    }
+
+    @Override
+    public Optional<Request> getOriginalRequest() {
+        return Optional.absent();
+    }
+
+    @Override
+    public String getProtocol() {
+        return "HTTP/1.1";
+    }
+}
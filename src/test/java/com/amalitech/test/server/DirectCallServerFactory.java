@@ -0,0 +1,126 @@
+package com.amalitech.test.server;
+
+import com.amalitech.test.utils.VirtualClock;
+import com.amalitech.test.utils.VirtualTimeoutFilter;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.direct.DirectCallHttpServer;
+import com.github.tomakehurst.wiremock.direct.DirectCallHttpServerFactory;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.filter.log.RequestLoggingFilter;
+import io.restassured.filter.log.ResponseLoggingFilter;
+import io.restassured.specification.RequestSpecification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+
+/**
+ * Factory for a WireMock server that runs in the test JVM without listening on a port.
+ * <p>
+ * Request specs from {@link #createRequestSpec()} carry a {@link DirectCallFilter}, which hands
+ * each call straight to WireMock's stub request handler: same mappings, transformers and
+ * verification as {@link WireMockServerFactory}, without sockets, HTTP encoding or Jetty. Only
+ * callers going through those specs reach the server; raw HTTP clients, such as the load
+ * generator and trace replayer, need {@link WireMockServerFactory}.
+ */
+public class DirectCallServerFactory implements ServerFactory {
+    private static final Logger log = LoggerFactory.getLogger(DirectCallServerFactory.class);
+
+    /**
+     * Base URL the request specs use; it is never connected to
+     */
+    public static final String BASE_URL = "http://localhost";
+
+    private final VirtualClock virtualClock;
+    private WireMockServer wireMockServer;
+    private DirectCallHttpServerFactory httpServerFactory;
+
+    public DirectCallServerFactory() {
+        this(null);
+    }
+
+    /**
+     * Constructor for a server running on virtual time
+     *
+     * @param virtualClock Clock shared with the test, or null for real time
+     */
+    public DirectCallServerFactory(VirtualClock virtualClock) {
+        this.virtualClock = virtualClock;
+    }
+
+    @Override
+    public void initialize() {
+        log.info("Starting in-process WireMock server");
+        httpServerFactory = new DirectCallHttpServerFactory();
+        wireMockServer = new WireMockServer(WireMockServerFactory.configure(WireMockConfiguration.options(), virtualClock)
+                .httpServerFactory(httpServerFactory));
+        wireMockServer.start();
+        log.info("In-process WireMock server started with {} mappings", wireMockServer.getStubMappings().size());
+    }
+
+    @Override
+    public void reset() {
+        if (wireMockServer != null && wireMockServer.isRunning()) {
+            log.info("Resetting in-process WireMock server");
+            wireMockServer.resetAll();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        log.info("Stopping in-process WireMock server");
+        if (wireMockServer != null && wireMockServer.isRunning()) {
+            wireMockServer.stop();
+        }
+    }
+
+    @Override
+    public String baseUrl() {
+        return BASE_URL;
+    }
+
+    /**
+     * Get the WireMock server instance
+     */
+    public WireMockServer getWireMockServer() {
+        return wireMockServer;
+    }
+
+    @Override
+    public Optional<WireMockServer> localServer() {
+        return Optional.ofNullable(getWireMockServer());
+    }
+
+    /**
+     * Get the in-process HTTP server, to build a {@link DirectCallFilter} for a spec of one's own
+     */
+    public DirectCallHttpServer getHttpServer() {
+        return httpServerFactory.getHttpServer();
+    }
+
+    /**
+     * Get the clock the server runs on, or null if it runs on real time
+     */
+    public VirtualClock getVirtualClock() {
+        return virtualClock;
+    }
+
+    @Override
+    public RequestSpecification createRequestSpec() {
+        RequestSpecBuilder builder = new RequestSpecBuilder()
+                .setBaseUri(BASE_URL)
+                .setUrlEncodingEnabled(false)
+                .addFilter(new RequestLoggingFilter())
+                .addFilter(new ResponseLoggingFilter());
+        if (virtualClock != null) {
+            builder.addFilter(new VirtualTimeoutFilter());
+        }
+        return builder.addFilter(new DirectCallFilter(getHttpServer())).build();
+    }
+
+    @Override
+    public boolean isMockServer() {
+        return true;
+    }
+}
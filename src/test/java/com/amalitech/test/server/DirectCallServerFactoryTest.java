@@ -0,0 +1,150 @@
+package com.amalitech.test.server;
+
+import com.amalitech.test.ecommerce.auth.AuthApiTest;
+import com.amalitech.test.extension.CommerceSimulatorTransformer;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.http.Fault;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.net.SocketException;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DirectCallServerFactoryTest {
+    private DirectCallServerFactory factory;
+    private WireMockServer wireMockServer;
+
+    @BeforeClass
+    public void setUp() {
+        factory = new DirectCallServerFactory();
+        factory.initialize();
+        wireMockServer = factory.getWireMockServer();
+    }
+
+    @AfterClass
+    public void tearDown() {
+        factory.shutdown();
+    }
+
+    private RequestSpecification request() {
+        return given().spec(factory.createRequestSpec());
+    }
+
+    @Test
+    public void testStubsAreServedWithoutAPort() {
+        wireMockServer.stubFor(get(urlPathEqualTo("/api/direct/products"))
+                .withQueryParam("category", equalTo("books"))
+                .withHeader("Authorization", equalTo("Bearer direct"))
+                .willReturn(okJson("{\"products\":[{\"id\":1}]}").withHeader("X-Total-Count", "1")));
+
+        Response response = request().header("Authorization", "Bearer direct")
+                .get("/api/direct/products?category=books");
+
+        assertThat(wireMockServer.port()).isEqualTo(-1);
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.contentType()).startsWith("application/json");
+        assertThat(response.header("X-Total-Count")).isEqualTo("1");
+        assertThat(response.jsonPath().getInt("products[0].id")).isEqualTo(1);
+        wireMockServer.verify(getRequestedFor(urlPathEqualTo("/api/direct/products"))
+                .withQueryParam("category", equalTo("books")));
+    }
+
+    @Test
+    public void testRequestBodiesReachTheMatcher() {
+        wireMockServer.stubFor(post(urlPathEqualTo("/api/direct/login"))
+                .withRequestBody(equalToJson("{\"username\":\"ada\",\"password\":\"secret\"}"))
+                .willReturn(okJson("{\"token\":\"t-1\"}")));
+
+        Response matched = request().contentType(ContentType.JSON)
+                .body("{\"username\":\"ada\",\"password\":\"secret\"}").post("/api/direct/login");
+        Response unmatched = request().contentType(ContentType.JSON)
+                .body("{\"username\":\"ada\",\"password\":\"wrong\"}").post("/api/direct/login");
+
+        assertThat(matched.jsonPath().getString("token")).isEqualTo("t-1");
+        assertThat(unmatched.statusCode()).isEqualTo(404);
+    }
+
+    @Test
+    public void testTransformersKeepState() {
+        wireMockServer.stubFor(CommerceSimulatorTransformer.simulatorStub());
+        RequestSpecification session = request().header("Authorization", "Bearer direct-cart")
+                .contentType(ContentType.JSON);
+
+        session.body("{\"productId\": 3, \"quantity\": 2}").post("/api/cart/items");
+        Response cart = session.get("/api/cart");
+
+        assertThat(cart.statusCode()).isEqualTo(200);
+        assertThat(cart.jsonPath().getInt("items[0].quantity")).isEqualTo(2);
+    }
+
+    @Test
+    public void testFaultsSurfaceAsSocketErrors() {
+        wireMockServer.stubFor(get(urlPathEqualTo("/api/direct/reset"))
+                .willReturn(aResponse().withFault(Fault.CONNECTION_RESET_BY_PEER)));
+
+        assertThatThrownBy(() -> request().get("/api/direct/reset"))
+                .isInstanceOf(SocketException.class)
+                .hasMessageContaining("CONNECTION_RESET_BY_PEER");
+    }
+
+    @Test
+    public void testApiTestClassRunsWithDirectTransport() {
+        ServerFactory direct;
+        System.setProperty("mock.transport", "direct");
+        try {
+            direct = ServerFactoryProvider.getMockServerFactory();
+        } finally {
+            System.clearProperty("mock.transport");
+        }
+        assertThat(direct).isInstanceOf(DirectCallServerFactory.class);
+        direct.initialize();
+        try {
+            DirectAuthApiTest test = new DirectAuthApiTest();
+            test.factory = direct;
+            test.setUp();
+
+            // Each method verifies through the static client, as under TestNG
+            test.setupMethod();
+            test.testSuccessfulLogin();
+            test.setupMethod();
+            test.testInvalidLogin();
+            test.setupMethod();
+            test.testGetProfile();
+            WireMockServer server = direct.localServer().orElseThrow();
+            server.verify(0, postRequestedFor(urlPathEqualTo("/api/auth/login")));
+            server.verify(getRequestedFor(urlPathEqualTo("/api/auth/profile")));
+        } finally {
+            direct.shutdown();
+        }
+    }
+
+    /**
+     * Auth tests on a direct-call factory standing in for the suite's, as {@code mock.transport=direct}
+     * would make it, without swapping the factory of the running suite
+     */
+    @Test(groups = "driven")
+    public static class DirectAuthApiTest extends AuthApiTest {
+        private ServerFactory factory;
+
+        @Override
+        protected ServerFactory currentServerFactory() {
+            return factory;
+        }
+    }
+}
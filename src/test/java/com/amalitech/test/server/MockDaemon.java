@@ -0,0 +1,30 @@
+package com.amalitech.test.server;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Command line entry point for a mock daemon: a {@link MockNamespaces} server that stays warm
+ * between test runs, so each run attaches to it with a {@link DaemonServerFactory} instead of
+ * paying for JVM, Jetty and mapping start-up itself.
+ * <p>
+ * Started by the {@code mockDaemon} Gradle task and stopped with Ctrl+C. Listens on the port
+ * given by {@code mock.daemonPort} (default {@value #DEFAULT_PORT}) and warms up the namespace
+ * given by {@code mock.namespace} before reporting ready.
+ */
+public class MockDaemon {
+    private static final Logger log = LoggerFactory.getLogger(MockDaemon.class);
+
+    public static final int DEFAULT_PORT = 8090;
+
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        MockNamespaces namespaces = new MockNamespaces(Integer.getInteger("mock.daemonPort", DEFAULT_PORT));
+        namespaces.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(namespaces::stop));
+        namespaces.namespace(System.getProperty("mock.namespace", DaemonServerFactory.DEFAULT_NAMESPACE));
+
+        log.info("Mock daemon ready in {} ms; run tests against it with gradle test -Pmock.daemon={}",
+                (System.nanoTime() - start) / 1_000_000, namespaces.baseUrl());
+    }
+}
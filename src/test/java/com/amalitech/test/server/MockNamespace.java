@@ -0,0 +1,130 @@
+package com.amalitech.test.server;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockApp;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.http.AbstractRequestHandler;
+import com.github.tomakehurst.wiremock.http.AdminRequestHandler;
+import com.github.tomakehurst.wiremock.http.HttpServer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.http.StubRequestHandler;
+
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * One namespace of a {@link MockNamespaces} server: a WireMock instance with its own stubs,
+ * scenarios, journal and simulator state, which listens on no port of its own and is reached
+ * through the shared server under {@link #baseUrl()}.
+ * <p>
+ * Register and verify stubs on {@link #getWireMockServer()} as on any WireMock server, or remotely
+ * through the admin API under the base URL. Default mappings are parsed once and kept, so a reset
+ * only parses the mapping files changed since.
+ */
+public class MockNamespace {
+    private final String name;
+    private final String baseUrl;
+    private final CachedMappingsSource mappingsSource;
+    private final WireMockServer wireMockServer;
+    private AdminRequestHandler adminRequestHandler;
+    private StubRequestHandler stubRequestHandler;
+
+    MockNamespace(String name, String sharedBaseUrl) {
+        this.name = name;
+        this.baseUrl = sharedBaseUrl + MockNamespaces.PATH_PREFIX + name;
+        WireMockConfiguration options = WireMockServerFactory.configure(WireMockConfiguration.options());
+        this.mappingsSource = new CachedMappingsSource(
+                Paths.get(options.filesRoot().child(WireMockApp.MAPPINGS_ROOT).getPath()));
+        this.wireMockServer = new WireMockServer(options
+                .mappingSource(mappingsSource)
+                .httpServerFactory((serverOptions, adminRequestHandler, stubRequestHandler) -> {
+                    this.adminRequestHandler = adminRequestHandler;
+                    this.stubRequestHandler = stubRequestHandler;
+                    return new DetachedHttpServer();
+                }));
+        wireMockServer.start();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Base URL of this namespace on the shared server
+     */
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Get the WireMock server instance holding this namespace's stubs and journal
+     */
+    public WireMockServer getWireMockServer() {
+        return wireMockServer;
+    }
+
+    /**
+     * Reset this namespace to the default mappings, leaving the other namespaces untouched
+     */
+    public void reset() {
+        wireMockServer.resetAll();
+    }
+
+    /**
+     * Number of mapping files the last reset had to parse, because they were new or changed
+     */
+    public int getReloadedFiles() {
+        return mappingsSource.getParsedFiles();
+    }
+
+    void stop() {
+        wireMockServer.stop();
+    }
+
+    /**
+     * Match and render a request against this namespace's stubs, or run it on its admin API. The
+     * handlers respond on the calling thread; delays are left on the response for the shared
+     * server to apply.
+     */
+    Response serve(Request request) {
+        AbstractRequestHandler handler = request.getUrl().startsWith("/__admin")
+                ? adminRequestHandler
+                : stubRequestHandler;
+        AtomicReference<Response> response = new AtomicReference<>();
+        handler.handle(request, (ignored, rendered) -> response.set(rendered));
+        return response.get();
+    }
+
+    /**
+     * Stands in for Jetty: namespaces are only ever called through the shared server
+     */
+    private static class DetachedHttpServer implements HttpServer {
+        private volatile boolean running;
+
+        @Override
+        public void start() {
+            running = true;
+        }
+
+        @Override
+        public void stop() {
+            running = false;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+
+        @Override
+        public int port() {
+            return -1;
+        }
+
+        @Override
+        public int httpsPort() {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.amalitech.test.server;
+
+import com.amalitech.ScheduledWritesHttpServerFactory;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+
+/**
+ * One warm WireMock server shared by many test suites, each working in a {@link MockNamespace}
+ * of its own with separate stubs, scenarios and journal.
+ * <p>
+ * Requests pick their namespace with the {@link #HEADER} header or a {@code /ns/{name}} path
+ * prefix; the base URL of a namespace already carries the prefix, so plain HTTP clients need no
+ * changes. Namespaces are created on first use, start with the default mappings and reset
+ * independently of each other. Other JVMs manage them through the {@link NamespaceAdminApi}.
+ */
+public class MockNamespaces {
+    private static final Logger log = LoggerFactory.getLogger(MockNamespaces.class);
+
+    public static final String HEADER = "X-Mock-Namespace";
+    public static final String PATH_PREFIX = "/ns/";
+
+    private static final Pattern VALID_NAME = Pattern.compile("[A-Za-z0-9._-]+");
+    private static MockNamespaces shared;
+
+    private final Map<String, MockNamespace> namespaces = new ConcurrentHashMap<>();
+    private final WireMockServer wireMockServer;
+
+    /**
+     * @param port Port to listen on, or 0 for any free port
+     */
+    public MockNamespaces(int port) {
+        // The shared server has no stubs or journal of its own beyond the route into the namespaces
+        wireMockServer = new WireMockServer(WireMockConfiguration.options()
+                .port(port)
+                .mappingSource(new NoMappingsSource())
+                .disableRequestJournal()
+                .asynchronousResponseEnabled(true)
+                .httpServerFactory(new ScheduledWritesHttpServerFactory())
+                .extensions(new NamespaceRouter(namespaces), new NamespaceAdminApi(this)));
+    }
+
+    /**
+     * Server shared by every suite in the JVM, started on first use on the port given by the
+     * {@code mock.namespacePort} property, any free port by default
+     */
+    public static synchronized MockNamespaces shared() {
+        if (shared == null) {
+            shared = new MockNamespaces(Integer.getInteger("mock.namespacePort", 0));
+            shared.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(shared::stop));
+        }
+        return shared;
+    }
+
+    public void start() {
+        wireMockServer.start();
+        wireMockServer.stubFor(any(anyUrl()).willReturn(aResponse().withTransformers(NamespaceRouter.NAME)));
+        log.info("Namespaced WireMock server started on port {}", wireMockServer.port());
+    }
+
+    public void stop() {
+        if (wireMockServer.isRunning()) {
+            log.info("Stopping namespaced WireMock server");
+            wireMockServer.stop();
+        }
+        namespaces.values().forEach(MockNamespace::stop);
+        namespaces.clear();
+    }
+
+    public String baseUrl() {
+        return wireMockServer.baseUrl();
+    }
+
+    /**
+     * Get a namespace, creating it with the default mappings if it does not exist yet
+     *
+     * @param name Namespace name, made of letters, digits, dots, dashes and underscores
+     */
+    public MockNamespace namespace(String name) {
+        if (name == null || !VALID_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid mock namespace name: " + name);
+        }
+        return namespaces.computeIfAbsent(name, key -> {
+            log.info("Creating mock namespace {}", key);
+            return new MockNamespace(key, baseUrl());
+        });
+    }
+
+    /**
+     * Drop a namespace; requests for it get a 404 until it is created again
+     */
+    public void remove(String name) {
+        MockNamespace namespace = namespaces.remove(name);
+        if (namespace != null) {
+            log.info("Removing mock namespace {}", name);
+            namespace.stop();
+        }
+    }
+
+    public boolean contains(String name) {
+        return namespaces.containsKey(name);
+    }
+
+    public int size() {
+        return namespaces.size();
+    }
+
+    public Set<String> names() {
+        return Set.copyOf(namespaces.keySet());
+    }
+}
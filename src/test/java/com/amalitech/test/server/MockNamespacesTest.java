@@ -0,0 +1,85 @@
+package com.amalitech.test.server;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.VerificationException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MockNamespacesTest {
+    private MockNamespaces namespaces;
+
+    @BeforeClass
+    public void setUp() {
+        namespaces = new MockNamespaces(0);
+        namespaces.start();
+    }
+
+    @AfterClass
+    public void tearDown() {
+        namespaces.stop();
+    }
+
+    @Test
+    public void testNamespacesKeepSeparateStubsAndJournals() {
+        MockNamespace red = namespaces.namespace("red");
+        MockNamespace blue = namespaces.namespace("blue");
+        red.getWireMockServer().stubFor(get(urlPathEqualTo("/api/colour")).willReturn(okJson("{\"colour\":\"red\"}")));
+        blue.getWireMockServer().stubFor(get(urlPathEqualTo("/api/colour")).willReturn(okJson("{\"colour\":\"blue\"}")));
+
+        assertThat(given().baseUri(red.baseUrl()).get("/api/colour?shade=dark").jsonPath().getString("colour"))
+                .isEqualTo("red");
+        assertThat(given().baseUri(namespaces.baseUrl()).header(MockNamespaces.HEADER, "blue")
+                .get("/api/colour").jsonPath().getString("colour")).isEqualTo("blue");
+
+        red.getWireMockServer().verify(1, getRequestedFor(urlPathEqualTo("/api/colour")));
+        blue.getWireMockServer().verify(1, getRequestedFor(urlPathEqualTo("/api/colour")));
+        assertThat(red.getWireMockServer().findAll(getRequestedFor(urlPathEqualTo("/api/colour"))).get(0)
+                .queryParameter("shade").firstValue()).isEqualTo("dark");
+    }
+
+    @Test
+    public void testResetAndScenariosStayWithinANamespace() {
+        MockNamespace first = namespaces.namespace("first");
+        MockNamespace second = namespaces.namespace("second");
+        for (MockNamespace namespace : new MockNamespace[]{first, second}) {
+            WireMockServer server = namespace.getWireMockServer();
+            server.stubFor(get(urlPathEqualTo("/api/step")).inScenario("steps").whenScenarioStateIs(STARTED)
+                    .willReturn(okJson("{\"step\":1}")).willSetStateTo("two"));
+            server.stubFor(get(urlPathEqualTo("/api/step")).inScenario("steps").whenScenarioStateIs("two")
+                    .willReturn(okJson("{\"step\":2}")));
+        }
+
+        assertThat(given().baseUri(first.baseUrl()).get("/api/step").jsonPath().getInt("step")).isEqualTo(1);
+        assertThat(given().baseUri(first.baseUrl()).get("/api/step").jsonPath().getInt("step")).isEqualTo(2);
+        assertThat(given().baseUri(second.baseUrl()).get("/api/step").jsonPath().getInt("step")).isEqualTo(1);
+
+        first.reset();
+        assertThat(given().baseUri(first.baseUrl()).get("/api/step").statusCode()).isEqualTo(404);
+        assertThat(given().baseUri(second.baseUrl()).get("/api/step").jsonPath().getInt("step")).isEqualTo(2);
+        assertThatThrownBy(() -> first.getWireMockServer().verify(getRequestedFor(urlPathEqualTo("/api/never"))))
+                .isInstanceOf(VerificationException.class);
+    }
+
+    @Test
+    public void testFactoryServesDefaultMappingsAndRemovesItsNamespace() {
+        NamespaceServerFactory factory = new NamespaceServerFactory(namespaces, "suite");
+        factory.initialize();
+        assertThat(factory.getWireMockServer().getStubMappings()).isNotEmpty();
+        assertThat(given().spec(factory.createRequestSpec()).get("/api/products").statusCode()).isEqualTo(200);
+
+        factory.shutdown();
+        assertThat(given().baseUri(namespaces.baseUrl()).get("/ns/suite/api/products").statusCode()).isEqualTo(404);
+        assertThat(given().baseUri(namespaces.baseUrl()).get("/api/products").statusCode()).isEqualTo(404);
+        assertThatThrownBy(() -> namespaces.namespace("bad/name")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,63 @@
+package com.amalitech.test.server;
+
+import com.github.tomakehurst.wiremock.admin.Router;
+import com.github.tomakehurst.wiremock.common.Errors;
+import com.github.tomakehurst.wiremock.extension.AdminApiExtension;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import java.util.Map;
+
+/**
+ * Admin API of a {@link MockNamespaces} server, so test runs in other JVMs can manage their
+ * namespace on a running mock daemon:
+ * <ul>
+ *     <li>{@code GET /__admin/namespaces} lists the namespaces</li>
+ *     <li>{@code POST /__admin/namespaces/{name}/reset} creates the namespace if needed, reloads
+ *     changed mapping files and resets its stubs, scenarios and journal</li>
+ *     <li>{@code DELETE /__admin/namespaces/{name}} removes the namespace</li>
+ * </ul>
+ * Stubs and requests of a namespace are managed with the standard admin API under its base URL.
+ */
+class NamespaceAdminApi implements AdminApiExtension {
+    static final String NAME = "namespace-admin";
+
+    private final MockNamespaces namespaces;
+
+    NamespaceAdminApi(MockNamespaces namespaces) {
+        this.namespaces = namespaces;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void contributeAdminApiRoutes(Router router) {
+        router.add(RequestMethod.GET, "/namespaces", (admin, request, pathParams) ->
+                ResponseDefinition.okForJson(Map.of("namespaces", namespaces.names())));
+        router.add(RequestMethod.POST, "/namespaces/{name}/reset", (admin, request, pathParams) -> {
+            String name = pathParams.get("name");
+            boolean existed = namespaces.contains(name);
+            MockNamespace namespace;
+            try {
+                namespace = namespaces.namespace(name);
+            } catch (IllegalArgumentException e) {
+                return ResponseDefinition.badRequest(Errors.validation("/name", e.getMessage()));
+            }
+            // A namespace created just now already holds freshly loaded mappings
+            if (existed) {
+                namespace.reset();
+            }
+            return ResponseDefinition.okForJson(Map.of(
+                    "namespace", name,
+                    "mappings", namespace.getWireMockServer().getStubMappings().size(),
+                    "reloadedFiles", namespace.getReloadedFiles()));
+        });
+        router.add(RequestMethod.DELETE, "/namespaces/{name}", (admin, request, pathParams) -> {
+            namespaces.remove(pathParams.get("name"));
+            return ResponseDefinition.noContent();
+        });
+    }
+}
@@ -0,0 +1,102 @@
+package com.amalitech.test.server;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.Response;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import java.net.URI;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+
+/**
+ * Front of a {@link MockNamespaces} server: picks the namespace of each request, hands the request
+ * to that namespace and returns its response as the shared server's own.
+ * <p>
+ * The namespace is named by the {@link MockNamespaces#HEADER} header or, failing that, by a
+ * {@code /ns/{name}} path prefix, which is stripped before matching so namespaces are stubbed with
+ * the same paths as a dedicated server. Namespaces are looked up in a hash map, so dispatch costs
+ * the same however many suites share the server. Delays and faults pass through to the shared
+ * server, which applies them without blocking its request threads.
+ */
+class NamespaceRouter extends ResponseDefinitionTransformer {
+    static final String NAME = "namespace-router";
+
+    private final Map<String, MockNamespace> namespaces;
+
+    NamespaceRouter(Map<String, MockNamespace> namespaces) {
+        this.namespaces = namespaces;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition,
+            FileSource files, Parameters parameters) {
+        String name = request.getHeader(MockNamespaces.HEADER);
+        Request routed = request;
+        String url = request.getUrl();
+        if (url.startsWith(MockNamespaces.PATH_PREFIX)) {
+            int end = url.length();
+            for (int i = MockNamespaces.PATH_PREFIX.length(); i < url.length(); i++) {
+                if (url.charAt(i) == '/' || url.charAt(i) == '?') {
+                    end = i;
+                    break;
+                }
+            }
+            String prefixName = url.substring(MockNamespaces.PATH_PREFIX.length(), end);
+            if (name == null || name.equals(prefixName)) {
+                name = prefixName;
+                routed = stripPrefix(request, url.substring(end));
+            }
+        }
+
+        MockNamespace namespace = name != null ? namespaces.get(name) : null;
+        if (namespace == null) {
+            return aResponse()
+                    .withStatus(404)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"error\":\"Unknown mock namespace: " + name + "\"}")
+                    .build();
+        }
+        return toDefinition(namespace.serve(routed));
+    }
+
+    private static Request stripPrefix(Request request, String rest) {
+        String path = rest.isEmpty() || rest.startsWith("?") ? "/" + rest : rest;
+        URI uri = URI.create(request.getAbsoluteUrl()).resolve(path);
+        return new DirectCallRequest(request.getMethod(), uri, request.getHeaders(), request.getCookies(),
+                request.getBody());
+    }
+
+    private static ResponseDefinition toDefinition(Response response) {
+        ResponseDefinitionBuilder builder = aResponse()
+                .withStatus(response.getStatus())
+                .withStatusMessage(response.getStatusMessage())
+                .withHeaders(response.getHeaders())
+                .withBody(response.getBody());
+        if (response.getInitialDelay() > 0) {
+            builder.withFixedDelay((int) response.getInitialDelay());
+        }
+        if (response.getFault() != null) {
+            builder.withFault(response.getFault());
+        }
+        if (response.shouldAddChunkedDribbleDelay()) {
+            builder.withChunkedDribbleDelay(response.getChunkedDribbleDelay().getNumberOfChunks(),
+                    response.getChunkedDribbleDelay().getTotalDuration());
+        }
+        return builder.build();
+    }
+}
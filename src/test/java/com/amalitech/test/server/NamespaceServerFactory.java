@@ -0,0 +1,86 @@
+package com.amalitech.test.server;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.filter.log.RequestLoggingFilter;
+import io.restassured.filter.log.ResponseLoggingFilter;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.Optional;
+
+/**
+ * Factory for a namespace of a shared {@link MockNamespaces} server, so parallel suites can each
+ * have a mock of their own without starting a server each. Resetting the factory resets only its
+ * namespace, and shutting it down removes the namespace while the shared server stays warm.
+ */
+public class NamespaceServerFactory implements ServerFactory {
+    private final MockNamespaces namespaces;
+    private final String name;
+    private MockNamespace namespace;
+
+    /**
+     * Constructor for a namespace of the JVM-wide shared server
+     */
+    public NamespaceServerFactory(String name) {
+        this(MockNamespaces.shared(), name);
+    }
+
+    public NamespaceServerFactory(MockNamespaces namespaces, String name) {
+        this.namespaces = namespaces;
+        this.name = name;
+    }
+
+    @Override
+    public void initialize() {
+        namespace = namespaces.namespace(name);
+    }
+
+    @Override
+    public void reset() {
+        if (namespace != null) {
+            namespace.reset();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        namespaces.remove(name);
+        namespace = null;
+    }
+
+    @Override
+    public String baseUrl() {
+        return namespace.baseUrl();
+    }
+
+    /**
+     * Get the WireMock server instance of this namespace
+     */
+    public WireMockServer getWireMockServer() {
+        return namespace != null ? namespace.getWireMockServer() : null;
+    }
+
+    @Override
+    public Optional<WireMockServer> localServer() {
+        return Optional.ofNullable(getWireMockServer());
+    }
+
+    public MockNamespace getNamespace() {
+        return namespace;
+    }
+
+    @Override
+    public RequestSpecification createRequestSpec() {
+        return new RequestSpecBuilder()
+                .setBaseUri(baseUrl())
+                .setUrlEncodingEnabled(false)
+                .addFilter(new RequestLoggingFilter())
+                .addFilter(new ResponseLoggingFilter())
+                .build();
+    }
+
+    @Override
+    public boolean isMockServer() {
+        return true;
+    }
+}
@@ -0,0 +1,33 @@
+package com.amalitech.test.server;
+
+import com.github.tomakehurst.wiremock.standalone.MappingsSource;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.stubbing.StubMappings;
+
+import java.util.List;
+
+/**
+ * Mapping source for servers that must not load the default mappings, such as cluster replicas,
+ * which hold only what the primary replicates to them
+ */
+class NoMappingsSource implements MappingsSource {
+    @Override
+    public void loadMappingsInto(StubMappings stubMappings) {
+    }
+
+    @Override
+    public void save(List<StubMapping> stubMappings) {
+    }
+
+    @Override
+    public void save(StubMapping stubMapping) {
+    }
+
+    @Override
+    public void remove(StubMapping stubMapping) {
+    }
+
+    @Override
+    public void removeAll() {
+    }
+}
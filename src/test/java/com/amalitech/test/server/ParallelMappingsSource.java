@@ -0,0 +1,125 @@
+package com.amalitech.test.server;
+
+import com.amalitech.ReadOnlyMappingsSource;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import com.github.tomakehurst.wiremock.stubbing.StubMappings;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * Read-only source for the JSON mapping files of a directory that walks and parses them on a
+ * fork-join pool, so loading scales with the cores rather than with the number of files.
+ * <p>
+ * Every directory and every file is a task of its own. The parsed files are added in path order,
+ * whatever order they finished in, so stubs of equal priority rank the same on every load.
+ */
+public class ParallelMappingsSource extends ReadOnlyMappingsSource {
+    private final Path mappingsDirectory;
+    private final ForkJoinPool pool;
+    private volatile int loadedFiles;
+
+    /**
+     * Source parsing on the common fork-join pool
+     *
+     * @param mappingsDirectory Directory holding the mapping files, which need not exist
+     */
+    public ParallelMappingsSource(Path mappingsDirectory) {
+        this(mappingsDirectory, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param mappingsDirectory Directory holding the mapping files, which need not exist
+     * @param pool              Pool to walk and parse on
+     */
+    public ParallelMappingsSource(Path mappingsDirectory, ForkJoinPool pool) {
+        this.mappingsDirectory = mappingsDirectory;
+        this.pool = pool;
+    }
+
+    @Override
+    public void loadMappingsInto(StubMappings stubMappings) {
+        if (!Files.isDirectory(mappingsDirectory)) {
+            loadedFiles = 0;
+            return;
+        }
+
+        List<MappingFile> files = pool.invoke(new DirectoryTask(mappingsDirectory));
+        files.sort(Comparator.comparing(file -> file.path));
+        for (MappingFile file : files) {
+            file.stubMappings.forEach(stubMappings::addMapping);
+        }
+        loadedFiles = files.size();
+    }
+
+    /**
+     * Number of files the last load parsed
+     */
+    public int getLoadedFiles() {
+        return loadedFiles;
+    }
+
+    /**
+     * Lists a directory, then parses its files and walks its subdirectories as forked tasks
+     */
+    private static final class DirectoryTask extends RecursiveTask<List<MappingFile>> {
+        private final Path directory;
+
+        private DirectoryTask(Path directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        protected List<MappingFile> compute() {
+            List<RecursiveTask<List<MappingFile>>> tasks = new ArrayList<>();
+            try (Stream<Path> entries = Files.list(directory)) {
+                entries.forEach(entry -> {
+                    if (Files.isDirectory(entry)) {
+                        tasks.add(new DirectoryTask(entry));
+                    } else if (isMappingFile(entry)) {
+                        tasks.add(new FileTask(entry));
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            List<MappingFile> files = new ArrayList<>();
+            for (RecursiveTask<List<MappingFile>> task : invokeAll(tasks)) {
+                files.addAll(task.join());
+            }
+            return files;
+        }
+    }
+
+    private static final class FileTask extends RecursiveTask<List<MappingFile>> {
+        private final Path file;
+
+        private FileTask(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        protected List<MappingFile> compute() {
+            return List.of(new MappingFile(file, parse(file)));
+        }
+    }
+
+    private static final class MappingFile {
+        private final Path path;
+        private final List<StubMapping> stubMappings;
+
+        private MappingFile(Path path, List<StubMapping> stubMappings) {
+            this.path = path;
+            this.stubMappings = stubMappings;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.amalitech.test.server;
+
+import com.amalitech.MappingsWatcher;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.direct.DirectCallHttpServerFactory;
+import com.github.tomakehurst.wiremock.standalone.MappingFileException;
+import com.github.tomakehurst.wiremock.standalone.MappingsSource;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ParallelMappingsSourceTest {
+
+    @Test
+    public void testLoadsInTheSameOrderAsASortedSequentialLoad() throws IOException {
+        Path directory = Files.createTempDirectory("mappings");
+        for (int dir = 0; dir < 5; dir++) {
+            Path subdirectory = Files.createDirectories(directory.resolve("group-" + dir).resolve("nested"));
+            for (int file = 0; file < 40; file++) {
+                // Few distinct priorities, so most of the order comes from the insertion order
+                Files.writeString(subdirectory.resolve("stub-" + file + ".json"),
+                        mapping("/api/" + dir + "/" + file, file % 3 + 1));
+            }
+            Files.writeString(directory.resolve("group-" + dir + ".json"), mapping("/api/" + dir, 2));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelMappingsSource source = new ParallelMappingsSource(directory, pool);
+            List<String> expected = urls(new MappingsWatcher(directory));
+            assertThat(urls(source)).hasSize(205).containsExactlyElementsOf(expected);
+            assertThat(source.getLoadedFiles()).isEqualTo(205);
+            assertThat(urls(source)).containsExactlyElementsOf(expected);
+
+            CachedMappingsSource cached = new CachedMappingsSource(directory, pool);
+            assertThat(urls(cached)).containsExactlyElementsOf(expected);
+            assertThat(cached.getParsedFiles()).isEqualTo(205);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testMalformedFileIsReportedByPath() throws IOException {
+        Path directory = Files.createTempDirectory("mappings");
+        Files.writeString(directory.resolve("good.json"), mapping("/good", 1));
+        Files.writeString(directory.resolve("broken.json"), "{\"request\": ");
+
+        assertThatThrownBy(() -> urls(new ParallelMappingsSource(directory)))
+                .isInstanceOf(MappingFileException.class)
+                .hasMessageContaining("broken.json");
+        assertThatThrownBy(() -> urls(new CachedMappingsSource(directory)))
+                .isInstanceOf(MappingFileException.class)
+                .hasMessageContaining("broken.json");
+    }
+
+    @Test
+    public void testMissingDirectoryLoadsNothing() throws IOException {
+        Path directory = Files.createTempDirectory("mappings").resolve("absent");
+        ParallelMappingsSource source = new ParallelMappingsSource(directory);
+
+        assertThat(urls(source)).isEmpty();
+        assertThat(source.getLoadedFiles()).isZero();
+    }
+
+    /**
+     * Urls of the stubs a server loads from a source, in the order it matches them
+     */
+    private static List<String> urls(MappingsSource source) {
+        WireMockServer server = new WireMockServer(WireMockConfiguration.options()
+                .httpServerFactory(new DirectCallHttpServerFactory())
+                .mappingSource(source));
+        return server.getStubMappings().stream().map(StubMapping::getRequest)
+                .map(request -> request.getUrl()).toList();
+    }
+
+    private static String mapping(String url, int priority) {
+        return "{\"priority\": " + priority + ", \"request\": {\"method\": \"GET\", \"url\": \"" + url + "\"},"
+                + " \"response\": {\"status\": 200}}";
+    }
+}
@@ -0,0 +1,235 @@
+package com.amalitech.test.server;
+
+import com.github.tomakehurst.wiremock.admin.model.ListStubMappingsResult;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.common.Json;
+import com.github.tomakehurst.wiremock.matching.StringValuePattern;
+import com.github.tomakehurst.wiremock.stubbing.StubImport;
+import com.github.tomakehurst.wiremock.stubbing.StubImportBuilder;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.filter.log.RequestLoggingFilter;
+import io.restassured.filter.log.ResponseLoggingFilter;
+import io.restassured.specification.RequestSpecification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Factory for a WireMock server running elsewhere, such as one started with
+ * {@code gradle runMock}, managed over its admin API.
+ * <p>
+ * Single stubs and verifications go through {@link #getWireMock()}. Bulk operations go through
+ * this factory in one request each: {@link #importStubs(Collection)} registers any number of stubs
+ * and {@link #removeStubsByMetadata(StringValuePattern)} removes every stub whose metadata matches.
+ * Admin calls share one keep-alive connection pool, bodies above {@value #GZIP_THRESHOLD_BYTES}
+ * bytes are sent gzipped and responses are requested gzipped. Shutting the factory down leaves the
+ * server running.
+ */
+public class RemoteServerFactory implements ServerFactory {
+    private static final Logger log = LoggerFactory.getLogger(RemoteServerFactory.class);
+
+    static final int GZIP_THRESHOLD_BYTES = 1024;
+
+    private final String baseUrl;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+    private WireMock wireMock;
+
+    /**
+     * @param baseUrl Base URL of the server, which may include a path prefix such as a namespace
+     */
+    public RemoteServerFactory(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    @Override
+    public void initialize() {
+        log.info("Connecting to remote mock server at {}", baseUrl);
+        int stubs = getStubCount();
+        URI uri = URI.create(baseUrl);
+        wireMock = new WireMock(uri.getScheme(), uri.getHost(), port(uri), uri.getPath());
+        log.info("Remote mock server has {} stubs", stubs);
+    }
+
+    /**
+     * Reset the server's stubs to its default mappings and clear its journal
+     */
+    @Override
+    public void reset() {
+        send("POST", adminUri("/reset"), null);
+    }
+
+    /**
+     * Leaves the remote server running
+     */
+    @Override
+    public void shutdown() {
+        log.info("Disconnecting from remote mock server at {}", baseUrl);
+    }
+
+    @Override
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Get a WireMock client for the server, to register and verify single stubs
+     */
+    public WireMock getWireMock() {
+        return wireMock;
+    }
+
+    @Override
+    public Optional<WireMock> wireMock() {
+        return Optional.of(getWireMock());
+    }
+
+    /**
+     * Register stubs in one request, replacing existing stubs with the same ids
+     */
+    public void importStubs(Collection<MappingBuilder> stubs) {
+        StubImportBuilder builder = StubImport.stubImport();
+        stubs.forEach(builder::stub);
+        importStubs(builder.build());
+    }
+
+    public void importStubs(StubImport stubImport) {
+        send("POST", adminUri("/mappings/import"), Json.write(stubImport));
+        log.info("Imported {} stubs into remote mock server", stubImport.getMappings().size());
+    }
+
+    /**
+     * Remove, in one request, every stub whose metadata matches a pattern such as
+     * {@code matchingJsonPath("$.suite", equalTo("checkout"))}
+     */
+    public void removeStubsByMetadata(StringValuePattern pattern) {
+        send("POST", adminUri("/mappings/remove-by-metadata"), Json.write(pattern));
+    }
+
+    /**
+     * Get every stub registered on the server
+     */
+    public List<StubMapping> getStubMappings() {
+        byte[] body = send("GET", adminUri("/mappings"), null);
+        return Json.read(new String(body, StandardCharsets.UTF_8), ListStubMappingsResult.class).getMappings();
+    }
+
+    /**
+     * Number of stubs registered on the server, without transferring them
+     */
+    public int getStubCount() {
+        byte[] body = send("GET", adminUri("/mappings?limit=1"), null);
+        return Json.read(new String(body, StandardCharsets.UTF_8), ListStubMappingsResult.class).getMeta().total;
+    }
+
+    @Override
+    public RequestSpecification createRequestSpec() {
+        return new RequestSpecBuilder()
+                .setBaseUri(baseUrl)
+                .setUrlEncodingEnabled(false)
+                .addFilter(new RequestLoggingFilter())
+                .addFilter(new ResponseLoggingFilter())
+                .build();
+    }
+
+    @Override
+    public boolean isMockServer() {
+        return true;
+    }
+
+    /**
+     * Port of a server URI, the scheme's default when the URI has none
+     */
+    static int port(URI uri) {
+        if (uri.getPort() != -1) {
+            return uri.getPort();
+        }
+        return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
+    /**
+     * URI of an admin API path on the server
+     */
+    protected URI adminUri(String path) {
+        return URI.create(baseUrl + "/__admin" + path);
+    }
+
+    /**
+     * Send an admin request over the shared connection pool
+     *
+     * @param json Request body, or null for none
+     * @return Response body, decompressed
+     * @throws IllegalStateException If the server cannot be reached or answers with an error
+     */
+    protected byte[] send(String method, URI uri, String json) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).header("Accept-Encoding", "gzip");
+        if (json == null) {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            request.header("Content-Type", "application/json");
+            if (body.length > GZIP_THRESHOLD_BYTES) {
+                request.header("Content-Encoding", "gzip");
+                body = gzip(body);
+            }
+            request.method(method, HttpRequest.BodyPublishers.ofByteArray(body));
+        }
+
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not reach mock server at " + uri, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling mock server at " + uri, e);
+        }
+
+        byte[] body = response.headers().firstValue("Content-Encoding").filter("gzip"::equalsIgnoreCase).isPresent()
+                ? gunzip(response.body())
+                : response.body();
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(method + " " + uri + " failed with " + response.statusCode() + ": "
+                    + new String(body, StandardCharsets.UTF_8));
+        }
+        return body;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] body) {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
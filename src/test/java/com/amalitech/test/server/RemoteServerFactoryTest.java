@@ -0,0 +1,114 @@
+package com.amalitech.test.server;
+
+import com.amalitech.test.ecommerce.product.ProductApiTest;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RemoteServerFactoryTest {
+    private WireMockServer server;
+    private RemoteServerFactory factory;
+
+    @BeforeClass
+    public void setUp() {
+        server = new WireMockServer(WireMockServerFactory.configure(WireMockConfiguration.options().dynamicPort()));
+        server.start();
+        factory = new RemoteServerFactory(server.baseUrl());
+        factory.initialize();
+    }
+
+    @AfterClass
+    public void tearDown() {
+        factory.shutdown();
+        server.stop();
+    }
+
+    @Test
+    public void testBulkImportAndRemoveByMetadata() {
+        int defaults = factory.getStubCount();
+        List<MappingBuilder> stubs = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            stubs.add(get(urlPathEqualTo("/api/bulk/" + i))
+                    .withMetadata(Map.of("suite", "bulk"))
+                    .willReturn(okJson("{\"id\":" + i + "}")));
+        }
+
+        factory.importStubs(stubs);
+        assertThat(factory.getStubCount()).isEqualTo(defaults + 5_000);
+        assertThat(given().spec(factory.createRequestSpec()).get("/api/bulk/4321").jsonPath().getInt("id"))
+                .isEqualTo(4321);
+
+        factory.removeStubsByMetadata(matchingJsonPath("$.suite", equalTo("bulk")));
+        assertThat(factory.getStubCount()).isEqualTo(defaults);
+    }
+
+    @Test
+    public void testClientStubsAndResetRestoresDefaults() {
+        factory.getWireMock().register(get(urlPathEqualTo("/api/remote/ping")).willReturn(okJson("{\"pong\":true}")));
+        assertThat(given().spec(factory.createRequestSpec()).get("/api/remote/ping").jsonPath().getBoolean("pong"))
+                .isTrue();
+        factory.getWireMock().verifyThat(getRequestedFor(urlPathEqualTo("/api/remote/ping")));
+
+        factory.reset();
+        assertThat(given().spec(factory.createRequestSpec()).get("/api/remote/ping").statusCode()).isEqualTo(404);
+        assertThat(factory.getStubMappings()).hasSize(server.getStubMappings().size());
+    }
+
+    @Test
+    public void testApiTestClassRunsAgainstRemoteMock() {
+        // A server of its own, as the test resets it between methods
+        WireMockServer remote = new WireMockServer(WireMockServerFactory.configure(WireMockConfiguration.options()
+                .dynamicPort()));
+        remote.start();
+        try {
+            RemoteServerFactory remoteFactory = new RemoteServerFactory(remote.baseUrl());
+            remoteFactory.initialize();
+            ProductApiTest test = new ProductApiTest();
+            test.useClassServerFactory(remoteFactory);
+            test.setUp();
+
+            test.setupMethod();
+            test.testGetAllProducts();
+            test.setupMethod();
+            test.testGetProductDetails();
+            test.tearDownTest();
+
+            remote.verify(0, getRequestedFor(urlPathEqualTo("/api/products")));
+            remote.verify(1, getRequestedFor(urlPathEqualTo("/api/products/1")));
+        } finally {
+            remote.stop();
+        }
+    }
+
+    @Test
+    public void testUrlWithoutPortUsesTheSchemesDefault() {
+        assertThat(RemoteServerFactory.port(URI.create("https://mock.example.com/ns/tests"))).isEqualTo(443);
+        assertThat(RemoteServerFactory.port(URI.create("http://mock.example.com"))).isEqualTo(80);
+        assertThat(RemoteServerFactory.port(URI.create("http://mock.example.com:8090/ns/tests"))).isEqualTo(8090);
+    }
+
+    @Test
+    public void testUnreachableServerFails() {
+        assertThatThrownBy(() -> new RemoteServerFactory("http://localhost:1").initialize())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Could not reach");
+    }
+}
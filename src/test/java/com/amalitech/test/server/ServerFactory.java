@@ -1,7 +1,12 @@
 package com.amalitech.test.server;
 
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.Admin;
 import io.restassured.specification.RequestSpecification;
 
+import java.util.Optional;
+
 /**
  * Interface for server factory implementations
  */
@@ -41,4 +46,31 @@ public interface ServerFactory {
      * @return true if mock server, false if real server
      */
     boolean isMockServer();
+
+    /**
+     * Get the WireMock server when the mock runs in this JVM
+     *
+     * @return The server, or empty for a real server or a mock in another process
+     */
+    default Optional<WireMockServer> localServer() {
+        return Optional.empty();
+    }
+
+    /**
+     * Get the admin of the mock when it runs in this JVM, which may span several servers
+     *
+     * @return The admin, or empty for a real server or a mock in another process
+     */
+    default Optional<Admin> admin() {
+        return localServer().map(Admin.class::cast);
+    }
+
+    /**
+     * Get a client for stubbing and verifying against the mock, wherever it runs
+     *
+     * @return The client, or empty for a real server
+     */
+    default Optional<WireMock> wireMock() {
+        return admin().map(WireMock::new);
+    }
 }
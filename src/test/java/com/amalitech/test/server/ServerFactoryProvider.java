@@ -1,5 +1,7 @@
 package com.amalitech.test.server;
 
+import com.amalitech.test.utils.VirtualClock;
+
 /**
  * Provider class that creates appropriate server factory instances
  */
@@ -7,11 +9,35 @@ public class ServerFactoryProvider {
     private static ServerFactory currentFactory;
 
     /**
-     * Get a mock server factory
-     * 
-     * @return WireMockServerFactory instance
+     * Get a mock server factory for the mock selected by system properties, the first that applies:
+     * <ul>
+     * <li>{@code mock.remote} - the remote mock at that URL</li>
+     * <li>{@code mock.daemon} - attached to the mock daemon at that URL</li>
+     * <li>{@code mock.transport} of {@code direct} - called in-process</li>
+     * <li>{@code mock.nodes} above 1 - spread over a cluster of that many nodes</li>
+     * </ul>
+     * Otherwise a single local WireMock server.
+     *
+     * @return WireMockServerFactory, RemoteServerFactory, DaemonServerFactory, DirectCallServerFactory or
+     *         ClusterServerFactory instance
      */
     public static ServerFactory getMockServerFactory() {
+        String remoteUrl = System.getProperty("mock.remote");
+        if (remoteUrl != null && !remoteUrl.isBlank()) {
+            return getRemoteServerFactory(remoteUrl);
+        }
+        String daemonUrl = System.getProperty("mock.daemon");
+        if (daemonUrl != null && !daemonUrl.isBlank()) {
+            return getDaemonServerFactory(daemonUrl,
+                    System.getProperty("mock.namespace", DaemonServerFactory.DEFAULT_NAMESPACE));
+        }
+        if ("direct".equalsIgnoreCase(System.getProperty("mock.transport"))) {
+            return getDirectCallServerFactory();
+        }
+        int nodes = Integer.getInteger("mock.nodes", 1);
+        if (nodes > 1) {
+            return getClusterServerFactory(nodes);
+        }
         currentFactory = new WireMockServerFactory();
         return currentFactory;
     }
@@ -27,6 +53,72 @@ public class ServerFactoryProvider {
         return currentFactory;
     }
 
+    /**
+     * Get a mock server factory whose request specs call WireMock in-process
+     *
+     * @return DirectCallServerFactory instance
+     */
+    public static ServerFactory getDirectCallServerFactory() {
+        currentFactory = new DirectCallServerFactory();
+        return currentFactory;
+    }
+
+    /**
+     * Get a factory for a cluster of mock servers sharing their stubs
+     *
+     * @param nodes Number of servers
+     * @return ClusterServerFactory instance
+     */
+    public static ServerFactory getClusterServerFactory(int nodes) {
+        currentFactory = new ClusterServerFactory(nodes);
+        return currentFactory;
+    }
+
+    /**
+     * Get a factory for a namespace of the mock server shared by every suite in the JVM
+     *
+     * @param namespace Namespace name, unique to the suite
+     * @return NamespaceServerFactory instance
+     */
+    public static ServerFactory getNamespaceServerFactory(String namespace) {
+        currentFactory = new NamespaceServerFactory(namespace);
+        return currentFactory;
+    }
+
+    /**
+     * Get a factory managing a mock server that runs elsewhere
+     *
+     * @param baseUrl Base URL of the mock server
+     * @return RemoteServerFactory instance
+     */
+    public static ServerFactory getRemoteServerFactory(String baseUrl) {
+        currentFactory = new RemoteServerFactory(baseUrl);
+        return currentFactory;
+    }
+
+    /**
+     * Get a factory attached to a running mock daemon
+     *
+     * @param daemonUrl Base URL of the daemon
+     * @param namespace Namespace to run in
+     * @return DaemonServerFactory instance
+     */
+    public static ServerFactory getDaemonServerFactory(String daemonUrl, String namespace) {
+        currentFactory = new DaemonServerFactory(daemonUrl, namespace);
+        return currentFactory;
+    }
+
+    /**
+     * Get a mock server factory running on virtual time
+     *
+     * @param clock Clock shared between the server and the test
+     * @return WireMockServerFactory instance
+     */
+    public static ServerFactory getVirtualTimeMockServerFactory(VirtualClock clock) {
+        currentFactory = new WireMockServerFactory(8080, clock);
+        return currentFactory;
+    }
+
     /**
      * Get a real server factory
      * 
@@ -0,0 +1,49 @@
+package com.amalitech.test.server;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Client-side load balancer for a {@link ClusterServerFactory}: sends each request to one of the
+ * cluster's nodes, chosen by consistent hashing on the session header so that every call of a
+ * session, and the state the mock keeps for it, stays on one node. Requests without a session
+ * are spread round-robin.
+ */
+public class ShardingFilter implements Filter {
+    private final List<String> nodeUrls;
+    private final ConsistentHashRing<String> ring;
+    private final String sessionHeader;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param nodeUrls      Base URLs of the nodes
+     * @param sessionHeader Header identifying the session, such as {@code Authorization}
+     */
+    public ShardingFilter(List<String> nodeUrls, String sessionHeader) {
+        this.nodeUrls = List.copyOf(nodeUrls);
+        this.ring = new ConsistentHashRing<>(this.nodeUrls);
+        this.sessionHeader = sessionHeader;
+    }
+
+    /**
+     * Base URL of the node serving a session, or the next node in turn for a null session
+     */
+    public String nodeFor(String session) {
+        return session == null || session.isBlank()
+                ? nodeUrls.get(Math.floorMod(next.getAndIncrement(), nodeUrls.size()))
+                : ring.nodeFor(session);
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+            FilterContext ctx) {
+        requestSpec.baseUri(nodeFor(requestSpec.getHeaders().getValue(sessionHeader)));
+        return ctx.next(requestSpec, responseSpec);
+    }
+}
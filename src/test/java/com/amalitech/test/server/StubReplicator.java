@@ -0,0 +1,65 @@
+package com.amalitech.test.server;
+
+import com.amalitech.test.extension.StubLifecycleAdapter;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.stubbing.StubMapping;
+
+import java.util.List;
+
+/**
+ * Copies every stub change on the server it is registered with to a set of replicas, so stubs
+ * only need registering once on a {@link ClusterServerFactory}.
+ * <p>
+ * Replicas receive copies with the same id, in the same order, so priorities and insertion order
+ * resolve identically on every node. A reset on the primary resets the replicas, requests
+ * included, before the primary reloads its default mappings, which then replicate in turn.
+ */
+class StubReplicator implements StubLifecycleAdapter {
+    static final String NAME = "stub-replicator";
+
+    private final List<WireMockServer> replicas;
+
+    StubReplicator(List<WireMockServer> replicas) {
+        this.replicas = replicas;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void afterStubCreated(StubMapping stub) {
+        for (WireMockServer replica : replicas) {
+            replica.addStubMapping(copy(stub));
+        }
+    }
+
+    @Override
+    public void afterStubEdited(StubMapping oldStub, StubMapping newStub) {
+        for (WireMockServer replica : replicas) {
+            replica.editStubMapping(copy(newStub));
+        }
+    }
+
+    @Override
+    public void afterStubRemoved(StubMapping stub) {
+        for (WireMockServer replica : replicas) {
+            replica.removeStubMapping(stub.getId());
+        }
+    }
+
+    @Override
+    public void afterStubsReset() {
+        for (WireMockServer replica : replicas) {
+            replica.resetAll();
+        }
+    }
+
+    /**
+     * Stubs carry per-server state such as their insertion index, so each replica gets its own copy
+     */
+    private static StubMapping copy(StubMapping stub) {
+        return StubMapping.buildFrom(StubMapping.buildJsonStringFor(stub));
+    }
+}
@@ -1,7 +1,21 @@
 package com.amalitech.test.server;
 
+import com.amalitech.MappingsWatcher;
+import com.amalitech.ScheduledWritesHttpServerFactory;
+import com.amalitech.test.extension.BandwidthLimitTransformer;
+import com.amalitech.test.extension.BodyInterner;
+import com.amalitech.test.extension.CommerceSimulator;
+import com.amalitech.test.extension.CommerceSimulatorTransformer;
+import com.amalitech.test.extension.LatencyProfileTransformer;
+import com.amalitech.test.extension.ProductCatalogueTransformer;
+import com.amalitech.test.extension.SaturationTransformer;
+import com.amalitech.test.extension.VirtualTimeTransformer;
+import com.amalitech.test.utils.VirtualClock;
+import com.amalitech.test.utils.VirtualTimeoutFilter;
 import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockApp;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.extension.responsetemplating.ResponseTemplateTransformer;
 import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.filter.log.RequestLoggingFilter;
@@ -10,6 +24,13 @@ import io.restassured.specification.RequestSpecification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+
+import java.util.Optional;
+
 import static io.restassured.config.EncoderConfig.encoderConfig;
 import static io.restassured.config.RestAssuredConfig.config;
 
@@ -18,7 +39,11 @@ import static io.restassured.config.RestAssuredConfig.config;
  */
 public class WireMockServerFactory implements ServerFactory {
     private static final Logger log = LoggerFactory.getLogger(WireMockServerFactory.class);
+    private static final int ASYNC_RESPONSE_THREADS =
+            Integer.getInteger("mock.asyncResponseThreads", Runtime.getRuntime().availableProcessors());
+    private final VirtualClock virtualClock;
     private WireMockServer wireMockServer;
+    private MappingsWatcher mappingsWatcher;
     private int port;
     private String baseUrl;
 
@@ -28,7 +53,19 @@ public class WireMockServerFactory implements ServerFactory {
      * @param port Port to use for WireMock server or 0 for dynamic port
      */
     public WireMockServerFactory(int port) {
+        this(port, null);
+    }
+
+    /**
+     * Constructor for a server running on virtual time: stub delays advance the clock instead of
+     * holding the response, and orders are stamped with the clock's time
+     *
+     * @param port         Port to use for WireMock server or 0 for dynamic port
+     * @param virtualClock Clock shared with the test, or null for real time
+     */
+    public WireMockServerFactory(int port, VirtualClock virtualClock) {
         this.port = port;
+        this.virtualClock = virtualClock;
     }
 
     /**
@@ -43,13 +80,22 @@ public class WireMockServerFactory implements ServerFactory {
         log.info("Starting WireMock server");
 
         try {
-            wireMockServer = new WireMockServer(WireMockConfiguration.options().port(port));
+            wireMockServer = new WireMockServer(
+                    mappingSource(configure(WireMockConfiguration.options().port(port), virtualClock)));
             wireMockServer.start();
         } catch (Exception e) {
             log.warn("Could not start WireMock on port {}, using random port", port, e);
-            wireMockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+            wireMockServer = new WireMockServer(
+                    mappingSource(configure(WireMockConfiguration.options().dynamicPort(), virtualClock)));
             wireMockServer.start();
         }
+        if (mappingsWatcher != null) {
+            try {
+                mappingsWatcher.watch(wireMockServer);
+            } catch (IOException e) {
+                log.warn("Could not watch the mapping files for changes", e);
+            }
+        }
 
         port = wireMockServer.port();
         baseUrl = "http://localhost:" + port;
@@ -67,6 +113,68 @@ public class WireMockServerFactory implements ServerFactory {
                 RestAssured.baseURI, RestAssured.port, RestAssured.basePath);
     }
 
+    /**
+     * Load the mappings in parallel, or through a {@link MappingsWatcher} when the {@code mock.watch}
+     * system property is true, so edits to the mapping files apply without a restart
+     */
+    private WireMockConfiguration mappingSource(WireMockConfiguration options) {
+        Path mappingsDirectory = Paths.get(options.filesRoot().child(WireMockApp.MAPPINGS_ROOT).getPath());
+        if (Boolean.getBoolean("mock.watch")) {
+            mappingsWatcher = new MappingsWatcher(mappingsDirectory);
+            return options.mappingSource(mappingsWatcher);
+        }
+        return options.mappingSource(new ParallelMappingsSource(mappingsDirectory));
+    }
+
+    /**
+     * Apply the settings shared by every WireMock server the tests start
+     *
+     * @param options Options to extend
+     * @return The same options
+     */
+    public static WireMockConfiguration configure(WireMockConfiguration options) {
+        return configure(options, null);
+    }
+
+    /**
+     * Apply the shared settings, running the server on virtual time when a clock is given
+     *
+     * @param options      Options to extend
+     * @param virtualClock Clock shared with the test, or null for real time
+     * @return The same options
+     */
+    public static WireMockConfiguration configure(WireMockConfiguration options, VirtualClock virtualClock) {
+        // Allow a bigger Jetty pool on demand, for runs holding many connections open at once
+        Integer containerThreads = Integer.getInteger("mock.containerThreads");
+        if (containerThreads != null) {
+            options.containerThreads(containerThreads);
+        }
+        // Load runs bound the request journal, or turn it off, as it otherwise grows with every call
+        String journal = System.getProperty("mock.journal", "unlimited");
+        if (journal.equals("off")) {
+            options.disableRequestJournal();
+        } else if (!journal.equals("unlimited")) {
+            options.maxRequestJournalEntries(Integer.parseInt(journal));
+        }
+        Clock clock = virtualClock != null ? virtualClock : Clock.systemDefaultZone();
+        CommerceSimulator simulator = new CommerceSimulator(42, Integer.getInteger("catalogue.size", 10_000), clock);
+        // Stubs opt in to Handlebars templating with the response-template transformer, as on
+        // WireMock's standalone server. Delayed responses complete from a scheduled executor
+        // instead of sleeping on a Jetty thread, and dribbled bodies are written from it too.
+        // Servers that set their own HTTP server factory do so after this
+        options.extensions(new ResponseTemplateTransformer(false), new ProductCatalogueTransformer(),
+                        new CommerceSimulatorTransformer(simulator), new LatencyProfileTransformer(),
+                        new BandwidthLimitTransformer(), new SaturationTransformer(), new BodyInterner())
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(ASYNC_RESPONSE_THREADS)
+                .httpServerFactory(new ScheduledWritesHttpServerFactory());
+        if (virtualClock != null) {
+            // Registered last so it sees the delay every other extension has settled on
+            options.extensions(new VirtualTimeTransformer(virtualClock));
+        }
+        return options;
+    }
+
     @Override
     public void reset() {
         if (wireMockServer != null && wireMockServer.isRunning()) {
@@ -78,6 +186,13 @@ public class WireMockServerFactory implements ServerFactory {
     @Override
     public void shutdown() {
         log.info("Stopping WireMock server");
+        if (mappingsWatcher != null) {
+            try {
+                mappingsWatcher.close();
+            } catch (IOException e) {
+                log.warn("Could not stop watching the mapping files", e);
+            }
+        }
         if (wireMockServer != null && wireMockServer.isRunning()) {
             wireMockServer.stop();
         }
@@ -95,14 +210,29 @@ public class WireMockServerFactory implements ServerFactory {
         return wireMockServer;
     }
 
+    @Override
+    public Optional<WireMockServer> localServer() {
+        return Optional.ofNullable(getWireMockServer());
+    }
+
+    /**
+     * Get the clock the server runs on, or null if it runs on real time
+     */
+    public VirtualClock getVirtualClock() {
+        return virtualClock;
+    }
+
     @Override
     public RequestSpecification createRequestSpec() {
-        return new RequestSpecBuilder()
+        RequestSpecBuilder builder = new RequestSpecBuilder()
                 .setBaseUri(baseUrl)
                 .setUrlEncodingEnabled(false)
                 .addFilter(new RequestLoggingFilter())
-                .addFilter(new ResponseLoggingFilter())
-                .build();
+                .addFilter(new ResponseLoggingFilter());
+        if (virtualClock != null) {
+            builder.addFilter(new VirtualTimeoutFilter());
+        }
+        return builder.build();
     }
 
     @Override
@@ -0,0 +1,132 @@
+package com.amalitech.test.utils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.PriorityQueue;
+
+/**
+ * A clock that only moves when told to, shared by a mock server and the tests calling it.
+ * <p>
+ * Stub delays on a virtual-time server advance this clock instead of the wall clock, and tasks
+ * scheduled on it, such as swapping a stub for its recovered response, run as soon as the clock
+ * passes their due time. Copies made with {@link #withZone} share the same time and tasks.
+ */
+public final class VirtualClock extends Clock {
+    private final Timeline timeline;
+    private final ZoneId zone;
+
+    /**
+     * Clock starting at the current wall-clock time, truncated to milliseconds
+     */
+    public VirtualClock() {
+        this(Instant.ofEpochMilli(System.currentTimeMillis()), ZoneId.systemDefault());
+    }
+
+    public VirtualClock(Instant start, ZoneId zone) {
+        this(new Timeline(start), zone);
+    }
+
+    private VirtualClock(Timeline timeline, ZoneId zone) {
+        this.timeline = timeline;
+        this.zone = zone;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return zone.equals(this.zone) ? this : new VirtualClock(timeline, zone);
+    }
+
+    @Override
+    public Instant instant() {
+        return timeline.now();
+    }
+
+    /**
+     * Move the clock forward, running the tasks that fall due in time order
+     */
+    public void advance(Duration duration) {
+        if (duration.isNegative()) {
+            throw new IllegalArgumentException("Virtual time cannot go backwards: " + duration);
+        }
+        timeline.advanceTo(timeline.now().plus(duration));
+    }
+
+    /**
+     * Move the clock forward to a time; a time already passed leaves it unchanged, so concurrent
+     * calls that each wait for their own deadline end at the latest one
+     */
+    public void advanceTo(Instant time) {
+        timeline.advanceTo(time);
+    }
+
+    /**
+     * Run a task once the clock has advanced by a delay
+     */
+    public void schedule(Duration delay, Runnable task) {
+        timeline.schedule(timeline.now().plus(delay), task);
+    }
+
+    private static final class Timeline {
+        private final PriorityQueue<Task> tasks = new PriorityQueue<>();
+        private Instant now;
+        private long sequence;
+
+        Timeline(Instant start) {
+            this.now = start;
+        }
+
+        synchronized Instant now() {
+            return now;
+        }
+
+        synchronized void schedule(Instant due, Runnable task) {
+            tasks.add(new Task(due, sequence++, task));
+        }
+
+        void advanceTo(Instant time) {
+            // Tasks run outside the lock so they may read the clock or schedule further tasks
+            while (true) {
+                Task next;
+                synchronized (this) {
+                    next = tasks.peek();
+                    if (next == null || next.due.isAfter(time)) {
+                        if (time.isAfter(now)) {
+                            now = time;
+                        }
+                        return;
+                    }
+                    tasks.poll();
+                    if (next.due.isAfter(now)) {
+                        now = next.due;
+                    }
+                }
+                next.task.run();
+            }
+        }
+    }
+
+    private static final class Task implements Comparable<Task> {
+        private final Instant due;
+        private final long sequence;
+        private final Runnable task;
+
+        Task(Instant due, long sequence, Runnable task) {
+            this.due = due;
+            this.sequence = sequence;
+            this.task = task;
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            int byDue = due.compareTo(other.due);
+            return byDue != 0 ? byDue : Long.compare(sequence, other.sequence);
+        }
+    }
+}
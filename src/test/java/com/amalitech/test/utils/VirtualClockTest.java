@@ -0,0 +1,159 @@
+package com.amalitech.test.utils;
+
+import com.amalitech.test.extension.CommerceSimulatorTransformer;
+import com.amalitech.test.extension.VirtualTimeTransformer;
+import com.amalitech.test.server.WireMockServerFactory;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class VirtualClockTest {
+    private static final Instant START = Instant.parse("2025-01-01T09:00:00Z");
+
+    private final VirtualClock clock = new VirtualClock(START, ZoneOffset.UTC);
+    private WireMockServer wireMockServer;
+
+    @BeforeClass
+    public void setUp() {
+        wireMockServer = new WireMockServer(WireMockServerFactory.configure(options().dynamicPort(), clock));
+        wireMockServer.start();
+        wireMockServer.stubFor(CommerceSimulatorTransformer.simulatorStub());
+    }
+
+    @AfterClass
+    public void tearDown() {
+        wireMockServer.stop();
+    }
+
+    private RequestSpecification request() {
+        return given().baseUri(wireMockServer.baseUrl()).filter(new VirtualTimeoutFilter());
+    }
+
+    @Test
+    public void testScheduledTasksRunInTimeOrder() {
+        VirtualClock local = new VirtualClock(START, ZoneOffset.UTC);
+        List<String> ran = new ArrayList<>();
+        local.schedule(Duration.ofSeconds(20), () -> ran.add("second at " + local.instant()));
+        local.schedule(Duration.ofSeconds(10), () -> {
+            ran.add("first at " + local.instant());
+            local.schedule(Duration.ofSeconds(5), () -> ran.add("chained at " + local.instant()));
+        });
+
+        local.advance(Duration.ofSeconds(12));
+        assertThat(ran).containsExactly("first at 2025-01-01T09:00:10Z");
+
+        local.advanceTo(START.plusSeconds(60));
+        assertThat(ran).containsExactly("first at 2025-01-01T09:00:10Z",
+                "chained at 2025-01-01T09:00:15Z", "second at 2025-01-01T09:00:20Z");
+        assertThat(local.instant()).isEqualTo(START.plusSeconds(60));
+
+        local.advanceTo(START);
+        assertThat(local.instant()).isEqualTo(START.plusSeconds(60));
+        assertThatThrownBy(() -> local.advance(Duration.ofSeconds(-1))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testDelaysAdvanceTheClockInsteadOfWaiting() {
+        wireMockServer.stubFor(get(urlEqualTo("/api/reports/slow")).willReturn(aResponse()
+                .withStatus(200)
+                .withFixedDelay(30_000)));
+        Instant before = clock.instant();
+        long started = System.nanoTime();
+
+        Response response = request().get("/api/reports/slow");
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.getHeader(VirtualTimeTransformer.DELAY_HEADER)).isEqualTo("30000");
+        assertThat(Duration.between(before, clock.instant())).isGreaterThanOrEqualTo(Duration.ofSeconds(30));
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(10));
+    }
+
+    @Test
+    public void testDelayBeyondSocketTimeoutTimesOut() {
+        VirtualClock local = new VirtualClock(START, ZoneOffset.UTC);
+        WireMockServer server = new WireMockServer(WireMockServerFactory.configure(options().dynamicPort(), local));
+        server.start();
+        try {
+            server.stubFor(get(urlEqualTo("/api/payments/status")).willReturn(aResponse()
+                    .withStatus(200)
+                    .withFixedDelay(5_000)));
+            RestAssuredConfig timeout = RestAssuredConfig.config().httpClient(HttpClientConfig.httpClientConfig()
+                    .setParam("http.socket.timeout", 2_000));
+            RequestSpecification request = given().baseUri(server.baseUrl()).filter(new VirtualTimeoutFilter());
+
+            assertThatThrownBy(() -> request.config(timeout).get("/api/payments/status"))
+                    .isInstanceOf(SocketTimeoutException.class)
+                    .hasMessageContaining("5000 ms");
+            // The client gave up after its two seconds, not the full delay
+            assertThat(local.instant()).isEqualTo(START.plusSeconds(2));
+
+            RequestSpecification patient = given().baseUri(server.baseUrl()).filter(new VirtualTimeoutFilter());
+            assertThat(patient.get("/api/payments/status").statusCode()).isEqualTo(200);
+            assertThat(local.instant()).isEqualTo(START.plusSeconds(7));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testScheduledStubChangeAppliesOnceTimePasses() {
+        VirtualClock local = new VirtualClock(START, ZoneOffset.UTC);
+        WireMockServer server = new WireMockServer(WireMockServerFactory.configure(options().dynamicPort(), local));
+        server.start();
+        try {
+            server.stubFor(get(urlEqualTo("/api/inventory")).willReturn(aResponse().withStatus(503)));
+            local.schedule(Duration.ofMinutes(2), () ->
+                    server.stubFor(get(urlEqualTo("/api/inventory")).willReturn(aResponse().withStatus(200))));
+
+            assertThat(given().baseUri(server.baseUrl()).get("/api/inventory").statusCode()).isEqualTo(503);
+            local.advance(Duration.ofMinutes(2));
+            assertThat(given().baseUri(server.baseUrl()).get("/api/inventory").statusCode()).isEqualTo(200);
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testOrdersAreStampedWithVirtualTime() {
+        VirtualClock local = new VirtualClock(START, ZoneOffset.UTC);
+        WireMockServer server = new WireMockServer(WireMockServerFactory.configure(options().dynamicPort(), local));
+        server.start();
+        try {
+            server.stubFor(CommerceSimulatorTransformer.simulatorStub());
+            RequestSpecification session = given().baseUri(server.baseUrl())
+                    .header("Authorization", "Bearer virtual-time")
+                    .contentType(ContentType.JSON);
+            session.body("{\"productId\": 3, \"quantity\": 1}").post("/api/cart/items");
+            local.advance(Duration.ofDays(3));
+            String orderId = session.body("{\"paymentMethod\": \"Credit Card\"}")
+                    .post("/api/checkout/payment").jsonPath().getString("orderId");
+
+            String createdAt = session.get("/api/orders/" + orderId).jsonPath().getString("createdAt");
+            assertThat(LocalDateTime.parse(createdAt)).isEqualTo(LocalDateTime.of(2025, 1, 4, 9, 0));
+        } finally {
+            server.stop();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.amalitech.test.utils;
+
+import com.amalitech.test.extension.VirtualTimeTransformer;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.net.SocketTimeoutException;
+
+/**
+ * Client half of virtual time: fails a call with the {@link SocketTimeoutException} a real client
+ * would have thrown when the server reports, in {@value VirtualTimeTransformer#DELAY_HEADER}, a
+ * delay longer than the request's {@code http.socket.timeout}.
+ * <p>
+ * Set the timeout per request as usual, through RestAssured's {@code HttpClientConfig}; requests
+ * without one wait for any delay. The timeout is sent in {@value VirtualTimeTransformer#TIMEOUT_HEADER},
+ * so a call that times out moves the clock only by the time the client waited.
+ */
+public class VirtualTimeoutFilter implements Filter {
+    private static final String SOCKET_TIMEOUT = "http.socket.timeout";
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+            FilterContext ctx) {
+        Object timeout = requestSpec.getConfig().getHttpClientConfig().params().get(SOCKET_TIMEOUT);
+        if (timeout instanceof Number millis && millis.longValue() > 0) {
+            requestSpec.header(VirtualTimeTransformer.TIMEOUT_HEADER, millis.longValue());
+        }
+        Response response = ctx.next(requestSpec, responseSpec);
+        String delay = response.getHeader(VirtualTimeTransformer.DELAY_HEADER);
+        if (delay != null && timeout instanceof Number millis && millis.longValue() > 0
+                && Long.parseLong(delay) > millis.longValue()) {
+            throw VirtualTimeoutFilter.<RuntimeException>sneakyThrow(new SocketTimeoutException(
+                    "Read timed out after " + millis + " ms of virtual time; the response took " + delay + " ms"));
+        }
+        return response;
+    }
+
+    /**
+     * Throw a checked exception from a method that cannot declare it, as RestAssured itself does
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> T sneakyThrow(Throwable throwable) throws T {
+        throw (T) throwable;
+    }
+}
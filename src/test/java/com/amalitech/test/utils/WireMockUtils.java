@@ -1,6 +1,7 @@
 package com.amalitech.test.utils;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,6 +27,20 @@ public class WireMockUtils {
                         .withStatus(statusCode)));
     }
 
+    /**
+     * Stub a GET request with a JSON response through a WireMock client, which may call a mock in
+     * another process
+     */
+    public static void stubGetWithJsonResponse(WireMock wireMock, String url, String jsonResponseBody,
+            int statusCode) {
+        log.info("Stubbing GET request for URL: {}", url);
+        wireMock.register(get(urlEqualTo(url))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(jsonResponseBody)
+                        .withStatus(statusCode)));
+    }
+
     /**
      * Stub a POST request with a JSON response
      */